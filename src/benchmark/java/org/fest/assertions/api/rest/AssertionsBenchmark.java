@@ -0,0 +1,94 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Successful checks of {@link ResponseAssert} and {@link CookieAssert}.
+ * Run with {@code -prof gc}: passing checks must not allocate
+ * (gc.alloc.rate.norm close to 0 B/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssertionsBenchmark {
+
+	private ResponseAssert responseAssert;
+	private CookieAssert cookieAssert;
+
+	@Setup
+	public void setUp() {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("ETag", "\"33a64df551425fcc55e4d42a148795d9f25f89d4\"");
+		headers.put("Location", "/api/resource/1");
+		headers.put("X-Request-Id", "f058ebd6-02f7-4d3f-942e-904344e8cde5");
+
+		Cookie cookie = new Cookie("session", "1234", "localhost", "/", -1, true, true);
+		Response response = new DefaultResponse(200, "application/json; charset=utf-8", headers, Arrays.asList(cookie));
+
+		responseAssert = new ResponseAssert(response);
+		cookieAssert = new CookieAssert(cookie);
+
+		// Parse content type and build header index before measurement
+		responseAssert.isJsonUtf8().hasETagHeader().hasCookie("session");
+	}
+
+	@Benchmark
+	public ResponseAssert status() {
+		return responseAssert
+				.isOk()
+				.isSuccess()
+				.isStatusEqualTo(200)
+				.isStatusNotEqualTo(500)
+				.isStatusNotBetween(500, 599);
+	}
+
+	@Benchmark
+	public ResponseAssert contentType() {
+		return responseAssert
+				.isJson()
+				.isJsonUtf8()
+				.isMimeTypeTypeEqualTo("application/json")
+				.hasCharset();
+	}
+
+	@Benchmark
+	public ResponseAssert headersAndCookies() {
+		return responseAssert
+				.hasETagHeader()
+				.hasLocationEqualTo("/api/resource/1")
+				.hasHeader("x-request-id")
+				.hasCookie("session")
+				.hasCookieEqualTo("session", "1234");
+	}
+
+	@Benchmark
+	public CookieAssert cookie() {
+		return cookieAssert
+				.isNameEqualTo("session")
+				.isValueEqualTo("1234")
+				.isPathEqualTo("/")
+				.isSecure()
+				.isHttpOnly()
+				.isNotPersistent();
+	}
+}
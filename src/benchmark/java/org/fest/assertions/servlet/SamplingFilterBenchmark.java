@@ -0,0 +1,91 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.api.rest.ResponseCheck;
+import org.fest.assertions.util.HttpHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency added by sampling filter on request threads, for requests that are not sampled
+ * (rate 0.01) and for requests that are all captured and queued (rate 1).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SamplingFilterBenchmark {
+
+	private static final byte[] BODY = "{\"id\": 1, \"name\": \"foo\", \"tags\": [\"a\", \"b\", \"c\"]}".getBytes();
+
+	@Param({"0.01", "1"})
+	public double rate;
+
+	private SamplingFilter filter;
+
+	private FilterChain chain;
+
+	@Setup
+	public void setUp() {
+		filter = new SamplingFilter(Sampler.rate(rate)).workers(2).rule("ok", new ResponseCheck() {
+			@Override
+			public void check(ResponseAssert response) {
+				response.isOk().isJson();
+			}
+		});
+		filter.init(null);
+
+		chain = new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+				response.setContentType("application/json");
+				response.getOutputStream().write(BODY);
+			}
+		};
+	}
+
+	@TearDown
+	public void tearDown() {
+		filter.destroy();
+	}
+
+	@Benchmark
+	public Object withFilter() throws Exception {
+		HarnessResponse response = new HarnessResponse();
+		filter.doFilter(newRequest(), response, chain);
+		return response;
+	}
+
+	@Benchmark
+	public Object withoutFilter() throws Exception {
+		HarnessResponse response = new HarnessResponse();
+		chain.doFilter(newRequest(), response);
+		return response;
+	}
+
+	private static HarnessRequest newRequest() {
+		return new HarnessRequest(null, "GET", "", "/users/1", null, new HttpHeaders(), new Cookie[0], new byte[0],
+				Collections.<String, List<String>>emptyMap());
+	}
+}
@@ -0,0 +1,92 @@
+package org.fest.assertions.spec;
+
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.DefaultResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks of valid and invalid responses with a shared spec, compared to assertion
+ * objects built for each response (which throw on first failure).
+ * Run with {@code -prof gc} to check that passing evaluations do not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ResponseSpecBenchmark {
+
+	private static final ResponseSpec SPEC = ResponseSpec.response().isSuccess().isJsonUtf8().hasETagHeader().hasCookie("session");
+
+	private DefaultResponse valid;
+	private DefaultResponse invalid;
+
+	@Setup
+	public void setUp() {
+		valid = response(200, "application/json; charset=utf-8");
+		invalid = response(500, "text/html");
+
+		// Parse headers and cookies once, as they are for a response checked by several assertions
+		SPEC.evaluate(valid);
+		SPEC.evaluate(invalid);
+	}
+
+	private static DefaultResponse response(int status, String contentType) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("ETag", "\"33a64df551425fcc55e4d42a148795d9f25f89d4\"");
+		return new DefaultResponse(status, contentType, headers, Collections.singletonList(new Cookie("session", "1234")));
+	}
+
+	@Benchmark
+	public boolean specMatchesValid() {
+		return SPEC.matches(valid);
+	}
+
+	@Benchmark
+	public ResponseSpec.Result specEvaluateValid() {
+		return SPEC.evaluate(valid);
+	}
+
+	@Benchmark
+	public ResponseSpec.Result specEvaluateInvalid() {
+		return SPEC.evaluate(invalid);
+	}
+
+	@Benchmark
+	public boolean assertValid() {
+		return check(valid);
+	}
+
+	@Benchmark
+	public boolean assertInvalid() {
+		return check(invalid);
+	}
+
+	private static boolean check(DefaultResponse response) {
+		try {
+			new ResponseAssert(response).isSuccess().isJsonUtf8().hasETagHeader().hasCookie("session");
+			return true;
+		}
+		catch (AssertionError error) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package org.fest.assertions.util;
+
+import com.ning.http.client.FluentCaseInsensitiveStringsMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Header lookups on responses with many headers (such as responses coming
+ * through an api gateway), compared to the previous lower case hash map
+ * and to the async-http-client header map.
+ * Run with {@code -prof gc} to check allocation rate of lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpHeadersBenchmark {
+
+	/** Lookups done on each invocation, with the case used by callers */
+	private static final String[] LOOKUPS = {
+			"Content-Type", "ETag", "location", "X-Request-Id", "x-gateway-hop-42", "X-Missing-Header"
+	};
+
+	@Param({"10", "120"})
+	public int headerCount;
+
+	private HttpHeaders index;
+	private Map<String, String> lowerCaseMap;
+	private FluentCaseInsensitiveStringsMap asyncMap;
+
+	@Setup
+	public void setUp() {
+		index = new HttpHeaders();
+		lowerCaseMap = new HashMap<String, String>();
+		asyncMap = new FluentCaseInsensitiveStringsMap();
+
+		add("Content-Type", "application/json; charset=utf-8");
+		add("ETag", "\"33a64df551425fcc55e4d42a148795d9f25f89d4\"");
+		add("Location", "/api/resource/1");
+		add("X-Request-Id", "f058ebd6-02f7-4d3f-942e-904344e8cde5");
+		add("Set-Cookie", "session=1234; Path=/; HttpOnly");
+		add("Set-Cookie", "tracking=abcd; Path=/");
+		for (int i = 0; i < headerCount - 6; i++) {
+			add("X-Gateway-Hop-" + i, "10.0.0." + i);
+		}
+	}
+
+	private void add(String name, String value) {
+		index.add(name, value);
+		lowerCaseMap.put(name.toLowerCase(), value);
+		asyncMap.add(name, value);
+	}
+
+	@Benchmark
+	public void httpHeaders(Blackhole bh) {
+		for (String name : LOOKUPS) {
+			bh.consume(index.getFirst(name));
+		}
+	}
+
+	@Benchmark
+	public void httpHeadersAllValues(Blackhole bh) {
+		bh.consume(index.getAll("set-cookie"));
+	}
+
+	@Benchmark
+	public void lowerCaseHashMap(Blackhole bh) {
+		for (String name : LOOKUPS) {
+			bh.consume(lowerCaseMap.get(name.toLowerCase()));
+		}
+	}
+
+	@Benchmark
+	public void asyncHttpClientMap(Blackhole bh) {
+		for (String name : LOOKUPS) {
+			bh.consume(asyncMap.getFirstValue(name));
+		}
+	}
+
+	@Benchmark
+	public HttpHeaders buildIndex() {
+		HttpHeaders headers = new HttpHeaders();
+		for (Map.Entry<String, String> entry : lowerCaseMap.entrySet()) {
+			headers.add(entry.getKey(), entry.getValue());
+		}
+		return headers;
+	}
+}
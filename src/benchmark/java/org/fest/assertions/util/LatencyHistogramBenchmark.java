@@ -0,0 +1,55 @@
+package org.fest.assertions.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies recorded concurrently in a shared histogram, and in one histogram per thread.
+ * Run with {@code -prof gc} to check that recording does not allocate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LatencyHistogramBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Shared {
+		final LatencyHistogram histogram = new LatencyHistogram();
+	}
+
+	@State(Scope.Thread)
+	public static class PerThread {
+		final LatencyHistogram histogram = new LatencyHistogram();
+
+		/** Latencies spread between 1 and 65 ms */
+		long nanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+		long next() {
+			nanos = TimeUnit.MILLISECONDS.toNanos(1) + (nanos * 2862933555777941757L + 3037000493L >>> 38);
+			return nanos;
+		}
+	}
+
+	@Benchmark
+	public void recordShared(Shared shared, PerThread thread) {
+		shared.histogram.recordNanos(thread.next());
+	}
+
+	@Benchmark
+	public void recordPerThread(PerThread thread) {
+		thread.histogram.recordNanos(thread.next());
+	}
+}
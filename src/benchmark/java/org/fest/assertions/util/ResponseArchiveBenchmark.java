@@ -0,0 +1,89 @@
+package org.fest.assertions.util;
+
+import org.fest.assertions.api.rest.REST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay of recorded responses: status only checks never decode headers or body, so they should
+ * cost about the same as checks on an in-memory response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseArchiveBenchmark {
+
+	private static final int RECORDS = 100000;
+
+	private File file;
+	private ResponseArchive archive;
+	private Response inMemory;
+	private int next;
+
+	@Setup
+	public void setUp() throws Exception {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("ETag", "\"33a64df551425fcc55e4d42a148795d9f25f89d4\"");
+		headers.put("X-Request-Id", "f058ebd6-02f7-4d3f-942e-904344e8cde5");
+		byte[] body = "{\"id\": 1, \"name\": \"foo\", \"tags\": [\"a\", \"b\", \"c\"]}".getBytes("UTF-8");
+		inMemory = new DefaultResponse(200, "application/json; charset=utf-8", headers, null, body);
+
+		file = File.createTempFile("benchmark", ".archive");
+		ResponseRecorder recorder = ResponseRecorder.open(file);
+		for (int i = 0; i < RECORDS; i++) {
+			recorder.record(inMemory);
+		}
+		recorder.close();
+		archive = ResponseArchive.open(file);
+	}
+
+	@TearDown
+	public void tearDown() {
+		archive.close();
+		file.delete();
+	}
+
+	@Benchmark
+	public Object replayStatus() {
+		return REST.assertThat(nextResponse()).isOk();
+	}
+
+	@Benchmark
+	public Object replayStatusAndHeaders() {
+		return REST.assertThat(nextResponse()).isOk().isJsonUtf8().hasETagHeader();
+	}
+
+	@Benchmark
+	public Object replayBody() {
+		return REST.assertThat(nextResponse()).isOk().hasBodyContaining("\"tags\"");
+	}
+
+	@Benchmark
+	public Object inMemoryStatusAndHeaders() {
+		return REST.assertThat(inMemory).isOk().isJsonUtf8().hasETagHeader();
+	}
+
+	private Response nextResponse() {
+		if (next == RECORDS) {
+			next = 0;
+		}
+		return archive.get(next++);
+	}
+}
@@ -0,0 +1,276 @@
+package org.fest.assertions.api.rest;
+
+import com.ning.http.client.ListenableFuture;
+import org.fest.assertions.util.AsyncHttpResponse;
+import org.fest.assertions.util.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assertions over a pending response.
+ * Checks are registered without blocking and run when the response is received, on the thread
+ * completing the future (or on a given executor). Checks registered after completion run immediately.
+ * Failures are collected rather than thrown, and are reported by {@link #await(long, TimeUnit)}.
+ */
+public class AsyncResponseAssert {
+
+	/** Run listeners on the thread completing the future */
+	static final Executor SAME_THREAD = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private final Object lock = new Object();
+
+	/** Checks registered before completion */
+	private final List<Check> pending = new ArrayList<Check>();
+
+	/** Failures of checks, or failure of the request itself */
+	private final List<AssertionError> failures = new ArrayList<AssertionError>();
+
+	/** Released once pending checks have run */
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	/** Received response, null until completion or if request failed */
+	private Response response;
+
+	/** Json body of response, null until first json check */
+	private String json;
+
+	private boolean completed;
+
+	private boolean failed;
+
+	public AsyncResponseAssert(final ListenableFuture<com.ning.http.client.Response> future, Executor executor) {
+		future.addListener(new Runnable() {
+			@Override
+			public void run() {
+				complete(future);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Register assertions on response.
+	 *
+	 * @param check Assertions to run.
+	 * @return {@code this} the assertion object.
+	 */
+	public AsyncResponseAssert satisfies(final ResponseCheck check) {
+		return register(new Check() {
+			@Override
+			public void run() {
+				check.check(new ResponseAssert(response));
+			}
+		});
+	}
+
+	/**
+	 * Register assertions on json body of response.
+	 *
+	 * @param check Assertions to run.
+	 * @return {@code this} the assertion object.
+	 */
+	public AsyncResponseAssert satisfiesJson(final JsonCheck check) {
+		return register(new Check() {
+			@Override
+			public void run() throws IOException {
+				check.check(new JsonAssert(json()));
+			}
+		});
+	}
+
+	/**
+	 * Check if response has been received and registered checks have run.
+	 *
+	 * @return True if assertion is complete.
+	 */
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	/**
+	 * Get failures collected so far.
+	 *
+	 * @return Failures, empty if no check failed.
+	 */
+	public List<AssertionError> getFailures() {
+		synchronized (lock) {
+			return new ArrayList<AssertionError>(failures);
+		}
+	}
+
+	/**
+	 * Wait for response and registered checks, then fail if any check failed.
+	 *
+	 * @param timeout Maximum time to wait.
+	 * @param unit Unit of timeout.
+	 */
+	public void await(long timeout, TimeUnit unit) {
+		awaitAll(timeout, unit, this);
+	}
+
+	/**
+	 * Wait for several responses, then fail if any check failed.
+	 * Timeout is shared by all assertions.
+	 *
+	 * @param timeout Maximum time to wait.
+	 * @param unit Unit of timeout.
+	 * @param assertions Assertions to wait for.
+	 */
+	public static void awaitAll(long timeout, TimeUnit unit, AsyncResponseAssert... assertions) {
+		List<AsyncResponseAssert> list = new ArrayList<AsyncResponseAssert>(assertions.length);
+		for (AsyncResponseAssert assertion : assertions) {
+			list.add(assertion);
+		}
+		awaitAll(timeout, unit, list);
+	}
+
+	/**
+	 * Wait for several responses, then fail if any check failed.
+	 * Timeout is shared by all assertions.
+	 *
+	 * @param timeout Maximum time to wait.
+	 * @param unit Unit of timeout.
+	 * @param assertions Assertions to wait for.
+	 */
+	public static void awaitAll(long timeout, TimeUnit unit, Collection<AsyncResponseAssert> assertions) {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int pending = 0;
+		List<AssertionError> failures = new ArrayList<AssertionError>();
+		for (AsyncResponseAssert assertion : assertions) {
+			try {
+				if (!assertion.done.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+					pending++;
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new AssertionError("Interrupted while waiting for responses", ex);
+			}
+			failures.addAll(assertion.getFailures());
+		}
+
+		if (pending > 0 || !failures.isEmpty()) {
+			throw failure(pending, failures);
+		}
+	}
+
+	private static AssertionError failure(int pending, List<AssertionError> failures) {
+		StringBuilder msg = new StringBuilder();
+		if (pending > 0) {
+			msg.append(String.format("Expected <%s> responses to be received before timeout", pending));
+		}
+		if (!failures.isEmpty()) {
+			if (msg.length() > 0) {
+				msg.append(", and ");
+			}
+			msg.append(String.format("Expected all checks to pass but <%s> failed:", failures.size()));
+			for (AssertionError failure : failures) {
+				msg.append("\n - ").append(failure.getMessage());
+			}
+		}
+
+		AssertionError error = new AssertionError(msg.toString());
+		if (failures.size() == 1) {
+			error.initCause(failures.get(0));
+		}
+		return error;
+	}
+
+	private AsyncResponseAssert register(Check check) {
+		synchronized (lock) {
+			if (!completed) {
+				pending.add(check);
+				return this;
+			}
+		}
+		run(check);
+		return this;
+	}
+
+	private void complete(ListenableFuture<com.ning.http.client.Response> future) {
+		Response received = null;
+		AssertionError failure = null;
+		try {
+			// Checks can be registered at any time, so response is never closed and its body is kept in memory
+			received = new AsyncHttpResponse(future.get()).keepBodyInMemory();
+		}
+		catch (ExecutionException ex) {
+			failure = new AssertionError("Expected request to succeed but failed with: " + ex.getCause(), ex.getCause());
+		}
+		catch (CancellationException ex) {
+			failure = new AssertionError("Expected request to succeed but it was cancelled");
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			failure = new AssertionError("Interrupted while waiting for response", ex);
+		}
+
+		List<Check> checks;
+		synchronized (lock) {
+			response = received;
+			failed = failure != null;
+			if (failed) {
+				failures.add(failure);
+			}
+			completed = true;
+			checks = new ArrayList<Check>(pending);
+			pending.clear();
+		}
+
+		for (int i = 0, size = checks.size(); i < size; i++) {
+			run(checks.get(i));
+		}
+		done.countDown();
+	}
+
+	private void run(Check check) {
+		if (failed) {
+			// Request failure is already reported
+			return;
+		}
+
+		AssertionError failure;
+		try {
+			check.run();
+			return;
+		}
+		catch (AssertionError error) {
+			failure = error;
+		}
+		catch (Exception ex) {
+			failure = new AssertionError("Check failed with: " + ex, ex);
+		}
+
+		synchronized (lock) {
+			failures.add(failure);
+		}
+	}
+
+	private String json() throws IOException {
+		synchronized (lock) {
+			if (json == null) {
+				json = response.getBody().asString();
+			}
+			return json;
+		}
+	}
+
+	/**
+	 * Check registered on response.
+	 */
+	private interface Check {
+		void run() throws Exception;
+	}
+}
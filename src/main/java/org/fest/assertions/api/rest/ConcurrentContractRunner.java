@@ -0,0 +1,289 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.util.Response;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Run the same contract on many concurrent requests.
+ * Each request is executed on its own virtual thread when the JVM supports them (Java 21+),
+ * or on a pool of platform threads otherwise. A semaphore limits the number of requests in flight.
+ * Failures are not thrown: they are counted per check and returned in a {@link ContractReport}.
+ */
+public class ConcurrentContractRunner {
+
+	/**
+	 * Request executed by the runner.
+	 */
+	public interface Call {
+
+		/**
+		 * Execute request.
+		 *
+		 * @param index Index of request, from zero to number of requests (excluded).
+		 * @return Response.
+		 * @throws Exception If request cannot be executed.
+		 */
+		Response execute(int index) throws Exception;
+	}
+
+	/** Name of the failures of requests themselves */
+	static final String REQUEST = "request";
+
+	private final Call call;
+
+	private final List<NamedCheck> checks = new ArrayList<NamedCheck>();
+
+	private int requests = 1;
+
+	private int maxInFlight = 16;
+
+	private long timeoutNanos = TimeUnit.MINUTES.toNanos(1);
+
+	public ConcurrentContractRunner(Call call) {
+		this.call = call;
+	}
+
+	/**
+	 * Set number of requests to execute.
+	 *
+	 * @param requests Number of requests.
+	 * @return {@code this} the runner.
+	 */
+	public ConcurrentContractRunner requests(int requests) {
+		if (requests <= 0) {
+			throw new IllegalArgumentException("Number of requests must be positive");
+		}
+		this.requests = requests;
+		return this;
+	}
+
+	/**
+	 * Set maximum number of requests executed at the same time.
+	 *
+	 * @param maxInFlight Maximum number of concurrent requests.
+	 * @return {@code this} the runner.
+	 */
+	public ConcurrentContractRunner maxInFlight(int maxInFlight) {
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Maximum number of requests in flight must be positive");
+		}
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * Set maximum duration of the whole run.
+	 *
+	 * @param timeout Timeout.
+	 * @param unit Unit of timeout.
+	 * @return {@code this} the runner.
+	 */
+	public ConcurrentContractRunner timeout(long timeout, TimeUnit unit) {
+		this.timeoutNanos = unit.toNanos(timeout);
+		return this;
+	}
+
+	/**
+	 * Add check applied to each response.
+	 *
+	 * @param name Name of check, used to report failures.
+	 * @param check Assertions to run.
+	 * @return {@code this} the runner.
+	 */
+	public ConcurrentContractRunner satisfies(String name, final ResponseCheck check) {
+		checks.add(new NamedCheck(name) {
+			@Override
+			void check(Response response, String json) {
+				check.check(new ResponseAssert(response));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Add check applied to json body of each response.
+	 *
+	 * @param name Name of check, used to report failures.
+	 * @param check Assertions to run.
+	 * @return {@code this} the runner.
+	 */
+	public ConcurrentContractRunner satisfiesJson(String name, final JsonCheck check) {
+		checks.add(new NamedCheck(name, true) {
+			@Override
+			void check(Response response, String json) {
+				check.check(new JsonAssert(json));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Execute all requests and check responses.
+	 *
+	 * @return Report of the run.
+	 */
+	public ContractReport run() {
+		ContractReport.Tally requestTally = new ContractReport.Tally(REQUEST);
+		List<ContractReport.Tally> tallies = new ArrayList<ContractReport.Tally>(checks.size());
+		for (NamedCheck check : checks) {
+			tallies.add(new ContractReport.Tally(check.name));
+		}
+
+		Semaphore permits = new Semaphore(maxInFlight);
+		CountDownLatch latch = new CountDownLatch(requests);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxObserved = new AtomicInteger();
+		AtomicBoolean stopped = new AtomicBoolean();
+		long start = System.nanoTime();
+		long deadline = start + timeoutNanos;
+
+		ExecutorService executor = newExecutor(maxInFlight);
+		try {
+			for (int i = 0; i < requests; i++) {
+				if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+					break;
+				}
+				executor.execute(new Task(i, permits, latch, inFlight, maxObserved, stopped, requestTally, tallies));
+			}
+			latch.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			// Requests interrupted by shutdown are neither completed nor failed
+			stopped.set(true);
+			executor.shutdownNow();
+		}
+
+		int completed = requests - (int) latch.getCount();
+		return new ContractReport(requests, completed, maxObserved.get(), System.nanoTime() - start, requestTally, tallies);
+	}
+
+	/**
+	 * Build executor running each task on a new virtual thread, or on a pool of daemon platform threads
+	 * when virtual threads are not available.
+	 *
+	 * @param threads Size of platform thread pool.
+	 * @return Executor.
+	 */
+	static ExecutorService newExecutor(int threads) {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		}
+		catch (Exception ex) {
+			// Virtual threads are not available (before Java 21, or preview not enabled)
+			return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "contract-runner-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	private class Task implements Runnable {
+		private final int index;
+		private final Semaphore permits;
+		private final CountDownLatch latch;
+		private final AtomicInteger inFlight;
+		private final AtomicInteger maxObserved;
+		private final AtomicBoolean stopped;
+		private final ContractReport.Tally requestTally;
+		private final List<ContractReport.Tally> tallies;
+
+		Task(int index, Semaphore permits, CountDownLatch latch, AtomicInteger inFlight, AtomicInteger maxObserved, AtomicBoolean stopped, ContractReport.Tally requestTally, List<ContractReport.Tally> tallies) {
+			this.index = index;
+			this.permits = permits;
+			this.latch = latch;
+			this.inFlight = inFlight;
+			this.maxObserved = maxObserved;
+			this.stopped = stopped;
+			this.requestTally = requestTally;
+			this.tallies = tallies;
+		}
+
+		@Override
+		public void run() {
+			int current = inFlight.incrementAndGet();
+			int max;
+			while (current > (max = maxObserved.get()) && !maxObserved.compareAndSet(max, current)) {
+				// Retry
+			}
+
+			boolean done = false;
+			try {
+				Response response = call.execute(index);
+				try {
+					if (stopped.get()) {
+						return;
+					}
+					String json = null;
+					for (int i = 0, size = checks.size(); i < size; i++) {
+						NamedCheck check = checks.get(i);
+						try {
+							if (check.json && json == null) {
+								json = response.getBody().asString();
+							}
+							check.check(response, json);
+						}
+						catch (Throwable t) {
+							tallies.get(i).record(index, t);
+						}
+					}
+					done = true;
+				}
+				finally {
+					if (response != null) {
+						response.close();
+					}
+				}
+			}
+			catch (Throwable t) {
+				if (!stopped.get()) {
+					requestTally.record(index, t);
+					done = true;
+				}
+			}
+			finally {
+				inFlight.decrementAndGet();
+				permits.release();
+				if (done) {
+					latch.countDown();
+				}
+			}
+		}
+	}
+
+	private abstract static class NamedCheck {
+		private final String name;
+		private final boolean json;
+
+		NamedCheck(String name) {
+			this(name, false);
+		}
+
+		NamedCheck(String name, boolean json) {
+			this.name = name;
+			this.json = json;
+		}
+
+		abstract void check(Response response, String json) throws Exception;
+	}
+}
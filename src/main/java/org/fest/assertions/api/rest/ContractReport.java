@@ -0,0 +1,218 @@
+package org.fest.assertions.api.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Result of a {@link ConcurrentContractRunner} run: failures are aggregated per check.
+ */
+public class ContractReport {
+
+	private final int requests;
+
+	private final int completed;
+
+	private final int maxInFlight;
+
+	private final long elapsedNanos;
+
+	/** Tallies with at least one failure, request failures first */
+	private final List<Failures> failures;
+
+	ContractReport(int requests, int completed, int maxInFlight, long elapsedNanos, Tally requestTally, List<Tally> tallies) {
+		this.requests = requests;
+		this.completed = completed;
+		this.maxInFlight = maxInFlight;
+		this.elapsedNanos = elapsedNanos;
+
+		List<Failures> failures = new ArrayList<Failures>();
+		if (requestTally.count.get() > 0) {
+			failures.add(requestTally.toFailures());
+		}
+		for (Tally tally : tallies) {
+			if (tally.count.get() > 0) {
+				failures.add(tally.toFailures());
+			}
+		}
+		this.failures = Collections.unmodifiableList(failures);
+	}
+
+	/**
+	 * Get number of requests of the run.
+	 *
+	 * @return Number of requests.
+	 */
+	public int getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Get number of requests completed before timeout.
+	 *
+	 * @return Number of completed requests.
+	 */
+	public int getCompleted() {
+		return completed;
+	}
+
+	/**
+	 * Get highest number of requests observed in flight at the same time.
+	 *
+	 * @return Number of concurrent requests.
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * Get duration of the run.
+	 *
+	 * @param unit Unit of result.
+	 * @return Duration.
+	 */
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get failures, aggregated per check.
+	 * Failures of requests themselves (exceptions thrown while executing request) are reported with name "request".
+	 *
+	 * @return Failures, empty if all checks passed.
+	 */
+	public List<Failures> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Check if all requests have completed and passed all checks.
+	 *
+	 * @return True if run succeeded.
+	 */
+	public boolean isSuccess() {
+		return completed == requests && failures.isEmpty();
+	}
+
+	/**
+	 * Fail if a request did not complete or did not pass a check.
+	 */
+	public void assertSuccess() {
+		if (isSuccess()) {
+			return;
+		}
+
+		StringBuilder msg = new StringBuilder(String.format("Expected all <%s> requests to satisfy contract but:", requests));
+		if (completed < requests) {
+			msg.append(String.format("\n - <%s> requests did not complete before timeout", requests - completed));
+		}
+		for (Failures failure : failures) {
+			msg.append(String.format("\n - <%s> requests failed <%s>, first on request <%s>: %s",
+					failure.count, failure.name, failure.firstRequest, failure.firstError.getMessage()));
+		}
+
+		AssertionError error = new AssertionError(msg.toString());
+		if (failures.size() == 1) {
+			error.initCause(failures.get(0).firstError);
+		}
+		throw error;
+	}
+
+	@Override
+	public String toString() {
+		return "ContractReport{requests=" + requests + ", completed=" + completed + ", failures=" + failures + "}";
+	}
+
+	/**
+	 * Failures of a given check.
+	 */
+	public static class Failures {
+		private final String name;
+		private final int count;
+		private final int firstRequest;
+		private final Throwable firstError;
+
+		Failures(String name, int count, int firstRequest, Throwable firstError) {
+			this.name = name;
+			this.count = count;
+			this.firstRequest = firstRequest;
+			this.firstError = firstError;
+		}
+
+		/**
+		 * Get name of check.
+		 *
+		 * @return Name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Get number of requests failing check.
+		 *
+		 * @return Number of failures.
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * Get index of first request failing check.
+		 *
+		 * @return Index of request.
+		 */
+		public int getFirstRequest() {
+			return firstRequest;
+		}
+
+		/**
+		 * Get error of first failure.
+		 *
+		 * @return Error.
+		 */
+		public Throwable getFirstError() {
+			return firstError;
+		}
+
+		@Override
+		public String toString() {
+			return name + "=" + count;
+		}
+	}
+
+	/**
+	 * Thread safe failure counter of a check.
+	 */
+	static class Tally {
+		private final String name;
+		private final AtomicInteger count = new AtomicInteger();
+
+		/** Failure with lowest request index, count is not used */
+		private final AtomicReference<Failures> first = new AtomicReference<Failures>();
+
+		Tally(String name) {
+			this.name = name;
+		}
+
+		void record(int index, Throwable error) {
+			count.incrementAndGet();
+			Failures failure = new Failures(name, 0, index, error);
+			Failures current;
+			do {
+				current = first.get();
+				if (current != null && current.firstRequest < index) {
+					return;
+				}
+			} while (!first.compareAndSet(current, failure));
+		}
+
+		Failures toFailures() {
+			Failures failure = first.get();
+			return new Failures(name, count.get(), failure.firstRequest, failure.firstError);
+		}
+	}
+}
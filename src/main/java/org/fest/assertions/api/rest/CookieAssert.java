@@ -1,7 +1,6 @@
 package org.fest.assertions.api.rest;
 
 import org.fest.assertions.api.AbstractAssert;
-import org.fest.assertions.api.Assertions;
 import org.fest.assertions.util.Cookie;
 
 public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
@@ -18,9 +17,11 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isNameEqualTo(String name) {
 		isNotNull();
-		Assertions.assertThat(actual.getName())
-				.overridingErrorMessage("Expected name of cookie to be <%s> but was <%s>", name, actual.getName())
-				.isEqualTo(name);
+		String current = actual.getName();
+		if (!areEqual(current, name)) {
+			String msg = String.format("Expected name of cookie to be <%s> but was <%s>", name, current);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
 
@@ -32,9 +33,11 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isValueEqualTo(String value) {
 		isNotNull();
-		Assertions.assertThat(actual.getValue())
-				.overridingErrorMessage("Expected value of cookie to be <%s> but was <%s>", value, actual.getValue())
-				.isEqualTo(value);
+		String current = actual.getValue();
+		if (!areEqual(current, value)) {
+			String msg = String.format("Expected value of cookie to be <%s> but was <%s>", value, current);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
 
@@ -46,9 +49,11 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isDomainEqualTo(String domain) {
 		isNotNull();
-		Assertions.assertThat(actual.getDomain())
-				.overridingErrorMessage("Expected domain of cookie to be <%s> but was <%s>", domain, actual.getDomain())
-				.isEqualTo(domain);
+		String current = actual.getDomain();
+		if (!areEqual(current, domain)) {
+			String msg = String.format("Expected domain of cookie to be <%s> but was <%s>", domain, current);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
 
@@ -60,9 +65,11 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isPathEqualTo(String path) {
 		isNotNull();
-		Assertions.assertThat(actual.getPath())
-				.overridingErrorMessage("Expected path of cookie to be <%s> but was <%s>", path, actual.getPath())
-				.isEqualTo(path);
+		String current = actual.getPath();
+		if (!areEqual(current, path)) {
+			String msg = String.format("Expected path of cookie to be <%s> but was <%s>", path, current);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
 
@@ -73,9 +80,9 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isSecure() {
 		isNotNull();
-		Assertions.assertThat(actual.isSecure())
-				.overridingErrorMessage("Expected cookie to be secure")
-				.isTrue();
+		if (!actual.isSecure()) {
+			throw new AssertionError("Expected cookie to be secure");
+		}
 		return this;
 	}
 
@@ -86,9 +93,9 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isNotSecure() {
 		isNotNull();
-		Assertions.assertThat(actual.isSecure())
-				.overridingErrorMessage("Expected cookie not to be secure")
-				.isFalse();
+		if (actual.isSecure()) {
+			throw new AssertionError("Expected cookie not to be secure");
+		}
 		return this;
 	}
 
@@ -99,9 +106,9 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isHttpOnly() {
 		isNotNull();
-		Assertions.assertThat(actual.isHttpOnly())
-				.overridingErrorMessage("Expected cookie to be rest only")
-				.isTrue();
+		if (!actual.isHttpOnly()) {
+			throw new AssertionError("Expected cookie to be rest only");
+		}
 		return this;
 	}
 
@@ -112,41 +119,53 @@ public class CookieAssert extends AbstractAssert<CookieAssert, Cookie> {
 	 */
 	public CookieAssert isNotHttpOnly() {
 		isNotNull();
-		Assertions.assertThat(actual.isHttpOnly())
-				.overridingErrorMessage("Expected cookie not to be rest only")
-				.isFalse();
+		if (actual.isHttpOnly()) {
+			throw new AssertionError("Expected cookie not to be rest only");
+		}
 		return this;
 	}
 
 	public CookieAssert hasMaxAge(int maxAge) {
 		isNotNull();
-		Assertions.assertThat(actual.getMaxAge())
-				.overridingErrorMessage("Expected max age of cookie to be <%s> but was <%s>", maxAge, actual.getMaxAge())
-				.isEqualTo(maxAge);
+		long currentMaxAge = actual.getMaxAge();
+		if (currentMaxAge != maxAge) {
+			String msg = String.format("Expected max age of cookie to be <%s> but was <%s>", maxAge, currentMaxAge);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
 
 	public CookieAssert isPersistent() {
 		isNotNull();
-		Assertions.assertThat(actual.getMaxAge())
-				.overridingErrorMessage("Expected cookie to be persistent but max-age is equal to <%s>", actual.getMaxAge())
-				.isGreaterThan(0);
+		long currentMaxAge = actual.getMaxAge();
+		if (currentMaxAge <= 0) {
+			String msg = String.format("Expected cookie to be persistent but max-age is equal to <%s>", currentMaxAge);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
 
 	public CookieAssert isNotPersistent() {
 		isNotNull();
-		Assertions.assertThat(actual.getMaxAge())
-				.overridingErrorMessage("Expected cookie not to be persistent but max-age is equal to <%s>", actual.getMaxAge())
-				.isLessThan(0);
+		long currentMaxAge = actual.getMaxAge();
+		if (currentMaxAge >= 0) {
+			String msg = String.format("Expected cookie not to be persistent but max-age is equal to <%s>", currentMaxAge);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
 
 	public CookieAssert willBeDeleted() {
 		isNotNull();
-		Assertions.assertThat(actual.getMaxAge())
-				.overridingErrorMessage("Expected cookie to be deleted but max-age is equal to <%s>", actual.getMaxAge())
-				.isEqualTo(0);
+		long currentMaxAge = actual.getMaxAge();
+		if (currentMaxAge != 0) {
+			String msg = String.format("Expected cookie to be deleted but max-age is equal to <%s>", currentMaxAge);
+			throw new AssertionError(msg);
+		}
 		return this;
 	}
+
+	private static boolean areEqual(String actual, String expected) {
+		return actual == null ? expected == null : actual.equals(expected);
+	}
 }
@@ -0,0 +1,84 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.api.AbstractAssert;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.CookieJar;
+
+public class CookieJarAssert extends AbstractAssert<CookieJarAssert, CookieJar> {
+
+	public CookieJarAssert(CookieJar actual) {
+		super(actual, CookieJarAssert.class);
+	}
+
+	/**
+	 * Check if a cookie will be sent with a request.
+	 *
+	 * @param cookieName Cookie name.
+	 * @param requestUrl Url of request.
+	 * @return {@code this} the assertion object.
+	 */
+	public CookieJarAssert willSendCookie(String cookieName, String requestUrl) {
+		cookie(cookieName, requestUrl);
+		return this;
+	}
+
+	/**
+	 * Check if a cookie will be sent with a request and if its value is equal to an expected value.
+	 *
+	 * @param cookieName Cookie name.
+	 * @param value Expected value.
+	 * @param requestUrl Url of request.
+	 * @return {@code this} the assertion object.
+	 */
+	public CookieJarAssert willSendCookieEqualTo(String cookieName, String value, String requestUrl) {
+		Cookie cookie = cookie(cookieName, requestUrl);
+		String current = cookie.getValue();
+		if (current == null ? value != null : !current.equals(value)) {
+			String msg = String.format("Expected cookie <%s> sent to <%s> to be <%s> but was <%s>", cookieName, requestUrl, value, current);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	/**
+	 * Check if a cookie will not be sent with a request.
+	 *
+	 * @param cookieName Cookie name.
+	 * @param requestUrl Url of request.
+	 * @return {@code this} the assertion object.
+	 */
+	public CookieJarAssert willNotSendCookie(String cookieName, String requestUrl) {
+		isNotNull();
+		if (actual.getCookie(requestUrl, cookieName) != null) {
+			String msg = String.format("Expected cookie <%s> not to be sent to <%s>", cookieName, requestUrl);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	/**
+	 * Check if no cookie will be sent with a request.
+	 *
+	 * @param requestUrl Url of request.
+	 * @return {@code this} the assertion object.
+	 */
+	public CookieJarAssert willNotSendCookies(String requestUrl) {
+		isNotNull();
+		String header = actual.getCookieHeader(requestUrl);
+		if (header != null) {
+			String msg = String.format("Expected no cookie to be sent to <%s> but was <%s>", requestUrl, header);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	private Cookie cookie(String cookieName, String requestUrl) {
+		isNotNull();
+		Cookie cookie = actual.getCookie(requestUrl, cookieName);
+		if (cookie == null) {
+			String msg = String.format("Expected cookie <%s> to be sent to <%s>", cookieName, requestUrl);
+			throw new AssertionError(msg);
+		}
+		return cookie;
+	}
+}
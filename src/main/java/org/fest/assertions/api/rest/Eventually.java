@@ -0,0 +1,305 @@
+package org.fest.assertions.api.rest;
+
+import com.ning.http.client.ListenableFuture;
+import org.fest.assertions.util.AsyncHttpResponse;
+import org.fest.assertions.util.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assertions that must eventually pass: a resource is fetched again until checks pass or timeout is reached.
+ * Attempts are scheduled on a small shared scheduler with jittered exponential backoff: no thread is
+ * blocked between two attempts, so hundreds of pending polls share a few threads.
+ * Blocking fetches run on a separate bounded pool, so that a slow server never delays the scheduler:
+ * fetches beyond the size of the pool wait in a queue, prefer {@link AsyncPoll} to poll many slow resources at once.
+ */
+public class Eventually {
+
+	/**
+	 * Resource fetched on each attempt.
+	 */
+	public interface Poll {
+
+		/**
+		 * Fetch resource.
+		 *
+		 * @return Response.
+		 * @throws Exception If resource cannot be fetched, attempt is then considered as failed.
+		 */
+		Response fetch() throws Exception;
+	}
+
+	/**
+	 * Resource fetched asynchronously on each attempt.
+	 */
+	public interface AsyncPoll {
+
+		/**
+		 * Start fetching resource.
+		 *
+		 * @return Pending response.
+		 * @throws Exception If request cannot be sent, attempt is then considered as failed.
+		 */
+		ListenableFuture<com.ning.http.client.Response> fetch() throws Exception;
+	}
+
+	/** Default delay before second attempt */
+	public static final long DEFAULT_INITIAL_DELAY_IN_MS = 50;
+
+	/** Default maximum delay between two attempts */
+	public static final long DEFAULT_MAX_DELAY_IN_MS = 2000;
+
+	private static final Random RANDOM = new Random();
+
+	private final long timeoutNanos;
+
+	private long initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_DELAY_IN_MS);
+
+	private long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_DELAY_IN_MS);
+
+	private final List<Check> checks = new ArrayList<Check>();
+
+	public Eventually(long timeout, TimeUnit unit) {
+		if (timeout <= 0) {
+			throw new IllegalArgumentException("Timeout must be positive");
+		}
+		this.timeoutNanos = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Set delays between attempts: delay doubles after each failed attempt, from initial delay up to max delay.
+	 * Each delay is randomized between half and all of its value, so that concurrent polls do not hit
+	 * the server at the same time.
+	 *
+	 * @param initialDelay Delay before second attempt.
+	 * @param maxDelay Maximum delay between two attempts.
+	 * @param unit Unit of delays.
+	 * @return {@code this} the object.
+	 */
+	public Eventually backoff(long initialDelay, long maxDelay, TimeUnit unit) {
+		if (initialDelay <= 0 || maxDelay < initialDelay) {
+			throw new IllegalArgumentException("Initial delay must be positive and lower than max delay");
+		}
+		this.initialDelayNanos = unit.toNanos(initialDelay);
+		this.maxDelayNanos = unit.toNanos(maxDelay);
+		return this;
+	}
+
+	/**
+	 * Add check that response must eventually satisfy.
+	 *
+	 * @param check Assertions to run.
+	 * @return {@code this} the object.
+	 */
+	public Eventually satisfies(final ResponseCheck check) {
+		checks.add(new Check() {
+			@Override
+			public void check(Response response) throws Exception {
+				check.check(new ResponseAssert(response));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Add check that json body of response must eventually satisfy.
+	 *
+	 * @param check Assertions to run.
+	 * @return {@code this} the object.
+	 */
+	public Eventually satisfiesJson(final JsonCheck check) {
+		checks.add(new Check() {
+			@Override
+			public void check(Response response) throws Exception {
+				check.check(new JsonAssert(response.getBody().asString()));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Start polling, without waiting for result.
+	 * Resource is fetched on a thread of a bounded pool dedicated to blocking fetches, and checks run on the scheduler.
+	 * Each fetch in progress uses a thread: fetches beyond the size of the pool wait for a thread, within timeout of polling.
+	 *
+	 * @param poll Resource to fetch.
+	 * @return Pending polling.
+	 */
+	public Polling start(final Poll poll) {
+		Polling polling = new Polling(this) {
+			@Override
+			void attempt() {
+				track(Fetcher.INSTANCE.submit(new Runnable() {
+					@Override
+					public void run() {
+						final Response response;
+						try {
+							response = poll.fetch();
+						}
+						catch (Throwable t) {
+							retry(t);
+							return;
+						}
+						Scheduler.INSTANCE.execute(new Runnable() {
+							@Override
+							public void run() {
+								check(response);
+							}
+						});
+					}
+				}));
+			}
+		};
+		polling.begin();
+		return polling;
+	}
+
+	/**
+	 * Start polling with asynchronous requests, without waiting for result.
+	 * Checks run on the thread completing the response.
+	 *
+	 * @param poll Resource to fetch.
+	 * @return Pending polling.
+	 */
+	public Polling start(final AsyncPoll poll) {
+		Polling polling = new Polling(this) {
+			@Override
+			void attempt() {
+				final ListenableFuture<com.ning.http.client.Response> future;
+				try {
+					future = poll.fetch();
+				}
+				catch (Throwable t) {
+					retry(t);
+					return;
+				}
+
+				track(future);
+				future.addListener(new Runnable() {
+					@Override
+					public void run() {
+						com.ning.http.client.Response response;
+						try {
+							response = future.get();
+						}
+						catch (Throwable t) {
+							retry(t.getCause() == null ? t : t.getCause());
+							return;
+						}
+						check(new AsyncHttpResponse(response));
+					}
+				}, AsyncResponseAssert.SAME_THREAD);
+			}
+		};
+		polling.begin();
+		return polling;
+	}
+
+	/**
+	 * Poll resource until checks pass, fail if they still fail at timeout.
+	 *
+	 * @param poll Resource to fetch.
+	 * @return Response satisfying checks.
+	 */
+	public Response until(Poll poll) {
+		return start(poll).await();
+	}
+
+	long getTimeoutNanos() {
+		return timeoutNanos;
+	}
+
+	List<Check> getChecks() {
+		return Collections.unmodifiableList(new ArrayList<Check>(checks));
+	}
+
+	/**
+	 * Compute delay before next attempt.
+	 *
+	 * @param attempt Number of failed attempts, starting at 1.
+	 * @return Delay, in nanoseconds.
+	 */
+	long delay(int attempt) {
+		long delay = initialDelayNanos;
+		for (int i = 1; i < attempt && delay < maxDelayNanos; i++) {
+			delay *= 2;
+		}
+		delay = Math.min(delay, maxDelayNanos);
+
+		double random;
+		synchronized (RANDOM) {
+			random = RANDOM.nextDouble();
+		}
+		return delay / 2 + (long) (random * (delay / 2));
+	}
+
+	/**
+	 * Check run on each response.
+	 */
+	interface Check {
+		void check(Response response) throws Exception;
+	}
+
+	/**
+	 * Scheduler shared by all polls, created on first use.
+	 */
+	static final class Scheduler {
+		static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+		static final ScheduledExecutorService INSTANCE = create();
+
+		private Scheduler() {
+		}
+
+		private static ScheduledExecutorService create() {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(THREADS, daemonThreads("eventually-"));
+			executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+			return executor;
+		}
+	}
+
+	/**
+	 * Pool running blocking fetches, created on first use.
+	 * Pool is bounded to a few times the size of the scheduler: further fetches are queued.
+	 * Threads stop after one minute without fetch.
+	 */
+	static final class Fetcher {
+		static final int THREADS = 4 * Scheduler.THREADS;
+
+		static final ExecutorService INSTANCE = create();
+
+		private Fetcher() {
+		}
+
+		private static ExecutorService create() {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), daemonThreads("eventually-fetch-"));
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+	}
+
+	private static ThreadFactory daemonThreads(final String prefix) {
+		return new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+}
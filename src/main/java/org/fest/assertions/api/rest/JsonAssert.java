@@ -7,6 +7,7 @@ import com.jayway.jsonpath.JsonPath;
 import org.fest.assertions.api.AbstractAssert;
 import org.fest.assertions.api.Assertions;
 import org.fest.assertions.data.JsonEntry;
+import org.fest.assertions.spec.JsonTemplate;
 import org.fest.assertions.util.JsonComparator;
 import org.fest.util.FilesException;
 
@@ -810,6 +811,21 @@ public class JsonAssert extends AbstractAssert<JsonAssert, String> {
 		return isEqualsToIgnoringFields(json, Collections.EMPTY_LIST);
 	}
 
+	/**
+	 * Check if actual json matches a compiled template: placeholders (such as "${any-uuid}") match generated values.
+	 * Templates should be compiled once and reused, see {@link JsonTemplate}.
+	 *
+	 * @param template Compiled template.
+	 * @return {@code this} the assertion object.
+	 */
+	public JsonAssert matchesTemplate(JsonTemplate template) {
+		List<String> errors = template.evaluate(actual);
+		if (!errors.isEmpty()) {
+			throw new AssertionError(join(errors, ",\n"));
+		}
+		return this;
+	}
+
 	/**
 	 * Join a list of string with given delimiter.
 	 *
@@ -0,0 +1,14 @@
+package org.fest.assertions.api.rest;
+
+/**
+ * Assertions applied to the json body of a response once it is received.
+ */
+public interface JsonCheck {
+
+	/**
+	 * Check json body.
+	 *
+	 * @param json Assertion object of json body.
+	 */
+	void check(JsonAssert json);
+}
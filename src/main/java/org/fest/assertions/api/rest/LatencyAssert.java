@@ -0,0 +1,160 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.api.AbstractAssert;
+import org.fest.assertions.util.LatencyHistogram;
+import org.fest.assertions.util.ResponseLatencies;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assertions on latencies of responses.
+ * Percentiles are read from histograms: they are never lower than exact percentiles, and are at most 1.6% above.
+ * Response times include requests that failed or timed out, recorded at the time they failed: use
+ * {@link #hasNoFailures()} or {@link #hasFailureRateBelow(double)} to check failures themselves.
+ */
+public class LatencyAssert extends AbstractAssert<LatencyAssert, ResponseLatencies> {
+
+	public LatencyAssert(ResponseLatencies actual) {
+		super(actual, LatencyAssert.class);
+	}
+
+	/**
+	 * Check that 99% of responses were completely received before a given duration.
+	 *
+	 * @param duration Maximum response time (exclusive).
+	 * @param unit Unit of duration.
+	 * @return {@code this} the assertion object.
+	 */
+	public LatencyAssert hasP99Below(long duration, TimeUnit unit) {
+		return hasPercentileBelow(99, duration, unit);
+	}
+
+	/**
+	 * Check that a percentage of responses were completely received before a given duration.
+	 *
+	 * @param percentile Percentile, between 0 and 100 (such as 99.9).
+	 * @param duration Maximum response time (exclusive).
+	 * @param unit Unit of duration.
+	 * @return {@code this} the assertion object.
+	 */
+	public LatencyAssert hasPercentileBelow(double percentile, long duration, TimeUnit unit) {
+		isNotNull();
+		return below("p" + format(percentile) + " response time", percentile(actual.getResponseTime(), percentile), duration, unit);
+	}
+
+	/**
+	 * Check that all responses were completely received before a given duration.
+	 *
+	 * @param duration Maximum response time (exclusive).
+	 * @param unit Unit of duration.
+	 * @return {@code this} the assertion object.
+	 */
+	public LatencyAssert hasMaxBelow(long duration, TimeUnit unit) {
+		isNotNull();
+		LatencyHistogram histogram = recorded(actual.getResponseTime());
+		return below("max response time", histogram.getMax(TimeUnit.NANOSECONDS), duration, unit);
+	}
+
+	/**
+	 * Check that first byte of 99% of responses was received before a given duration.
+	 *
+	 * @param duration Maximum time to first byte (exclusive).
+	 * @param unit Unit of duration.
+	 * @return {@code this} the assertion object.
+	 */
+	public LatencyAssert hasTtfbBelow(long duration, TimeUnit unit) {
+		return hasTtfbPercentileBelow(99, duration, unit);
+	}
+
+	/**
+	 * Check that first byte of a percentage of responses was received before a given duration.
+	 *
+	 * @param percentile Percentile, between 0 and 100 (such as 99.9).
+	 * @param duration Maximum time to first byte (exclusive).
+	 * @param unit Unit of duration.
+	 * @return {@code this} the assertion object.
+	 */
+	public LatencyAssert hasTtfbPercentileBelow(double percentile, long duration, TimeUnit unit) {
+		isNotNull();
+		return below("p" + format(percentile) + " time to first byte", percentile(actual.getTimeToFirstByte(), percentile), duration, unit);
+	}
+
+	/**
+	 * Check that no request failed or timed out.
+	 *
+	 * @return {@code this} the assertion object.
+	 */
+	public LatencyAssert hasNoFailures() {
+		isNotNull();
+		long failures = actual.getFailures();
+		if (failures > 0) {
+			String msg = String.format("Expected no request to fail but <%s> of <%s> failed or timed out", failures, actual.getResponseTime().getCount());
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	/**
+	 * Check that the percentage of requests that failed or timed out is below a given rate.
+	 *
+	 * @param percentage Maximum percentage of failures (exclusive), between 0 and 100.
+	 * @return {@code this} the assertion object.
+	 */
+	public LatencyAssert hasFailureRateBelow(double percentage) {
+		isNotNull();
+		long count = recorded(actual.getResponseTime()).getCount();
+		long failures = actual.getFailures();
+		double rate = failures * 100.0 / count;
+		if (rate >= percentage) {
+			String msg = String.format("Expected failure rate to be below <%s>%% but was <%s>%% (<%s> of <%s> requests)", format(percentage), format(rate), failures, count);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	private LatencyAssert below(String description, long nanos, long duration, TimeUnit unit) {
+		if (nanos >= unit.toNanos(duration)) {
+			String msg = String.format("Expected %s to be below <%s> %s but was <%s> %s",
+					description, duration, symbol(unit), format(new BigDecimal(nanos).divide(new BigDecimal(unit.toNanos(1)), 3, RoundingMode.HALF_UP)), symbol(unit));
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	private static long percentile(LatencyHistogram histogram, double percentile) {
+		return recorded(histogram).getValueAtPercentile(percentile, TimeUnit.NANOSECONDS);
+	}
+
+	private static LatencyHistogram recorded(LatencyHistogram histogram) {
+		if (histogram.getCount() == 0) {
+			throw new AssertionError("Expected latencies to be recorded");
+		}
+		return histogram;
+	}
+
+	private static String format(double value) {
+		return format(new BigDecimal(value));
+	}
+
+	private static String format(BigDecimal value) {
+		BigDecimal rounded = value.setScale(3, RoundingMode.HALF_UP).stripTrailingZeros();
+		return rounded.signum() == 0 ? "0" : rounded.toPlainString();
+	}
+
+	private static String symbol(TimeUnit unit) {
+		switch (unit) {
+			case NANOSECONDS:
+				return "ns";
+			case MICROSECONDS:
+				return "us";
+			case MILLISECONDS:
+				return "ms";
+			case SECONDS:
+				return "s";
+			default:
+				return unit.name().toLowerCase();
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.util.Response;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Pending polling started with {@link Eventually}.
+ * Each attempt is timed by the shared scheduler: polling ends on first response satisfying all checks,
+ * or when timeout is reached. Attempt in progress at timeout is cancelled.
+ */
+public abstract class Polling {
+
+	private final Eventually config;
+
+	private final List<Eventually.Check> checks;
+
+	private final long start;
+
+	private final long deadline;
+
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	private final AtomicBoolean finished = new AtomicBoolean();
+
+	/** Number of attempts, only updated by the attempt in progress */
+	private volatile int attempts;
+
+	private volatile Response response;
+
+	private volatile Throwable lastFailure;
+
+	private volatile boolean cancelled;
+
+	private volatile Future<?> next;
+
+	/** Task ending polling at timeout */
+	private volatile Future<?> timeout;
+
+	/** Attempt in progress (blocking fetch or pending response), null if it is not known */
+	private volatile Future<?> inFlight;
+
+	Polling(Eventually config) {
+		this.config = config;
+		this.checks = config.getChecks();
+		this.start = System.nanoTime();
+		this.deadline = start + config.getTimeoutNanos();
+	}
+
+	/**
+	 * Fetch resource and call {@link #check(Response)} or {@link #retry(Throwable)} with result.
+	 */
+	abstract void attempt();
+
+	/**
+	 * Schedule first attempt and end of polling at timeout.
+	 */
+	void begin() {
+		timeout = Eventually.Scheduler.INSTANCE.schedule(new Runnable() {
+			@Override
+			public void run() {
+				finish(null);
+			}
+		}, config.getTimeoutNanos(), TimeUnit.NANOSECONDS);
+		schedule(0);
+	}
+
+	void schedule(long delayNanos) {
+		next = Eventually.Scheduler.INSTANCE.schedule(new Runnable() {
+			@Override
+			public void run() {
+				if (!finished.get()) {
+					attempts++;
+					attempt();
+				}
+			}
+		}, delayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Register attempt in progress, so that it can be cancelled at timeout.
+	 *
+	 * @param attempt Attempt in progress.
+	 */
+	void track(Future<?> attempt) {
+		inFlight = attempt;
+		if (finished.get()) {
+			attempt.cancel(true);
+		}
+	}
+
+	void check(Response response) {
+		if (finished.get()) {
+			response.close();
+			return;
+		}
+
+		try {
+			for (Eventually.Check check : checks) {
+				check.check(response);
+			}
+		}
+		catch (Throwable t) {
+			response.close();
+			retry(t);
+			return;
+		}
+
+		if (!finish(response)) {
+			response.close();
+		}
+	}
+
+	void retry(Throwable failure) {
+		lastFailure = failure;
+		long remaining = deadline - System.nanoTime();
+		if (remaining <= 0 || finished.get()) {
+			finish(null);
+		}
+		else {
+			schedule(Math.min(config.delay(attempts), remaining));
+		}
+	}
+
+	/**
+	 * End polling, if it is not already done.
+	 *
+	 * @param result Response satisfying checks, null if polling failed.
+	 * @return False if polling was already done.
+	 */
+	private boolean finish(Response result) {
+		if (!finished.compareAndSet(false, true)) {
+			return false;
+		}
+
+		response = result;
+		done.countDown();
+
+		Future<?> scheduled = next;
+		if (scheduled != null) {
+			scheduled.cancel(false);
+		}
+		Future<?> timer = timeout;
+		if (timer != null) {
+			timer.cancel(false);
+		}
+		Future<?> attempt = inFlight;
+		if (attempt != null && result == null) {
+			attempt.cancel(true);
+		}
+		return true;
+	}
+
+	/**
+	 * Stop polling. Attempt in progress, if any, is cancelled and its result is ignored.
+	 */
+	public void cancel() {
+		cancelled = true;
+		finish(null);
+	}
+
+	/**
+	 * Check if polling has ended (success, timeout or cancellation).
+	 *
+	 * @return True if polling is done.
+	 */
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	/**
+	 * Get number of attempts made so far.
+	 *
+	 * @return Number of attempts.
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * Wait for end of polling and fail if no response satisfied checks before timeout.
+	 *
+	 * @return Response satisfying checks.
+	 */
+	public Response await() {
+		try {
+			if (!done.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				// Attempt in progress did not end before timeout
+				finish(null);
+				done.await();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			cancel();
+		}
+
+		Response result = response;
+		if (result != null) {
+			return result;
+		}
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		Throwable failure = lastFailure;
+		String msg;
+		if (cancelled) {
+			msg = String.format("Expected checks to pass but polling was cancelled after <%s> attempts", attempts);
+		}
+		else {
+			msg = String.format("Expected checks to pass within <%s> ms but still failing after <%s> attempts (<%s> ms), last failure: %s",
+					TimeUnit.NANOSECONDS.toMillis(config.getTimeoutNanos()), attempts, elapsed, failure == null ? null : failure.getMessage());
+		}
+		return fail(msg, failure);
+	}
+
+	/**
+	 * Wait for end of all pollings and fail if one of them did not succeed.
+	 *
+	 * @param pollings Pending pollings.
+	 */
+	public static void awaitAll(Polling... pollings) {
+		awaitAll(asList(pollings));
+	}
+
+	/**
+	 * Wait for end of all pollings and fail if one of them did not succeed.
+	 *
+	 * @param pollings Pending pollings.
+	 */
+	public static void awaitAll(Collection<Polling> pollings) {
+		for (Polling polling : pollings) {
+			polling.await();
+		}
+	}
+
+	private static Response fail(String msg, Throwable cause) {
+		AssertionError error = new AssertionError(msg);
+		if (cause != null) {
+			error.initCause(cause);
+		}
+		throw error;
+	}
+}
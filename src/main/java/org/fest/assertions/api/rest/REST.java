@@ -1,31 +1,100 @@
 package org.fest.assertions.api.rest;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.Executor;
 
+import org.fest.assertions.util.ApacheHttpResponse;
+import org.fest.assertions.util.AsyncHttpResponse;
 import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.CookieJar;
 import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponseLatencies;
+import org.fest.assertions.util.ResponsePopulation;
 
 public class REST {
 
 	/**
 	 * Build new assertion object from {@link com.ning.http.client.Response} object.
+	 * Body is kept in memory, as it is by the client.
 	 *
 	 * @param response Original response object.
 	 * @return Assertion object.
 	 */
 	public static ResponseAssert assertThat(com.ning.http.client.Response response) {
-		return new ResponseAssert(new Response(response));
+		return new ResponseAssert(new AsyncHttpResponse(response).keepBodyInMemory());
 	}
 
 	/**
 	 * Build new assertion object from {@link org.apache.http.HttpResponse} object.
+	 * Body is read in memory: wrap response in a {@link ApacheHttpResponse} and close it to spill large bodies to disk.
 	 *
 	 * @param response Original response object.
 	 * @return Assertion object.
 	 */
 	public static ResponseAssert assertThat(org.apache.http.HttpResponse response) {
-		return new ResponseAssert(new Response(response));
+		return new ResponseAssert(new ApacheHttpResponse(response).keepBodyInMemory());
+	}
+
+	/**
+	 * Build new assertion object from a pending {@link com.ning.http.client.Response}.
+	 * Checks run on the thread completing the future: no thread is blocked while waiting for the response.
+	 *
+	 * @param future Pending response.
+	 * @return Assertion object.
+	 */
+	public static AsyncResponseAssert assertThatAsync(com.ning.http.client.ListenableFuture<com.ning.http.client.Response> future) {
+		return new AsyncResponseAssert(future, AsyncResponseAssert.SAME_THREAD);
+	}
+
+	/**
+	 * Build new assertion object from a pending {@link com.ning.http.client.Response}.
+	 *
+	 * @param future Pending response.
+	 * @param executor Executor running checks once response is received.
+	 * @return Assertion object.
+	 */
+	public static AsyncResponseAssert assertThatAsync(com.ning.http.client.ListenableFuture<com.ning.http.client.Response> future, Executor executor) {
+		return new AsyncResponseAssert(future, executor);
+	}
+
+	/**
+	 * Build new request sent with the shared pooled client (see {@link SharedHttpClient}).
+	 *
+	 * @return Request builder.
+	 */
+	public static RestRequest given() {
+		return new RestRequest(SharedHttpClient.get(), SharedHttpClient.getRequestTimeoutInMs());
+	}
+
+	/**
+	 * Build new request sent with a given client.
+	 *
+	 * @param client Client.
+	 * @return Request builder.
+	 */
+	public static RestRequest given(com.ning.http.client.AsyncHttpClient client) {
+		return new RestRequest(client, client.getConfig().getRequestTimeoutInMs());
+	}
+
+	/**
+	 * Build runner checking the same contract on many concurrent requests.
+	 *
+	 * @param call Request to execute.
+	 * @return Runner.
+	 */
+	public static ConcurrentContractRunner concurrently(ConcurrentContractRunner.Call call) {
+		return new ConcurrentContractRunner(call);
+	}
+
+	/**
+	 * Build assertions that must pass before timeout, resource being polled until they do.
+	 *
+	 * @param timeout Timeout.
+	 * @param unit Unit of timeout.
+	 * @return Polling builder.
+	 */
+	public static Eventually eventually(long timeout, java.util.concurrent.TimeUnit unit) {
+		return new Eventually(timeout, unit);
 	}
 
 	/**
@@ -48,6 +117,36 @@ public class REST {
 		return new CookieAssert(cookie);
 	}
 
+	/**
+	 * Build new cookie jar assertion object.
+	 *
+	 * @param cookieJar Cookie jar.
+	 * @return Assertion object.
+	 */
+	public static CookieJarAssert assertThat(CookieJar cookieJar) {
+		return new CookieJarAssert(cookieJar);
+	}
+
+	/**
+	 * Build new assertion object on counts of a population of responses.
+	 *
+	 * @param population Population of responses.
+	 * @return Assertion object.
+	 */
+	public static ResponsePopulationAssert assertThat(ResponsePopulation population) {
+		return new ResponsePopulationAssert(population);
+	}
+
+	/**
+	 * Build new assertion object on latencies of responses.
+	 *
+	 * @param latencies Latencies of responses.
+	 * @return Assertion object.
+	 */
+	public static LatencyAssert assertThat(ResponseLatencies latencies) {
+		return new LatencyAssert(latencies);
+	}
+
 	/**
 	 * Build new cookie assertion object from {@link org.apache.http.HttpResponse} object.
 	 *
@@ -68,6 +167,16 @@ public class REST {
 		return new JsonAssert(extractJson(response));
 	}
 
+	/**
+	 * Build new json assertion object from body of {@link Response} object.
+	 *
+	 * @param response Original response object.
+	 * @return Assertion object.
+	 */
+	public static JsonAssert assertJsonThat(Response response) {
+		return new JsonAssert(extractJson(response));
+	}
+
 	/**
 	 * Build new cookie assertion object from {@link org.apache.http.HttpResponse} object.
 	 *
@@ -81,18 +190,15 @@ public class REST {
 	/**
 	 * Extract cookie from {@link org.apache.http.HttpResponse} object.
 	 *
+	 * Name is case insensitive: if several cookies have this name, the last one is returned,
+	 * as by {@link Response#getCookie(String)}.
+	 *
 	 * @param name Name of cookie to extract.
 	 * @param response Original response object.
 	 * @return Cookie object.
 	 */
 	public static Cookie extractCookie(String name, com.ning.http.client.Response response) {
-		List<com.ning.http.client.Cookie> cookies = response.getCookies();
-		for (com.ning.http.client.Cookie cookie : cookies) {
-			if (cookie.getName().equals(name)) {
-				return new Cookie(cookie);
-			}
-		}
-		return null;
+		return new AsyncHttpResponse(response).getCookie(name);
 	}
 
 	/**
@@ -109,4 +215,19 @@ public class REST {
 			throw new AssertionError("Cannot extract JSON body from response", ex);
 		}
 	}
+
+	/**
+	 * Extract json from body of {@link Response} object.
+	 *
+	 * @param response Original response object.
+	 * @return Json response.
+	 */
+	public static String extractJson(Response response) {
+		try {
+			return response.getBody().asString();
+		}
+		catch (IOException ex) {
+			throw new AssertionError("Cannot extract JSON body from response", ex);
+		}
+	}
 }
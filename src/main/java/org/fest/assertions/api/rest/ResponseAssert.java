@@ -1,21 +1,14 @@
 package org.fest.assertions.api.rest;
 
 import org.fest.assertions.api.AbstractAssert;
-import org.fest.assertions.api.Assertions;
-import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.HttpHeaders;
+import org.fest.assertions.util.MimeType;
 import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponseChecks;
 
-public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
-
-	/**
-	 * Etag header name
-	 */
-	private static final String ETAG = "ETag";
+import java.util.concurrent.TimeUnit;
 
-	/**
-	 * Location header name
-	 */
-	private static final String LOCATION = "Location";
+public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 
 	public ResponseAssert(Response actual) {
 		super(actual, ResponseAssert.class);
@@ -235,11 +228,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isStatusEqualTo(int expected) {
-		isNotNull();
-		Assertions.assertThat(actual.getStatusCode())
-				.overridingErrorMessage("Expected status code to be <%s> but was <%s>", expected, actual.getStatusCode())
-				.isEqualTo(expected);
-		return this;
+		return check(ResponseChecks.checkStatus(actual(), expected, false));
 	}
 
 	/**
@@ -249,11 +238,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isStatusNotEqualTo(int expected) {
-		isNotNull();
-		Assertions.assertThat(actual.getStatusCode())
-				.overridingErrorMessage("Expected status code not to be <%s>", expected)
-				.isNotEqualTo(expected);
-		return this;
+		return check(ResponseChecks.checkStatus(actual(), expected, true));
 	}
 
 	/**
@@ -264,12 +249,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isStatusBetween(int start, int end) {
-		isNotNull();
-		Assertions.assertThat(actual.getStatusCode())
-				.overridingErrorMessage("Expected status code to be between <%s> and <%s> but was <%s>", start, end, actual.getStatusCode())
-				.isGreaterThanOrEqualTo(start)
-				.isLessThanOrEqualTo(end);
-		return this;
+		return check(ResponseChecks.checkStatusBetween(actual(), start, end, false));
 	}
 
 	/**
@@ -280,11 +260,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isStatusNotBetween(int start, int end) {
-		isNotNull();
-		Assertions.assertThat(actual.getStatusCode() < start || actual.getStatusCode() > end)
-				.overridingErrorMessage("Expected status code not to be between <%s> and <%s> but was <%s>", start, end, actual.getStatusCode())
-				.isTrue();
-		return this;
+		return check(ResponseChecks.checkStatusBetween(actual(), start, end, true));
 	}
 
 	/**
@@ -294,7 +270,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isOctetStream() {
-		return isMimeTypeTypeEqualTo("application/octet-stream");
+		return check(ResponseChecks.OCTET_STREAM);
 	}
 
 	/**
@@ -304,7 +280,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isJson() {
-		return isMimeTypeTypeEqualTo("application/json");
+		return check(ResponseChecks.JSON);
 	}
 
 	/**
@@ -314,7 +290,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isXml() {
-		return isMimeTypeIn("application/xml", "text/xml");
+		return check(ResponseChecks.XML);
 	}
 
 	/**
@@ -324,7 +300,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isCss() {
-		return isMimeTypeTypeEqualTo("text/css");
+		return check(ResponseChecks.CSS);
 	}
 
 	/**
@@ -335,7 +311,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isJavascript() {
-		return isMimeTypeIn("application/javascript", "text/javascript");
+		return check(ResponseChecks.JAVASCRIPT);
 	}
 
 	/**
@@ -345,7 +321,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isTextPlain() {
-		return isMimeTypeTypeEqualTo("text/plain");
+		return check(ResponseChecks.TEXT_PLAIN);
 	}
 
 	/**
@@ -355,7 +331,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isHtml() {
-		return isMimeTypeTypeEqualTo("text/html");
+		return check(ResponseChecks.HTML);
 	}
 
 	/**
@@ -365,7 +341,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isXhtml() {
-		return isMimeTypeTypeEqualTo("application/xhtml+xml");
+		return check(ResponseChecks.XHTML);
 	}
 
 	/**
@@ -375,7 +351,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isHtmlOrXhtml() {
-		return isMimeTypeIn("text/html", "application/xhtml+xml");
+		return check(ResponseChecks.HTML_OR_XHTML);
 	}
 
 	/**
@@ -385,7 +361,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isPdf() {
-		return isMimeTypeTypeEqualTo("application/pdf");
+		return check(ResponseChecks.PDF);
 	}
 
 	/**
@@ -395,7 +371,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isCsv() {
-		return isMimeTypeTypeEqualTo("text/csv");
+		return check(ResponseChecks.CSV);
 	}
 
 	/**
@@ -404,7 +380,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isZip() {
-		return isMimeTypeTypeEqualTo("application/zip");
+		return check(ResponseChecks.ZIP);
 	}
 
 	/**
@@ -413,7 +389,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isFlashContent() {
-		return isMimeTypeIn("application/x-shockwave-flash", "video/x-flv");
+		return check(ResponseChecks.FLASH);
 	}
 
 	/**
@@ -422,12 +398,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasContentType() {
-		isNotNull();
-		String contentType = trim(actual.getContentType());
-		Assertions.assertThat(contentType)
-				.overridingErrorMessage("Expect Content-Type to be defined and not empty")
-				.isNotNull().isNotEmpty();
-		return this;
+		return check(ResponseChecks.CONTENT_TYPE);
 	}
 
 	/**
@@ -437,12 +408,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isMimeTypeTypeEqualTo(String expected) {
-		hasContentType();
-		String type = actual.getContentType().split(";")[0].toLowerCase();
-		Assertions.assertThat(type)
-				.overridingErrorMessage("Expect Content-Type to be <%s> but was <%s>", expected, type)
-				.isEqualTo(expected);
-		return this;
+		return check(ResponseChecks.checkMimeType(actual(), expected));
 	}
 
 	/**
@@ -452,12 +418,17 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isMimeTypeIn(String... expecteds) {
-		hasContentType();
-		String type = actual.getContentType().split(";")[0].toLowerCase();
-		Assertions.assertThat(type)
-				.overridingErrorMessage("Expect Content-Type to be one of <%s> but was <%s>", join(", ", expecteds), type)
-				.isIn(expecteds);
-		return this;
+		return check(ResponseChecks.checkMimeTypeIn(actual(), expecteds));
+	}
+
+	/**
+	 * Check if mime type is one of well known mime types.
+	 *
+	 * @param expecteds Expected mime types.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponseAssert isMimeTypeIn(MimeType... expecteds) {
+		return check(ResponseChecks.checkMimeType(actual(), expecteds));
 	}
 
 	/**
@@ -466,20 +437,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasCharset() {
-		hasContentType();
-
-		String[] type = actual.getContentType().split(";");
-		Assertions.assertThat(type)
-				.overridingErrorMessage("Expect charset to be defined in Content-Type value")
-				.hasSize(2);
-
-		String charset = type[1].replace(" ", "").toLowerCase();
-		Assertions.assertThat(charset)
-				.overridingErrorMessage("Expect charset not to be empty in Content-Type value")
-				.isNotEmpty()
-				.startsWith("charset=");
-
-		return this;
+		return check(ResponseChecks.CHARSET);
 	}
 
 	/**
@@ -489,12 +447,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isCharsetEqualTo(String expected) {
-		hasCharset();
-		String charset = actual.getContentType().split(";")[1].trim().replace(" ", "").replace("charset=", "");
-		Assertions.assertThat(charset)
-				.overridingErrorMessage("Expect charset to be <%s> but was <%s>", expected, charset)
-				.isEqualToIgnoringCase(expected);
-		return this;
+		return check(ResponseChecks.checkCharset(actual(), expected));
 	}
 
 	/**
@@ -503,7 +456,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert isUtf8() {
-		return isCharsetEqualTo("utf-8");
+		return check(ResponseChecks.UTF8);
 	}
 
 	/**
@@ -540,12 +493,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasHeader(String headerName) {
-		isNotNull();
-		String val = trim(actual.getHeader(headerName.toLowerCase()));
-		Assertions.assertThat(val)
-				.overridingErrorMessage("Expected header <%s> to be defined", headerName)
-				.isNotNull().isNotEmpty();
-		return this;
+		return check(ResponseChecks.checkHeader(actual(), headerName, false, null));
 	}
 
 	/**
@@ -556,12 +504,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasHeaderEqualTo(String headerName, String value) {
-		hasHeader(headerName);
-		String current = actual.getHeader(headerName.toLowerCase());
-		Assertions.assertThat(current)
-				.overridingErrorMessage("Expected header <%s> to be <%s> but was <%s>", headerName, value, current)
-				.isEqualTo(value);
-		return this;
+		return check(ResponseChecks.checkHeader(actual(), headerName, true, value));
 	}
 
 	/**
@@ -570,7 +513,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasETagHeader() {
-		return hasHeader(ETAG);
+		return hasHeader(HttpHeaders.ETAG);
 	}
 
 	/**
@@ -580,7 +523,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasETagEqualTo(String value) {
-		return hasHeaderEqualTo(ETAG, value);
+		return hasHeaderEqualTo(HttpHeaders.ETAG, value);
 	}
 
 	/**
@@ -589,7 +532,7 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasLocationHeader() {
-		return hasHeader(LOCATION);
+		return hasHeader(HttpHeaders.LOCATION);
 	}
 
 	/**
@@ -599,48 +542,126 @@ public class ResponseAssert extends AbstractAssert<ResponseAssert, Response> {
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasLocationEqualTo(String value) {
-		return hasHeaderEqualTo(LOCATION, value);
+		return hasHeaderEqualTo(HttpHeaders.LOCATION, value);
 	}
 
 	/**
 	 * Check if a cookie is defined in the response headers.
+	 * Name is case insensitive: if several cookies have this name, the last one is checked.
 	 *
 	 * @param cookieName Cookie name.
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasCookie(String cookieName) {
-		isNotNull();
-		Assertions.assertThat(actual.getCookie(cookieName))
-				.overridingErrorMessage("Expected cookie <%s> to be defined", cookieName)
-				.isNotNull();
-		return this;
+		return check(ResponseChecks.checkCookie(actual(), cookieName, false, null));
 	}
 
 	/**
 	 * Check if a cookie is defined in the response headers and its value is equal to an expected string.
+	 * Name is case insensitive: if several cookies have this name, the last one is checked.
 	 *
 	 * @param cookieName Cookie name.
 	 * @param value Expeced value.
 	 * @return {@code this} the assertion object.
 	 */
 	public ResponseAssert hasCookieEqualTo(String cookieName, String value) {
-		hasCookie(cookieName);
-		Cookie cookie = actual.getCookie(cookieName);
-		Assertions.assertThat(cookie.getValue())
-				.overridingErrorMessage("Expected cookie <%s> to be <%s> but was <%s>", cookieName, value, cookie.getValue())
-				.isEqualTo(value);
-		return this;
+		return check(ResponseChecks.checkCookie(actual(), cookieName, true, value));
 	}
 
-	private String join(String on, String... values) {
-		String result = "";
-		for (String value : values) {
-			result += value + on;
+	/**
+	 * Check if response has a non empty body.
+	 *
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponseAssert hasBody() {
+		return check(ResponseChecks.BODY);
+	}
+
+	/**
+	 * Check if response has an empty body.
+	 *
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponseAssert hasEmptyBody() {
+		return check(ResponseChecks.EMPTY_BODY);
+	}
+
+	/**
+	 * Check if body of response contains a value.
+	 * Body is decoded with charset of Content-Type and is streamed, so large bodies are never fully loaded in memory.
+	 *
+	 * @param value Expected value.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponseAssert hasBodyContaining(String value) {
+		return check(ResponseChecks.checkBody(actual(), false, value, null));
+	}
+
+	/**
+	 * Check if body of response is equal to an expected value.
+	 * Body is decoded with charset of Content-Type and is streamed, so large bodies are never fully loaded in memory.
+	 *
+	 * @param expected Expected value.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponseAssert hasBodyEqualTo(String expected) {
+		return check(ResponseChecks.checkBody(actual(), false, null, expected));
+	}
+
+	/**
+	 * Check if response was completely received before a given duration.
+	 * Response time must have been measured (see {@link Response#getResponseTime(TimeUnit)}).
+	 *
+	 * @param duration Maximum response time.
+	 * @param unit Unit of duration.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponseAssert respondsWithin(long duration, TimeUnit unit) {
+		return check(ResponseChecks.checkResponseTime(actual(), unit.toNanos(duration), true));
+	}
+
+	/**
+	 * Check if response was not completely received before a given duration.
+	 * Response time must have been measured (see {@link Response#getResponseTime(TimeUnit)}).
+	 *
+	 * @param duration Minimum response time.
+	 * @param unit Unit of duration.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponseAssert respondsAfter(long duration, TimeUnit unit) {
+		return check(ResponseChecks.checkResponseTime(actual(), unit.toNanos(duration), false));
+	}
+
+	/**
+	 * Run a shared check, fail with its failure.
+	 *
+	 * @param check Check.
+	 * @return {@code this} the assertion object.
+	 */
+	private ResponseAssert check(ResponseChecks.Check check) {
+		return check(check.check(actual()));
+	}
+
+	/**
+	 * Fail with result of a check.
+	 *
+	 * @param failure Failure, null if check passed.
+	 * @return {@code this} the assertion object.
+	 */
+	private ResponseAssert check(String failure) {
+		if (failure != null) {
+			throw new AssertionError(failure);
 		}
-		return result.substring(0, result.length() - on.length());
+		return this;
 	}
 
-	private String trim(String val) {
-		return val == null ? val : val.trim();
+	/**
+	 * Get checked response, fail if it is null.
+	 *
+	 * @return Response.
+	 */
+	private Response actual() {
+		isNotNull();
+		return actual;
 	}
 }
@@ -0,0 +1,14 @@
+package org.fest.assertions.api.rest;
+
+/**
+ * Assertions applied to a response once it is received.
+ */
+public interface ResponseCheck {
+
+	/**
+	 * Check response.
+	 *
+	 * @param response Assertion object of response.
+	 */
+	void check(ResponseAssert response);
+}
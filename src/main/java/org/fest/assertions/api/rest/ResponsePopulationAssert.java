@@ -0,0 +1,244 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.api.AbstractAssert;
+import org.fest.assertions.util.MimeType;
+import org.fest.assertions.util.ResponsePopulation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Assertions on counts of a population of responses.
+ * Proportions are given between 0 and 1 (such as 0.999 for 99.9%), and are computed when assertions are evaluated:
+ * assertions should be evaluated once all responses are recorded.
+ */
+public class ResponsePopulationAssert extends AbstractAssert<ResponsePopulationAssert, ResponsePopulation> {
+
+	public ResponsePopulationAssert(ResponsePopulation actual) {
+		super(actual, ResponsePopulationAssert.class);
+	}
+
+	/**
+	 * Check number of recorded responses.
+	 *
+	 * @param expected Expected number of responses.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasCount(long expected) {
+		isNotNull();
+		long count = actual.getCount();
+		if (count != expected) {
+			String msg = String.format("Expected <%s> responses to be recorded but was <%s>", expected, count);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	/**
+	 * Check that a minimum number of responses has been recorded.
+	 *
+	 * @param expected Minimum number of responses.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasCountAtLeast(long expected) {
+		isNotNull();
+		long count = actual.getCount();
+		if (count < expected) {
+			String msg = String.format("Expected at least <%s> responses to be recorded but was <%s>", expected, count);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	/**
+	 * Check proportion of responses with a status code between 200 and 299.
+	 *
+	 * @param proportion Minimum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasSuccessProportionAtLeast(double proportion) {
+		return hasStatusClassProportionAtLeast(2, proportion);
+	}
+
+	/**
+	 * Check proportion of responses with a status code between 500 and 599.
+	 *
+	 * @param proportion Maximum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasServerErrorProportionAtMost(double proportion) {
+		return hasStatusClassProportionAtMost(5, proportion);
+	}
+
+	/**
+	 * Check proportion of responses with a status code in a class (such as 2 for 2xx).
+	 *
+	 * @param statusClass Status class, between 1 and 5.
+	 * @param proportion Minimum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasStatusClassProportionAtLeast(int statusClass, double proportion) {
+		isNotNull();
+		return atLeast(statusClass + "xx responses", actual.getStatusClassCount(statusClass), actual.getCount(), proportion);
+	}
+
+	/**
+	 * Check proportion of responses with a status code in a class (such as 5 for 5xx).
+	 *
+	 * @param statusClass Status class, between 1 and 5.
+	 * @param proportion Maximum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasStatusClassProportionAtMost(int statusClass, double proportion) {
+		isNotNull();
+		return atMost(statusClass + "xx responses", actual.getStatusClassCount(statusClass), actual.getCount(), proportion);
+	}
+
+	/**
+	 * Check proportion of responses with a well known mime type.
+	 *
+	 * @param mimeType Mime type.
+	 * @param proportion Minimum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasMimeTypeProportionAtLeast(MimeType mimeType, double proportion) {
+		isNotNull();
+		return atLeast(mimeType + " responses", actual.getMimeTypeCount(mimeType), actual.getCount(), proportion);
+	}
+
+	/**
+	 * Check proportion of responses with a tracked header.
+	 *
+	 * @param headerName Name of tracked header.
+	 * @param proportion Minimum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasHeaderProportionAtLeast(String headerName, double proportion) {
+		isNotNull();
+		return atLeast("responses with header " + headerName, actual.getHeaderCount(headerName), actual.getCount(), proportion);
+	}
+
+	/**
+	 * Check proportion of responses without a tracked header.
+	 *
+	 * @param headerName Name of tracked header.
+	 * @param proportion Maximum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasMissingHeaderProportionAtMost(String headerName, double proportion) {
+		isNotNull();
+		long count = actual.getCount();
+		return atMost("responses without header " + headerName, count - actual.getHeaderCount(headerName), count, proportion);
+	}
+
+	/**
+	 * Check proportion of responses satisfying a tracked condition, among responses counted by condition.
+	 *
+	 * @param condition Name of tracked condition.
+	 * @param proportion Minimum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasConditionProportionAtLeast(String condition, double proportion) {
+		isNotNull();
+		return atLeast("responses satisfying " + condition, actual.getConditionCount(condition), actual.getConditionPopulation(condition), proportion);
+	}
+
+	/**
+	 * Check proportion of responses satisfying a tracked condition, among responses counted by condition.
+	 *
+	 * @param condition Name of tracked condition.
+	 * @param proportion Maximum proportion.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasConditionProportionAtMost(String condition, double proportion) {
+		isNotNull();
+		return atMost("responses satisfying " + condition, actual.getConditionCount(condition), actual.getConditionPopulation(condition), proportion);
+	}
+
+	/**
+	 * Check that all responses counted by a tracked condition satisfy it.
+	 *
+	 * @param condition Name of tracked condition.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert allSatisfy(String condition) {
+		isNotNull();
+		long population = actual.getConditionPopulation(condition);
+		long count = actual.getConditionCount(condition);
+		if (count != population) {
+			String msg = String.format("Expected all responses to satisfy <%s> but <%s> of <%s> did not", condition, population - count, population);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	/**
+	 * Check maximum number of responses satisfying a tracked condition.
+	 *
+	 * @param condition Name of tracked condition.
+	 * @param expected Maximum number of responses.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasConditionCountAtMost(String condition, long expected) {
+		isNotNull();
+		long count = actual.getConditionCount(condition);
+		if (count > expected) {
+			String msg = String.format("Expected at most <%s> responses satisfying <%s> but was <%s>", expected, condition, count);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	/**
+	 * Check minimum number of responses satisfying a tracked condition.
+	 *
+	 * @param condition Name of tracked condition.
+	 * @param expected Minimum number of responses.
+	 * @return {@code this} the assertion object.
+	 */
+	public ResponsePopulationAssert hasConditionCountAtLeast(String condition, long expected) {
+		isNotNull();
+		long count = actual.getConditionCount(condition);
+		if (count < expected) {
+			String msg = String.format("Expected at least <%s> responses satisfying <%s> but was <%s>", expected, condition, count);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	private ResponsePopulationAssert atLeast(String description, long count, long population, double proportion) {
+		double actualProportion = proportion(description, count, population, proportion);
+		if (actualProportion < proportion) {
+			String msg = String.format("Expected proportion of %s to be at least <%s> but was <%s> (<%s> of <%s>)",
+					description, percent(proportion), percent(actualProportion), count, population);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	private ResponsePopulationAssert atMost(String description, long count, long population, double proportion) {
+		double actualProportion = proportion(description, count, population, proportion);
+		if (actualProportion > proportion) {
+			String msg = String.format("Expected proportion of %s to be at most <%s> but was <%s> (<%s> of <%s>)",
+					description, percent(proportion), percent(actualProportion), count, population);
+			throw new AssertionError(msg);
+		}
+		return this;
+	}
+
+	private static double proportion(String description, long count, long population, double proportion) {
+		if (!(proportion >= 0 && proportion <= 1)) {
+			throw new IllegalArgumentException(String.format("Proportion must be between 0 and 1 but was %s", proportion));
+		}
+		if (population == 0) {
+			String msg = String.format("Expected proportion of %s to be computed but no response was recorded", description);
+			throw new AssertionError(msg);
+		}
+		return (double) count / population;
+	}
+
+	private static String percent(double proportion) {
+		BigDecimal percent = new BigDecimal(proportion * 100).setScale(3, RoundingMode.HALF_UP).stripTrailingZeros();
+		return (percent.signum() == 0 ? "0" : percent.toPlainString()) + "%";
+	}
+}
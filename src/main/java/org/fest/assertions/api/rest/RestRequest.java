@@ -0,0 +1,335 @@
+package org.fest.assertions.api.rest;
+
+import com.ning.http.client.AsyncCompletionHandlerBase;
+import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.HttpResponseStatus;
+import com.ning.http.client.ListenableFuture;
+import com.ning.http.client.RequestBuilder;
+import org.fest.assertions.util.AsyncHttpResponse;
+import org.fest.assertions.util.HttpHeaders;
+import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponseLatencies;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Request built with {@link REST#given()}, sent with a pooled async http client.
+ * Responses feed straight into {@link ResponseAssert} (or {@link AsyncResponseAssert} for pending responses).
+ */
+public class RestRequest {
+
+	/** Client used to send request */
+	private final AsyncHttpClient client;
+
+	/** Request timeout, in milliseconds */
+	private long timeoutInMs;
+
+	/** Request being built, method and url are set when request is sent */
+	private final RequestBuilder builder = new RequestBuilder();
+
+	/** Latencies of responses, null if they are not recorded */
+	private ResponseLatencies latencies;
+
+	public RestRequest(AsyncHttpClient client, int timeoutInMs) {
+		this.client = client;
+		this.timeoutInMs = timeoutInMs;
+	}
+
+	/**
+	 * Add header to request.
+	 *
+	 * @param name Name of header.
+	 * @param value Value of header.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest header(String name, String value) {
+		builder.addHeader(name, value);
+		return this;
+	}
+
+	/**
+	 * Set Content-Type of request.
+	 *
+	 * @param contentType Content-Type value.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest contentType(String contentType) {
+		builder.setHeader(HttpHeaders.CONTENT_TYPE, contentType);
+		return this;
+	}
+
+	/**
+	 * Set Accept header of request.
+	 *
+	 * @param accept Accept value.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest accept(String accept) {
+		builder.setHeader(HttpHeaders.ACCEPT, accept);
+		return this;
+	}
+
+	/**
+	 * Add cookie to request.
+	 *
+	 * @param name Name of cookie.
+	 * @param value Value of cookie.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest cookie(String name, String value) {
+		builder.addCookie(new com.ning.http.client.Cookie("", name, value, null, -1, false));
+		return this;
+	}
+
+	/**
+	 * Add query parameter to request.
+	 *
+	 * @param name Name of parameter.
+	 * @param value Value of parameter.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest queryParam(String name, String value) {
+		builder.addQueryParameter(name, value);
+		return this;
+	}
+
+	/**
+	 * Set body of request.
+	 *
+	 * @param body Body.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest body(String body) {
+		builder.setBody(body);
+		return this;
+	}
+
+	/**
+	 * Set body of request.
+	 *
+	 * @param body Body.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest body(byte[] body) {
+		builder.setBody(body);
+		return this;
+	}
+
+	/**
+	 * Set maximum time to wait for response, instead of timeout of client.
+	 *
+	 * @param timeout Timeout.
+	 * @param unit Unit of timeout.
+	 * @return {@code this} the request.
+	 */
+	@SuppressWarnings("deprecation")
+	public RestRequest timeout(long timeout, TimeUnit unit) {
+		if (timeout <= 0) {
+			throw new IllegalArgumentException("Timeout must be positive");
+		}
+		this.timeoutInMs = unit.toMillis(timeout);
+		// Only way to set timeout of a single request with async-http-client 1.7
+		builder.setPerRequestConfig(new com.ning.http.client.PerRequestConfig(null, (int) Math.min(Integer.MAX_VALUE, timeoutInMs)));
+		return this;
+	}
+
+	/**
+	 * Record time to first byte and response time of responses.
+	 * Latencies are recorded when response is received, for requests sent with or without waiting for response.
+	 * Requests that fail or time out are recorded as failures, with the time elapsed until failure.
+	 *
+	 * @param latencies Latencies, can be shared by several requests and threads.
+	 * @return {@code this} the request.
+	 */
+	public RestRequest recordLatencies(ResponseLatencies latencies) {
+		this.latencies = latencies;
+		return this;
+	}
+
+	/**
+	 * Send GET request and wait for response.
+	 *
+	 * @param url Url.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert get(String url) {
+		return check("GET", url);
+	}
+
+	/**
+	 * Send POST request and wait for response.
+	 *
+	 * @param url Url.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert post(String url) {
+		return check("POST", url);
+	}
+
+	/**
+	 * Send PUT request and wait for response.
+	 *
+	 * @param url Url.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert put(String url) {
+		return check("PUT", url);
+	}
+
+	/**
+	 * Send PATCH request and wait for response.
+	 *
+	 * @param url Url.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert patch(String url) {
+		return check("PATCH", url);
+	}
+
+	/**
+	 * Send DELETE request and wait for response.
+	 *
+	 * @param url Url.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert delete(String url) {
+		return check("DELETE", url);
+	}
+
+	/**
+	 * Send HEAD request and wait for response.
+	 *
+	 * @param url Url.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert head(String url) {
+		return check("HEAD", url);
+	}
+
+	/**
+	 * Send request and wait for response.
+	 * Fail if request cannot be sent or if response is not received before timeout.
+	 * Response time is measured from sending request to receiving complete response, and time to first byte
+	 * from sending request to receiving status line of response.
+	 *
+	 * Response must be closed once it has been checked.
+	 *
+	 * @param method Http method.
+	 * @param url Url.
+	 * @return Response.
+	 */
+	public Response send(String method, String url) {
+		return receive(method, url);
+	}
+
+	/**
+	 * Send request without waiting for response.
+	 *
+	 * @param method Http method.
+	 * @param url Url.
+	 * @return Assertion object of pending response.
+	 */
+	public AsyncResponseAssert sendAsync(String method, String url) {
+		return new AsyncResponseAssert(execute(method, url, new TimingHandler(latencies)), AsyncResponseAssert.SAME_THREAD);
+	}
+
+	/**
+	 * Send request and wrap response in an assertion object.
+	 * Response is never closed, so its body is kept in memory.
+	 */
+	private ResponseAssert check(String method, String url) {
+		return new ResponseAssert(receive(method, url).keepBodyInMemory());
+	}
+
+	private AsyncHttpResponse receive(String method, String url) {
+		TimingHandler timing = new TimingHandler(latencies);
+		ListenableFuture<com.ning.http.client.Response> future = execute(method, url, timing);
+		try {
+			com.ning.http.client.Response response = future.get(timeoutInMs, TimeUnit.MILLISECONDS);
+			return new AsyncHttpResponse(response, timing.responseTimeNanos, timing.timeToFirstByteNanos);
+		}
+		catch (ExecutionException ex) {
+			throw failure(method, url, ex.getCause());
+		}
+		catch (TimeoutException ex) {
+			timing.failed();
+			future.cancel(true);
+			throw failure(method, url, ex);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw failure(method, url, ex);
+		}
+	}
+
+	private ListenableFuture<com.ning.http.client.Response> execute(String method, String url, TimingHandler timing) {
+		builder.setMethod(method).setUrl(url);
+		try {
+			return client.executeRequest(builder.build(), timing);
+		}
+		catch (IOException ex) {
+			throw failure(method, url, ex);
+		}
+	}
+
+	private static AssertionError failure(String method, String url, Throwable cause) {
+		String msg = String.format("Expected request <%s %s> to succeed but failed with: %s", method, url, cause);
+		return new AssertionError(msg, cause);
+	}
+
+	/**
+	 * Handler measuring timing of response on the thread of client, when response is received.
+	 * Timings are read by the thread waiting for response once the future is done.
+	 * Each request is recorded once: as a response when it completes, or as a failure when it fails or times out.
+	 */
+	private static final class TimingHandler extends AsyncCompletionHandlerBase {
+		private final ResponseLatencies latencies;
+		private final AtomicBoolean recorded = new AtomicBoolean();
+		private final long start;
+		private volatile long timeToFirstByteNanos = -1;
+		private volatile long responseTimeNanos = -1;
+
+		private TimingHandler(ResponseLatencies latencies) {
+			this.latencies = latencies;
+			this.start = System.nanoTime();
+		}
+
+		@Override
+		public AsyncHandler.STATE onStatusReceived(HttpResponseStatus status) throws Exception {
+			// First status only: following a redirect does not reset time to first byte
+			if (timeToFirstByteNanos < 0) {
+				timeToFirstByteNanos = System.nanoTime() - start;
+			}
+			return super.onStatusReceived(status);
+		}
+
+		@Override
+		public com.ning.http.client.Response onCompleted(com.ning.http.client.Response response) throws Exception {
+			responseTimeNanos = System.nanoTime() - start;
+			if (latencies != null && recorded.compareAndSet(false, true)) {
+				latencies.recordNanos(timeToFirstByteNanos, responseTimeNanos);
+			}
+			return super.onCompleted(response);
+		}
+
+		@Override
+		public void onThrowable(Throwable t) {
+			failed();
+			super.onThrowable(t);
+		}
+
+		/**
+		 * Record request as failed, if it has not been recorded yet.
+		 */
+		private void failed() {
+			if (latencies != null && recorded.compareAndSet(false, true)) {
+				latencies.recordFailureNanos(timeToFirstByteNanos, System.nanoTime() - start);
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package org.fest.assertions.api.rest;
+
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.AsyncHttpClientConfig;
+
+/**
+ * Async http client shared by all requests built with {@link REST#given()}.
+ * Client is created on first request, with keep-alive connection pooling, so that connections
+ * (and TLS sessions) are reused across tests. It is closed when the JVM shuts down.
+ */
+public final class SharedHttpClient {
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 200;
+
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 50;
+
+	public static final int DEFAULT_REQUEST_TIMEOUT_IN_MS = 60000;
+
+	private static final Object LOCK = new Object();
+
+	private static volatile AsyncHttpClient client;
+
+	private static int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+	private static int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+	private static int requestTimeoutInMs = DEFAULT_REQUEST_TIMEOUT_IN_MS;
+
+	private static boolean shutdownHook;
+
+	private SharedHttpClient() {
+	}
+
+	/**
+	 * Configure shared client.
+	 * Must be called before first request, or after {@link #close()}.
+	 *
+	 * @param maxConnections Maximum number of open connections.
+	 * @param maxConnectionsPerHost Maximum number of open connections to the same host.
+	 * @param requestTimeoutInMs Request timeout, in milliseconds.
+	 */
+	public static void configure(int maxConnections, int maxConnectionsPerHost, int requestTimeoutInMs) {
+		if (maxConnections <= 0 || maxConnectionsPerHost <= 0 || requestTimeoutInMs <= 0) {
+			throw new IllegalArgumentException("Number of connections and timeout must be positive");
+		}
+		synchronized (LOCK) {
+			if (client != null) {
+				throw new IllegalStateException("Shared client is already created, close it before changing its configuration");
+			}
+			SharedHttpClient.maxConnections = maxConnections;
+			SharedHttpClient.maxConnectionsPerHost = maxConnectionsPerHost;
+			SharedHttpClient.requestTimeoutInMs = requestTimeoutInMs;
+		}
+	}
+
+	/**
+	 * Get shared client, create it on first call.
+	 *
+	 * @return Client.
+	 */
+	public static AsyncHttpClient get() {
+		AsyncHttpClient current = client;
+		if (current == null) {
+			synchronized (LOCK) {
+				current = client;
+				if (current == null) {
+					current = new AsyncHttpClient(new AsyncHttpClientConfig.Builder()
+							.setAllowPoolingConnection(true)
+							.setAllowSslConnectionPool(true)
+							.setMaximumConnectionsTotal(maxConnections)
+							.setMaximumConnectionsPerHost(maxConnectionsPerHost)
+							.setRequestTimeoutInMs(requestTimeoutInMs)
+							.build());
+					client = current;
+					registerShutdownHook();
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Get timeout of requests sent with shared client.
+	 *
+	 * @return Timeout, in milliseconds.
+	 */
+	static int getRequestTimeoutInMs() {
+		synchronized (LOCK) {
+			return requestTimeoutInMs;
+		}
+	}
+
+	/**
+	 * Close shared client and its connections.
+	 * A new client is created on next request.
+	 */
+	public static void close() {
+		AsyncHttpClient current;
+		synchronized (LOCK) {
+			current = client;
+			client = null;
+		}
+		if (current != null) {
+			current.close();
+		}
+	}
+
+	private static void registerShutdownHook() {
+		if (!shutdownHook) {
+			shutdownHook = true;
+			Runtime.getRuntime().addShutdownHook(new Thread("shared-http-client-shutdown") {
+				@Override
+				public void run() {
+					close();
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package org.fest.assertions.servlet;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response wrapper keeping a copy of cookies and body written by servlet, while still sending them to client.
+ * Copy of body stops once it exceeds a maximum size: response is then marked as truncated.
+ */
+class CapturingResponse extends HttpServletResponseWrapper {
+
+	private final int maxBodySize;
+
+	private final List<Cookie> cookies = new ArrayList<Cookie>();
+
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+	private boolean truncated;
+
+	private ServletOutputStream outputStream;
+
+	private PrintWriter writer;
+
+	CapturingResponse(HttpServletResponse response, int maxBodySize) {
+		super(response);
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * Flush writer and get copy of body.
+	 *
+	 * @return Body.
+	 */
+	byte[] getBody() {
+		if (writer != null) {
+			writer.flush();
+		}
+		return body.toByteArray();
+	}
+
+	boolean isTruncated() {
+		if (writer != null) {
+			writer.flush();
+		}
+		return truncated;
+	}
+
+	List<Cookie> getCookies() {
+		return cookies;
+	}
+
+	@Override
+	public void addCookie(Cookie cookie) {
+		cookies.add(cookie);
+		super.addCookie(cookie);
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called on this response");
+		}
+		return stream();
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (outputStream != null && writer == null) {
+			throw new IllegalStateException("getOutputStream() has already been called on this response");
+		}
+		if (writer == null) {
+			// Encode characters here, so that captured bytes are exactly the bytes sent to client
+			writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+		}
+		return writer;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+		super.flushBuffer();
+	}
+
+	@Override
+	public void resetBuffer() {
+		super.resetBuffer();
+		body.reset();
+		truncated = false;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		body.reset();
+		cookies.clear();
+		truncated = false;
+	}
+
+	private ServletOutputStream stream() throws IOException {
+		if (outputStream == null) {
+			final ServletOutputStream delegate = super.getOutputStream();
+			outputStream = new ServletOutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					delegate.write(b);
+					capture(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					delegate.write(b, off, len);
+					capture(b, off, len);
+				}
+
+				@Override
+				public void flush() throws IOException {
+					delegate.flush();
+				}
+
+				@Override
+				public void close() throws IOException {
+					delegate.close();
+				}
+			};
+		}
+		return outputStream;
+	}
+
+	private void capture(int b) {
+		if (!truncated && body.size() < maxBodySize) {
+			body.write(b);
+		}
+		else {
+			truncated = true;
+		}
+	}
+
+	private void capture(byte[] b, int off, int len) {
+		if (!truncated && body.size() + len <= maxBodySize) {
+			body.write(b, off, len);
+		}
+		else {
+			truncated = true;
+		}
+	}
+}
@@ -0,0 +1,293 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.util.HttpHeaders;
+import org.fest.assertions.util.Response;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request built with {@link ServletHarness#given()}, dispatched to servlet in current thread.
+ * Responses feed straight into {@link ResponseAssert}.
+ */
+public class DispatchRequest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/** Harness receiving request */
+	private final ServletHarness harness;
+
+	private final HttpHeaders headers = new HttpHeaders();
+
+	private final List<Cookie> cookies = new ArrayList<Cookie>();
+
+	/** Encoded query parameters, appended to query string of path */
+	private final StringBuilder query = new StringBuilder();
+
+	/** Parameters set directly on request, as if they were read from a form */
+	private final Map<String, List<String>> parameters = new LinkedHashMap<String, List<String>>();
+
+	private byte[] body = new byte[0];
+
+	DispatchRequest(ServletHarness harness) {
+		this.harness = harness;
+	}
+
+	/**
+	 * Add header to request.
+	 *
+	 * @param name Name of header.
+	 * @param value Value of header.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest header(String name, String value) {
+		headers.add(name, value);
+		return this;
+	}
+
+	/**
+	 * Set Content-Type of request.
+	 *
+	 * @param contentType Content-Type value.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest contentType(String contentType) {
+		headers.add(HttpHeaders.CONTENT_TYPE, contentType);
+		return this;
+	}
+
+	/**
+	 * Set Accept header of request.
+	 *
+	 * @param accept Accept value.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest accept(String accept) {
+		headers.add(HttpHeaders.ACCEPT, accept);
+		return this;
+	}
+
+	/**
+	 * Add cookie to request.
+	 *
+	 * @param name Name of cookie.
+	 * @param value Value of cookie.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest cookie(String name, String value) {
+		cookies.add(new Cookie(name, value));
+		return this;
+	}
+
+	/**
+	 * Add query parameter to request.
+	 *
+	 * @param name Name of parameter.
+	 * @param value Value of parameter.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest queryParam(String name, String value) {
+		if (query.length() > 0) {
+			query.append('&');
+		}
+		query.append(encode(name)).append('=').append(encode(value));
+		return this;
+	}
+
+	/**
+	 * Add request parameter, as if it was sent in an url encoded form.
+	 *
+	 * @param name Name of parameter.
+	 * @param value Value of parameter.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest param(String name, String value) {
+		List<String> values = parameters.get(name);
+		if (values == null) {
+			values = new ArrayList<String>(1);
+			parameters.put(name, values);
+		}
+		values.add(value);
+		return this;
+	}
+
+	/**
+	 * Set body of request, encoded in UTF-8.
+	 *
+	 * @param body Body.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest body(String body) {
+		this.body = body.getBytes(UTF_8);
+		return this;
+	}
+
+	/**
+	 * Set body of request.
+	 *
+	 * @param body Body.
+	 * @return {@code this} the request.
+	 */
+	public DispatchRequest body(byte[] body) {
+		this.body = body.clone();
+		return this;
+	}
+
+	/**
+	 * Dispatch GET request.
+	 *
+	 * @param path Path, relative to context path.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert get(String path) {
+		return new ResponseAssert(send("GET", path));
+	}
+
+	/**
+	 * Dispatch POST request.
+	 *
+	 * @param path Path, relative to context path.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert post(String path) {
+		return new ResponseAssert(send("POST", path));
+	}
+
+	/**
+	 * Dispatch PUT request.
+	 *
+	 * @param path Path, relative to context path.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert put(String path) {
+		return new ResponseAssert(send("PUT", path));
+	}
+
+	/**
+	 * Dispatch PATCH request.
+	 *
+	 * @param path Path, relative to context path.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert patch(String path) {
+		return new ResponseAssert(send("PATCH", path));
+	}
+
+	/**
+	 * Dispatch DELETE request.
+	 *
+	 * @param path Path, relative to context path.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert delete(String path) {
+		return new ResponseAssert(send("DELETE", path));
+	}
+
+	/**
+	 * Dispatch HEAD request.
+	 *
+	 * @param path Path, relative to context path.
+	 * @return Assertion object of response.
+	 */
+	public ResponseAssert head(String path) {
+		return new ResponseAssert(send("HEAD", path));
+	}
+
+	/**
+	 * Dispatch request to filters and servlet, and capture response.
+	 * Fail if servlet or one of filters throws an exception.
+	 * Response time is measured from entering first filter to leaving it.
+	 *
+	 * @param method Http method.
+	 * @param path Path, relative to context path, may contain a query string.
+	 * @return Response.
+	 */
+	public Response send(String method, String path) {
+		if (!path.startsWith("/")) {
+			throw new IllegalArgumentException("Path must start with '/': " + path);
+		}
+
+		String pathInfo = path;
+		String queryString = null;
+		int index = path.indexOf('?');
+		if (index >= 0) {
+			pathInfo = path.substring(0, index);
+			queryString = path.substring(index + 1);
+		}
+		if (query.length() > 0) {
+			queryString = queryString == null || queryString.length() == 0 ? query.toString() : queryString + '&' + query;
+		}
+
+		HttpHeaders requestHeaders = headers;
+		if (!cookies.isEmpty() && !headers.contains("Cookie")) {
+			requestHeaders = copy(headers);
+			requestHeaders.add("Cookie", cookieHeader(cookies));
+		}
+
+		HarnessRequest request = new HarnessRequest(harness.getServletContext(), method, harness.getContextPath(), pathInfo,
+				queryString, requestHeaders, cookies.toArray(new Cookie[cookies.size()]), body, parameters);
+		HarnessResponse response = new HarnessResponse();
+
+		long start = System.nanoTime();
+		try {
+			harness.dispatch(request, response);
+		}
+		catch (IOException ex) {
+			throw failure(method, path, ex);
+		}
+		catch (ServletException ex) {
+			throw failure(method, path, ex);
+		}
+		catch (RuntimeException ex) {
+			throw failure(method, path, ex);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		byte[] content = "HEAD".equalsIgnoreCase(method) ? new byte[0] : response.getBody();
+		return new DispatchedResponse(response, response.getCookies(), content, elapsed);
+	}
+
+	private static HttpHeaders copy(HttpHeaders headers) {
+		HttpHeaders copy = new HttpHeaders(headers.size() + 1);
+		for (String name : headers.names()) {
+			for (String value : headers.getAll(name)) {
+				copy.add(name, value);
+			}
+		}
+		return copy;
+	}
+
+	private static String cookieHeader(List<Cookie> cookies) {
+		StringBuilder header = new StringBuilder();
+		for (Cookie cookie : cookies) {
+			if (header.length() > 0) {
+				header.append("; ");
+			}
+			header.append(cookie.getName()).append('=').append(cookie.getValue());
+		}
+		return header.toString();
+	}
+
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static AssertionError failure(String method, String path, Throwable cause) {
+		String msg = String.format("Expected request <%s %s> to succeed but failed with: %s", method, path, cause);
+		return new AssertionError(msg, cause);
+	}
+}
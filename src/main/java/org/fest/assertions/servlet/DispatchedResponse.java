@@ -0,0 +1,82 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.util.AbstractResponse;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.HttpHeaders;
+import org.fest.assertions.util.ResponseBody;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response captured from a servlet, dispatched by a {@link ServletHarness} or sampled by a {@link SamplingFilter}.
+ * Captured values are copied, so servlet cannot change response once it has been captured.
+ */
+class DispatchedResponse extends AbstractResponse {
+
+	private final int statusCode;
+
+	private final String contentType;
+
+	private final HttpHeaders headers;
+
+	private final List<javax.servlet.http.Cookie> cookies;
+
+	private final byte[] body;
+
+	DispatchedResponse(HttpServletResponse response, List<javax.servlet.http.Cookie> cookies, byte[] body, long responseTimeNanos) {
+		super(responseTimeNanos);
+		this.statusCode = response.getStatus();
+		this.contentType = response.getContentType();
+		this.cookies = new ArrayList<javax.servlet.http.Cookie>(cookies);
+		this.body = body;
+
+		this.headers = new HttpHeaders();
+		if (contentType != null) {
+			headers.add(HttpHeaders.CONTENT_TYPE, contentType);
+		}
+		for (String name : response.getHeaderNames()) {
+			if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+				continue;
+			}
+			for (String value : response.getHeaders(name)) {
+				headers.add(name, value);
+			}
+		}
+	}
+
+	@Override
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType;
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders index) {
+		for (String name : headers.names()) {
+			for (String value : headers.getAll(name)) {
+				index.add(name, value);
+			}
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		List<Cookie> results = new ArrayList<Cookie>(cookies.size());
+		for (javax.servlet.http.Cookie cookie : cookies) {
+			results.add(new Cookie(cookie));
+		}
+		return results;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) {
+		return ResponseBody.of(body, charset);
+	}
+}
@@ -0,0 +1,318 @@
+package org.fest.assertions.servlet;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterRegistration;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.Servlet;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRegistration;
+import javax.servlet.SessionCookieConfig;
+import javax.servlet.SessionTrackingMode;
+import javax.servlet.descriptor.JspConfigDescriptor;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.EventListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Servlet context shared by servlet and filters of a {@link ServletHarness}.
+ * Resources are loaded from classpath, relative to context root. Dynamic registration of
+ * servlets, filters and listeners is not supported.
+ */
+class HarnessContext implements ServletContext {
+
+	private static final Logger LOGGER = Logger.getLogger(ServletHarness.class.getName());
+
+	private final String contextPath;
+
+	private final Map<String, String> initParameters;
+
+	private final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+
+	HarnessContext(String contextPath, Map<String, String> initParameters) {
+		this.contextPath = contextPath;
+		this.initParameters = new LinkedHashMap<String, String>(initParameters);
+	}
+
+	@Override
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	@Override
+	public ServletContext getContext(String uripath) {
+		return null;
+	}
+
+	@Override
+	public int getMajorVersion() {
+		return 3;
+	}
+
+	@Override
+	public int getMinorVersion() {
+		return 0;
+	}
+
+	@Override
+	public int getEffectiveMajorVersion() {
+		return 3;
+	}
+
+	@Override
+	public int getEffectiveMinorVersion() {
+		return 0;
+	}
+
+	@Override
+	public String getMimeType(String file) {
+		return URLConnection.guessContentTypeFromName(file);
+	}
+
+	@Override
+	public Set<String> getResourcePaths(String path) {
+		return null;
+	}
+
+	@Override
+	public URL getResource(String path) {
+		return getClassLoader().getResource(path.startsWith("/") ? path.substring(1) : path);
+	}
+
+	@Override
+	public InputStream getResourceAsStream(String path) {
+		return getClassLoader().getResourceAsStream(path.startsWith("/") ? path.substring(1) : path);
+	}
+
+	@Override
+	public RequestDispatcher getRequestDispatcher(String path) {
+		return null;
+	}
+
+	@Override
+	public RequestDispatcher getNamedDispatcher(String name) {
+		return null;
+	}
+
+	@Override
+	@Deprecated
+	public Servlet getServlet(String name) {
+		return null;
+	}
+
+	@Override
+	@Deprecated
+	public Enumeration<Servlet> getServlets() {
+		return Collections.enumeration(Collections.<Servlet>emptyList());
+	}
+
+	@Override
+	@Deprecated
+	public Enumeration<String> getServletNames() {
+		return Collections.enumeration(Collections.<String>emptyList());
+	}
+
+	@Override
+	public void log(String msg) {
+		LOGGER.info(msg);
+	}
+
+	@Override
+	@Deprecated
+	public void log(Exception exception, String msg) {
+		log(msg, exception);
+	}
+
+	@Override
+	public void log(String message, Throwable throwable) {
+		LOGGER.log(Level.WARNING, message, throwable);
+	}
+
+	@Override
+	public String getRealPath(String path) {
+		return null;
+	}
+
+	@Override
+	public String getServerInfo() {
+		return "fest-rest-assert servlet harness";
+	}
+
+	@Override
+	public String getInitParameter(String name) {
+		return initParameters.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getInitParameterNames() {
+		return Collections.enumeration(initParameters.keySet());
+	}
+
+	@Override
+	public boolean setInitParameter(String name, String value) {
+		if (initParameters.containsKey(name)) {
+			return false;
+		}
+		initParameters.put(name, value);
+		return true;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(new ArrayList<String>(attributes.keySet()));
+	}
+
+	@Override
+	public void setAttribute(String name, Object object) {
+		if (object == null) {
+			attributes.remove(name);
+		}
+		else {
+			attributes.put(name, object);
+		}
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		attributes.remove(name);
+	}
+
+	@Override
+	public String getServletContextName() {
+		return contextPath;
+	}
+
+	@Override
+	public ServletRegistration.Dynamic addServlet(String servletName, String className) {
+		throw unsupported();
+	}
+
+	@Override
+	public ServletRegistration.Dynamic addServlet(String servletName, Servlet servlet) {
+		throw unsupported();
+	}
+
+	@Override
+	public ServletRegistration.Dynamic addServlet(String servletName, Class<? extends Servlet> servletClass) {
+		throw unsupported();
+	}
+
+	@Override
+	public <T extends Servlet> T createServlet(Class<T> clazz) {
+		throw unsupported();
+	}
+
+	@Override
+	public ServletRegistration getServletRegistration(String servletName) {
+		return null;
+	}
+
+	@Override
+	public Map<String, ? extends ServletRegistration> getServletRegistrations() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public FilterRegistration.Dynamic addFilter(String filterName, String className) {
+		throw unsupported();
+	}
+
+	@Override
+	public FilterRegistration.Dynamic addFilter(String filterName, Filter filter) {
+		throw unsupported();
+	}
+
+	@Override
+	public FilterRegistration.Dynamic addFilter(String filterName, Class<? extends Filter> filterClass) {
+		throw unsupported();
+	}
+
+	@Override
+	public <T extends Filter> T createFilter(Class<T> clazz) {
+		throw unsupported();
+	}
+
+	@Override
+	public FilterRegistration getFilterRegistration(String filterName) {
+		return null;
+	}
+
+	@Override
+	public Map<String, ? extends FilterRegistration> getFilterRegistrations() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public void addListener(Class<? extends EventListener> listenerClass) {
+		throw unsupported();
+	}
+
+	@Override
+	public void addListener(String className) {
+		throw unsupported();
+	}
+
+	@Override
+	public <T extends EventListener> void addListener(T t) {
+		throw unsupported();
+	}
+
+	@Override
+	public <T extends EventListener> T createListener(Class<T> clazz) {
+		throw unsupported();
+	}
+
+	@Override
+	public void declareRoles(String... roleNames) {
+		throw unsupported();
+	}
+
+	@Override
+	public SessionCookieConfig getSessionCookieConfig() {
+		return null;
+	}
+
+	@Override
+	public void setSessionTrackingModes(Set<SessionTrackingMode> sessionTrackingModes) {
+		throw unsupported();
+	}
+
+	@Override
+	public Set<SessionTrackingMode> getDefaultSessionTrackingModes() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public ClassLoader getClassLoader() {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		return loader == null ? HarnessContext.class.getClassLoader() : loader;
+	}
+
+	@Override
+	public JspConfigDescriptor getJspConfigDescriptor() {
+		return null;
+	}
+
+	private static UnsupportedOperationException unsupported() {
+		return new UnsupportedOperationException("Dynamic registration is not supported by servlet harness");
+	}
+}
@@ -0,0 +1,549 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.util.HttpHeaders;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.Part;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.security.Principal;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Request given to servlets by a {@link ServletHarness}.
+ * Parameters are read from query string, and from body of url encoded forms.
+ * Sessions are only kept for the duration of the request. Async processing, multipart requests and
+ * authentication are not supported.
+ */
+class HarnessRequest implements HttpServletRequest {
+
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	private static final String FORM = "application/x-www-form-urlencoded";
+
+	private final ServletContext context;
+
+	private final String method;
+
+	private final String contextPath;
+
+	private final String pathInfo;
+
+	private final String queryString;
+
+	private final HttpHeaders headers;
+
+	private final Cookie[] cookies;
+
+	private final byte[] body;
+
+	private final Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+
+	private final Map<String, List<String>> extraParameters;
+
+	private Map<String, String[]> parameters;
+
+	private String characterEncoding;
+
+	private HarnessSession session;
+
+	/** Body is read either as a stream or as a reader */
+	private boolean streamUsed;
+
+	private boolean readerUsed;
+
+	HarnessRequest(ServletContext context, String method, String contextPath, String pathInfo, String queryString,
+			HttpHeaders headers, Cookie[] cookies, byte[] body, Map<String, List<String>> extraParameters) {
+		this.context = context;
+		this.method = method;
+		this.contextPath = contextPath;
+		this.pathInfo = pathInfo;
+		this.queryString = queryString;
+		this.headers = headers;
+		this.cookies = cookies;
+		this.body = body;
+		this.extraParameters = extraParameters;
+		this.characterEncoding = charsetOf(headers.getFirst(HttpHeaders.CONTENT_TYPE));
+	}
+
+	// Http request
+
+	@Override
+	public String getMethod() {
+		return method;
+	}
+
+	@Override
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	@Override
+	public String getServletPath() {
+		return "";
+	}
+
+	@Override
+	public String getPathInfo() {
+		return pathInfo;
+	}
+
+	@Override
+	public String getPathTranslated() {
+		return null;
+	}
+
+	@Override
+	public String getQueryString() {
+		return queryString;
+	}
+
+	@Override
+	public String getRequestURI() {
+		return contextPath + pathInfo;
+	}
+
+	@Override
+	public StringBuffer getRequestURL() {
+		return new StringBuffer(getScheme()).append("://").append(getServerName()).append(':').append(getServerPort()).append(getRequestURI());
+	}
+
+	@Override
+	public Cookie[] getCookies() {
+		return cookies.length == 0 ? null : cookies.clone();
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return headers.getFirst(name);
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		return Collections.enumeration(headers.getAll(name));
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		return Collections.enumeration(headers.names());
+	}
+
+	@Override
+	public long getDateHeader(String name) {
+		String value = headers.getFirst(name);
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return HarnessResponse.httpDateFormat().parse(value).getTime();
+		}
+		catch (ParseException ex) {
+			throw new IllegalArgumentException("Header " + name + " is not a date: " + value);
+		}
+	}
+
+	@Override
+	public int getIntHeader(String name) {
+		String value = headers.getFirst(name);
+		return value == null ? -1 : Integer.parseInt(value);
+	}
+
+	@Override
+	public HttpSession getSession() {
+		return getSession(true);
+	}
+
+	@Override
+	public HttpSession getSession(boolean create) {
+		if (session != null && session.isValid()) {
+			return session;
+		}
+		if (create) {
+			session = new HarnessSession(context);
+		}
+		return create ? session : null;
+	}
+
+	@Override
+	public String getRequestedSessionId() {
+		return null;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdValid() {
+		return false;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromCookie() {
+		return false;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromURL() {
+		return false;
+	}
+
+	@Override
+	@Deprecated
+	public boolean isRequestedSessionIdFromUrl() {
+		return false;
+	}
+
+	@Override
+	public String getAuthType() {
+		return null;
+	}
+
+	@Override
+	public String getRemoteUser() {
+		return null;
+	}
+
+	@Override
+	public Principal getUserPrincipal() {
+		return null;
+	}
+
+	@Override
+	public boolean isUserInRole(String role) {
+		return false;
+	}
+
+	@Override
+	public boolean authenticate(HttpServletResponse response) throws ServletException {
+		throw new ServletException("Authentication is not supported by servlet harness");
+	}
+
+	@Override
+	public void login(String username, String password) throws ServletException {
+		throw new ServletException("Authentication is not supported by servlet harness");
+	}
+
+	@Override
+	public void logout() throws ServletException {
+		throw new ServletException("Authentication is not supported by servlet harness");
+	}
+
+	@Override
+	public Collection<Part> getParts() throws ServletException {
+		throw new ServletException("Multipart requests are not supported by servlet harness");
+	}
+
+	@Override
+	public Part getPart(String name) throws ServletException {
+		throw new ServletException("Multipart requests are not supported by servlet harness");
+	}
+
+	// Request
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(new ArrayList<String>(attributes.keySet()));
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		if (value == null) {
+			attributes.remove(name);
+		}
+		else {
+			attributes.put(name, value);
+		}
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		attributes.remove(name);
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return characterEncoding;
+	}
+
+	@Override
+	public void setCharacterEncoding(String encoding) throws UnsupportedEncodingException {
+		if (!Charset.isSupported(encoding)) {
+			throw new UnsupportedEncodingException(encoding);
+		}
+		this.characterEncoding = encoding;
+	}
+
+	@Override
+	public int getContentLength() {
+		return body.length == 0 && !headers.contains(HttpHeaders.CONTENT_LENGTH) ? -1 : body.length;
+	}
+
+	@Override
+	public String getContentType() {
+		return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+	}
+
+	@Override
+	public ServletInputStream getInputStream() {
+		if (readerUsed) {
+			throw new IllegalStateException("Body has already been read with getReader()");
+		}
+		streamUsed = true;
+		final ByteArrayInputStream in = new ByteArrayInputStream(body);
+		return new ServletInputStream() {
+			@Override
+			public int read() {
+				return in.read();
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				return in.read(b, off, len);
+			}
+
+			@Override
+			public int available() {
+				return in.available();
+			}
+		};
+	}
+
+	@Override
+	public BufferedReader getReader() throws IOException {
+		if (streamUsed) {
+			throw new IllegalStateException("Body has already been read with getInputStream()");
+		}
+		readerUsed = true;
+		String encoding = characterEncoding == null ? "ISO-8859-1" : characterEncoding;
+		return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), encoding));
+	}
+
+	@Override
+	public String getParameter(String name) {
+		String[] values = parameters().get(name);
+		return values == null ? null : values[0];
+	}
+
+	@Override
+	public Enumeration<String> getParameterNames() {
+		return Collections.enumeration(parameters().keySet());
+	}
+
+	@Override
+	public String[] getParameterValues(String name) {
+		String[] values = parameters().get(name);
+		return values == null ? null : values.clone();
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return Collections.unmodifiableMap(parameters());
+	}
+
+	@Override
+	public String getProtocol() {
+		return "HTTP/1.1";
+	}
+
+	@Override
+	public String getScheme() {
+		return "http";
+	}
+
+	@Override
+	public String getServerName() {
+		return "localhost";
+	}
+
+	@Override
+	public int getServerPort() {
+		return 80;
+	}
+
+	@Override
+	public String getRemoteAddr() {
+		return "127.0.0.1";
+	}
+
+	@Override
+	public String getRemoteHost() {
+		return "localhost";
+	}
+
+	@Override
+	public int getRemotePort() {
+		return 0;
+	}
+
+	@Override
+	public String getLocalName() {
+		return "localhost";
+	}
+
+	@Override
+	public String getLocalAddr() {
+		return "127.0.0.1";
+	}
+
+	@Override
+	public int getLocalPort() {
+		return 80;
+	}
+
+	@Override
+	public Locale getLocale() {
+		return Locale.getDefault();
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		return Collections.enumeration(Collections.singletonList(getLocale()));
+	}
+
+	@Override
+	public boolean isSecure() {
+		return false;
+	}
+
+	@Override
+	public RequestDispatcher getRequestDispatcher(String path) {
+		return null;
+	}
+
+	@Override
+	@Deprecated
+	public String getRealPath(String path) {
+		return null;
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return context;
+	}
+
+	@Override
+	public AsyncContext startAsync() {
+		throw new IllegalStateException("Async processing is not supported by servlet harness");
+	}
+
+	@Override
+	public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+		throw new IllegalStateException("Async processing is not supported by servlet harness");
+	}
+
+	@Override
+	public boolean isAsyncStarted() {
+		return false;
+	}
+
+	@Override
+	public boolean isAsyncSupported() {
+		return false;
+	}
+
+	@Override
+	public AsyncContext getAsyncContext() {
+		throw new IllegalStateException("Async processing is not supported by servlet harness");
+	}
+
+	@Override
+	public DispatcherType getDispatcherType() {
+		return DispatcherType.REQUEST;
+	}
+
+	private Map<String, String[]> parameters() {
+		if (parameters == null) {
+			Map<String, List<String>> values = new LinkedHashMap<String, List<String>>();
+			parse(queryString, "UTF-8", values);
+
+			String contentType = getContentType();
+			if (contentType != null && contentType.toLowerCase(Locale.ENGLISH).startsWith(FORM) && !readerUsed && !streamUsed) {
+				parse(new String(body, ISO_8859_1), characterEncoding == null ? "UTF-8" : characterEncoding, values);
+			}
+
+			for (Map.Entry<String, List<String>> extra : extraParameters.entrySet()) {
+				List<String> list = values.get(extra.getKey());
+				if (list == null) {
+					values.put(extra.getKey(), new ArrayList<String>(extra.getValue()));
+				}
+				else {
+					list.addAll(extra.getValue());
+				}
+			}
+
+			parameters = new LinkedHashMap<String, String[]>();
+			for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+				parameters.put(entry.getKey(), entry.getValue().toArray(new String[entry.getValue().size()]));
+			}
+		}
+		return parameters;
+	}
+
+	private static void parse(String encoded, String encoding, Map<String, List<String>> values) {
+		if (encoded == null || encoded.length() == 0) {
+			return;
+		}
+		for (String pair : encoded.split("&")) {
+			if (pair.length() == 0) {
+				continue;
+			}
+			int equals = pair.indexOf('=');
+			String name = decode(equals < 0 ? pair : pair.substring(0, equals), encoding);
+			String value = equals < 0 ? "" : decode(pair.substring(equals + 1), encoding);
+			List<String> list = values.get(name);
+			if (list == null) {
+				list = new ArrayList<String>(1);
+				values.put(name, list);
+			}
+			list.add(value);
+		}
+	}
+
+	private static String decode(String value, String encoding) {
+		try {
+			return URLDecoder.decode(value, encoding);
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+		}
+	}
+
+	private static String charsetOf(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		int index = contentType.toLowerCase(Locale.ENGLISH).indexOf("charset=");
+		if (index < 0) {
+			return null;
+		}
+		String charset = contentType.substring(index + "charset=".length());
+		int end = charset.indexOf(';');
+		return (end < 0 ? charset : charset.substring(0, end)).trim().replace("\"", "");
+	}
+}
@@ -0,0 +1,394 @@
+package org.fest.assertions.servlet;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Response given to servlets by a {@link ServletHarness}.
+ * Everything written by servlet is buffered in memory, so response is never committed
+ * until {@link #flushBuffer()}, {@link #sendError(int)} or {@link #sendRedirect(String)} is called.
+ */
+class HarnessResponse implements HttpServletResponse {
+
+	private static final String DEFAULT_CHARSET = "ISO-8859-1";
+
+	private static final String CONTENT_TYPE = "content-type";
+
+	/** Header values, indexed by lower case names */
+	private final Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+
+	/** Header names as set by servlet, indexed by lower case names */
+	private final Map<String, String> headerNames = new LinkedHashMap<String, String>();
+
+	private final List<Cookie> cookies = new ArrayList<Cookie>();
+
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+	private int status = SC_OK;
+
+	private String contentType;
+
+	private String characterEncoding;
+
+	private Locale locale = Locale.getDefault();
+
+	private int bufferSize = 8192;
+
+	private boolean committed;
+
+	private ServletOutputStream outputStream;
+
+	private PrintWriter writer;
+
+	static DateFormat httpDateFormat() {
+		SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+		format.setTimeZone(TimeZone.getTimeZone("GMT"));
+		return format;
+	}
+
+	/**
+	 * Flush writer and get everything written by servlet.
+	 *
+	 * @return Response body.
+	 */
+	byte[] getBody() {
+		if (writer != null) {
+			writer.flush();
+		}
+		return body.toByteArray();
+	}
+
+	List<Cookie> getCookies() {
+		return cookies;
+	}
+
+	// Http response
+
+	@Override
+	public void addCookie(Cookie cookie) {
+		cookies.add(cookie);
+	}
+
+	@Override
+	public boolean containsHeader(String name) {
+		return headers.containsKey(name.toLowerCase(Locale.ENGLISH));
+	}
+
+	@Override
+	public String encodeURL(String url) {
+		return url;
+	}
+
+	@Override
+	public String encodeRedirectURL(String url) {
+		return url;
+	}
+
+	@Override
+	@Deprecated
+	public String encodeUrl(String url) {
+		return url;
+	}
+
+	@Override
+	@Deprecated
+	public String encodeRedirectUrl(String url) {
+		return url;
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		sendError(sc, null);
+	}
+
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		checkNotCommitted();
+		resetBuffer();
+		status = sc;
+		if (msg != null) {
+			setContentType("text/plain");
+			body.write(msg.getBytes(getCharacterEncoding()));
+		}
+		committed = true;
+	}
+
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		checkNotCommitted();
+		resetBuffer();
+		status = SC_FOUND;
+		setHeader("Location", location);
+		committed = true;
+	}
+
+	@Override
+	public void setDateHeader(String name, long date) {
+		setHeader(name, httpDateFormat().format(new Date(date)));
+	}
+
+	@Override
+	public void addDateHeader(String name, long date) {
+		addHeader(name, httpDateFormat().format(new Date(date)));
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		if (CONTENT_TYPE.equalsIgnoreCase(name)) {
+			setContentType(value);
+			return;
+		}
+		String key = name.toLowerCase(Locale.ENGLISH);
+		if (value == null) {
+			headers.remove(key);
+			headerNames.remove(key);
+			return;
+		}
+		List<String> values = new ArrayList<String>(1);
+		values.add(value);
+		headers.put(key, values);
+		headerNames.put(key, name);
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		if (CONTENT_TYPE.equalsIgnoreCase(name)) {
+			setContentType(value);
+			return;
+		}
+		String key = name.toLowerCase(Locale.ENGLISH);
+		List<String> values = headers.get(key);
+		if (values == null) {
+			values = new ArrayList<String>(1);
+			headers.put(key, values);
+			headerNames.put(key, name);
+		}
+		values.add(value);
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		setHeader(name, String.valueOf(value));
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		addHeader(name, String.valueOf(value));
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		if (!committed) {
+			status = sc;
+		}
+	}
+
+	@Override
+	@Deprecated
+	public void setStatus(int sc, String sm) {
+		setStatus(sc);
+	}
+
+	@Override
+	public int getStatus() {
+		return status;
+	}
+
+	@Override
+	public String getHeader(String name) {
+		if (CONTENT_TYPE.equalsIgnoreCase(name)) {
+			return getContentType();
+		}
+		List<String> values = headers.get(name.toLowerCase(Locale.ENGLISH));
+		return values == null ? null : values.get(0);
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		if (CONTENT_TYPE.equalsIgnoreCase(name)) {
+			String value = getContentType();
+			return value == null ? Collections.<String>emptyList() : Collections.singletonList(value);
+		}
+		List<String> values = headers.get(name.toLowerCase(Locale.ENGLISH));
+		return values == null ? Collections.<String>emptyList() : new ArrayList<String>(values);
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		return new ArrayList<String>(headerNames.values());
+	}
+
+	// Response
+
+	@Override
+	public String getCharacterEncoding() {
+		return characterEncoding == null ? DEFAULT_CHARSET : characterEncoding;
+	}
+
+	@Override
+	public String getContentType() {
+		if (contentType == null) {
+			return null;
+		}
+		return characterEncoding == null ? contentType : contentType + ";charset=" + characterEncoding;
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called on this response");
+		}
+		if (outputStream == null) {
+			outputStream = new ServletOutputStream() {
+				@Override
+				public void write(int b) {
+					body.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					body.write(b, off, len);
+				}
+			};
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws UnsupportedEncodingException {
+		if (outputStream != null) {
+			throw new IllegalStateException("getOutputStream() has already been called on this response");
+		}
+		if (writer == null) {
+			if (characterEncoding == null) {
+				characterEncoding = DEFAULT_CHARSET;
+			}
+			writer = new PrintWriter(new OutputStreamWriter(body, characterEncoding));
+		}
+		return writer;
+	}
+
+	@Override
+	public void setCharacterEncoding(String charset) {
+		if (writer == null && !committed) {
+			characterEncoding = charset;
+		}
+	}
+
+	@Override
+	public void setContentLength(int len) {
+		setIntHeader("Content-Length", len);
+	}
+
+	@Override
+	public void setContentType(String type) {
+		if (committed) {
+			return;
+		}
+		if (type == null) {
+			contentType = null;
+			return;
+		}
+
+		int index = type.toLowerCase(Locale.ENGLISH).indexOf("charset=");
+		if (index < 0) {
+			contentType = type.trim();
+			return;
+		}
+
+		String charset = type.substring(index + "charset=".length());
+		int end = charset.indexOf(';');
+		String rest = end < 0 ? "" : charset.substring(end);
+		charset = (end < 0 ? charset : charset.substring(0, end)).trim().replace("\"", "");
+
+		String base = type.substring(0, index).trim();
+		if (base.endsWith(";")) {
+			base = base.substring(0, base.length() - 1).trim();
+		}
+		contentType = base + rest;
+		setCharacterEncoding(charset);
+	}
+
+	@Override
+	public void setBufferSize(int size) {
+		if (body.size() > 0 || committed) {
+			throw new IllegalStateException("Buffer size cannot be changed once content has been written");
+		}
+		this.bufferSize = size;
+	}
+
+	@Override
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	@Override
+	public void flushBuffer() {
+		if (writer != null) {
+			writer.flush();
+		}
+		committed = true;
+	}
+
+	@Override
+	public void resetBuffer() {
+		checkNotCommitted();
+		if (writer != null) {
+			writer.flush();
+		}
+		body.reset();
+	}
+
+	@Override
+	public boolean isCommitted() {
+		return committed;
+	}
+
+	@Override
+	public void reset() {
+		resetBuffer();
+		status = SC_OK;
+		headers.clear();
+		headerNames.clear();
+		cookies.clear();
+		contentType = null;
+		if (writer == null) {
+			characterEncoding = null;
+		}
+	}
+
+	@Override
+	public void setLocale(Locale locale) {
+		if (!committed) {
+			this.locale = locale;
+		}
+	}
+
+	@Override
+	public Locale getLocale() {
+		return locale;
+	}
+
+	private void checkNotCommitted() {
+		if (committed) {
+			throw new IllegalStateException("Response has already been committed");
+		}
+	}
+}
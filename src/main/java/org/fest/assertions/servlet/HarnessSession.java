@@ -0,0 +1,148 @@
+package org.fest.assertions.servlet;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Session created by a {@link HarnessRequest}, only kept for the duration of the request.
+ */
+@SuppressWarnings("deprecation")
+class HarnessSession implements HttpSession {
+
+	private final ServletContext context;
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final long creationTime = System.currentTimeMillis();
+
+	private final Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+
+	private int maxInactiveInterval = 1800;
+
+	private boolean valid = true;
+
+	HarnessSession(ServletContext context) {
+		this.context = context;
+	}
+
+	boolean isValid() {
+		return valid;
+	}
+
+	@Override
+	public long getCreationTime() {
+		checkValid();
+		return creationTime;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public long getLastAccessedTime() {
+		checkValid();
+		return creationTime;
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return context;
+	}
+
+	@Override
+	public void setMaxInactiveInterval(int interval) {
+		this.maxInactiveInterval = interval;
+	}
+
+	@Override
+	public int getMaxInactiveInterval() {
+		return maxInactiveInterval;
+	}
+
+	@Override
+	@Deprecated
+	public javax.servlet.http.HttpSessionContext getSessionContext() {
+		return null;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		checkValid();
+		return attributes.get(name);
+	}
+
+	@Override
+	@Deprecated
+	public Object getValue(String name) {
+		return getAttribute(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		checkValid();
+		return Collections.enumeration(new ArrayList<String>(attributes.keySet()));
+	}
+
+	@Override
+	@Deprecated
+	public String[] getValueNames() {
+		checkValid();
+		return attributes.keySet().toArray(new String[attributes.size()]);
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		checkValid();
+		if (value == null) {
+			attributes.remove(name);
+		}
+		else {
+			attributes.put(name, value);
+		}
+	}
+
+	@Override
+	@Deprecated
+	public void putValue(String name, Object value) {
+		setAttribute(name, value);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		checkValid();
+		attributes.remove(name);
+	}
+
+	@Override
+	@Deprecated
+	public void removeValue(String name) {
+		removeAttribute(name);
+	}
+
+	@Override
+	public void invalidate() {
+		checkValid();
+		valid = false;
+		attributes.clear();
+	}
+
+	@Override
+	public boolean isNew() {
+		checkValid();
+		return true;
+	}
+
+	private void checkValid() {
+		if (!valid) {
+			throw new IllegalStateException("Session has been invalidated");
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package org.fest.assertions.servlet;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock free queue, safe for many producers and many consumers.
+ * Each slot of the ring has a sequence number telling whether it can be written (sequence equals
+ * producer position) or read (sequence equals consumer position + 1): producers and consumers only
+ * contend on their own position counter, and a full queue is detected without any lock.
+ *
+ * @param <E> Type of elements.
+ */
+final class SampleQueue<E> {
+
+	private final int mask;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicReferenceArray<E> elements;
+
+	/** Next position to read */
+	private final AtomicLong head = new AtomicLong();
+
+	/** Next position to write */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * Create queue.
+	 *
+	 * @param capacity Minimum capacity, rounded up to a power of two.
+	 */
+	SampleQueue(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = size - 1;
+		this.sequences = new AtomicLongArray(size);
+		this.elements = new AtomicReferenceArray<E>(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Add element, unless queue is full.
+	 *
+	 * @param element Element.
+	 * @return True if element has been added, false if queue is full.
+	 */
+	boolean offer(E element) {
+		long position = tail.get();
+		int index;
+		while (true) {
+			index = (int) position & mask;
+			long diff = sequences.get(index) - position;
+			if (diff == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = tail.get();
+			}
+			else if (diff < 0) {
+				// Slot still holds element of previous lap
+				return false;
+			}
+			else {
+				position = tail.get();
+			}
+		}
+
+		elements.lazySet(index, element);
+		sequences.lazySet(index, position + 1);
+		return true;
+	}
+
+	/**
+	 * Remove first element.
+	 *
+	 * @return First element, null if queue is empty.
+	 */
+	E poll() {
+		long position = head.get();
+		int index;
+		while (true) {
+			index = (int) position & mask;
+			long diff = sequences.get(index) - (position + 1);
+			if (diff == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = head.get();
+			}
+			else if (diff < 0) {
+				// Slot has not been written yet
+				return null;
+			}
+			else {
+				position = head.get();
+			}
+		}
+
+		E element = elements.get(index);
+		elements.lazySet(index, null);
+		sequences.lazySet(index, position + mask + 1);
+		return element;
+	}
+
+	/**
+	 * Get number of elements, only accurate when queue is not modified concurrently.
+	 *
+	 * @return Number of elements.
+	 */
+	int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(size, mask + 1));
+	}
+
+	int capacity() {
+		return mask + 1;
+	}
+}
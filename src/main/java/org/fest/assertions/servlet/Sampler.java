@@ -0,0 +1,223 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.util.Response;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Policy selecting responses checked by a {@link SamplingFilter}.
+ * Decision is taken before request is processed, so responses that are not sampled are never captured.
+ */
+public abstract class Sampler {
+
+	/** Random generator of each thread, never shared to avoid contention on its seed */
+	private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
+	/**
+	 * Receiver of sampled responses.
+	 */
+	interface Sink {
+
+		/**
+		 * Receive sampled response.
+		 *
+		 * @param response Response.
+		 */
+		void accept(Response response);
+	}
+
+	/**
+	 * Sample each request with a fixed probability.
+	 *
+	 * @param probability Probability, between 0 (excluded) and 1 (included).
+	 * @return Sampler.
+	 */
+	public static Sampler rate(double probability) {
+		if (!(probability > 0 && probability <= 1)) {
+			throw new IllegalArgumentException("Probability must be greater than 0 and less than or equal to 1");
+		}
+		return new Rate(probability);
+	}
+
+	/**
+	 * Sample a fixed number of responses per time window, uniformly chosen among all responses of the window
+	 * (reservoir sampling): bursts of traffic do not produce bursts of checks.
+	 * Responses of a window are checked once the window is over.
+	 *
+	 * @param size Maximum number of responses per window.
+	 * @param window Duration of window.
+	 * @param unit Unit of duration.
+	 * @return Sampler.
+	 */
+	public static Sampler reservoir(int size, long window, TimeUnit unit) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Reservoir size must be positive");
+		}
+		if (window <= 0) {
+			throw new IllegalArgumentException("Window must be positive");
+		}
+		return new Reservoir(size, unit.toNanos(window));
+	}
+
+	Sampler() {
+	}
+
+	static Random random() {
+		return RANDOM.get();
+	}
+
+	/**
+	 * Decide if current request must be sampled.
+	 *
+	 * @param now Current time, in nanoseconds.
+	 * @param sink Receiver of responses released by this call.
+	 * @return Ticket given back to {@link #collect(Object, Response, Sink)}, null if request is not sampled.
+	 */
+	abstract Object admit(long now, Sink sink);
+
+	/**
+	 * Collect response of a sampled request.
+	 *
+	 * @param ticket Ticket returned by {@link #admit(long, Sink)}.
+	 * @param response Captured response.
+	 * @param sink Receiver of responses to check.
+	 */
+	abstract void collect(Object ticket, Response response, Sink sink);
+
+	/**
+	 * Release responses held for a period which is over.
+	 *
+	 * @param now Current time, in nanoseconds.
+	 * @param sink Receiver of responses to check.
+	 */
+	abstract void expire(long now, Sink sink);
+
+	private static final class Rate extends Sampler {
+
+		private static final Object TICKET = new Object();
+
+		private final double probability;
+
+		private Rate(double probability) {
+			this.probability = probability;
+		}
+
+		@Override
+		Object admit(long now, Sink sink) {
+			return probability == 1 || random().nextDouble() < probability ? TICKET : null;
+		}
+
+		@Override
+		void collect(Object ticket, Response response, Sink sink) {
+			sink.accept(response);
+		}
+
+		@Override
+		void expire(long now, Sink sink) {
+		}
+	}
+
+	/**
+	 * Reservoir sampling (algorithm R) per window: the n-th request of a window is admitted with
+	 * probability size / n and replaces a random response of reservoir.
+	 */
+	private static final class Reservoir extends Sampler {
+
+		private final int size;
+
+		private final long windowNanos;
+
+		private final AtomicReference<Window> window;
+
+		private Reservoir(int size, long windowNanos) {
+			this.size = size;
+			this.windowNanos = windowNanos;
+			this.window = new AtomicReference<Window>(new Window(System.nanoTime(), size));
+		}
+
+		@Override
+		Object admit(long now, Sink sink) {
+			Window current = current(now, sink);
+			long n = current.seen.incrementAndGet();
+			long slot = n <= size ? n - 1 : (long) (random().nextDouble() * n);
+			return slot < size ? new Ticket(current, (int) slot) : null;
+		}
+
+		@Override
+		void collect(Object ticket, Response response, Sink sink) {
+			Ticket t = (Ticket) ticket;
+			Response replaced = t.window.slots.getAndSet(t.slot, response);
+			if (replaced != null) {
+				// Response evicted from reservoir is never checked
+				replaced.close();
+			}
+			if (t.window.closed) {
+				// Window has been released while request was processed
+				Response late = t.window.slots.getAndSet(t.slot, null);
+				if (late != null) {
+					sink.accept(late);
+				}
+			}
+		}
+
+		@Override
+		void expire(long now, Sink sink) {
+			current(now, sink);
+		}
+
+		private Window current(long now, Sink sink) {
+			Window current = window.get();
+			if (now - current.start < windowNanos) {
+				return current;
+			}
+
+			Window next = new Window(now, size);
+			if (window.compareAndSet(current, next)) {
+				current.release(sink);
+				return next;
+			}
+			return window.get();
+		}
+	}
+
+	private static final class Window {
+		private final long start;
+		private final AtomicLong seen = new AtomicLong();
+		private final AtomicReferenceArray<Response> slots;
+		private volatile boolean closed;
+
+		private Window(long start, int size) {
+			this.start = start;
+			this.slots = new AtomicReferenceArray<Response>(size);
+		}
+
+		private void release(Sink sink) {
+			closed = true;
+			for (int i = 0; i < slots.length(); i++) {
+				Response response = slots.getAndSet(i, null);
+				if (response != null) {
+					sink.accept(response);
+				}
+			}
+		}
+	}
+
+	private static final class Ticket {
+		private final Window window;
+		private final int slot;
+
+		private Ticket(Window window, int slot) {
+			this.window = window;
+			this.slot = slot;
+		}
+	}
+}
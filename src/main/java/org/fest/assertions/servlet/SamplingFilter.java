@@ -0,0 +1,433 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.api.rest.JsonAssert;
+import org.fest.assertions.api.rest.JsonCheck;
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.api.rest.ResponseCheck;
+import org.fest.assertions.util.Response;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Filter checking a sample of live responses against contracts, without failing requests.
+ * Sampled responses are captured on the request thread and pushed to a bounded lock free queue;
+ * rules are checked by a small pool of worker threads. When queue is full, responses are dropped
+ * instead of slowing down requests. Violations are counted per rule.
+ *
+ * Time spent by filter itself (sampling decision, capture and queueing, excluding the rest of the
+ * chain) is measured on each request and available with {@link #getMeanOverhead(TimeUnit)}.
+ */
+public class SamplingFilter implements Filter {
+
+	/** Maximum time a worker waits for a response before checking expired windows of sampler */
+	private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/** Number of stripes of request counters, enough to make contention between request threads unlikely */
+	private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+
+	/** Longs per stripe: count, overhead, and padding up to 64 bytes */
+	private static final int STRIPE_SIZE = 8;
+
+	private final Sampler sampler;
+
+	private final List<Rule> rules = new ArrayList<Rule>();
+
+	private int queueCapacity = 1024;
+
+	private int workers = 1;
+
+	private int maxBodySize = 1024 * 1024;
+
+	private volatile SampleQueue<Response> queue;
+
+	private volatile boolean running;
+
+	private Thread[] threads;
+
+	/** Workers waiting for responses */
+	private final ConcurrentLinkedQueue<Thread> idle = new ConcurrentLinkedQueue<Thread>();
+
+	/** Request count and overhead of each stripe, stripes are chosen by thread and kept on their own cache line */
+	private final AtomicLongArray stripes = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+
+	private final AtomicLong sampled = new AtomicLong();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong checked = new AtomicLong();
+
+	/** Responses queued or being checked */
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final Sampler.Sink sink = new Sampler.Sink() {
+		@Override
+		public void accept(Response response) {
+			enqueue(response);
+		}
+	};
+
+	public SamplingFilter(Sampler sampler) {
+		if (sampler == null) {
+			throw new IllegalArgumentException("Sampler must not be null");
+		}
+		this.sampler = sampler;
+	}
+
+	/**
+	 * Add rule checked on each sampled response.
+	 *
+	 * @param name Name of rule, used to count violations.
+	 * @param check Assertions to run.
+	 * @return {@code this} the filter.
+	 */
+	public SamplingFilter rule(String name, final ResponseCheck check) {
+		addRule(new Rule(name) {
+			@Override
+			void check(Response response, String json) {
+				check.check(new ResponseAssert(response));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Add rule checked on json body of each sampled response.
+	 *
+	 * @param name Name of rule, used to count violations.
+	 * @param check Assertions to run.
+	 * @return {@code this} the filter.
+	 */
+	public SamplingFilter jsonRule(String name, final JsonCheck check) {
+		addRule(new Rule(name, true) {
+			@Override
+			void check(Response response, String json) {
+				check.check(new JsonAssert(json));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Set maximum number of responses waiting to be checked.
+	 *
+	 * @param queueCapacity Capacity of queue, rounded up to a power of two.
+	 * @return {@code this} the filter.
+	 */
+	public SamplingFilter queueCapacity(int queueCapacity) {
+		checkNotStarted();
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("Queue capacity must be positive");
+		}
+		this.queueCapacity = queueCapacity;
+		return this;
+	}
+
+	/**
+	 * Set number of threads checking responses.
+	 *
+	 * @param workers Number of threads.
+	 * @return {@code this} the filter.
+	 */
+	public SamplingFilter workers(int workers) {
+		checkNotStarted();
+		if (workers <= 0) {
+			throw new IllegalArgumentException("Number of workers must be positive");
+		}
+		this.workers = workers;
+		return this;
+	}
+
+	/**
+	 * Set maximum size of captured bodies: larger responses are dropped.
+	 *
+	 * @param maxBodySize Maximum size, in bytes.
+	 * @return {@code this} the filter.
+	 */
+	public SamplingFilter maxBodySize(int maxBodySize) {
+		checkNotStarted();
+		if (maxBodySize < 0) {
+			throw new IllegalArgumentException("Maximum body size must not be negative");
+		}
+		this.maxBodySize = maxBodySize;
+		return this;
+	}
+
+	@Override
+	public synchronized void init(FilterConfig filterConfig) {
+		checkNotStarted();
+		queue = new SampleQueue<Response>(queueCapacity);
+		running = true;
+		threads = new Thread[workers];
+		for (int i = 0; i < workers; i++) {
+			threads[i] = new Thread(new Worker(), "sampling-filter-" + (i + 1));
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		long start = System.nanoTime();
+		Object ticket = running && response instanceof HttpServletResponse ? sampler.admit(start, sink) : null;
+		if (ticket == null) {
+			measure(start, System.nanoTime());
+			chain.doFilter(request, response);
+			return;
+		}
+
+		CapturingResponse capture = new CapturingResponse((HttpServletResponse) response, maxBodySize);
+		long before = System.nanoTime();
+		chain.doFilter(request, capture);
+		long after = System.nanoTime();
+
+		if (capture.isTruncated()) {
+			dropped.incrementAndGet();
+		}
+		else {
+			Response captured = new DispatchedResponse(capture, capture.getCookies(), capture.getBody(), after - before);
+			sampler.collect(ticket, captured, sink);
+		}
+		measure(start, System.nanoTime() - (after - before));
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		for (Thread thread : threads) {
+			LockSupport.unpark(thread);
+		}
+		for (Thread thread : threads) {
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(1));
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Wait until all sampled responses have been checked (or dropped).
+	 *
+	 * @param timeout Maximum time to wait.
+	 * @param unit Unit of timeout.
+	 * @return True if all responses have been checked, false if timeout elapsed.
+	 * @throws InterruptedException If current thread is interrupted.
+	 */
+	public boolean awaitChecked(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (pending.get() > 0) {
+			if (System.nanoTime() - deadline >= 0) {
+				return false;
+			}
+			Thread.sleep(1);
+		}
+		return true;
+	}
+
+	/**
+	 * Get number of requests going through filter.
+	 *
+	 * @return Number of requests.
+	 */
+	public long getRequests() {
+		long count = 0;
+		for (int i = 0; i < STRIPES; i++) {
+			count += stripes.get(i * STRIPE_SIZE);
+		}
+		return count;
+	}
+
+	/**
+	 * Get number of responses queued to be checked.
+	 *
+	 * @return Number of sampled responses.
+	 */
+	public long getSampled() {
+		return sampled.get();
+	}
+
+	/**
+	 * Get number of sampled responses dropped, because queue was full or body was too large.
+	 *
+	 * @return Number of dropped responses.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Get number of responses checked against all rules.
+	 *
+	 * @return Number of checked responses.
+	 */
+	public long getChecked() {
+		return checked.get();
+	}
+
+	/**
+	 * Get number of checked responses violating a rule.
+	 *
+	 * @param rule Name of rule.
+	 * @return Number of violations.
+	 */
+	public long getViolations(String rule) {
+		return findRule(rule).violations.get();
+	}
+
+	/**
+	 * Get message of last violation of a rule.
+	 *
+	 * @param rule Name of rule.
+	 * @return Message, null if rule has never been violated.
+	 */
+	public String getLastViolation(String rule) {
+		return findRule(rule).lastViolation;
+	}
+
+	/**
+	 * Get mean time spent by filter itself on each request, excluding the rest of the chain.
+	 *
+	 * @param unit Unit of result.
+	 * @return Mean overhead, 0 if no request has been filtered.
+	 */
+	public long getMeanOverhead(TimeUnit unit) {
+		long count = 0;
+		long overhead = 0;
+		for (int i = 0; i < STRIPES; i++) {
+			count += stripes.get(i * STRIPE_SIZE);
+			overhead += stripes.get(i * STRIPE_SIZE + 1);
+		}
+		return count == 0 ? 0 : unit.convert(overhead / count, TimeUnit.NANOSECONDS);
+	}
+
+	private void measure(long start, long end) {
+		int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+		stripes.incrementAndGet(stripe);
+		stripes.addAndGet(stripe + 1, end - start);
+	}
+
+	private void enqueue(Response response) {
+		pending.incrementAndGet();
+		if (!queue.offer(response)) {
+			pending.decrementAndGet();
+			dropped.incrementAndGet();
+			response.close();
+			return;
+		}
+
+		sampled.incrementAndGet();
+		Thread worker = idle.poll();
+		if (worker != null) {
+			LockSupport.unpark(worker);
+		}
+	}
+
+	private void check(Response response) {
+		String json = null;
+		try {
+			for (int i = 0, size = rules.size(); i < size; i++) {
+				Rule rule = rules.get(i);
+				try {
+					if (rule.json && json == null) {
+						json = response.getBody().asString();
+					}
+					rule.check(response, json);
+				}
+				catch (Throwable t) {
+					rule.violations.incrementAndGet();
+					rule.lastViolation = t instanceof AssertionError ? t.getMessage() : t.toString();
+				}
+			}
+		}
+		finally {
+			response.close();
+		}
+		checked.incrementAndGet();
+	}
+
+	private synchronized void addRule(Rule rule) {
+		checkNotStarted();
+		for (Rule r : rules) {
+			if (r.name.equals(rule.name)) {
+				throw new IllegalArgumentException("Rule " + rule.name + " is already defined");
+			}
+		}
+		rules.add(rule);
+	}
+
+	private Rule findRule(String name) {
+		for (Rule rule : rules) {
+			if (rule.name.equals(name)) {
+				return rule;
+			}
+		}
+		throw new IllegalArgumentException("Unknown rule " + name);
+	}
+
+	private void checkNotStarted() {
+		if (running) {
+			throw new IllegalStateException("Sampling filter has already been initialized");
+		}
+	}
+
+	private class Worker implements Runnable {
+
+		@Override
+		public void run() {
+			Thread current = Thread.currentThread();
+			while (running) {
+				Response response = queue.poll();
+				if (response != null) {
+					check(response);
+					pending.decrementAndGet();
+					continue;
+				}
+
+				sampler.expire(System.nanoTime(), sink);
+				idle.offer(current);
+				if (queue.size() == 0 && running) {
+					LockSupport.parkNanos(this, IDLE_NANOS);
+				}
+				idle.remove(current);
+			}
+		}
+	}
+
+	private abstract static class Rule {
+		private final String name;
+		private final boolean json;
+		private final AtomicLong violations = new AtomicLong();
+		private volatile String lastViolation;
+
+		Rule(String name) {
+			this(name, false);
+		}
+
+		Rule(String name, boolean json) {
+			this.name = name;
+			this.json = json;
+		}
+
+		abstract void check(Response response, String json) throws Exception;
+	}
+}
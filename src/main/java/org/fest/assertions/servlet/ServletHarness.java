@@ -0,0 +1,235 @@
+package org.fest.assertions.servlet;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run a servlet, and its filters, in current thread without any network stack.
+ * Requests are built with {@link #given()} and responses can be checked with {@link org.fest.assertions.api.rest.ResponseAssert}
+ * and {@link org.fest.assertions.api.rest.JsonAssert}, as responses received from a real server.
+ *
+ * Servlet and filters are initialized on first request (or with {@link #init()}) and should
+ * be destroyed with {@link #destroy()}.
+ */
+public class ServletHarness {
+
+	/** Servlet receiving requests, after filters */
+	private final Servlet servlet;
+
+	/** Filters, in order of execution */
+	private final List<Filter> filters = new ArrayList<Filter>();
+
+	/** Init parameters given to servlet, filters and context */
+	private final Map<String, String> initParameters = new LinkedHashMap<String, String>();
+
+	/** Context path, prepended to request paths */
+	private String contextPath = "";
+
+	/** Servlet context, created at initialization */
+	private volatile HarnessContext context;
+
+	public ServletHarness(Servlet servlet) {
+		if (servlet == null) {
+			throw new IllegalArgumentException("Servlet must not be null");
+		}
+		this.servlet = servlet;
+	}
+
+	/**
+	 * Add filter executed before servlet.
+	 * Filters are executed in order of registration.
+	 *
+	 * @param filter Filter.
+	 * @return {@code this} the harness.
+	 */
+	public ServletHarness filter(Filter filter) {
+		checkNotInitialized();
+		filters.add(filter);
+		return this;
+	}
+
+	/**
+	 * Set context path of application, empty by default.
+	 *
+	 * @param contextPath Context path, such as "/app".
+	 * @return {@code this} the harness.
+	 */
+	public ServletHarness contextPath(String contextPath) {
+		checkNotInitialized();
+		if (contextPath.length() > 0 && (!contextPath.startsWith("/") || contextPath.endsWith("/"))) {
+			throw new IllegalArgumentException("Context path must start with '/' and must not end with '/': " + contextPath);
+		}
+		this.contextPath = contextPath;
+		return this;
+	}
+
+	/**
+	 * Add init parameter, visible from servlet config, filter configs and servlet context.
+	 *
+	 * @param name Name of parameter.
+	 * @param value Value of parameter.
+	 * @return {@code this} the harness.
+	 */
+	public ServletHarness initParameter(String name, String value) {
+		checkNotInitialized();
+		initParameters.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Initialize servlet and filters, if not already done.
+	 * Fail if servlet or one of filters cannot be initialized.
+	 *
+	 * @return {@code this} the harness.
+	 */
+	public synchronized ServletHarness init() {
+		if (context != null) {
+			return this;
+		}
+
+		HarnessContext harnessContext = new HarnessContext(contextPath, initParameters);
+		try {
+			for (Filter filter : filters) {
+				filter.init(new HarnessConfig(harnessContext, filter.getClass().getName(), initParameters));
+			}
+			servlet.init(new HarnessConfig(harnessContext, servlet.getClass().getName(), initParameters));
+		}
+		catch (ServletException ex) {
+			String msg = String.format("Expected servlet <%s> to be initialized but failed with: %s", servlet.getClass().getName(), ex);
+			throw new AssertionError(msg, ex);
+		}
+
+		context = harnessContext;
+		return this;
+	}
+
+	/**
+	 * Destroy servlet and filters.
+	 * Harness can be initialized again after being destroyed.
+	 */
+	public synchronized void destroy() {
+		if (context == null) {
+			return;
+		}
+		servlet.destroy();
+		for (int i = filters.size() - 1; i >= 0; i--) {
+			filters.get(i).destroy();
+		}
+		context = null;
+	}
+
+	/**
+	 * Get servlet context, initializing servlet if needed.
+	 *
+	 * @return Servlet context.
+	 */
+	public ServletContext getServletContext() {
+		return init().context;
+	}
+
+	/**
+	 * Start building a request dispatched to servlet.
+	 *
+	 * @return Request builder.
+	 */
+	public DispatchRequest given() {
+		return new DispatchRequest(this);
+	}
+
+	String getContextPath() {
+		return contextPath;
+	}
+
+	/**
+	 * Run request through filters and servlet.
+	 *
+	 * @param request Request.
+	 * @param response Response.
+	 * @throws IOException If servlet or one of filters fails.
+	 * @throws ServletException If servlet or one of filters fails.
+	 */
+	void dispatch(HarnessRequest request, HarnessResponse response) throws IOException, ServletException {
+		new Chain().doFilter(request, response);
+	}
+
+	private void checkNotInitialized() {
+		if (context != null) {
+			throw new IllegalStateException("Servlet harness has already been initialized");
+		}
+	}
+
+	/**
+	 * Chain running each filter, then servlet.
+	 */
+	private class Chain implements FilterChain {
+
+		private int position;
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+			if (position < filters.size()) {
+				filters.get(position++).doFilter(request, response, this);
+			}
+			else {
+				servlet.service(request, response);
+			}
+		}
+	}
+
+	/**
+	 * Configuration given to servlet and filters.
+	 */
+	private static class HarnessConfig implements ServletConfig, FilterConfig {
+
+		private final ServletContext context;
+
+		private final String name;
+
+		private final Map<String, String> initParameters;
+
+		private HarnessConfig(ServletContext context, String name, Map<String, String> initParameters) {
+			this.context = context;
+			this.name = name;
+			this.initParameters = new LinkedHashMap<String, String>(initParameters);
+		}
+
+		@Override
+		public String getServletName() {
+			return name;
+		}
+
+		@Override
+		public String getFilterName() {
+			return name;
+		}
+
+		@Override
+		public ServletContext getServletContext() {
+			return context;
+		}
+
+		@Override
+		public String getInitParameter(String name) {
+			return initParameters.get(name);
+		}
+
+		@Override
+		public Enumeration<String> getInitParameterNames() {
+			return Collections.enumeration(initParameters.keySet());
+		}
+	}
+}
@@ -0,0 +1,328 @@
+package org.fest.assertions.spec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponsePredicate;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative assertions on responses, compiled once from a json spec and run against any number of responses:
+ *
+ * <pre>
+ * {
+ *   "name": "get-user",
+ *   "status": "2xx",
+ *   "mediaType": "application/json",
+ *   "charset": "utf-8",
+ *   "headers": {"ETag": {"present": true}, "Cache-Control": "no-cache"},
+ *   "cookies": {"session": {"matches": "^[0-9a-f]{32}$"}},
+ *   "json": {"$.id": {"type": "number", "greaterThan": 0}, "$.roles": {"size": 2}},
+ *   "bodyFile": "fixtures/user.json",
+ *   "ignore": ["id", "createdAt"]
+ * }
+ * </pre>
+ *
+ * Status is a code, a class of codes (such as "2xx") or an array of them. Values of headers, cookies and json paths
+ * are literals, or objects of constraints: "present", "equals", "matches" (regular expression), "type", "size",
+ * "greaterThan" and "lessThan". Expected body is given inline with "body", or as a file (relative to spec file)
+ * with "bodyFile"; fields listed in "ignore" are not compared. Body can also be matched against a {@link JsonTemplate},
+ * given inline with "template" or as a file with "templateFile".
+ *
+ * Json paths, patterns and fixtures are compiled and loaded once.
+ * A failed plan reports all its failures, not only the first one.
+ */
+public final class AssertionPlan implements ResponsePredicate {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper().configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+
+	private final String name;
+
+	private final Expectation[] expectations;
+
+	private AssertionPlan(String name, List<Expectation> expectations) {
+		this.name = name;
+		this.expectations = expectations.toArray(new Expectation[expectations.size()]);
+	}
+
+	/**
+	 * Compile plan from its json spec.
+	 * Fixture files are resolved from working directory.
+	 *
+	 * @param spec Json spec.
+	 * @return Plan.
+	 * @throws IllegalArgumentException If spec is not valid.
+	 */
+	public static AssertionPlan compile(String spec) {
+		try {
+			return compile(MAPPER.readTree(spec), null);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException(String.format("Spec is not valid: %s", ex.getMessage()), ex);
+		}
+	}
+
+	/**
+	 * Compile plan from a json spec file.
+	 * Fixture files are resolved from directory of spec file.
+	 *
+	 * @param file Spec file.
+	 * @return Plan.
+	 * @throws IOException If spec or a fixture file cannot be read.
+	 * @throws IllegalArgumentException If spec is not valid.
+	 */
+	public static AssertionPlan compile(File file) throws IOException {
+		return compile(MAPPER.readTree(file), file.getAbsoluteFile().getParentFile());
+	}
+
+	/**
+	 * Compile plan from a json tree.
+	 *
+	 * @param spec Json spec.
+	 * @param baseDir Directory of fixture files, null for working directory.
+	 * @return Plan.
+	 * @throws IOException If a fixture file cannot be read.
+	 */
+	static AssertionPlan compile(JsonNode spec, File baseDir) throws IOException {
+		if (spec == null || !spec.isObject()) {
+			throw new IllegalArgumentException("Spec must be a json object");
+		}
+
+		String name = spec.has("name") ? spec.get("name").asText() : "response";
+		Expectation status = null;
+		List<Expectation> expectations = new ArrayList<Expectation>();
+		List<Expectation> jsonExpectations = new ArrayList<Expectation>();
+		JsonNode mediaType = null;
+		JsonNode charset = null;
+		JsonNode body = null;
+		JsonNode bodyFile = null;
+		JsonNode template = null;
+		JsonNode templateFile = null;
+		List<String> ignoringFields = Collections.emptyList();
+
+		Iterator<Map.Entry<String, JsonNode>> fields = spec.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			String key = field.getKey();
+			JsonNode value = field.getValue();
+			if (key.equals("name")) {
+				continue;
+			}
+			if (key.equals("status")) {
+				status = status(value);
+			}
+			else if (key.equals("mediaType")) {
+				mediaType = value;
+			}
+			else if (key.equals("charset")) {
+				charset = value;
+			}
+			else if (key.equals("headers")) {
+				for (Map.Entry<String, JsonNode> header : entries(key, value)) {
+					expectations.add(new Expectation.Header(header.getKey(), ValueMatcher.compile("header " + header.getKey(), header.getValue())));
+				}
+			}
+			else if (key.equals("cookies")) {
+				for (Map.Entry<String, JsonNode> cookie : entries(key, value)) {
+					expectations.add(new Expectation.CookieValue(cookie.getKey(), ValueMatcher.compile("cookie " + cookie.getKey(), cookie.getValue())));
+				}
+			}
+			else if (key.equals("json")) {
+				for (Map.Entry<String, JsonNode> path : entries(key, value)) {
+					jsonExpectations.add(new Expectation.JsonValue(path(path.getKey()), ValueMatcher.compile(path.getKey(), path.getValue())));
+				}
+			}
+			else if (key.equals("body")) {
+				body = value;
+			}
+			else if (key.equals("bodyFile")) {
+				bodyFile = value;
+			}
+			else if (key.equals("template")) {
+				template = value;
+			}
+			else if (key.equals("templateFile")) {
+				templateFile = value;
+			}
+			else if (key.equals("ignore")) {
+				ignoringFields = strings(key, value);
+			}
+			else {
+				throw new IllegalArgumentException(String.format("Unknown property <%s> in spec <%s>", key, name));
+			}
+		}
+
+		if (mediaType != null || charset != null) {
+			expectations.add(0, new Expectation.ContentType(mediaType == null ? null : mediaType.asText(), charset == null ? null : charset.asText()));
+		}
+		if (body != null && bodyFile != null) {
+			throw new IllegalArgumentException("Expected body must be defined either with body or with bodyFile");
+		}
+		if (bodyFile != null) {
+			body = MAPPER.readTree(file(baseDir, bodyFile.asText()));
+		}
+		if (body != null) {
+			if (!body.isContainerNode()) {
+				throw new IllegalArgumentException("Expected body must be a json object or array");
+			}
+			expectations.add(new Expectation.Body(MAPPER.treeToValue(body, Object.class), ignoringFields));
+		}
+		else if (!ignoringFields.isEmpty()) {
+			throw new IllegalArgumentException("Ignored fields are only allowed with an expected body");
+		}
+		if (template != null && templateFile != null) {
+			throw new IllegalArgumentException("Template must be defined either with template or with templateFile");
+		}
+		if (templateFile != null) {
+			expectations.add(new Expectation.Template(JsonTemplate.compile(file(baseDir, templateFile.asText()))));
+		}
+		else if (template != null) {
+			expectations.add(new Expectation.Template(JsonTemplate.compile(template)));
+		}
+		if (status != null) {
+			expectations.add(0, status);
+		}
+		expectations.addAll(jsonExpectations);
+		return new AssertionPlan(name, expectations);
+	}
+
+	/**
+	 * Get name of plan, "response" if spec does not define it.
+	 *
+	 * @return Name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Evaluate plan against a response.
+	 *
+	 * @param response Response.
+	 * @return Failures, empty if response satisfies plan.
+	 */
+	public List<String> evaluate(Response response) {
+		Evaluation evaluation = new Evaluation(response);
+		for (Expectation expectation : expectations) {
+			expectation.evaluate(evaluation);
+		}
+		List<String> failures = evaluation.getFailures();
+		return failures.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(failures);
+	}
+
+	/**
+	 * Check if a response satisfies plan.
+	 *
+	 * @param response Response.
+	 * @return True if response satisfies plan.
+	 */
+	@Override
+	public boolean matches(Response response) {
+		return evaluate(response).isEmpty();
+	}
+
+	/**
+	 * Fail if a response does not satisfy plan.
+	 *
+	 * @param response Response.
+	 */
+	public void check(Response response) {
+		List<String> failures = evaluate(response);
+		if (failures.isEmpty()) {
+			return;
+		}
+
+		StringBuilder msg = new StringBuilder(String.format("Expected response to satisfy plan <%s> but:", name));
+		for (String failure : failures) {
+			msg.append("\n - ").append(failure);
+		}
+		throw new AssertionError(msg.toString());
+	}
+
+	@Override
+	public String toString() {
+		return "AssertionPlan{name=" + name + ", expectations=" + expectations.length + "}";
+	}
+
+	private static Expectation status(JsonNode node) {
+		List<JsonNode> values = new ArrayList<JsonNode>();
+		if (node.isArray()) {
+			for (JsonNode value : node) {
+				values.add(value);
+			}
+		}
+		else {
+			values.add(node);
+		}
+		if (values.isEmpty()) {
+			throw new IllegalArgumentException("Expected status must not be empty");
+		}
+
+		int[] min = new int[values.size()];
+		int[] max = new int[values.size()];
+		StringBuilder description = new StringBuilder();
+		for (int i = 0; i < values.size(); i++) {
+			JsonNode value = values.get(i);
+			String text = value.asText();
+			if (value.isInt()) {
+				min[i] = max[i] = value.asInt();
+			}
+			else if (value.isTextual() && text.length() == 3 && text.charAt(0) >= '1' && text.charAt(0) <= '5' && text.substring(1).equalsIgnoreCase("xx")) {
+				min[i] = (text.charAt(0) - '0') * 100;
+				max[i] = min[i] + 99;
+			}
+			else {
+				throw new IllegalArgumentException(String.format("Expected status must be a code or a class of codes (such as 2xx) but was <%s>", text));
+			}
+			description.append(i == 0 ? "" : " or ").append(text);
+		}
+		return new Expectation.Status(min, max, description.toString());
+	}
+
+	private static File file(File baseDir, String path) {
+		File file = new File(path);
+		return file.isAbsolute() || baseDir == null ? file : new File(baseDir, path);
+	}
+
+	private static JsonPath path(String path) {
+		try {
+			return JsonPath.compile(path);
+		}
+		catch (InvalidPathException ex) {
+			throw new IllegalArgumentException(String.format("Json path <%s> is not valid: %s", path, ex.getMessage()));
+		}
+	}
+
+	private static List<Map.Entry<String, JsonNode>> entries(String key, JsonNode node) {
+		if (!node.isObject()) {
+			throw new IllegalArgumentException(String.format("Property <%s> of spec must be a json object", key));
+		}
+		List<Map.Entry<String, JsonNode>> entries = new ArrayList<Map.Entry<String, JsonNode>>(node.size());
+		Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		while (fields.hasNext()) {
+			entries.add(fields.next());
+		}
+		return entries;
+	}
+
+	private static List<String> strings(String key, JsonNode node) {
+		if (!node.isArray()) {
+			throw new IllegalArgumentException(String.format("Property <%s> of spec must be an array of strings", key));
+		}
+		List<String> strings = new ArrayList<String>(node.size());
+		for (JsonNode value : node) {
+			strings.add(value.asText());
+		}
+		return Collections.unmodifiableList(strings);
+	}
+}
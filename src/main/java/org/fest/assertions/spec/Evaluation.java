@@ -0,0 +1,93 @@
+package org.fest.assertions.spec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fest.assertions.util.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of the evaluation of a plan against a response.
+ * Body is read, and parsed as json, at most once, only if an expectation needs it: parsed body is shared by
+ * expected body and json path expectations.
+ * Evaluations are only used by a single thread.
+ */
+final class Evaluation {
+
+	private static final Object NOT_PARSED = new Object();
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final Response response;
+
+	private final List<String> failures = new ArrayList<String>(2);
+
+	private String body;
+
+	private boolean bodyRead;
+
+	private Object json = NOT_PARSED;
+
+	private boolean jsonParsed;
+
+	Evaluation(Response response) {
+		this.response = response;
+	}
+
+	Response getResponse() {
+		return response;
+	}
+
+	/**
+	 * Get body of response.
+	 *
+	 * @return Body, null if body cannot be read (failure is recorded).
+	 */
+	String body() {
+		if (!bodyRead) {
+			bodyRead = true;
+			try {
+				body = response.getBody().asString();
+			}
+			catch (Exception ex) {
+				fail(String.format("Expected body to be readable but failed with: %s", ex));
+			}
+		}
+		return body;
+	}
+
+	/**
+	 * Get parsed json body.
+	 *
+	 * @return Json map, list or scalar, {@link #NOT_PARSED} if body is not valid json (failure is recorded once).
+	 */
+	Object json() {
+		if (!jsonParsed) {
+			jsonParsed = true;
+			if (body() == null || body.length() == 0) {
+				fail("Expected body to be json but was empty");
+				return json;
+			}
+			try {
+				json = MAPPER.readValue(body, Object.class);
+			}
+			catch (IOException ex) {
+				fail(String.format("Expected body to be json but was not: %s", ex.getMessage()));
+			}
+		}
+		return json;
+	}
+
+	boolean isJson(Object json) {
+		return json != NOT_PARSED;
+	}
+
+	void fail(String failure) {
+		failures.add(failure);
+	}
+
+	List<String> getFailures() {
+		return failures;
+	}
+}
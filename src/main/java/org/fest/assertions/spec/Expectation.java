@@ -0,0 +1,204 @@
+package org.fest.assertions.spec;
+
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.JsonComparator;
+import org.fest.assertions.util.MediaType;
+
+import java.util.List;
+
+/**
+ * Compiled expectation of an {@link AssertionPlan}.
+ * Expectations record failures in the evaluation instead of throwing, so that all failures of a response are reported.
+ */
+abstract class Expectation {
+
+	/**
+	 * Evaluate expectation against response of evaluation.
+	 *
+	 * @param evaluation Evaluation.
+	 */
+	abstract void evaluate(Evaluation evaluation);
+
+	/**
+	 * Status code is one of the expected codes, or in one of the expected classes (such as "2xx").
+	 */
+	static final class Status extends Expectation {
+		private final int[] min;
+		private final int[] max;
+		private final String description;
+
+		Status(int[] min, int[] max, String description) {
+			this.min = min;
+			this.max = max;
+			this.description = description;
+		}
+
+		@Override
+		void evaluate(Evaluation evaluation) {
+			int status = evaluation.getResponse().getStatusCode();
+			for (int i = 0; i < min.length; i++) {
+				if (status >= min[i] && status <= max[i]) {
+					return;
+				}
+			}
+			evaluation.fail(String.format("Expected status code to be <%s> but was <%s>", description, status));
+		}
+	}
+
+	/**
+	 * Mime type, and charset, of Content-Type header.
+	 */
+	static final class ContentType extends Expectation {
+		private final String mimeType;
+		private final String charset;
+
+		ContentType(String mimeType, String charset) {
+			this.mimeType = mimeType;
+			this.charset = charset;
+		}
+
+		@Override
+		void evaluate(Evaluation evaluation) {
+			MediaType mediaType = evaluation.getResponse().getMediaType();
+			if (mediaType == null) {
+				evaluation.fail("Expected Content-Type header to be defined");
+				return;
+			}
+			if (mimeType != null && !mimeType.equalsIgnoreCase(mediaType.getMimeType())) {
+				evaluation.fail(String.format("Expected media type to be <%s> but was <%s>", mimeType, mediaType.getMimeType()));
+			}
+			if (charset != null && !charset.equalsIgnoreCase(mediaType.getCharset())) {
+				evaluation.fail(String.format("Expected charset to be <%s> but was <%s>", charset, mediaType.getCharset()));
+			}
+		}
+	}
+
+	static final class Header extends Expectation {
+		private final String name;
+		private final ValueMatcher matcher;
+
+		Header(String name, ValueMatcher matcher) {
+			this.name = name;
+			this.matcher = matcher;
+		}
+
+		@Override
+		void evaluate(Evaluation evaluation) {
+			String value = evaluation.getResponse().getHeader(name);
+			String mismatch = matcher.match(value == null ? ValueMatcher.ABSENT : value);
+			if (mismatch != null) {
+				evaluation.fail(String.format("Expected header <%s> %s", name, mismatch));
+			}
+		}
+	}
+
+	static final class CookieValue extends Expectation {
+		private final String name;
+		private final ValueMatcher matcher;
+
+		CookieValue(String name, ValueMatcher matcher) {
+			this.name = name;
+			this.matcher = matcher;
+		}
+
+		@Override
+		void evaluate(Evaluation evaluation) {
+			Cookie cookie = evaluation.getResponse().getCookie(name);
+			String mismatch = matcher.match(cookie == null ? ValueMatcher.ABSENT : cookie.getValue());
+			if (mismatch != null) {
+				evaluation.fail(String.format("Expected cookie <%s> %s", name, mismatch));
+			}
+		}
+	}
+
+	/**
+	 * Value read from json body with a compiled json path.
+	 */
+	static final class JsonValue extends Expectation {
+		private final JsonPath path;
+		private final ValueMatcher matcher;
+
+		JsonValue(JsonPath path, ValueMatcher matcher) {
+			this.path = path;
+			this.matcher = matcher;
+		}
+
+		@Override
+		void evaluate(Evaluation evaluation) {
+			Object json = evaluation.json();
+			if (!evaluation.isJson(json)) {
+				return;
+			}
+
+			Object value;
+			try {
+				value = path.read(json);
+			}
+			catch (InvalidPathException ex) {
+				value = ValueMatcher.ABSENT;
+			}
+			String mismatch = matcher.match(value);
+			if (mismatch != null) {
+				evaluation.fail(String.format("Expected json path <%s> %s", path.getPath(), mismatch));
+			}
+		}
+	}
+
+	/**
+	 * Json body is equal to an expected document, ignoring some fields.
+	 * Expected document is parsed once, when plan is compiled, and is never modified.
+	 */
+	static final class Body extends Expectation {
+		private final Object expected;
+		private final List<String> ignoringFields;
+
+		Body(Object expected, List<String> ignoringFields) {
+			this.expected = expected;
+			this.ignoringFields = ignoringFields;
+		}
+
+		@Override
+		void evaluate(Evaluation evaluation) {
+			String body = evaluation.body();
+			if (body == null) {
+				return;
+			}
+			if (body.trim().length() == 0) {
+				evaluation.fail("Expected body to be equal to expected json but was empty");
+				return;
+			}
+
+			Object json = evaluation.json();
+			if (!evaluation.isJson(json)) {
+				return;
+			}
+			for (String error : JsonComparator.compareJsonTrees(json, expected, ignoringFields)) {
+				evaluation.fail(error);
+			}
+		}
+	}
+
+	/**
+	 * Json body matches a template.
+	 */
+	static final class Template extends Expectation {
+		private final JsonTemplate template;
+
+		Template(JsonTemplate template) {
+			this.template = template;
+		}
+
+		@Override
+		void evaluate(Evaluation evaluation) {
+			String body = evaluation.body();
+			if (body == null) {
+				return;
+			}
+			for (String error : template.evaluate(body)) {
+				evaluation.fail(error);
+			}
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package org.fest.assertions.spec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Expected json document with typed placeholders, compiled once into a tree of matchers:
+ *
+ * <pre>
+ * {"id": "${any-uuid}", "name": "John", "age": "${number > 0}", "createdAt": "${any-iso-date}",
+ *  "email": "${regex:[a-z]+@example\\.com}", "tags": ["${any-string}", "${any-string}"], "metadata": "${any}"}
+ * </pre>
+ *
+ * Placeholders are strings:
+ * <ul>
+ * <li>"${any}": any value, must be present,</li>
+ * <li>"${any-string}", "${any-number}", "${any-integer}", "${any-boolean}", "${any-object}", "${any-array}": any value of a type,</li>
+ * <li>"${any-uuid}": uuid string,</li>
+ * <li>"${any-iso-date}": ISO 8601 date or date-time string (such as "2014-01-01" or "2014-01-01T10:00:00.000Z"),</li>
+ * <li>"${regex:PATTERN}": string matching a regular expression,</li>
+ * <li>"${number > N}", "${number >= N}", "${number < N}", "${number <= N}": number compared to a bound.</li>
+ * </ul>
+ * Other values are literals; a string starting with "$${" is the literal string starting with "${".
+ * Objects must have the same fields (in any order), arrays the same size.
+ *
+ * Documents are matched in a single streaming pass, without building a tree; patterns are compiled with the template.
+ */
+public final class JsonTemplate {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final JsonFactory FACTORY = MAPPER.getFactory();
+
+	private static final Pattern ISO_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}(T\\d{2}:\\d{2}(:\\d{2}(\\.\\d{1,9})?)?(Z|[+-]\\d{2}:?\\d{2})?)?");
+
+	private static final Pattern COMPARISON = Pattern.compile("number\\s*(>=|<=|>|<)\\s*(-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?)");
+
+	private final String template;
+
+	private final TemplateNode root;
+
+	private JsonTemplate(String template, TemplateNode root) {
+		this.template = template;
+		this.root = root;
+	}
+
+	/**
+	 * Compile template.
+	 *
+	 * @param template Json template.
+	 * @return Compiled template.
+	 * @throws IllegalArgumentException If template is not valid json or contains an unknown placeholder.
+	 */
+	public static JsonTemplate compile(String template) {
+		try {
+			return compile(MAPPER.readTree(template));
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException(String.format("Template is not valid json: %s", ex.getMessage()), ex);
+		}
+	}
+
+	/**
+	 * Compile template stored in a file.
+	 *
+	 * @param file Json template.
+	 * @return Compiled template.
+	 * @throws IOException If file cannot be read.
+	 * @throws IllegalArgumentException If template is not valid json or contains an unknown placeholder.
+	 */
+	public static JsonTemplate compile(File file) throws IOException {
+		JsonNode template;
+		try {
+			template = MAPPER.readTree(file);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalArgumentException(String.format("Template %s is not valid json: %s", file, ex.getMessage()), ex);
+		}
+		return compile(template);
+	}
+
+	static JsonTemplate compile(JsonNode template) {
+		if (template == null) {
+			throw new IllegalArgumentException("Template must not be empty");
+		}
+		return new JsonTemplate(template.toString(), node(template, new TemplateNode.Path()));
+	}
+
+	/**
+	 * Match a json document.
+	 *
+	 * @param json Json document.
+	 * @return Mismatches, with their json path, empty if document matches template.
+	 */
+	public List<String> evaluate(String json) {
+		List<String> errors = new ArrayList<String>(0);
+		try {
+			JsonParser parser = FACTORY.createParser(json);
+			try {
+				if (parser.nextToken() == null) {
+					errors.add("Expected json to match template but was empty");
+					return errors;
+				}
+				root.match(parser, new TemplateNode.Path(), errors);
+				if (parser.nextToken() != null) {
+					errors.add("Expected json to match template but document has trailing content");
+				}
+			}
+			finally {
+				parser.close();
+			}
+		}
+		catch (IOException ex) {
+			errors.add(String.format("Expected json to be valid but was not: %s", ex.getMessage()));
+		}
+		return errors.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(errors);
+	}
+
+	/**
+	 * Check if a json document matches template.
+	 *
+	 * @param json Json document.
+	 * @return True if document matches template.
+	 */
+	public boolean matches(String json) {
+		return evaluate(json).isEmpty();
+	}
+
+	/**
+	 * Fail if a json document does not match template.
+	 *
+	 * @param json Json document.
+	 */
+	public void check(String json) {
+		List<String> errors = evaluate(json);
+		if (errors.isEmpty()) {
+			return;
+		}
+
+		StringBuilder msg = new StringBuilder("Expected json to match template but:");
+		for (String error : errors) {
+			msg.append("\n - ").append(error);
+		}
+		throw new AssertionError(msg.toString());
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+
+	private static TemplateNode node(JsonNode node, TemplateNode.Path path) {
+		if (node.isObject()) {
+			String[] names = new String[node.size()];
+			TemplateNode[] values = new TemplateNode[node.size()];
+			Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+			for (int i = 0; fields.hasNext(); i++) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				names[i] = field.getKey();
+				path.push(field.getKey());
+				values[i] = node(field.getValue(), path);
+				path.pop();
+			}
+			return new TemplateNode.ObjectNode(names, values);
+		}
+
+		if (node.isArray()) {
+			TemplateNode[] elements = new TemplateNode[node.size()];
+			for (int i = 0; i < elements.length; i++) {
+				path.push(i);
+				elements[i] = node(node.get(i), path);
+				path.pop();
+			}
+			return new TemplateNode.ArrayNode(elements);
+		}
+
+		if (node.isTextual()) {
+			String text = node.asText();
+			if (text.startsWith("${") && text.endsWith("}")) {
+				return placeholder(text.substring(2, text.length() - 1), path);
+			}
+			return new TemplateNode.Literal(JsonToken.VALUE_STRING, text.startsWith("$${") ? text.substring(1) : text, null);
+		}
+		if (node.isNumber()) {
+			return new TemplateNode.Literal(JsonToken.VALUE_NUMBER_INT, node.asText(), node.decimalValue());
+		}
+		if (node.isBoolean()) {
+			return new TemplateNode.Literal(node.asBoolean() ? JsonToken.VALUE_TRUE : JsonToken.VALUE_FALSE, node.asText(), null);
+		}
+		return new TemplateNode.Literal(JsonToken.VALUE_NULL, "null", null);
+	}
+
+	private static TemplateNode placeholder(String text, TemplateNode.Path path) {
+		if (text.startsWith("regex:")) {
+			String regex = text.substring("regex:".length());
+			return new TemplateNode.Matches("match <" + regex + ">", ValueMatcher.pattern(path.toString(), regex));
+		}
+
+		String placeholder = text.trim();
+		if (placeholder.equals("any")) {
+			return new TemplateNode.AnyOf("any value");
+		}
+		if (placeholder.equals("any-string")) {
+			return new TemplateNode.AnyOf("a string", JsonToken.VALUE_STRING);
+		}
+		if (placeholder.equals("any-number")) {
+			return new TemplateNode.AnyOf("a number", JsonToken.VALUE_NUMBER_INT, JsonToken.VALUE_NUMBER_FLOAT);
+		}
+		if (placeholder.equals("any-integer")) {
+			return new TemplateNode.AnyOf("an integer", JsonToken.VALUE_NUMBER_INT);
+		}
+		if (placeholder.equals("any-boolean")) {
+			return new TemplateNode.AnyOf("a boolean", JsonToken.VALUE_TRUE, JsonToken.VALUE_FALSE);
+		}
+		if (placeholder.equals("any-object")) {
+			return new TemplateNode.AnyOf("an object", JsonToken.START_OBJECT);
+		}
+		if (placeholder.equals("any-array")) {
+			return new TemplateNode.AnyOf("an array", JsonToken.START_ARRAY);
+		}
+		if (placeholder.equals("any-uuid")) {
+			return new TemplateNode.Uuid();
+		}
+		if (placeholder.equals("any-iso-date")) {
+			return new TemplateNode.Matches("be an ISO 8601 date", ISO_DATE);
+		}
+		Matcher comparison = COMPARISON.matcher(placeholder);
+		if (comparison.matches()) {
+			return new TemplateNode.Compare(comparison.group(1), new BigDecimal(comparison.group(2)));
+		}
+		throw new IllegalArgumentException(String.format("Unknown placeholder <${%s}> at <%s>", placeholder, path));
+	}
+}
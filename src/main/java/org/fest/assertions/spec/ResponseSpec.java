@@ -0,0 +1,755 @@
+package org.fest.assertions.spec;
+
+import org.fest.assertions.util.HttpHeaders;
+import org.fest.assertions.util.MimeType;
+import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponseChecks;
+import org.fest.assertions.util.ResponsePredicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assertions on responses, built once with the vocabulary of {@code ResponseAssert} and evaluated against any number
+ * of responses:
+ *
+ * <pre>
+ * ResponseSpec spec = ResponseSpec.response().isSuccess().isJsonUtf8().hasETagHeader().hasCookie("session");
+ * ResponseSpec.Result result = spec.evaluate(response);
+ * </pre>
+ *
+ * Evaluation never throws: it returns a result listing all failures, described as {@code ResponseAssert} would.
+ * Each method returns a new spec.
+ */
+public final class ResponseSpec implements ResponsePredicate {
+
+	private static final ResponseSpec EMPTY = new ResponseSpec(new ResponseChecks.Check[0]);
+
+	private final ResponseChecks.Check[] checks;
+
+	private ResponseSpec(ResponseChecks.Check[] checks) {
+		this.checks = checks;
+	}
+
+	/**
+	 * Start a spec, satisfied by any response.
+	 *
+	 * @return Spec.
+	 */
+	public static ResponseSpec response() {
+		return EMPTY;
+	}
+
+	/**
+	 * Evaluate spec against a response.
+	 *
+	 * @param response Response.
+	 * @return Result, listing all failures.
+	 */
+	public Result evaluate(Response response) {
+		if (response == null) {
+			return new Result(Collections.singletonList("Expecting actual not to be null"));
+		}
+
+		List<String> failures = null;
+		for (ResponseChecks.Check check : checks) {
+			String failure = check.check(response);
+			if (failure != null) {
+				if (failures == null) {
+					failures = new ArrayList<String>(2);
+				}
+				// Checks sharing a precondition (such as a Content-Type) report it once
+				if (!failures.contains(failure)) {
+					failures.add(failure);
+				}
+			}
+		}
+		return failures == null ? Result.PASSED : new Result(Collections.unmodifiableList(failures));
+	}
+
+	/**
+	 * Check if a response satisfies spec.
+	 * Evaluation stops at first failure.
+	 *
+	 * @param response Response.
+	 * @return True if response satisfies spec.
+	 */
+	@Override
+	public boolean matches(Response response) {
+		if (response == null) {
+			return false;
+		}
+		for (ResponseChecks.Check check : checks) {
+			if (check.check(response) != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Fail if a response does not satisfy spec.
+	 *
+	 * @param response Response.
+	 */
+	public void check(Response response) {
+		Result result = evaluate(response);
+		if (result.isPassed()) {
+			return;
+		}
+
+		StringBuilder msg = new StringBuilder("Expected response to satisfy spec but:");
+		for (String failure : result.getFailures()) {
+			msg.append("\n - ").append(failure);
+		}
+		throw new AssertionError(msg.toString());
+	}
+
+	/**
+	 * Check if rest code status is between 200 and 299 (which means success status).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isSuccess() {
+		return isStatusBetween(200, 299);
+	}
+
+	/**
+	 * Check if rest code status is between 300 and 399 (which means redirection status).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isRedirection() {
+		return isStatusBetween(300, 399);
+	}
+
+	/**
+	 * Check if rest code status is between 400 and 499 (which means client-side error).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isClientError() {
+		return isStatusBetween(400, 499);
+	}
+
+	/**
+	 * Check if rest code status is between 500 and 599 (which means server-side error).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isServerError() {
+		return isStatusBetween(500, 599);
+	}
+
+	/**
+	 * Check if rest code status is 200.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isOk() {
+		return isStatusEqualTo(200);
+	}
+
+	/**
+	 * Check if rest code status is 202.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isAccepted() {
+		return isStatusEqualTo(202);
+	}
+
+	/**
+	 * Check if rest code status is 201.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isCreated() {
+		return isStatusEqualTo(201);
+	}
+
+	/**
+	 * Check if rest code status is 203.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isNonAuthoritativeInformation() {
+		return isStatusEqualTo(203);
+	}
+
+	/**
+	 * Check if rest code status is 204.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isNoContent() {
+		return isStatusEqualTo(204);
+	}
+
+	/**
+	 * Check if rest code status is 205.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isResetContent() {
+		return isStatusEqualTo(205);
+	}
+
+	/**
+	 * Check if rest code status is 206.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isPartialContent() {
+		return isStatusEqualTo(206);
+	}
+
+	/**
+	 * Check if rest code status is 300.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isMultipleChoice() {
+		return isStatusEqualTo(300);
+	}
+
+	/**
+	 * Check if rest code status is 301.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isMovedPermanently() {
+		return isStatusEqualTo(301);
+	}
+
+	/**
+	 * Check if rest code status is 302.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isMovedTemporarily() {
+		return isStatusEqualTo(302);
+	}
+
+	/**
+	 * Check if rest code status is 303.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isSeeOther() {
+		return isStatusEqualTo(303);
+	}
+
+	/**
+	 * Check if rest code status is 304.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isNotModified() {
+		return isStatusEqualTo(304);
+	}
+
+	/**
+	 * Check if rest code status is 400.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isBadRequest() {
+		return isStatusEqualTo(400);
+	}
+
+	/**
+	 * Check if rest code status is 401.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isUnauthorized() {
+		return isStatusEqualTo(401);
+	}
+
+	/**
+	 * Check if rest code status is 403.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isForbidden() {
+		return isStatusEqualTo(403);
+	}
+
+	/**
+	 * Check if rest code status is 404.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isNotFound() {
+		return isStatusEqualTo(404);
+	}
+
+	/**
+	 * Check if rest code status is 405.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isMethodNotAllowed() {
+		return isStatusEqualTo(405);
+	}
+
+	/**
+	 * Check if rest code status is 500.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isInternalServerError() {
+		return isStatusEqualTo(500);
+	}
+
+	/**
+	 * Check if rest code status is 501.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isNotImplemented() {
+		return isStatusEqualTo(501);
+	}
+
+	/**
+	 * Check if rest code status is equal to expected value.
+	 *
+	 * @param expected Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec isStatusEqualTo(int expected) {
+		return with(ResponseChecks.statusEqualTo(expected));
+	}
+
+	/**
+	 * Check if rest code status is not equal to a value.
+	 *
+	 * @param expected Value.
+	 * @return New spec.
+	 */
+	public ResponseSpec isStatusNotEqualTo(int expected) {
+		return with(ResponseChecks.statusNotEqualTo(expected));
+	}
+
+	/**
+	 * Check if rest code status is between expected values.
+	 *
+	 * @param start Start value (inclusive).
+	 * @param end End value (inclusive).
+	 * @return New spec.
+	 */
+	public ResponseSpec isStatusBetween(int start, int end) {
+		return with(ResponseChecks.statusBetween(start, end));
+	}
+
+	/**
+	 * Check if rest code status is not between values.
+	 *
+	 * @param start Start value (inclusive).
+	 * @param end End value (inclusive).
+	 * @return New spec.
+	 */
+	public ResponseSpec isStatusNotBetween(int start, int end) {
+		return with(ResponseChecks.statusNotBetween(start, end));
+	}
+
+	/**
+	 * Check if mime type is octet-stream (a.k.a 'application/octet-stream').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isOctetStream() {
+		return with(ResponseChecks.OCTET_STREAM);
+	}
+
+	/**
+	 * Check if mime type is json (a.k.a 'application/json').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isJson() {
+		return with(ResponseChecks.JSON);
+	}
+
+	/**
+	 * Check if mime type is xml (a.k.a 'application/xml' or 'text/xml').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isXml() {
+		return with(ResponseChecks.XML);
+	}
+
+	/**
+	 * Check if mime type is css (a.k.a 'text/css').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isCss() {
+		return with(ResponseChecks.CSS);
+	}
+
+	/**
+	 * Check if mime type is javascript (a.k.a 'application/javascript' or 'text/javascript').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isJavascript() {
+		return with(ResponseChecks.JAVASCRIPT);
+	}
+
+	/**
+	 * Check if mime type is plain text (a.k.a 'text/plain').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isTextPlain() {
+		return with(ResponseChecks.TEXT_PLAIN);
+	}
+
+	/**
+	 * Check if mime type is html (a.k.a 'text/html').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isHtml() {
+		return with(ResponseChecks.HTML);
+	}
+
+	/**
+	 * Check if mime type is xhtml (a.k.a 'application/xhtml+xml').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isXhtml() {
+		return with(ResponseChecks.XHTML);
+	}
+
+	/**
+	 * Check if mime type is html or xhtml.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isHtmlOrXhtml() {
+		return with(ResponseChecks.HTML_OR_XHTML);
+	}
+
+	/**
+	 * Check if mime type is pdf (a.k.a 'application/pdf').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isPdf() {
+		return with(ResponseChecks.PDF);
+	}
+
+	/**
+	 * Check if mime type is csv (a.k.a 'text/csv').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isCsv() {
+		return with(ResponseChecks.CSV);
+	}
+
+	/**
+	 * Check if mime type is zip (a.k.a 'application/zip').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isZip() {
+		return with(ResponseChecks.ZIP);
+	}
+
+	/**
+	 * Check if mime type is flash content (a.k.a 'application/x-shockwave-flash' or 'video/x-flv').
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isFlashContent() {
+		return with(ResponseChecks.FLASH);
+	}
+
+	/**
+	 * Check if response has a Content-Type header.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec hasContentType() {
+		return with(ResponseChecks.CONTENT_TYPE);
+	}
+
+	/**
+	 * Check if mime type is equal to a given value.
+	 *
+	 * @param expected Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec isMimeTypeTypeEqualTo(String expected) {
+		return with(ResponseChecks.mimeTypeEqualTo(expected));
+	}
+
+	/**
+	 * Check if mime type is in a list of expected values.
+	 *
+	 * @param expecteds Expected values.
+	 * @return New spec.
+	 */
+	public ResponseSpec isMimeTypeIn(String... expecteds) {
+		return with(ResponseChecks.mimeTypeIn(expecteds));
+	}
+
+	/**
+	 * Check if mime type is one of well known mime types.
+	 *
+	 * @param expecteds Expected mime types.
+	 * @return New spec.
+	 */
+	public ResponseSpec isMimeTypeIn(MimeType... expecteds) {
+		return with(ResponseChecks.mimeTypeIn(expecteds));
+	}
+
+	/**
+	 * Check if a charset value is defined in Content-Type of response.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec hasCharset() {
+		return with(ResponseChecks.CHARSET);
+	}
+
+	/**
+	 * Check if charset value in Content-Type is equal to an expected value (case insensitive).
+	 *
+	 * @param expected Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec isCharsetEqualTo(String expected) {
+		return with(ResponseChecks.charsetEqualTo(expected));
+	}
+
+	/**
+	 * Check if charset value in Content-Type is equal to 'utf-8' (case insensitive).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isUtf8() {
+		return with(ResponseChecks.UTF8);
+	}
+
+	/**
+	 * Check if content-type of response is Json (mime type) and Utf-8 (charset).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isJsonUtf8() {
+		return isJson().isUtf8();
+	}
+
+	/**
+	 * Check if content-type of response is Xml (mime type) and Utf-8 (charset).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isXmlUtf8() {
+		return isXml().isUtf8();
+	}
+
+	/**
+	 * Check if content-type of response is Html (mime type) and Utf-8 (charset).
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec isHtmlUtf8() {
+		return isHtmlOrXhtml().isUtf8();
+	}
+
+	/**
+	 * Check if a header is in the response.
+	 *
+	 * @param headerName Name of header.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasHeader(String headerName) {
+		return with(ResponseChecks.header(headerName));
+	}
+
+	/**
+	 * Check if a header is equal to an expected value.
+	 *
+	 * @param headerName Name of header.
+	 * @param value Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasHeaderEqualTo(String headerName, String value) {
+		return with(ResponseChecks.headerEqualTo(headerName, value));
+	}
+
+	/**
+	 * Check if response has an "ETag" header.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec hasETagHeader() {
+		return hasHeader(HttpHeaders.ETAG);
+	}
+
+	/**
+	 * Check if "ETag" header is equal to an expected value.
+	 *
+	 * @param value Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasETagEqualTo(String value) {
+		return hasHeaderEqualTo(HttpHeaders.ETAG, value);
+	}
+
+	/**
+	 * Check if response has a "Location" header.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec hasLocationHeader() {
+		return hasHeader(HttpHeaders.LOCATION);
+	}
+
+	/**
+	 * Check if "Location" header is equal to an expected value.
+	 *
+	 * @param value Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasLocationEqualTo(String value) {
+		return hasHeaderEqualTo(HttpHeaders.LOCATION, value);
+	}
+
+	/**
+	 * Check if a cookie is defined in the response headers.
+	 * Name is case insensitive: if several cookies have this name, the last one is checked.
+	 *
+	 * @param cookieName Cookie name.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasCookie(String cookieName) {
+		return with(ResponseChecks.cookie(cookieName));
+	}
+
+	/**
+	 * Check if a cookie is defined in the response headers and its value is equal to an expected string.
+	 * Name is case insensitive: if several cookies have this name, the last one is checked.
+	 *
+	 * @param cookieName Cookie name.
+	 * @param value Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasCookieEqualTo(String cookieName, String value) {
+		return with(ResponseChecks.cookieEqualTo(cookieName, value));
+	}
+
+	/**
+	 * Check if response has a non empty body.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec hasBody() {
+		return with(ResponseChecks.BODY);
+	}
+
+	/**
+	 * Check if response has an empty body.
+	 *
+	 * @return New spec.
+	 */
+	public ResponseSpec hasEmptyBody() {
+		return with(ResponseChecks.EMPTY_BODY);
+	}
+
+	/**
+	 * Check if body of response contains a value.
+	 *
+	 * @param value Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasBodyContaining(String value) {
+		return with(ResponseChecks.bodyContaining(value));
+	}
+
+	/**
+	 * Check if body of response is equal to an expected value.
+	 *
+	 * @param expected Expected value.
+	 * @return New spec.
+	 */
+	public ResponseSpec hasBodyEqualTo(String expected) {
+		return with(ResponseChecks.bodyEqualTo(expected));
+	}
+
+	/**
+	 * Check if response was completely received before a given duration.
+	 *
+	 * @param duration Maximum response time.
+	 * @param unit Unit of duration.
+	 * @return New spec.
+	 */
+	public ResponseSpec respondsWithin(long duration, TimeUnit unit) {
+		return with(ResponseChecks.respondsWithin(duration, unit));
+	}
+
+	/**
+	 * Check if response was not completely received before a given duration.
+	 *
+	 * @param duration Minimum response time.
+	 * @param unit Unit of duration.
+	 * @return New spec.
+	 */
+	public ResponseSpec respondsAfter(long duration, TimeUnit unit) {
+		return with(ResponseChecks.respondsAfter(duration, unit));
+	}
+
+	private ResponseSpec with(ResponseChecks.Check check) {
+		ResponseChecks.Check[] copy = new ResponseChecks.Check[checks.length + 1];
+		System.arraycopy(checks, 0, copy, 0, checks.length);
+		copy[checks.length] = check;
+		return new ResponseSpec(copy);
+	}
+
+	/**
+	 * Result of an evaluation: passed, or list of failures.
+	 */
+	public static final class Result {
+
+		private static final Result PASSED = new Result(Collections.<String>emptyList());
+
+		private final List<String> failures;
+
+		private Result(List<String> failures) {
+			this.failures = failures;
+		}
+
+		/**
+		 * Check if response satisfies spec.
+		 *
+		 * @return True if evaluation did not fail.
+		 */
+		public boolean isPassed() {
+			return failures.isEmpty();
+		}
+
+		/**
+		 * Get failures of evaluation.
+		 *
+		 * @return Failures, empty if response satisfies spec.
+		 */
+		public List<String> getFailures() {
+			return failures;
+		}
+
+		@Override
+		public String toString() {
+			return failures.isEmpty() ? "passed" : "failed " + failures;
+		}
+	}
+}
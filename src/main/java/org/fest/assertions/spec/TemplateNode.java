@@ -0,0 +1,310 @@
+package org.fest.assertions.spec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Node of a compiled {@link JsonTemplate}.
+ * Nodes match json documents while they are parsed: the current token of parser is the first token of the value
+ * to match, and matching consumes the value (mismatched containers are skipped).
+ */
+abstract class TemplateNode {
+
+	/**
+	 * Match value starting at current token of parser.
+	 *
+	 * @param parser Parser.
+	 * @param path Path of value.
+	 * @param errors Mismatches.
+	 * @throws IOException If document is not valid json.
+	 */
+	abstract void match(JsonParser parser, Path path, List<String> errors) throws IOException;
+
+	static void mismatch(JsonParser parser, Path path, String expectation, List<String> errors) throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		String actual;
+		if (token == JsonToken.START_OBJECT) {
+			actual = "object";
+			parser.skipChildren();
+		}
+		else if (token == JsonToken.START_ARRAY) {
+			actual = "array";
+			parser.skipChildren();
+		}
+		else if (token == JsonToken.VALUE_STRING) {
+			actual = "\"" + parser.getText() + "\"";
+		}
+		else {
+			actual = parser.getText();
+		}
+		errors.add(String.format("Expected json <%s> to %s but was <%s>", path, expectation, actual));
+	}
+
+	/**
+	 * Mutable path of current value, only rendered when a mismatch is reported.
+	 */
+	static final class Path {
+		private Object[] segments = new Object[16];
+		private int size;
+
+		void push(Object segment) {
+			if (size == segments.length) {
+				Object[] copy = new Object[size * 2];
+				System.arraycopy(segments, 0, copy, 0, size);
+				segments = copy;
+			}
+			segments[size++] = segment;
+		}
+
+		void pop() {
+			segments[--size] = null;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("$");
+			for (int i = 0; i < size; i++) {
+				Object segment = segments[i];
+				if (segment instanceof Integer) {
+					sb.append('[').append(segment).append(']');
+				}
+				else {
+					sb.append('.').append(segment);
+				}
+			}
+			return sb.toString();
+		}
+	}
+
+	static final class ObjectNode extends TemplateNode {
+		private final String[] names;
+		private final TemplateNode[] values;
+		private final Map<String, Integer> indexes;
+
+		ObjectNode(String[] names, TemplateNode[] values) {
+			this.names = names;
+			this.values = values;
+			this.indexes = new HashMap<String, Integer>(names.length * 2);
+			for (int i = 0; i < names.length; i++) {
+				indexes.put(names[i], i);
+			}
+		}
+
+		@Override
+		void match(JsonParser parser, Path path, List<String> errors) throws IOException {
+			if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+				mismatch(parser, path, "be an object", errors);
+				return;
+			}
+
+			boolean[] seen = new boolean[names.length];
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				parser.nextToken();
+				path.push(name);
+				Integer index = indexes.get(name);
+				if (index == null) {
+					errors.add(String.format("Expected json <%s> not to be present", path));
+					parser.skipChildren();
+				}
+				else {
+					seen[index] = true;
+					values[index].match(parser, path, errors);
+				}
+				path.pop();
+			}
+
+			for (int i = 0; i < names.length; i++) {
+				if (!seen[i]) {
+					path.push(names[i]);
+					errors.add(String.format("Expected json <%s> to be present", path));
+					path.pop();
+				}
+			}
+		}
+	}
+
+	static final class ArrayNode extends TemplateNode {
+		private final TemplateNode[] elements;
+
+		ArrayNode(TemplateNode[] elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		void match(JsonParser parser, Path path, List<String> errors) throws IOException {
+			if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+				mismatch(parser, path, "be an array", errors);
+				return;
+			}
+
+			int size = 0;
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				if (size < elements.length) {
+					path.push(size);
+					elements[size].match(parser, path, errors);
+					path.pop();
+				}
+				else {
+					parser.skipChildren();
+				}
+				size++;
+			}
+			if (size != elements.length) {
+				errors.add(String.format("Expected json <%s> to have size <%s> but had size <%s>", path, elements.length, size));
+			}
+		}
+	}
+
+	/**
+	 * Literal string, number, boolean or null.
+	 */
+	static final class Literal extends TemplateNode {
+		private final JsonToken type;
+		private final String text;
+		private final BigDecimal number;
+
+		Literal(JsonToken type, String text, BigDecimal number) {
+			this.type = type;
+			this.text = text;
+			this.number = number;
+		}
+
+		@Override
+		void match(JsonParser parser, Path path, List<String> errors) throws IOException {
+			JsonToken token = parser.getCurrentToken();
+			boolean equal;
+			if (number != null) {
+				equal = token.isNumeric() && parser.getDecimalValue().compareTo(number) == 0;
+			}
+			else if (type == JsonToken.VALUE_STRING) {
+				equal = token == JsonToken.VALUE_STRING && text.equals(parser.getText());
+			}
+			else {
+				equal = token == type;
+			}
+			if (!equal) {
+				mismatch(parser, path, "be equal to <" + (type == JsonToken.VALUE_STRING ? "\"" + text + "\"" : text) + ">", errors);
+			}
+		}
+	}
+
+	/**
+	 * Any value: "${any}", or any value of a json type: "${any-string}", "${any-number}"...
+	 */
+	static final class AnyOf extends TemplateNode {
+		private final String description;
+		private final JsonToken[] types;
+
+		AnyOf(String description, JsonToken... types) {
+			this.description = description;
+			this.types = types;
+		}
+
+		@Override
+		void match(JsonParser parser, Path path, List<String> errors) throws IOException {
+			JsonToken token = parser.getCurrentToken();
+			if (types.length == 0) {
+				parser.skipChildren();
+				return;
+			}
+			for (JsonToken type : types) {
+				if (token == type) {
+					parser.skipChildren();
+					return;
+				}
+			}
+			mismatch(parser, path, "be " + description, errors);
+		}
+	}
+
+	/**
+	 * String matching a pattern: "${regex:...}", "${any-iso-date}".
+	 */
+	static final class Matches extends TemplateNode {
+		private final String description;
+		private final Pattern pattern;
+
+		Matches(String description, Pattern pattern) {
+			this.description = description;
+			this.pattern = pattern;
+		}
+
+		@Override
+		void match(JsonParser parser, Path path, List<String> errors) throws IOException {
+			if (parser.getCurrentToken() != JsonToken.VALUE_STRING || !pattern.matcher(parser.getText()).matches()) {
+				mismatch(parser, path, description, errors);
+			}
+		}
+	}
+
+	/**
+	 * Uuid string, "${any-uuid}": checked without regular expression.
+	 */
+	static final class Uuid extends TemplateNode {
+
+		@Override
+		void match(JsonParser parser, Path path, List<String> errors) throws IOException {
+			if (parser.getCurrentToken() != JsonToken.VALUE_STRING || !isUuid(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+				mismatch(parser, path, "be a uuid", errors);
+			}
+		}
+
+		private static boolean isUuid(char[] chars, int offset, int length) {
+			if (length != 36) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				char c = chars[offset + i];
+				if (i == 8 || i == 13 || i == 18 || i == 23) {
+					if (c != '-') {
+						return false;
+					}
+				}
+				else if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f') && !(c >= 'A' && c <= 'F')) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Number compared to a bound: "${number > 0}", "${number <= 100}"...
+	 */
+	static final class Compare extends TemplateNode {
+		private final String operator;
+		private final BigDecimal bound;
+		private final boolean greater;
+		private final boolean inclusive;
+
+		Compare(String operator, BigDecimal bound) {
+			this.operator = operator;
+			this.bound = bound;
+			this.greater = operator.charAt(0) == '>';
+			this.inclusive = operator.endsWith("=");
+		}
+
+		@Override
+		void match(JsonParser parser, Path path, List<String> errors) throws IOException {
+			JsonToken token = parser.getCurrentToken();
+			if (!token.isNumeric() || !accept(parser.getDecimalValue().compareTo(bound))) {
+				mismatch(parser, path, "be a number " + operator + " " + bound.toPlainString(), errors);
+			}
+		}
+
+		private boolean accept(int comparison) {
+			if (comparison == 0) {
+				return inclusive;
+			}
+			return greater == comparison > 0;
+		}
+	}
+}
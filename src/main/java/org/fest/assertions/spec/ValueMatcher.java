@@ -0,0 +1,308 @@
+package org.fest.assertions.spec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled expectation on a single value: a header value, a cookie value or a value read from a json path.
+ * A spec value is either a literal (value must be equal to it) or an object combining constraints:
+ *
+ * <pre>
+ * {"present": false}
+ * {"equals": "John"}
+ * {"matches": "^[a-z]+$"}
+ * {"type": "number", "greaterThan": 0}
+ * {"size": 3}
+ * </pre>
+ */
+abstract class ValueMatcher {
+
+	/** Value of a header, cookie or json path that does not exist */
+	static final Object ABSENT = new Object() {
+		@Override
+		public String toString() {
+			return "absent";
+		}
+	};
+
+	/**
+	 * Match a value.
+	 *
+	 * @param value Actual value, {@link #ABSENT} if value does not exist.
+	 * @return Expectation and actual value (such as "to be equal to <1> but was <2>"), null if value matches.
+	 */
+	abstract String match(Object value);
+
+	/**
+	 * Compile spec of a value.
+	 *
+	 * @param name Name of value, used in errors.
+	 * @param node Spec.
+	 * @return Matcher.
+	 * @throws IllegalArgumentException If spec is not valid.
+	 */
+	static ValueMatcher compile(String name, JsonNode node) {
+		if (!node.isObject()) {
+			return new EqualTo(literal(name, node));
+		}
+
+		final List<ValueMatcher> matchers = new ArrayList<ValueMatcher>();
+		Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			String key = field.getKey();
+			JsonNode value = field.getValue();
+			if (key.equals("present")) {
+				matchers.add(new Present(value.asBoolean()));
+			}
+			else if (key.equals("equals")) {
+				matchers.add(new EqualTo(literal(name, value)));
+			}
+			else if (key.equals("matches")) {
+				matchers.add(new Matches(pattern(name, value.asText())));
+			}
+			else if (key.equals("type")) {
+				matchers.add(new OfType(type(name, value.asText())));
+			}
+			else if (key.equals("size")) {
+				matchers.add(new OfSize(integer(name, key, value)));
+			}
+			else if (key.equals("greaterThan")) {
+				matchers.add(new Compare(number(name, key, value), 1));
+			}
+			else if (key.equals("lessThan")) {
+				matchers.add(new Compare(number(name, key, value), -1));
+			}
+			else {
+				throw new IllegalArgumentException(String.format("Unknown constraint <%s> of <%s>", key, name));
+			}
+		}
+		if (matchers.isEmpty()) {
+			throw new IllegalArgumentException(String.format("No constraint defined for <%s>", name));
+		}
+		return matchers.size() == 1 ? matchers.get(0) : new AllOf(matchers.toArray(new ValueMatcher[matchers.size()]));
+	}
+
+	/**
+	 * Compile a regular expression.
+	 *
+	 * @param name Name of value, used in errors.
+	 * @param regex Regular expression.
+	 * @return Pattern.
+	 * @throws IllegalArgumentException If regular expression is not valid.
+	 */
+	static Pattern pattern(String name, String regex) {
+		try {
+			return Pattern.compile(regex);
+		}
+		catch (PatternSyntaxException ex) {
+			throw new IllegalArgumentException(String.format("Pattern of <%s> is not valid: %s", name, ex.getDescription()));
+		}
+	}
+
+	private static Object literal(String name, JsonNode node) {
+		if (node.isContainerNode()) {
+			throw new IllegalArgumentException(String.format("Expected value of <%s> must be a string, a number, a boolean or null", name));
+		}
+		if (node.isNumber()) {
+			return node.decimalValue();
+		}
+		return node.isNull() ? null : node.isBoolean() ? node.asBoolean() : node.asText();
+	}
+
+	private static int integer(String name, String key, JsonNode node) {
+		if (!node.canConvertToInt() || !node.isIntegralNumber() || node.asInt() < 0) {
+			throw new IllegalArgumentException(String.format("Constraint <%s> of <%s> must be a positive integer", key, name));
+		}
+		return node.asInt();
+	}
+
+	private static BigDecimal number(String name, String key, JsonNode node) {
+		if (!node.isNumber()) {
+			throw new IllegalArgumentException(String.format("Constraint <%s> of <%s> must be a number", key, name));
+		}
+		return node.decimalValue();
+	}
+
+	private static String type(String name, String type) {
+		if (type.equals("string") || type.equals("number") || type.equals("boolean") || type.equals("array") || type.equals("object") || type.equals("null")) {
+			return type;
+		}
+		throw new IllegalArgumentException(String.format("Type of <%s> must be one of string, number, boolean, array, object or null", name));
+	}
+
+	private static String typeOf(Object value) {
+		if (value == null) {
+			return "null";
+		}
+		if (value instanceof String) {
+			return "string";
+		}
+		if (value instanceof Number) {
+			return "number";
+		}
+		if (value instanceof Boolean) {
+			return "boolean";
+		}
+		if (value instanceof Collection) {
+			return "array";
+		}
+		return value instanceof Map ? "object" : value.getClass().getSimpleName();
+	}
+
+	private static BigDecimal decimal(Object value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		try {
+			return new BigDecimal(value.toString());
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	private static final class Present extends ValueMatcher {
+		private final boolean present;
+
+		private Present(boolean present) {
+			this.present = present;
+		}
+
+		@Override
+		String match(Object value) {
+			if ((value != ABSENT) == present) {
+				return null;
+			}
+			return present ? "to be present" : String.format("not to be present but was <%s>", value);
+		}
+	}
+
+	private static final class EqualTo extends ValueMatcher {
+		private final Object expected;
+
+		private EqualTo(Object expected) {
+			this.expected = expected;
+		}
+
+		@Override
+		String match(Object value) {
+			if (value == ABSENT) {
+				return String.format("to be equal to <%s> but was absent", expected);
+			}
+
+			boolean equal;
+			if (expected instanceof BigDecimal) {
+				BigDecimal actual = value instanceof Number || value instanceof String ? decimal(value) : null;
+				equal = actual != null && actual.compareTo((BigDecimal) expected) == 0;
+			}
+			else if (expected instanceof String) {
+				equal = value != null && !(value instanceof Collection) && !(value instanceof Map) && expected.equals(value.toString());
+			}
+			else {
+				equal = expected == null ? value == null : expected.equals(value);
+			}
+			return equal ? null : String.format("to be equal to <%s> but was <%s>", expected, value);
+		}
+	}
+
+	private static final class Matches extends ValueMatcher {
+		private final Pattern pattern;
+
+		private Matches(Pattern pattern) {
+			this.pattern = pattern;
+		}
+
+		@Override
+		String match(Object value) {
+			boolean scalar = value != ABSENT && value != null && !(value instanceof Collection) && !(value instanceof Map);
+			return scalar && pattern.matcher(value.toString()).find() ? null : String.format("to match <%s> but was <%s>", pattern.pattern(), value);
+		}
+	}
+
+	private static final class OfType extends ValueMatcher {
+		private final String type;
+
+		private OfType(String type) {
+			this.type = type;
+		}
+
+		@Override
+		String match(Object value) {
+			String actual = value == ABSENT ? "absent" : typeOf(value);
+			return type.equals(actual) ? null : String.format("to be of type <%s> but was <%s>", type, actual);
+		}
+	}
+
+	private static final class OfSize extends ValueMatcher {
+		private final int size;
+
+		private OfSize(int size) {
+			this.size = size;
+		}
+
+		@Override
+		String match(Object value) {
+			int actual;
+			if (value instanceof Collection) {
+				actual = ((Collection) value).size();
+			}
+			else if (value instanceof Map) {
+				actual = ((Map) value).size();
+			}
+			else if (value instanceof String) {
+				actual = ((String) value).length();
+			}
+			else {
+				return String.format("to have size <%s> but was <%s>", size, value);
+			}
+			return actual == size ? null : String.format("to have size <%s> but had size <%s>", size, actual);
+		}
+	}
+
+	private static final class Compare extends ValueMatcher {
+		private final BigDecimal bound;
+		private final int sign;
+
+		private Compare(BigDecimal bound, int sign) {
+			this.bound = bound;
+			this.sign = sign;
+		}
+
+		@Override
+		String match(Object value) {
+			BigDecimal actual = value instanceof Number ? decimal(value) : null;
+			if (actual != null && actual.compareTo(bound) == sign) {
+				return null;
+			}
+			return String.format("to be %s <%s> but was <%s>", sign > 0 ? "greater than" : "less than", bound, value);
+		}
+	}
+
+	private static final class AllOf extends ValueMatcher {
+		private final ValueMatcher[] matchers;
+
+		private AllOf(ValueMatcher[] matchers) {
+			this.matchers = matchers;
+		}
+
+		@Override
+		String match(Object value) {
+			for (ValueMatcher matcher : matchers) {
+				String mismatch = matcher.match(value);
+				if (mismatch != null) {
+					return mismatch;
+				}
+			}
+			return null;
+		}
+	}
+}
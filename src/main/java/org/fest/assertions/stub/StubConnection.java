@@ -0,0 +1,375 @@
+package org.fest.assertions.stub;
+
+import org.fest.assertions.util.HttpHeaders;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection accepted by a {@link StubServer}: non blocking state machine reading requests and writing responses.
+ * Requests may be pipelined, they are answered in order.
+ * This class is only used by the selector thread, it is not thread safe.
+ */
+final class StubConnection {
+
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	/** Initial size of read buffer */
+	private static final int BUFFER_SIZE = 8192;
+
+	/** Maximum size of request line and headers */
+	static final int MAX_HEAD_SIZE = 64 * 1024;
+
+	/** Throttled bodies are written in chunks, at this frequency */
+	private static final int CHUNKS_PER_SECOND = 50;
+
+	/** Maximum size of request body */
+	static final int MAX_BODY_SIZE = 16 * 1024 * 1024;
+
+	private final StubServer server;
+
+	private final SocketChannel channel;
+
+	/** Received bytes, in write mode */
+	private ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+
+	/** Response being written: head, then body from memory or from file */
+	private ByteBuffer head;
+
+	private ByteBuffer body;
+
+	private FileChannel file;
+
+	private long filePosition;
+
+	/** Response being written, used for shaping */
+	private StubResponse response;
+
+	private long bodyWritten;
+
+	private long bodyLength;
+
+	private boolean keepAlive;
+
+	/** Body has been cut, nothing more is written on connection */
+	private boolean stalled;
+
+	StubConnection(StubServer server, SocketChannel channel) {
+		this.server = server;
+		this.channel = channel;
+	}
+
+	/**
+	 * Read available bytes, and answer request if it is complete.
+	 *
+	 * @param key Selection key of connection.
+	 * @throws IOException If connection fails.
+	 */
+	void read(SelectionKey key) throws IOException {
+		if (stalled) {
+			// Response is stalled: only wait for client to close connection
+			in.clear();
+			if (channel.read(in) < 0) {
+				close();
+			}
+			return;
+		}
+
+		if (!in.hasRemaining()) {
+			in = grow(in, in.capacity() * 2);
+		}
+		if (channel.read(in) < 0) {
+			close();
+			return;
+		}
+		process(key);
+	}
+
+	/**
+	 * Write pending response, then wait for next request.
+	 *
+	 * @param key Selection key of connection.
+	 * @throws IOException If connection fails.
+	 */
+	void write(SelectionKey key) throws IOException {
+		if (head.hasRemaining() && (channel.write(head) == 0 || head.hasRemaining())) {
+			return;
+		}
+
+		long rate = response.getBytesPerSecond();
+		long cutAfter = response.getCutAfter();
+		while (bodyWritten < bodyLength) {
+			if (cutAfter >= 0 && bodyWritten >= cutAfter) {
+				cut(key);
+				return;
+			}
+
+			long limit = bodyLength - bodyWritten;
+			if (cutAfter >= 0) {
+				limit = Math.min(limit, cutAfter - bodyWritten);
+			}
+			if (rate > 0) {
+				limit = Math.min(limit, Math.max(1, rate / CHUNKS_PER_SECOND));
+			}
+
+			long written = writeBody(limit);
+			if (written <= 0) {
+				return;
+			}
+			bodyWritten += written;
+
+			if (rate > 0 && bodyWritten < bodyLength) {
+				suspend(key, written * TimeUnit.SECONDS.toNanos(1) / rate);
+				return;
+			}
+		}
+
+		closeFile();
+		head = null;
+		body = null;
+		response = null;
+		if (!keepAlive) {
+			close();
+			return;
+		}
+
+		key.interestOps(SelectionKey.OP_READ);
+		process(key);
+	}
+
+	void close() {
+		closeFile();
+		try {
+			channel.close();
+		}
+		catch (IOException ex) {
+			// Nothing to do
+		}
+	}
+
+	private void process(SelectionKey key) throws IOException {
+		StubResponse response;
+		StubRequest request = null;
+		try {
+			request = parse();
+			if (request == null) {
+				return;
+			}
+			response = server.handle(request);
+			keepAlive = request.isKeepAlive();
+		}
+		catch (MalformedRequestException ex) {
+			response = StubResponse.status(ex.status).contentType("text/plain").body(ex.getMessage());
+			keepAlive = false;
+		}
+		catch (RuntimeException ex) {
+			// Rule failed to match request: other connections are still served
+			response = StubResponse.status(500).contentType("text/plain").body("Stub server failed to handle request: " + ex);
+			keepAlive = false;
+		}
+
+		prepare(response, request != null && "HEAD".equals(request.getMethod()));
+		long delay = response.getFirstByteDelayNanos();
+		if (delay > 0) {
+			suspend(key, delay);
+		}
+		else {
+			key.interestOps(SelectionKey.OP_WRITE);
+			write(key);
+		}
+	}
+
+	private void prepare(StubResponse response, boolean headRequest) throws IOException {
+		long length = response.getContentLength();
+		this.response = response;
+		this.head = ByteBuffer.wrap(response.encodeHead(length, keepAlive));
+		this.bodyWritten = 0;
+		this.bodyLength = headRequest ? 0 : length;
+		if (headRequest) {
+			return;
+		}
+		if (response.getFile() != null) {
+			file = new RandomAccessFile(response.getFile(), "r").getChannel();
+			filePosition = 0;
+		}
+		else {
+			body = ByteBuffer.wrap(response.getBody());
+		}
+	}
+
+	private long writeBody(long limit) throws IOException {
+		if (file != null) {
+			long written = file.transferTo(filePosition, limit, channel);
+			filePosition += written;
+			return written;
+		}
+
+		int end = body.limit();
+		body.limit(body.position() + (int) Math.min(limit, body.remaining()));
+		try {
+			return channel.write(body);
+		}
+		finally {
+			body.limit(end);
+		}
+	}
+
+	/**
+	 * Stop writing, and resume after delay.
+	 */
+	private void suspend(final SelectionKey key, long delayNanos) {
+		key.interestOps(0);
+		server.getTimer().schedule(System.nanoTime(), delayNanos, new Runnable() {
+			@Override
+			public void run() {
+				if (!key.isValid()) {
+					return;
+				}
+				try {
+					key.interestOps(SelectionKey.OP_WRITE);
+					write(key);
+				}
+				catch (IOException ex) {
+					close();
+				}
+				catch (RuntimeException ex) {
+					close();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Stop writing body: reset connection, or leave it open until client closes it.
+	 */
+	private void cut(SelectionKey key) throws IOException {
+		closeFile();
+		if (response.isReset()) {
+			channel.socket().setSoLinger(true, 0);
+			close();
+		}
+		else {
+			stalled = true;
+			key.interestOps(SelectionKey.OP_READ);
+		}
+	}
+
+	/**
+	 * Parse buffered request, and remove it from buffer.
+	 *
+	 * @return Request, null if it is not complete.
+	 * @throws MalformedRequestException If request cannot be parsed.
+	 */
+	private StubRequest parse() throws MalformedRequestException {
+		byte[] bytes = in.array();
+		int filled = in.position();
+		int headEnd = indexOfHeadEnd(bytes, filled);
+		if (headEnd < 0) {
+			if (filled >= MAX_HEAD_SIZE) {
+				throw new MalformedRequestException(431, "Request head is too large");
+			}
+			return null;
+		}
+
+		String[] lines = new String(bytes, 0, headEnd, ISO_8859_1).split("\r\n");
+		String[] requestLine = lines[0].split(" ");
+		if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/")) {
+			throw new MalformedRequestException(400, "Malformed request line: " + lines[0]);
+		}
+
+		HttpHeaders headers = new HttpHeaders(lines.length);
+		for (int i = 1; i < lines.length; i++) {
+			int colon = lines[i].indexOf(':');
+			if (colon <= 0) {
+				throw new MalformedRequestException(400, "Malformed header: " + lines[i]);
+			}
+			headers.add(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+		}
+
+		if (headers.contains(HttpHeaders.TRANSFER_ENCODING)) {
+			throw new MalformedRequestException(411, "Chunked request body is not supported");
+		}
+
+		int contentLength = 0;
+		String length = headers.getFirst(HttpHeaders.CONTENT_LENGTH);
+		if (length != null) {
+			try {
+				contentLength = Integer.parseInt(length);
+			}
+			catch (NumberFormatException ex) {
+				throw new MalformedRequestException(400, "Malformed Content-Length: " + length);
+			}
+			if (contentLength < 0 || contentLength > MAX_BODY_SIZE) {
+				throw new MalformedRequestException(400, "Invalid Content-Length: " + length);
+			}
+		}
+
+		int bodyStart = headEnd + 4;
+		int requestEnd = bodyStart + contentLength;
+		if (filled < requestEnd) {
+			if (in.capacity() < requestEnd) {
+				in = grow(in, requestEnd);
+			}
+			return null;
+		}
+
+		byte[] body = new byte[contentLength];
+		System.arraycopy(bytes, bodyStart, body, 0, contentLength);
+
+		// Keep pipelined requests in buffer
+		in.flip();
+		in.position(requestEnd);
+		in.compact();
+
+		String uri = requestLine[1];
+		int question = uri.indexOf('?');
+		String path = question < 0 ? uri : uri.substring(0, question);
+		String query = question < 0 ? null : uri.substring(question + 1);
+		return new StubRequest(requestLine[0], path, query, requestLine[2], headers, body);
+	}
+
+	private static int indexOfHeadEnd(byte[] bytes, int length) {
+		for (int i = 0; i + 3 < length; i++) {
+			if (bytes[i] == '\r' && bytes[i + 1] == '\n' && bytes[i + 2] == '\r' && bytes[i + 3] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+		ByteBuffer grown = ByteBuffer.allocate(capacity);
+		buffer.flip();
+		grown.put(buffer);
+		return grown;
+	}
+
+	private void closeFile() {
+		if (file != null) {
+			try {
+				file.close();
+			}
+			catch (IOException ex) {
+				// Nothing to do
+			}
+			file = null;
+		}
+	}
+
+	private static class MalformedRequestException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		private final int status;
+
+		MalformedRequestException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package org.fest.assertions.stub;
+
+import org.fest.assertions.util.HttpHeaders;
+
+/**
+ * Request received by a {@link StubServer}.
+ */
+public class StubRequest {
+
+	private final String method;
+
+	private final String path;
+
+	private final String query;
+
+	private final String version;
+
+	private final HttpHeaders headers;
+
+	private final byte[] body;
+
+	StubRequest(String method, String path, String query, String version, HttpHeaders headers, byte[] body) {
+		this.method = method;
+		this.path = path;
+		this.query = query;
+		this.version = version;
+		this.headers = headers;
+		this.body = body;
+	}
+
+	/**
+	 * Get http method.
+	 *
+	 * @return Method.
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * Get path, without query string.
+	 *
+	 * @return Path.
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Get query string, without leading question mark.
+	 *
+	 * @return Query string, null if request uri does not have one.
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * Get http version.
+	 *
+	 * @return Version (for example, "HTTP/1.1").
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * Get first value of a header.
+	 *
+	 * @param name Name of header (case insensitive).
+	 * @return Value, null if header is not defined.
+	 */
+	public String getHeader(String name) {
+		return headers.getFirst(name);
+	}
+
+	/**
+	 * Get headers.
+	 *
+	 * @return Headers.
+	 */
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Get body.
+	 *
+	 * @return Body, empty if request does not have one.
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * Check if connection must be kept open after response:
+	 * default for HTTP/1.1, unless client asks to close it.
+	 *
+	 * @return True if connection can be reused.
+	 */
+	boolean isKeepAlive() {
+		String connection = headers.getFirst(HttpHeaders.CONNECTION);
+		if ("HTTP/1.0".equals(version)) {
+			return "keep-alive".equalsIgnoreCase(connection);
+		}
+		return !"close".equalsIgnoreCase(connection);
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + (query == null ? path : path + "?" + query);
+	}
+}
@@ -0,0 +1,276 @@
+package org.fest.assertions.stub;
+
+import org.fest.assertions.util.HttpHeaders;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canned response sent by a {@link StubServer}.
+ * Body is either kept in memory, or read from a fixture file when response is sent: file content is then
+ * transferred to the socket without being copied to the heap.
+ * Response can be shaped to simulate slow backends: first byte can be delayed, body can be throttled, or cut
+ * after a number of bytes (connection then stalls, or is reset). Delays are scheduled on the timer wheel of the
+ * server, so slow responses do not hold any thread.
+ * Response must be fully configured before being registered, it is then shared by all matching requests.
+ */
+public class StubResponse {
+
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final int status;
+
+	private final HttpHeaders headers = new HttpHeaders();
+
+	private byte[] body = EMPTY;
+
+	private File file;
+
+	private long firstByteDelayNanos;
+
+	private long bytesPerSecond;
+
+	private long cutAfter = -1;
+
+	private boolean reset;
+
+	private StubResponse(int status) {
+		this.status = status;
+	}
+
+	/**
+	 * Create response with given status code.
+	 *
+	 * @param status Status code.
+	 * @return Response.
+	 */
+	public static StubResponse status(int status) {
+		if (status < 100 || status > 999) {
+			throw new IllegalArgumentException("Status code must have three digits");
+		}
+		return new StubResponse(status);
+	}
+
+	/**
+	 * Create response with status 200.
+	 *
+	 * @return Response.
+	 */
+	public static StubResponse ok() {
+		return status(200);
+	}
+
+	/**
+	 * Add header to response.
+	 *
+	 * @param name Name of header.
+	 * @param value Value of header.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse header(String name, String value) {
+		headers.add(name, value);
+		return this;
+	}
+
+	/**
+	 * Set Content-Type of response.
+	 *
+	 * @param contentType Content-Type value.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse contentType(String contentType) {
+		return header(HttpHeaders.CONTENT_TYPE, contentType);
+	}
+
+	/**
+	 * Set body of response, encoded with UTF-8.
+	 *
+	 * @param body Body.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse body(String body) {
+		return body(body.getBytes(UTF_8));
+	}
+
+	/**
+	 * Set body of response.
+	 *
+	 * @param body Body.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse body(byte[] body) {
+		this.body = body;
+		this.file = null;
+		return this;
+	}
+
+	/**
+	 * Serve content of a fixture file as body of response.
+	 * File is read each time response is sent.
+	 *
+	 * @param file Fixture file.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse file(File file) {
+		if (!file.isFile()) {
+			throw new IllegalArgumentException("Fixture file " + file + " does not exist");
+		}
+		this.file = file;
+		this.body = EMPTY;
+		return this;
+	}
+
+	/**
+	 * Wait before sending first byte of response.
+	 *
+	 * @param delay Delay.
+	 * @param unit Unit of delay.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse delay(long delay, TimeUnit unit) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Delay must not be negative");
+		}
+		this.firstByteDelayNanos = unit.toNanos(delay);
+		return this;
+	}
+
+	/**
+	 * Limit rate at which body is sent.
+	 *
+	 * @param bytesPerSecond Maximum number of bytes sent per second.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse throttle(long bytesPerSecond) {
+		if (bytesPerSecond <= 0) {
+			throw new IllegalArgumentException("Rate must be positive");
+		}
+		this.bytesPerSecond = bytesPerSecond;
+		return this;
+	}
+
+	/**
+	 * Stop sending body after given number of bytes, connection is kept open until client closes it.
+	 * Declared Content-Length is not changed.
+	 *
+	 * @param bytes Number of bytes of body sent.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse stallAfter(long bytes) {
+		return cutAfter(bytes, false);
+	}
+
+	/**
+	 * Reset connection after given number of bytes of body.
+	 *
+	 * @param bytes Number of bytes of body sent.
+	 * @return {@code this} the response.
+	 */
+	public StubResponse resetAfter(long bytes) {
+		return cutAfter(bytes, true);
+	}
+
+	private StubResponse cutAfter(long bytes, boolean reset) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("Number of bytes must not be negative");
+		}
+		this.cutAfter = bytes;
+		this.reset = reset;
+		return this;
+	}
+
+	/**
+	 * Get status code.
+	 *
+	 * @return Status code.
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	byte[] getBody() {
+		return body;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	long getFirstByteDelayNanos() {
+		return firstByteDelayNanos;
+	}
+
+	long getBytesPerSecond() {
+		return bytesPerSecond;
+	}
+
+	long getCutAfter() {
+		return cutAfter;
+	}
+
+	boolean isReset() {
+		return reset;
+	}
+
+	long getContentLength() {
+		return file == null ? body.length : file.length();
+	}
+
+	/**
+	 * Encode status line and headers.
+	 *
+	 * @param contentLength Length of body.
+	 * @param keepAlive False to ask client to close connection.
+	 * @return Head of response.
+	 */
+	byte[] encodeHead(long contentLength, boolean keepAlive) {
+		StringBuilder head = new StringBuilder(128);
+		head.append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+		for (String name : headers.names()) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				continue;
+			}
+			List<String> values = headers.getAll(name);
+			for (int i = 0, size = values.size(); i < size; i++) {
+				head.append(name).append(": ").append(values.get(i)).append("\r\n");
+			}
+		}
+		head.append("Content-Length: ").append(contentLength).append("\r\n");
+		if (!keepAlive) {
+			head.append("Connection: close\r\n");
+		}
+		head.append("\r\n");
+		return head.toString().getBytes(ASCII);
+	}
+
+	private static String reason(int status) {
+		switch (status) {
+			case 200: return "OK";
+			case 201: return "Created";
+			case 202: return "Accepted";
+			case 204: return "No Content";
+			case 301: return "Moved Permanently";
+			case 302: return "Found";
+			case 304: return "Not Modified";
+			case 400: return "Bad Request";
+			case 401: return "Unauthorized";
+			case 403: return "Forbidden";
+			case 404: return "Not Found";
+			case 409: return "Conflict";
+			case 411: return "Length Required";
+			case 429: return "Too Many Requests";
+			case 431: return "Request Header Fields Too Large";
+			case 500: return "Internal Server Error";
+			case 502: return "Bad Gateway";
+			case 503: return "Service Unavailable";
+			case 504: return "Gateway Timeout";
+			default: return "Status";
+		}
+	}
+}
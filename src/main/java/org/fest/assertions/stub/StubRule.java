@@ -0,0 +1,95 @@
+package org.fest.assertions.stub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request matcher of a {@link StubServer}, with response sent to matching requests.
+ * A path ending with {@code *} matches all paths starting with the same prefix.
+ */
+public class StubRule {
+
+	private final StubServer server;
+
+	private final String method;
+
+	private final String path;
+
+	private final boolean prefix;
+
+	private final List<String[]> headers = new ArrayList<String[]>(2);
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private volatile StubResponse response;
+
+	StubRule(StubServer server, String method, String path) {
+		this.server = server;
+		this.method = method;
+		this.prefix = path.endsWith("*");
+		this.path = prefix ? path.substring(0, path.length() - 1) : path;
+	}
+
+	/**
+	 * Only match requests with given header value.
+	 *
+	 * @param name Name of header (case insensitive).
+	 * @param value Expected value.
+	 * @return {@code this} the rule.
+	 */
+	public StubRule withHeader(String name, String value) {
+		headers.add(new String[]{name, value});
+		return this;
+	}
+
+	/**
+	 * Register rule on server, matching requests receive given response.
+	 *
+	 * @param response Response.
+	 * @return Server.
+	 */
+	public StubServer respond(StubResponse response) {
+		this.response = response;
+		server.register(this);
+		return server;
+	}
+
+	/**
+	 * Get number of requests that matched this rule.
+	 *
+	 * @return Number of requests.
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+
+	StubResponse getResponse() {
+		return response;
+	}
+
+	boolean matches(StubRequest request) {
+		if (!method.equals(request.getMethod())) {
+			return false;
+		}
+
+		String requestPath = request.getPath();
+		if (prefix ? !requestPath.startsWith(path) : !requestPath.equals(path)) {
+			return false;
+		}
+
+		for (String[] header : headers) {
+			if (!request.getHeaders().getAll(header[0]).contains(header[1])) {
+				return false;
+			}
+		}
+
+		hits.incrementAndGet();
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + path + (prefix ? "*" : "");
+	}
+}
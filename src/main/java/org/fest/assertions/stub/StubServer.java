@@ -0,0 +1,255 @@
+package org.fest.assertions.stub;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Embedded HTTP/1.1 stub server, serving canned responses to tests.
+ * All connections are handled by a single selector thread: server starts in a few milliseconds, so each test
+ * can use its own server on its own ephemeral port.
+ *
+ * <pre>
+ * StubServer server = StubServer.start()
+ *     .on("GET", "/users/1").withHeader("Accept", "application/json")
+ *     .respond(StubResponse.ok().contentType("application/json").file(new File("fixtures/user.json")));
+ *
+ * REST.given().get(server.url("/users/1")).isOk();
+ * server.close();
+ * </pre>
+ *
+ * Rules are matched in registration order; requests matching no rule receive a 404 response.
+ * Responses can be delayed, throttled or cut (see {@link StubResponse}) to test client timeouts.
+ */
+public class StubServer implements Closeable {
+
+	private final ServerSocketChannel serverChannel;
+
+	private final Selector selector;
+
+	private final Thread thread;
+
+	private final List<StubRule> rules = new CopyOnWriteArrayList<StubRule>();
+
+	private final List<StubRequest> requests = new ArrayList<StubRequest>();
+
+	/** Delayed writes, only used by selector thread */
+	private final TimerWheel timer = new TimerWheel();
+
+	private volatile boolean running = true;
+
+	private StubServer(int port) throws IOException {
+		this.selector = Selector.open();
+		this.serverChannel = ServerSocketChannel.open();
+		try {
+			serverChannel.socket().setReuseAddress(true);
+			serverChannel.socket().bind(new InetSocketAddress("127.0.0.1", port));
+			serverChannel.configureBlocking(false);
+			serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		}
+		catch (IOException ex) {
+			serverChannel.close();
+			selector.close();
+			throw ex;
+		}
+
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				loop();
+			}
+		}, "stub-server-" + getPort());
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Start server on an ephemeral port.
+	 *
+	 * @return Started server.
+	 */
+	public static StubServer start() {
+		return start(0);
+	}
+
+	/**
+	 * Start server on given port.
+	 *
+	 * @param port Port, zero to use an ephemeral port.
+	 * @return Started server.
+	 */
+	public static StubServer start(int port) {
+		StubServer server;
+		try {
+			server = new StubServer(port);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Cannot start stub server on port " + port, ex);
+		}
+		server.thread.start();
+		return server;
+	}
+
+	/**
+	 * Build rule matching requests with given method and path.
+	 * Rule is registered once its response is set with {@link StubRule#respond(StubResponse)}.
+	 *
+	 * @param method Http method.
+	 * @param path Path, ending with {@code *} to match all paths with the same prefix.
+	 * @return Rule.
+	 */
+	public StubRule on(String method, String path) {
+		return new StubRule(this, method, path);
+	}
+
+	/**
+	 * Get port of server.
+	 *
+	 * @return Port.
+	 */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Get url of a resource of server.
+	 *
+	 * @param path Path, starting with a slash.
+	 * @return Url.
+	 */
+	public String url(String path) {
+		return "http://127.0.0.1:" + getPort() + path;
+	}
+
+	/**
+	 * Get requests received so far, in order.
+	 *
+	 * @return Requests.
+	 */
+	public List<StubRequest> getRequests() {
+		synchronized (requests) {
+			return new ArrayList<StubRequest>(requests);
+		}
+	}
+
+	/**
+	 * Get number of requests received so far.
+	 *
+	 * @return Number of requests.
+	 */
+	public int getRequestCount() {
+		synchronized (requests) {
+			return requests.size();
+		}
+	}
+
+	/**
+	 * Stop server and close all connections.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		selector.wakeup();
+		try {
+			thread.join(1000);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	TimerWheel getTimer() {
+		return timer;
+	}
+
+	void register(StubRule rule) {
+		rules.add(rule);
+	}
+
+	StubResponse handle(StubRequest request) {
+		synchronized (requests) {
+			requests.add(request);
+		}
+		for (StubRule rule : rules) {
+			if (rule.matches(request)) {
+				return rule.getResponse();
+			}
+		}
+		return StubResponse.status(404).contentType("text/plain").body("No stub matching <" + request + ">");
+	}
+
+	private void loop() {
+		try {
+			while (running) {
+				selector.select(timer.millisToNextTick(System.nanoTime()));
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) {
+						continue;
+					}
+					if (key.isAcceptable()) {
+						accept();
+					}
+					else {
+						StubConnection connection = (StubConnection) key.attachment();
+						try {
+							if (key.isReadable()) {
+								connection.read(key);
+							}
+							else if (key.isWritable()) {
+								connection.write(key);
+							}
+						}
+						catch (IOException ex) {
+							connection.close();
+						}
+						catch (RuntimeException ex) {
+							// Such as a cancelled key: only this connection is dropped
+							connection.close();
+						}
+					}
+				}
+				timer.advance(System.nanoTime());
+			}
+		}
+		catch (IOException ex) {
+			// Selector is broken, stop server
+		}
+		finally {
+			shutdown();
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			channel.register(selector, SelectionKey.OP_READ, new StubConnection(this, channel));
+		}
+	}
+
+	private void shutdown() {
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof StubConnection) {
+				((StubConnection) key.attachment()).close();
+			}
+		}
+		try {
+			serverChannel.close();
+			selector.close();
+		}
+		catch (IOException ex) {
+			// Nothing to do
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package org.fest.assertions.stub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel, used by {@link StubServer} to delay writes without sleeping threads.
+ * Tasks are stored in the slot of their deadline tick: scheduling a task and expiring a tick are constant time,
+ * whatever the number of pending tasks. Deadlines beyond one turn of the wheel stay in their slot until
+ * the wheel reaches them.
+ * This class is not thread safe: tasks must be scheduled and run by the same thread.
+ */
+final class TimerWheel {
+
+	/** Default duration of a tick */
+	static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	/** Default number of slots, must be a power of two */
+	static final int DEFAULT_SLOTS = 512;
+
+	private final long tickNanos;
+
+	private final List<List<Timeout>> slots;
+
+	private final int mask;
+
+	private final long origin;
+
+	/** Next tick to expire */
+	private long currentTick;
+
+	private int size;
+
+	TimerWheel() {
+		this(DEFAULT_TICK_NANOS, DEFAULT_SLOTS, System.nanoTime());
+	}
+
+	TimerWheel(long tickNanos, int slots, long origin) {
+		if (Integer.bitCount(slots) != 1) {
+			throw new IllegalArgumentException("Number of slots must be a power of two");
+		}
+		this.tickNanos = tickNanos;
+		this.mask = slots - 1;
+		this.origin = origin;
+		this.slots = new ArrayList<List<Timeout>>(slots);
+		for (int i = 0; i < slots; i++) {
+			this.slots.add(new ArrayList<Timeout>(4));
+		}
+	}
+
+	/**
+	 * Run task once delay has elapsed, when wheel is advanced.
+	 *
+	 * @param now Current time, in nanoseconds.
+	 * @param delayNanos Delay, in nanoseconds.
+	 * @param task Task.
+	 */
+	void schedule(long now, long delayNanos, Runnable task) {
+		long deadline = now + delayNanos - origin;
+		long tick = Math.max(currentTick, (deadline + tickNanos - 1) / tickNanos);
+		slots.get((int) (tick & mask)).add(new Timeout(tick, task));
+		size++;
+	}
+
+	/**
+	 * Run tasks whose deadline has elapsed.
+	 *
+	 * @param now Current time, in nanoseconds.
+	 * @return Number of tasks run.
+	 */
+	int advance(long now) {
+		long nowTick = (now - origin) / tickNanos;
+		if (nowTick < currentTick) {
+			return 0;
+		}
+
+		// After a long pause, each slot is visited only once
+		long first = Math.max(currentTick, nowTick - mask);
+		currentTick = first;
+
+		int run = 0;
+		while (currentTick <= nowTick && size > 0) {
+			long tick = currentTick++;
+			List<Timeout> slot = slots.get((int) (tick & mask));
+			if (slot.isEmpty()) {
+				continue;
+			}
+
+			// Tasks may schedule new tasks: they are added to a fresh slot
+			List<Timeout> expired = new ArrayList<Timeout>(slot);
+			slot.clear();
+			for (Timeout timeout : expired) {
+				if (timeout.tick <= nowTick) {
+					size--;
+					run++;
+					timeout.task.run();
+				}
+				else {
+					slot.add(timeout);
+				}
+			}
+		}
+
+		currentTick = nowTick + 1;
+		return run;
+	}
+
+	/**
+	 * Get time to wait before next tick, to be used as a select timeout.
+	 *
+	 * @param now Current time, in nanoseconds.
+	 * @return Delay in milliseconds (at least 1), or 0 if wheel is empty.
+	 */
+	long millisToNextTick(long now) {
+		if (size == 0) {
+			return 0;
+		}
+		long next = origin + currentTick * tickNanos;
+		return Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - now + TimeUnit.MILLISECONDS.toNanos(1) - 1));
+	}
+
+	/**
+	 * Get number of pending tasks.
+	 *
+	 * @return Number of tasks.
+	 */
+	int size() {
+		return size;
+	}
+
+	private static class Timeout {
+		private final long tick;
+		private final Runnable task;
+
+		Timeout(long tick, Runnable task) {
+			this.tick = tick;
+			this.task = task;
+		}
+	}
+}
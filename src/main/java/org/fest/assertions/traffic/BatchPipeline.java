@@ -0,0 +1,111 @@
+package org.fest.assertions.traffic;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Batches validated in parallel, with results merged in submission order.
+ * Pending batches are bounded by their number and by the approximate size of their input: once a bound
+ * is reached, oldest results are merged before next batch is submitted, so that memory depends neither
+ * on the size of validated files nor on the number of threads.
+ * This class is not thread safe: batches are submitted and merged by the reading thread.
+ *
+ * @param <T> Type of batch results.
+ */
+final class BatchPipeline<T> {
+
+	/** Maximum size of input of a batch, a larger item is validated alone */
+	static final long BATCH_BYTES = 1024 * 1024;
+
+	/** Maximum size of input read ahead of validation */
+	static final long MAX_PENDING_BYTES = 32 * 1024 * 1024;
+
+	/**
+	 * Merge of the result of a batch, called on the reading thread in submission order.
+	 */
+	interface Merge<T> {
+		void merge(T result);
+	}
+
+	private final ExecutorService executor;
+
+	private final int maxBatches;
+
+	private final long maxBytes;
+
+	private final Deque<Pending<T>> pending = new ArrayDeque<Pending<T>>();
+
+	/** Size of pending batches, in bytes */
+	private long pendingBytes;
+
+	/**
+	 * Create pipeline.
+	 *
+	 * @param executor Executor running batches.
+	 * @param maxBatches Maximum number of pending batches.
+	 * @param maxBytes Maximum size of pending batches, a larger batch is only submitted once all others are merged.
+	 */
+	BatchPipeline(ExecutorService executor, int maxBatches, long maxBytes) {
+		this.executor = executor;
+		this.maxBatches = maxBatches;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Submit batch, after merging oldest results if bounds are reached.
+	 *
+	 * @param batch Batch.
+	 * @param bytes Approximate size of batch input.
+	 * @param merge Merge of batch result.
+	 * @throws IOException If a merged batch failed with an {@link IOException}.
+	 */
+	void submit(Callable<T> batch, long bytes, Merge<T> merge) throws IOException {
+		while (!pending.isEmpty() && (pending.size() >= maxBatches || pendingBytes + bytes > maxBytes)) {
+			mergeNext();
+		}
+		pending.add(new Pending<T>(executor.submit(batch), bytes, merge));
+		pendingBytes += bytes;
+	}
+
+	/**
+	 * Wait for all pending batches and merge their results.
+	 *
+	 * @throws IOException If a batch failed with an {@link IOException}.
+	 */
+	void finish() throws IOException {
+		while (!pending.isEmpty()) {
+			mergeNext();
+		}
+	}
+
+	/**
+	 * Get number of pending batches.
+	 *
+	 * @return Number of batches.
+	 */
+	int size() {
+		return pending.size();
+	}
+
+	private void mergeNext() throws IOException {
+		Pending<T> next = pending.poll();
+		pendingBytes -= next.bytes;
+		next.merge.merge(TrafficValidator.get(next.future));
+	}
+
+	private static final class Pending<T> {
+		private final Future<T> future;
+		private final long bytes;
+		private final Merge<T> merge;
+
+		private Pending(Future<T> future, long bytes, Merge<T> merge) {
+			this.future = future;
+			this.bytes = bytes;
+			this.merge = merge;
+		}
+	}
+}
@@ -0,0 +1,383 @@
+package org.fest.assertions.traffic;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Results of a {@link ContractRunner} run, written as text, json or JUnit XML.
+ * Only the first failures of each input are kept, so that reports of large inputs remain small.
+ */
+final class ContractRunReport {
+
+	private final List<String> plans;
+
+	private final int threads;
+
+	private final List<InputResult> inputs = new ArrayList<InputResult>();
+
+	private long startupNanos;
+
+	private long compileNanos;
+
+	private long validationNanos;
+
+	ContractRunReport(List<String> plans, int threads) {
+		this.plans = plans;
+		this.threads = threads;
+	}
+
+	InputResult input(String name, int maxFailures) {
+		InputResult input = new InputResult(name, plans.size(), maxFailures);
+		inputs.add(input);
+		return input;
+	}
+
+	void finish(long startupNanos, long compileNanos, long validationNanos) {
+		this.startupNanos = startupNanos;
+		this.compileNanos = compileNanos;
+		this.validationNanos = validationNanos;
+	}
+
+	long getResponses() {
+		long responses = 0;
+		for (InputResult input : inputs) {
+			responses += input.responses;
+		}
+		return responses;
+	}
+
+	long getFailed() {
+		long failed = 0;
+		for (InputResult input : inputs) {
+			failed += input.failed;
+		}
+		return failed;
+	}
+
+	long getMalformed() {
+		long malformed = 0;
+		for (InputResult input : inputs) {
+			malformed += input.malformed;
+		}
+		return malformed;
+	}
+
+	List<InputResult> getInputs() {
+		return inputs;
+	}
+
+	boolean isSuccess() {
+		return getFailed() == 0 && getMalformed() == 0;
+	}
+
+	double getResponsesPerSecond() {
+		return validationNanos == 0 ? 0 : getResponses() * 1e9 / validationNanos;
+	}
+
+	/**
+	 * Print human readable summary.
+	 *
+	 * @param out Output.
+	 */
+	void print(PrintStream out) {
+		for (InputResult input : inputs) {
+			out.println(String.format(Locale.US, "%s: %d responses, %d failed, %d malformed in %.1f ms",
+					input.name, input.responses, input.failed, input.malformed, input.elapsedNanos / 1e6));
+			for (Failure failure : input.failures) {
+				out.println(String.format("    %s %s [%s]", failure.location, failure.request == null ? "" : failure.request, failure.plan));
+				for (String message : failure.messages) {
+					out.println("        " + message);
+				}
+			}
+		}
+		out.println(String.format(Locale.US, "Validated %d responses (%d failed, %d malformed) from %d inputs with %d threads: " +
+						"startup %.1f ms, compile %.1f ms, validation %.1f ms, %.0f responses/s",
+				getResponses(), getFailed(), getMalformed(), inputs.size(), threads,
+				startupNanos / 1e6, compileNanos / 1e6, validationNanos / 1e6, getResponsesPerSecond()));
+	}
+
+	/**
+	 * Write report as json.
+	 *
+	 * @param out Output, not closed.
+	 * @throws IOException If report cannot be written.
+	 */
+	void writeJson(OutputStream out) throws IOException {
+		JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+		json.useDefaultPrettyPrinter();
+		json.writeStartObject();
+		json.writeArrayFieldStart("plans");
+		for (String plan : plans) {
+			json.writeString(plan);
+		}
+		json.writeEndArray();
+		json.writeNumberField("threads", threads);
+		json.writeNumberField("responses", getResponses());
+		json.writeNumberField("failed", getFailed());
+		json.writeNumberField("malformed", getMalformed());
+		json.writeBooleanField("success", isSuccess());
+
+		json.writeObjectFieldStart("timing");
+		json.writeNumberField("startupMs", millis(startupNanos));
+		json.writeNumberField("compileMs", millis(compileNanos));
+		json.writeNumberField("validationMs", millis(validationNanos));
+		json.writeNumberField("responsesPerSecond", Math.round(getResponsesPerSecond()));
+		json.writeEndObject();
+
+		json.writeArrayFieldStart("inputs");
+		for (InputResult input : inputs) {
+			json.writeStartObject();
+			json.writeStringField("input", input.name);
+			json.writeNumberField("responses", input.responses);
+			json.writeNumberField("failed", input.failed);
+			json.writeNumberField("malformed", input.malformed);
+			json.writeNumberField("timeMs", millis(input.elapsedNanos));
+			json.writeArrayFieldStart("failures");
+			for (Failure failure : input.failures) {
+				json.writeStartObject();
+				json.writeStringField("location", failure.location);
+				json.writeStringField("request", failure.request);
+				json.writeStringField("plan", failure.plan);
+				json.writeArrayFieldStart("messages");
+				for (String message : failure.messages) {
+					json.writeString(message);
+				}
+				json.writeEndArray();
+				json.writeEndObject();
+			}
+			json.writeEndArray();
+			json.writeEndObject();
+		}
+		json.writeEndArray();
+		json.writeEndObject();
+		json.flush();
+	}
+
+	/**
+	 * Write report as JUnit XML: a test suite per input, with a test case per plan (and a test case for
+	 * malformed responses, if any), so that CI servers display results without a test per response.
+	 *
+	 * @param out Output, not closed.
+	 * @throws IOException If report cannot be written.
+	 */
+	void writeJunit(OutputStream out) throws IOException {
+		try {
+			XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			xml.writeStartDocument("UTF-8", "1.0");
+			xml.writeCharacters("\n");
+			xml.writeStartElement("testsuites");
+			xml.writeAttribute("name", "contracts");
+			long tests = 0;
+			long failures = 0;
+			for (InputResult input : inputs) {
+				tests += plans.size() + (input.malformed > 0 ? 1 : 0);
+				failures += input.failedPlans() + (input.malformed > 0 ? 1 : 0);
+			}
+			xml.writeAttribute("tests", String.valueOf(tests));
+			xml.writeAttribute("failures", String.valueOf(failures));
+			xml.writeAttribute("time", seconds(validationNanos));
+			xml.writeCharacters("\n");
+
+			for (InputResult input : inputs) {
+				xml.writeStartElement("testsuite");
+				xml.writeAttribute("name", input.name);
+				xml.writeAttribute("tests", String.valueOf(plans.size() + (input.malformed > 0 ? 1 : 0)));
+				xml.writeAttribute("failures", String.valueOf(input.failedPlans() + (input.malformed > 0 ? 1 : 0)));
+				xml.writeAttribute("time", seconds(input.elapsedNanos));
+				xml.writeCharacters("\n");
+
+				for (int i = 0; i < plans.size(); i++) {
+					String plan = plans.get(i);
+					xml.writeStartElement("testcase");
+					xml.writeAttribute("classname", input.name);
+					xml.writeAttribute("name", plan);
+					if (input.failedPerPlan[i] > 0) {
+						xml.writeStartElement("failure");
+						xml.writeAttribute("type", AssertionError.class.getName());
+						xml.writeAttribute("message", String.format("<%s> of <%s> responses do not satisfy plan <%s>", input.failedPerPlan[i], input.responses, plan));
+						StringBuilder details = new StringBuilder();
+						for (Failure failure : input.failures) {
+							if (failure.plan.equals(plan)) {
+								failure.append(details);
+							}
+						}
+						xml.writeCharacters(details.toString());
+						xml.writeEndElement();
+					}
+					xml.writeEndElement();
+					xml.writeCharacters("\n");
+				}
+
+				if (input.malformed > 0) {
+					xml.writeStartElement("testcase");
+					xml.writeAttribute("classname", input.name);
+					xml.writeAttribute("name", "well-formed");
+					xml.writeStartElement("failure");
+					xml.writeAttribute("type", IllegalArgumentException.class.getName());
+					xml.writeAttribute("message", String.format("<%s> responses are malformed, first at %s", input.malformed, input.firstMalformed));
+					xml.writeEndElement();
+					xml.writeEndElement();
+					xml.writeCharacters("\n");
+				}
+
+				xml.writeEndElement();
+				xml.writeCharacters("\n");
+			}
+
+			xml.writeEndElement();
+			xml.writeCharacters("\n");
+			xml.writeEndDocument();
+			xml.flush();
+		}
+		catch (XMLStreamException ex) {
+			throw new IOException("Cannot write JUnit report: " + ex.getMessage(), ex);
+		}
+	}
+
+	private static long millis(long nanos) {
+		return Math.round(nanos / 1e6);
+	}
+
+	private static String seconds(long nanos) {
+		return String.format(Locale.US, "%.3f", nanos / 1e9);
+	}
+
+	/**
+	 * Results of an input. Parts of input must be merged in order.
+	 */
+	static final class InputResult {
+		private final String name;
+		private final int maxFailures;
+		private final long[] failedPerPlan;
+		private final List<Failure> failures = new ArrayList<Failure>();
+		private long responses;
+		private long failed;
+		private long malformed;
+		private String firstMalformed;
+		private long elapsedNanos;
+
+		private InputResult(String name, int plans, int maxFailures) {
+			this.name = name;
+			this.maxFailures = maxFailures;
+			this.failedPerPlan = new long[plans];
+		}
+
+		void merge(Part part) {
+			responses += part.responses;
+			failed += part.failed;
+			malformed += part.malformed;
+			if (firstMalformed == null && part.firstMalformed != null) {
+				firstMalformed = name + ":" + part.firstMalformed;
+			}
+			for (int i = 0; i < failedPerPlan.length; i++) {
+				failedPerPlan[i] += part.failedPerPlan[i];
+			}
+			for (Failure failure : part.failures) {
+				if (failures.size() < maxFailures) {
+					failures.add(new Failure(name + ":" + failure.location, failure.request, failure.plan, failure.messages));
+				}
+			}
+		}
+
+		void elapsed(long elapsedNanos) {
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		long getResponses() {
+			return responses;
+		}
+
+		long getFailed() {
+			return failed;
+		}
+
+		long getMalformed() {
+			return malformed;
+		}
+
+		private int failedPlans() {
+			int count = 0;
+			for (long failedPlan : failedPerPlan) {
+				if (failedPlan > 0) {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Results of a part of an input, only used by the thread validating this part.
+	 * Locations are numbers of items in input.
+	 */
+	static final class Part {
+		private final int maxFailures;
+		private final long[] failedPerPlan;
+		private final List<Failure> failures = new ArrayList<Failure>();
+		private long responses;
+		private long failed;
+		private long malformed;
+		private String firstMalformed;
+
+		Part(int plans, int maxFailures) {
+			this.maxFailures = maxFailures;
+			this.failedPerPlan = new long[plans];
+		}
+
+		void malformed(long number, String error) {
+			if (malformed++ == 0) {
+				firstMalformed = number + ": " + error;
+			}
+		}
+
+		void response(boolean success) {
+			responses++;
+			if (!success) {
+				failed++;
+			}
+		}
+
+		void failure(int plan, String planName, long number, String request, List<String> messages) {
+			failedPerPlan[plan]++;
+			if (failures.size() < maxFailures) {
+				failures.add(new Failure(String.valueOf(number), request, planName, messages));
+			}
+		}
+	}
+
+	private static final class Failure {
+		private final String location;
+		private final String request;
+		private final String plan;
+		private final List<String> messages;
+
+		private Failure(String location, String request, String plan, List<String> messages) {
+			this.location = location;
+			this.request = request;
+			this.plan = plan;
+			this.messages = messages;
+		}
+
+		private void append(StringBuilder details) {
+			details.append(location);
+			if (request != null) {
+				details.append(' ').append(request);
+			}
+			details.append('\n');
+			for (String message : messages) {
+				details.append("    ").append(message).append('\n');
+			}
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package org.fest.assertions.traffic;
+
+import org.fest.assertions.spec.AssertionPlan;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validate recorded responses against {@link AssertionPlan assertion plans} from command line, without writing a test:
+ *
+ * <pre>
+ * java -jar fest-rest-assert-VERSION-cli.jar --spec SPEC [--spec SPEC]... [--threads N] [--json FILE] [--junit FILE] [--max-failures N] INPUT...
+ * </pre>
+ *
+ * Inputs are HAR files, NDJSON files of envelopes, json files or response archives, or directories scanned recursively
+ * for such files (json files of envelopes must then be named "*.envelopes.json"). Each response is checked against
+ * every plan. Inputs are read in order, responses of an input are validated in parallel by batches; the size of
+ * pending batches is bounded so that large inputs are validated in constant memory.
+ *
+ * A summary is printed on standard output; reports are written as json and JUnit XML ("-" for standard output,
+ * the summary is then not printed). Exit status is 0 if all responses satisfy plans, 1 if some do not or are malformed,
+ * 2 if inputs cannot be validated.
+ */
+public final class ContractRunner {
+
+	/** Number of responses validated by a task */
+	static final int BATCH_SIZE = 256;
+
+	/** Default number of failures kept in reports, for each input */
+	static final int DEFAULT_MAX_FAILURES = 100;
+
+	private static final String USAGE = "Usage: ContractRunner --spec SPEC [--spec SPEC]... [--threads N] [--json FILE] [--junit FILE] [--max-failures N] INPUT...";
+
+	private final List<AssertionPlan> plans = new ArrayList<AssertionPlan>();
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	private int maxFailures = DEFAULT_MAX_FAILURES;
+
+	ContractRunner plan(AssertionPlan plan) {
+		TrafficValidator.checkNotDefined("Plan", plan.getName(), planNames());
+		plans.add(plan);
+		return this;
+	}
+
+	ContractRunner threads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be positive");
+		}
+		this.threads = threads;
+		return this;
+	}
+
+	ContractRunner maxFailures(int maxFailures) {
+		if (maxFailures < 0) {
+			throw new IllegalArgumentException("Maximum number of failures must not be negative");
+		}
+		this.maxFailures = maxFailures;
+		return this;
+	}
+
+	/**
+	 * Validate inputs against plans.
+	 *
+	 * @param inputs Files and directories.
+	 * @return Report, timings are not set.
+	 * @throws IOException If an input cannot be read.
+	 */
+	ContractRunReport validate(List<File> inputs) throws IOException {
+		ContractRunReport report = new ContractRunReport(planNames(), threads);
+		ExecutorService executor = TrafficValidator.newExecutor(threads);
+		try {
+			for (File file : files(inputs)) {
+				validate(file, executor, report.input(file.getPath(), maxFailures));
+			}
+			return report;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<String> planNames() {
+		List<String> names = new ArrayList<String>(plans.size());
+		for (AssertionPlan plan : plans) {
+			names.add(plan.getName());
+		}
+		return names;
+	}
+
+	private void validate(File file, ExecutorService executor, final ContractRunReport.InputResult result) throws IOException {
+		long start = System.nanoTime();
+		final RecordedInput input = RecordedInput.open(file);
+		try {
+			BatchPipeline<ContractRunReport.Part> pipeline = new BatchPipeline<ContractRunReport.Part>(executor, threads * 2, BatchPipeline.MAX_PENDING_BYTES);
+			BatchPipeline.Merge<ContractRunReport.Part> merge = new BatchPipeline.Merge<ContractRunReport.Part>() {
+				@Override
+				public void merge(ContractRunReport.Part part) {
+					result.merge(part);
+				}
+			};
+			while (true) {
+				final List<RecordedInput.Item> batch = new ArrayList<RecordedInput.Item>();
+				long bytes = input.read(batch, BATCH_SIZE, BatchPipeline.BATCH_BYTES);
+				if (batch.isEmpty()) {
+					break;
+				}
+
+				pipeline.submit(new Callable<ContractRunReport.Part>() {
+					@Override
+					public ContractRunReport.Part call() {
+						return validate(input, batch);
+					}
+				}, bytes, merge);
+			}
+			pipeline.finish();
+		}
+		finally {
+			input.close();
+		}
+		result.elapsed(System.nanoTime() - start);
+	}
+
+	private ContractRunReport.Part validate(RecordedInput input, List<RecordedInput.Item> batch) {
+		ContractRunReport.Part part = new ContractRunReport.Part(plans.size(), maxFailures);
+		for (RecordedInput.Item item : batch) {
+			RecordedInput.Recorded recorded;
+			try {
+				recorded = input.adapt(item);
+			}
+			catch (IllegalArgumentException ex) {
+				part.malformed(item.number, ex.getMessage());
+				continue;
+			}
+
+			boolean success = true;
+			try {
+				for (int i = 0, size = plans.size(); i < size; i++) {
+					AssertionPlan plan = plans.get(i);
+					List<String> failures;
+					try {
+						failures = plan.evaluate(recorded.response);
+					}
+					catch (RuntimeException ex) {
+						failures = Arrays.asList(String.format("Expected response to be readable but failed with: %s", ex));
+					}
+					if (!failures.isEmpty()) {
+						success = false;
+						part.failure(i, plan.getName(), item.number, recorded.request, failures);
+					}
+				}
+			}
+			finally {
+				recorded.response.close();
+			}
+			part.response(success);
+		}
+		return part;
+	}
+
+	/**
+	 * Expand directories, recursively, to their supported files, in name order.
+	 */
+	private static List<File> files(List<File> inputs) throws IOException {
+		List<File> files = new ArrayList<File>();
+		for (File input : inputs) {
+			if (input.isDirectory()) {
+				File[] children = input.listFiles();
+				if (children == null) {
+					throw new IOException("Cannot list files of " + input);
+				}
+				Arrays.sort(children);
+				List<File> nested = new ArrayList<File>();
+				for (File child : children) {
+					if (child.isDirectory() || RecordedInput.isSupported(child)) {
+						nested.add(child);
+					}
+				}
+				files.addAll(files(nested));
+			}
+			else if (input.isFile()) {
+				files.add(input);
+			}
+			else {
+				throw new IOException("Input " + input + " does not exist");
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Validate recorded responses from command line, see {@link ContractRunner}.
+	 *
+	 * @param args Arguments.
+	 */
+	public static void main(String[] args) {
+		System.exit(run(args, System.out, System.err));
+	}
+
+	static int run(String[] args, PrintStream out, PrintStream err) {
+		long start = System.nanoTime();
+		long startupNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime()));
+
+		ContractRunner runner = new ContractRunner();
+		List<File> inputs = new ArrayList<File>();
+		String json = null;
+		String junit = null;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				if (arg.equals("--spec")) {
+					runner.plan(AssertionPlan.compile(new File(TrafficValidator.value(args, ++i, arg))));
+				}
+				else if (arg.equals("--threads")) {
+					runner.threads(Integer.parseInt(TrafficValidator.value(args, ++i, arg)));
+				}
+				else if (arg.equals("--max-failures")) {
+					runner.maxFailures(Integer.parseInt(TrafficValidator.value(args, ++i, arg)));
+				}
+				else if (arg.equals("--json")) {
+					json = TrafficValidator.value(args, ++i, arg);
+				}
+				else if (arg.equals("--junit")) {
+					junit = TrafficValidator.value(args, ++i, arg);
+				}
+				else if (arg.startsWith("--")) {
+					throw new IllegalArgumentException("Unknown option " + arg);
+				}
+				else {
+					inputs.add(new File(arg));
+				}
+			}
+			if (runner.plans.isEmpty()) {
+				throw new IllegalArgumentException("No spec to validate against");
+			}
+			if (inputs.isEmpty()) {
+				throw new IllegalArgumentException("No input to validate");
+			}
+		}
+		catch (Exception ex) {
+			err.println(ex.getMessage());
+			err.println(USAGE);
+			return 2;
+		}
+
+		long compileNanos = System.nanoTime() - start;
+		try {
+			ContractRunReport report = runner.validate(inputs);
+			report.finish(startupNanos, compileNanos, System.nanoTime() - start - compileNanos);
+			if (json != null) {
+				write(report, json, false, out);
+			}
+			if (junit != null) {
+				write(report, junit, true, out);
+			}
+			if (!"-".equals(json) && !"-".equals(junit)) {
+				report.print(out);
+			}
+			return report.isSuccess() ? 0 : 1;
+		}
+		catch (IOException ex) {
+			err.println("Cannot validate inputs: " + ex);
+			return 2;
+		}
+		catch (IllegalArgumentException ex) {
+			err.println("Cannot validate inputs: " + ex.getMessage());
+			return 2;
+		}
+	}
+
+	private static void write(ContractRunReport report, String path, boolean junit, PrintStream out) throws IOException {
+		OutputStream stream = path.equals("-") ? out : new FileOutputStream(path);
+		try {
+			if (junit) {
+				report.writeJunit(stream);
+			}
+			else {
+				report.writeJson(stream);
+			}
+		}
+		finally {
+			if (stream == out) {
+				out.println();
+				out.flush();
+			}
+			else {
+				stream.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package org.fest.assertions.traffic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+import org.fest.assertions.util.AbstractResponse;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.HttpHeaders;
+import org.fest.assertions.util.ResponseBody;
+import org.fest.assertions.util.SetCookieParser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response of an entry of a HAR (http archive) file.
+ * Cookies are read from Set-Cookie headers, or from cookies of entry when headers have been stripped by exporter.
+ * Base64 encoded contents are decoded.
+ */
+final class HarEntry extends AbstractResponse {
+
+	/** Phases of HAR timings before response is received */
+	private static final String[] TIMINGS_BEFORE_RECEIVE = {"blocked", "dns", "connect", "send", "wait"};
+
+	private final String method;
+
+	private final String url;
+
+	private final int statusCode;
+
+	private final JsonNode response;
+
+	private HarEntry(String method, String url, int statusCode, JsonNode response, long responseTimeNanos, long timeToFirstByteNanos) {
+		super(responseTimeNanos, timeToFirstByteNanos);
+		this.method = method;
+		this.url = url;
+		this.statusCode = statusCode;
+		this.response = response;
+	}
+
+	/**
+	 * Read entry from json tree.
+	 *
+	 * @param entry Json tree of entry.
+	 * @return Entry.
+	 * @throws IllegalArgumentException If tree is not a valid HAR entry.
+	 */
+	static HarEntry of(JsonNode entry) {
+		JsonNode request = entry.get("request");
+		JsonNode response = entry.get("response");
+		if (request == null || !request.isObject() || response == null || !response.isObject()) {
+			throw new IllegalArgumentException("Entry must contain request and response objects");
+		}
+
+		JsonNode method = request.get("method");
+		JsonNode url = request.get("url");
+		JsonNode status = response.get("status");
+		if (method == null || !method.isTextual() || url == null || !url.isTextual()) {
+			throw new IllegalArgumentException("Request must contain method and url");
+		}
+		if (status == null || !status.isInt()) {
+			throw new IllegalArgumentException("Response must contain status");
+		}
+
+		// Time is -1 when not available, as in HAR timings
+		JsonNode time = entry.get("time");
+		long responseTimeNanos = time != null && time.isNumber() && time.asDouble() >= 0 ? (long) (time.asDouble() * TimeUnit.MILLISECONDS.toNanos(1)) : -1;
+		return new HarEntry(method.asText(), url.asText(), status.asInt(), response, responseTimeNanos, timeToFirstByte(entry.get("timings")));
+	}
+
+	/**
+	 * Get time to first byte from timings of entry: all phases before receive (ssl is included in connect).
+	 *
+	 * @param timings Timings of entry.
+	 * @return Time to first byte, in nanoseconds, -1 if it is not known.
+	 */
+	private static long timeToFirstByte(JsonNode timings) {
+		if (timings == null || !timings.isObject() || !timings.path("wait").isNumber()) {
+			return -1;
+		}
+
+		double millis = 0;
+		for (String phase : TIMINGS_BEFORE_RECEIVE) {
+			JsonNode timing = timings.get(phase);
+			if (timing != null && timing.isNumber() && timing.asDouble() > 0) {
+				millis += timing.asDouble();
+			}
+		}
+		return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	String getUrl() {
+		return url;
+	}
+
+	@Override
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	@Override
+	public String getContentType() {
+		String contentType = getHeader(HttpHeaders.CONTENT_TYPE);
+		if (contentType == null) {
+			JsonNode mimeType = response.path("content").get("mimeType");
+			contentType = mimeType == null || mimeType.asText().length() == 0 ? null : mimeType.asText();
+		}
+		return contentType;
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders index) {
+		for (JsonNode header : response.path("headers")) {
+			JsonNode name = header.get("name");
+			JsonNode value = header.get("value");
+			if (name != null && value != null) {
+				index.add(name.asText(), value.asText());
+			}
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		List<String> headers = getHeaderValues(HttpHeaders.SET_COOKIE);
+		List<Cookie> cookies = new ArrayList<Cookie>();
+		if (!headers.isEmpty()) {
+			for (String header : headers) {
+				Cookie cookie = SetCookieParser.parse(header);
+				if (cookie != null) {
+					cookies.add(cookie);
+				}
+			}
+			return cookies;
+		}
+
+		StdDateFormat format = null;
+		for (JsonNode cookie : response.path("cookies")) {
+			Date expires = null;
+			JsonNode value = cookie.get("expires");
+			if (value != null && value.isTextual()) {
+				try {
+					format = format == null ? new StdDateFormat() : format;
+					expires = format.parse(value.asText());
+				}
+				catch (ParseException ex) {
+					// Keep session cookie
+				}
+			}
+			cookies.add(new Cookie(text(cookie, "name"), text(cookie, "value"), text(cookie, "domain"), text(cookie, "path"),
+					expires, cookie.path("secure").asBoolean(), cookie.path("httpOnly").asBoolean()));
+		}
+		return cookies;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) throws IOException {
+		JsonNode content = response.path("content");
+		JsonNode text = content.get("text");
+		if (text == null || text.isNull()) {
+			return ResponseBody.of(null, charset);
+		}
+		if ("base64".equalsIgnoreCase(content.path("encoding").asText())) {
+			return ResponseBody.of(text.binaryValue(), charset);
+		}
+		return ResponseBody.of(text.asText().getBytes(charset), charset);
+	}
+
+	private static String text(JsonNode node, String field) {
+		JsonNode value = node.get(field);
+		return value == null || value.isNull() ? null : value.asText();
+	}
+}
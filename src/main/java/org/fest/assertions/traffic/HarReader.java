@@ -0,0 +1,183 @@
+package org.fest.assertions.traffic;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fest.assertions.util.Response;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Read entries of a HAR (http archive) file, as exported by browsers and proxies.
+ * Entries of "log.entries" are streamed one by one: only the current entry is kept in memory,
+ * other properties of the archive (pages, creator...) are skipped.
+ *
+ * <pre>
+ * HarReader reader = HarReader.open(new File("session.har"));
+ * try {
+ *     Response response;
+ *     while ((response = reader.next()) != null) {
+ *         new ResponseAssert(response).isSuccess();
+ *     }
+ * }
+ * finally {
+ *     reader.close();
+ * }
+ * </pre>
+ */
+public final class HarReader implements Closeable {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final int START = 0;
+
+	private static final int ENTRIES = 1;
+
+	private static final int DONE = 2;
+
+	private final JsonParser parser;
+
+	private int state = START;
+
+	private long entries;
+
+	/**
+	 * Create reader.
+	 *
+	 * @param in Stream of HAR file, closed with reader.
+	 * @throws IOException If stream cannot be read.
+	 */
+	public HarReader(InputStream in) throws IOException {
+		if (in == null) {
+			throw new IllegalArgumentException("Input stream must not be null");
+		}
+		this.parser = MAPPER.getFactory().createParser(in);
+	}
+
+	/**
+	 * Open HAR file.
+	 *
+	 * @param file File.
+	 * @return Reader.
+	 * @throws IOException If file cannot be opened.
+	 */
+	public static HarReader open(File file) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+		try {
+			return new HarReader(in);
+		}
+		catch (IOException ex) {
+			in.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Read next entry.
+	 *
+	 * @return Response of entry, null if all entries have been read.
+	 * @throws IOException If archive is not valid json or does not contain "log.entries".
+	 * @throws IllegalArgumentException If entry does not contain request method and url, and response status.
+	 */
+	public Response next() throws IOException {
+		JsonNode entry = nextEntry();
+		return entry == null ? null : HarEntry.of(entry);
+	}
+
+	/**
+	 * Get number of entries read so far.
+	 *
+	 * @return Number of entries.
+	 */
+	public long getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Get number of bytes read so far, used to bound memory of entries read ahead.
+	 *
+	 * @return Position in archive.
+	 */
+	long getPosition() {
+		return position(parser);
+	}
+
+	/**
+	 * Get number of bytes read so far by a parser.
+	 *
+	 * @param parser Parser.
+	 * @return Position in input.
+	 */
+	static long position(JsonParser parser) {
+		// Jackson reports byte offsets of utf-8 streams as char offsets
+		JsonLocation location = parser.getCurrentLocation();
+		return Math.max(location.getByteOffset(), location.getCharOffset());
+	}
+
+	/**
+	 * Read json tree of next entry.
+	 *
+	 * @return Entry, null if all entries have been read.
+	 * @throws IOException If archive is not valid json or does not contain "log.entries".
+	 */
+	JsonNode nextEntry() throws IOException {
+		if (state == DONE) {
+			return null;
+		}
+		if (state == START) {
+			seekEntries();
+			state = ENTRIES;
+		}
+
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.END_ARRAY) {
+			state = DONE;
+			return null;
+		}
+		if (token != JsonToken.START_OBJECT) {
+			throw new JsonParseException("Expected HAR entry to be an object but was " + token, parser.getCurrentLocation());
+		}
+		entries++;
+		return MAPPER.readTree(parser);
+	}
+
+	@Override
+	public void close() throws IOException {
+		state = DONE;
+		parser.close();
+	}
+
+	private void seekEntries() throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException("Expected HAR to be a json object", parser.getCurrentLocation());
+		}
+		if (!seekField("log", JsonToken.START_OBJECT) || !seekField("entries", JsonToken.START_ARRAY)) {
+			throw new JsonParseException("Expected HAR to contain log.entries array", parser.getCurrentLocation());
+		}
+	}
+
+	/**
+	 * Move to value of a field of current object, skipping previous fields.
+	 *
+	 * @return True if field has been found with expected type.
+	 */
+	private boolean seekField(String name, JsonToken type) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (field.equals(name)) {
+				return value == type;
+			}
+			parser.skipChildren();
+		}
+		return false;
+	}
+}
@@ -0,0 +1,275 @@
+package org.fest.assertions.traffic;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponseArchive;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * File of recorded responses, read by batches of raw items.
+ * Items are read by a single thread, then adapted to responses by any thread, so that expensive parsing
+ * is done in parallel. Supported files are:
+ * <ul>
+ * <li>HAR files (".har"),</li>
+ * <li>NDJSON files of {@link TrafficEnvelope envelopes} (".ndjson", ".jsonl"),</li>
+ * <li>json files of an envelope or of an array of envelopes (".json"), streamed one envelope at a time,</li>
+ * <li>response archives (".archive"), see {@link ResponseArchive}.</li>
+ * </ul>
+ * Json files of envelopes found in directories must be named "*.envelopes.json", so that specs and fixtures
+ * stored with recorded traffic are not read as envelopes.
+ */
+abstract class RecordedInput implements Closeable {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	/**
+	 * Check if a file found in a directory must be read as recorded responses.
+	 *
+	 * @param file File.
+	 * @return True if file is supported.
+	 */
+	static boolean isSupported(File file) {
+		String name = file.getName().toLowerCase(Locale.ENGLISH);
+		return name.endsWith(".har") || name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".envelopes.json") || name.endsWith(".archive");
+	}
+
+	/**
+	 * Open file, according to its extension.
+	 *
+	 * @param file File.
+	 * @return Input.
+	 * @throws IOException If file cannot be opened.
+	 * @throws IllegalArgumentException If file is not supported.
+	 */
+	static RecordedInput open(File file) throws IOException {
+		String name = file.getName().toLowerCase(Locale.ENGLISH);
+		if (name.endsWith(".har")) {
+			return new Har(HarReader.open(file));
+		}
+		if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+			return new Ndjson(new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"), 64 * 1024));
+		}
+		if (name.endsWith(".json")) {
+			JsonParser parser = MAPPER.getFactory().createParser(file);
+			try {
+				return new Envelopes(parser);
+			}
+			catch (IOException ex) {
+				parser.close();
+				throw ex;
+			}
+		}
+		if (name.endsWith(".archive")) {
+			return new Archive(ResponseArchive.open(file));
+		}
+		throw new IllegalArgumentException("Unsupported input " + file + ", expected .har, .ndjson, .jsonl, .json or .archive file");
+	}
+
+	/**
+	 * Read next items.
+	 *
+	 * @param batch Items read, numbered from 1 (line numbers for NDJSON files, indexes otherwise).
+	 * @param max Maximum number of items to read.
+	 * @param maxBytes Maximum size of items to read, at least one item is read.
+	 * @return Approximate size of items read, in bytes.
+	 * @throws IOException If file cannot be read.
+	 */
+	abstract long read(List<Item> batch, int max, long maxBytes) throws IOException;
+
+	/**
+	 * Adapt an item to a recorded response, may be called concurrently.
+	 *
+	 * @param item Item.
+	 * @return Response.
+	 * @throws IllegalArgumentException If item is not a valid recorded response.
+	 */
+	abstract Recorded adapt(Item item);
+
+	/**
+	 * Raw item, with its number in file.
+	 */
+	static final class Item {
+		final long number;
+		final Object raw;
+
+		Item(long number, Object raw) {
+			this.number = number;
+			this.raw = raw;
+		}
+	}
+
+	/**
+	 * Recorded response, with a description of its request (such as "GET /users/1").
+	 */
+	static final class Recorded {
+		final Response response;
+		final String request;
+
+		Recorded(Response response, String request) {
+			this.response = response;
+			this.request = request;
+		}
+	}
+
+	private static final class Har extends RecordedInput {
+		private final HarReader reader;
+
+		private Har(HarReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		long read(List<Item> batch, int max, long maxBytes) throws IOException {
+			long start = reader.getPosition();
+			JsonNode entry;
+			while (batch.size() < max && reader.getPosition() - start < maxBytes && (entry = reader.nextEntry()) != null) {
+				batch.add(new Item(reader.getEntries(), entry));
+			}
+			return reader.getPosition() - start;
+		}
+
+		@Override
+		Recorded adapt(Item item) {
+			HarEntry entry = HarEntry.of((JsonNode) item.raw);
+			return new Recorded(entry, entry.getMethod() + " " + entry.getUrl());
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+
+	private static final class Ndjson extends RecordedInput {
+		private final BufferedReader reader;
+		private long lines;
+
+		private Ndjson(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		long read(List<Item> batch, int max, long maxBytes) throws IOException {
+			long bytes = 0;
+			String line;
+			while (batch.size() < max && bytes < maxBytes && (line = reader.readLine()) != null) {
+				lines++;
+				bytes += line.length() + 1;
+				if (line.trim().length() > 0) {
+					batch.add(new Item(lines, line));
+				}
+			}
+			return bytes;
+		}
+
+		@Override
+		Recorded adapt(Item item) {
+			JsonNode node;
+			try {
+				node = MAPPER.readTree((String) item.raw);
+			}
+			catch (IOException ex) {
+				throw new IllegalArgumentException(ex.getMessage());
+			}
+			if (node == null || !node.isObject()) {
+				throw new IllegalArgumentException("Envelope must be a json object");
+			}
+			return envelope(node);
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+
+	private static final class Envelopes extends RecordedInput {
+		private final JsonParser parser;
+		private final boolean array;
+		private boolean done;
+		private long count;
+
+		private Envelopes(JsonParser parser) throws IOException {
+			this.parser = parser;
+			JsonToken token = parser.nextToken();
+			this.array = token == JsonToken.START_ARRAY;
+			this.done = token == null;
+		}
+
+		@Override
+		long read(List<Item> batch, int max, long maxBytes) throws IOException {
+			long start = HarReader.position(parser);
+			while (!done && batch.size() < max && HarReader.position(parser) - start < maxBytes) {
+				// Envelopes of an array are read one by one, a single envelope is read as is
+				if (array && parser.nextToken() == JsonToken.END_ARRAY) {
+					done = true;
+				}
+				else {
+					batch.add(new Item(++count, MAPPER.readTree(parser)));
+					done = !array;
+				}
+			}
+			return HarReader.position(parser) - start;
+		}
+
+		@Override
+		Recorded adapt(Item item) {
+			JsonNode node = (JsonNode) item.raw;
+			if (node == null || !node.isObject()) {
+				throw new IllegalArgumentException("Envelope must be a json object");
+			}
+			return envelope(node);
+		}
+
+		@Override
+		public void close() throws IOException {
+			parser.close();
+		}
+	}
+
+	private static final class Archive extends RecordedInput {
+		private final ResponseArchive archive;
+		private int next;
+
+		private Archive(ResponseArchive archive) {
+			this.archive = archive;
+		}
+
+		@Override
+		long read(List<Item> batch, int max, long maxBytes) {
+			while (batch.size() < max && next < archive.size()) {
+				next++;
+				batch.add(new Item(next, next - 1));
+			}
+			// Items are indexes in memory mapped archive: responses are not read ahead
+			return 0;
+		}
+
+		@Override
+		Recorded adapt(Item item) {
+			int index = (Integer) item.raw;
+			return new Recorded(archive.get(index), "#" + (index + 1));
+		}
+
+		@Override
+		public void close() {
+			archive.close();
+		}
+	}
+
+	private static Recorded envelope(JsonNode node) {
+		TrafficEnvelope envelope = TrafficEnvelope.of(node);
+		return new Recorded(envelope, envelope.getMethod() + " " + envelope.getUrl());
+	}
+}
@@ -0,0 +1,216 @@
+package org.fest.assertions.traffic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.fest.assertions.util.AbstractResponse;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.HttpHeaders;
+import org.fest.assertions.util.ResponseBody;
+import org.fest.assertions.util.SetCookieParser;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorded exchange: request method and url, with the response received.
+ * Envelopes are read from json objects such as:
+ *
+ * <pre>
+ * {"request": {"method": "GET", "url": "/users/1"},
+ *  "response": {"status": 200, "headers": {"Content-Type": "application/json"}, "body": {"id": 1}, "timeMs": 12}}
+ * </pre>
+ *
+ * Body can be a string (raw body) or any json value (json body). Header values can be strings or arrays of strings.
+ */
+final class TrafficEnvelope extends AbstractResponse {
+
+	private final String method;
+
+	private final String url;
+
+	private final int statusCode;
+
+	private final JsonNode headers;
+
+	private final JsonNode body;
+
+	private TrafficEnvelope(String method, String url, int statusCode, JsonNode headers, JsonNode body, long responseTimeNanos) {
+		super(responseTimeNanos);
+		this.method = method;
+		this.url = url;
+		this.statusCode = statusCode;
+		this.headers = headers;
+		this.body = body;
+	}
+
+	/**
+	 * Read envelope from json tree.
+	 *
+	 * @param node Json tree of envelope.
+	 * @return Envelope.
+	 * @throws IllegalArgumentException If tree is not a valid envelope.
+	 */
+	static TrafficEnvelope of(JsonNode node) {
+		JsonNode request = node.get("request");
+		JsonNode response = node.get("response");
+		if (request == null || !request.isObject() || response == null || !response.isObject()) {
+			throw new IllegalArgumentException("Envelope must contain request and response objects");
+		}
+
+		JsonNode method = request.get("method");
+		JsonNode url = request.get("url");
+		JsonNode status = response.get("status");
+		if (method == null || !method.isTextual() || url == null || !url.isTextual()) {
+			throw new IllegalArgumentException("Request must contain method and url");
+		}
+		if (status == null || !status.isInt()) {
+			throw new IllegalArgumentException("Response must contain status");
+		}
+
+		JsonNode headers = response.get("headers");
+		if (headers != null && !headers.isObject()) {
+			throw new IllegalArgumentException("Headers must be an object");
+		}
+
+		JsonNode time = response.get("timeMs");
+		long responseTimeNanos = time != null && time.isNumber() ? (long) (time.asDouble() * TimeUnit.MILLISECONDS.toNanos(1)) : -1;
+		return new TrafficEnvelope(method.asText(), url.asText(), status.asInt(), headers, response.get("body"), responseTimeNanos);
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Get endpoint of request: method and path of url, where identifiers (numbers, uuids and long
+	 * hexadecimal segments) are replaced by "{id}", so that violations of "GET /users/1" and "GET /users/2"
+	 * are aggregated.
+	 *
+	 * @param method Method of request.
+	 * @param url Url of request.
+	 * @return Endpoint.
+	 */
+	static String endpoint(String method, String url) {
+		int start = 0;
+		int scheme = url.indexOf("://");
+		if (scheme >= 0) {
+			int slash = url.indexOf('/', scheme + 3);
+			start = slash < 0 ? url.length() : slash;
+		}
+		int end = url.length();
+		for (int i = start; i < url.length(); i++) {
+			char c = url.charAt(i);
+			if (c == '?' || c == '#') {
+				end = i;
+				break;
+			}
+		}
+
+		StringBuilder endpoint = new StringBuilder(method.length() + 1 + end - start).append(method).append(' ');
+		if (start == end) {
+			return endpoint.append('/').toString();
+		}
+
+		int segment = start;
+		while (segment < end) {
+			int next = url.indexOf('/', segment + 1);
+			if (next < 0 || next > end) {
+				next = end;
+			}
+			if (url.charAt(segment) == '/') {
+				endpoint.append('/');
+				segment++;
+			}
+			if (isIdentifier(url, segment, next)) {
+				endpoint.append("{id}");
+			}
+			else {
+				endpoint.append(url, segment, next);
+			}
+			segment = next;
+		}
+		return endpoint.toString();
+	}
+
+	private static boolean isIdentifier(String url, int start, int end) {
+		int length = end - start;
+		if (length == 0) {
+			return false;
+		}
+
+		boolean digits = true;
+		boolean hex = true;
+		int dashes = 0;
+		for (int i = start; i < end; i++) {
+			char c = url.charAt(i);
+			boolean digit = c >= '0' && c <= '9';
+			digits &= digit;
+			if (c == '-') {
+				dashes++;
+			}
+			else if (!digit && !(c >= 'a' && c <= 'f') && !(c >= 'A' && c <= 'F')) {
+				hex = false;
+			}
+		}
+		return digits || (hex && (length == 36 && dashes == 4 || dashes == 0 && length >= 16));
+	}
+
+	@Override
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	@Override
+	public String getContentType() {
+		return getHeader(HttpHeaders.CONTENT_TYPE);
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders index) {
+		if (headers == null) {
+			return;
+		}
+		Iterator<Map.Entry<String, JsonNode>> fields = headers.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			JsonNode value = field.getValue();
+			if (value.isArray()) {
+				for (JsonNode item : value) {
+					index.add(field.getKey(), item.asText());
+				}
+			}
+			else {
+				index.add(field.getKey(), value.asText());
+			}
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		List<String> headers = getHeaderValues(HttpHeaders.SET_COOKIE);
+		List<Cookie> cookies = new ArrayList<Cookie>(headers.size());
+		for (String header : headers) {
+			Cookie cookie = SetCookieParser.parse(header);
+			if (cookie != null) {
+				cookies.add(cookie);
+			}
+		}
+		return cookies;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) {
+		if (body == null || body.isNull()) {
+			return ResponseBody.of(null, charset);
+		}
+		String text = body.isTextual() ? body.asText() : body.toString();
+		return ResponseBody.of(text.getBytes(charset), charset);
+	}
+}
@@ -0,0 +1,617 @@
+package org.fest.assertions.traffic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fest.assertions.api.rest.JsonAssert;
+import org.fest.assertions.api.rest.JsonCheck;
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.api.rest.ResponseCheck;
+import org.fest.assertions.util.MediaType;
+import org.fest.assertions.util.MimeType;
+import org.fest.assertions.util.Response;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validate recorded traffic, stored as NDJSON files (one {@link TrafficEnvelope envelope} per line) or
+ * as HAR files (see {@link HarReader}), against rules.
+ * Files are memory mapped and split in chunks ending on line boundaries; chunks are validated in parallel
+ * and their results are merged in file order, so that reports do not depend on scheduling.
+ *
+ * Validator can also be run from command line, see {@link #main(String[])}.
+ */
+public class TrafficValidator {
+
+	/**
+	 * Rules registered by name from command line.
+	 * Implementations must have a public no-arg constructor.
+	 */
+	public interface Rules {
+
+		/**
+		 * Register rules.
+		 *
+		 * @param validator Validator.
+		 */
+		void register(TrafficValidator validator);
+	}
+
+	/** Default size of chunks */
+	static final long DEFAULT_CHUNK_SIZE = 32 * 1024 * 1024;
+
+	/** Maximum number of HAR entries validated by a task */
+	static final int HAR_BATCH_SIZE = 256;
+
+	/** Name of rule used by command line when no rule is given */
+	static final String JSON_BODY = "json-body";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final List<NamedRule> rules = new ArrayList<NamedRule>();
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	private long chunkSize = DEFAULT_CHUNK_SIZE;
+
+	/**
+	 * Add rule checked on each envelope.
+	 *
+	 * @param name Name of rule, used to aggregate violations.
+	 * @param check Assertions to run.
+	 * @return {@code this} the validator.
+	 */
+	public TrafficValidator rule(String name, final ResponseCheck check) {
+		addRule(new NamedRule(name) {
+			@Override
+			void check(Response response, String json) {
+				check.check(new ResponseAssert(response));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Add rule checked on json body of each envelope.
+	 *
+	 * @param name Name of rule, used to aggregate violations.
+	 * @param check Assertions to run.
+	 * @return {@code this} the validator.
+	 */
+	public TrafficValidator jsonRule(String name, final JsonCheck check) {
+		addRule(new NamedRule(name, true) {
+			@Override
+			void check(Response response, String json) {
+				check.check(new JsonAssert(json));
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Add rule checking that bodies of json responses are well formed.
+	 *
+	 * @return {@code this} the validator.
+	 */
+	public TrafficValidator wellFormedJson() {
+		addRule(new NamedRule(JSON_BODY) {
+			@Override
+			void check(Response response, String json) throws IOException {
+				MediaType mediaType = response.getMediaType();
+				if (mediaType == null || !mediaType.is(MimeType.JSON)) {
+					return;
+				}
+				try {
+					MAPPER.readTree(response.getBody().asString());
+				}
+				catch (IOException ex) {
+					throw new AssertionError(String.format("Expected body to be well formed json but was not: %s", ex.getMessage()));
+				}
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Set number of threads validating chunks.
+	 *
+	 * @param threads Number of threads, number of processors by default.
+	 * @return {@code this} the validator.
+	 */
+	public TrafficValidator threads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be positive");
+		}
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Set size of chunks validated in parallel.
+	 * Chunks are extended up to the end of their last line.
+	 *
+	 * @param chunkSize Size of chunks, in bytes.
+	 * @return {@code this} the validator.
+	 */
+	public TrafficValidator chunkSize(long chunkSize) {
+		if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Chunk size must be positive and less than 2GB");
+		}
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Validate NDJSON files.
+	 * Blank lines are ignored, lines that are not valid envelopes are counted as malformed.
+	 *
+	 * @param files Files.
+	 * @return Report.
+	 * @throws IOException If a file cannot be read.
+	 */
+	public ValidationReport validate(File... files) throws IOException {
+		long start = System.nanoTime();
+		List<RandomAccessFile> opened = new ArrayList<RandomAccessFile>(files.length);
+		ExecutorService executor = newExecutor(threads);
+		try {
+			long bytes = 0;
+			List<Chunk> chunks = new ArrayList<Chunk>();
+			for (File file : files) {
+				RandomAccessFile raf = new RandomAccessFile(file, "r");
+				opened.add(raf);
+				bytes += raf.length();
+				split(file, raf.getChannel(), chunks);
+			}
+
+			List<Future<ValidationReport.Partial>> results = new ArrayList<Future<ValidationReport.Partial>>(chunks.size());
+			for (final Chunk chunk : chunks) {
+				results.add(executor.submit(new Callable<ValidationReport.Partial>() {
+					@Override
+					public ValidationReport.Partial call() throws IOException {
+						return validate(chunk);
+					}
+				}));
+			}
+
+			ValidationReport report = new ValidationReport(ruleNames());
+			File current = null;
+			long lineOffset = 0;
+			for (int i = 0; i < chunks.size(); i++) {
+				Chunk chunk = chunks.get(i);
+				if (chunk.file != current) {
+					current = chunk.file;
+					lineOffset = 0;
+				}
+				ValidationReport.Partial partial = get(results.get(i));
+				report.merge(chunk.file.getPath(), lineOffset, partial);
+				lineOffset += chunk.lines;
+			}
+
+			report.finish(files.length, bytes, System.nanoTime() - start);
+			return report;
+		}
+		finally {
+			executor.shutdownNow();
+			for (RandomAccessFile raf : opened) {
+				raf.close();
+			}
+		}
+	}
+
+	/**
+	 * Validate HAR files, as exported by browsers and proxies.
+	 * Entries are streamed and validated in parallel by batches; the size of entries read ahead of validation
+	 * is bounded, so that large archives are validated in constant memory whatever the number of threads.
+	 * Locations of violations are "file:entry", entries being numbered from 1.
+	 *
+	 * @param files Files.
+	 * @return Report.
+	 * @throws IOException If a file cannot be read or is not a valid HAR file.
+	 */
+	public ValidationReport validateHar(File... files) throws IOException {
+		long start = System.nanoTime();
+		ExecutorService executor = newExecutor(threads);
+		try {
+			ValidationReport report = new ValidationReport(ruleNames());
+			long bytes = 0;
+			for (File file : files) {
+				bytes += file.length();
+				validateHar(file, executor, report);
+			}
+			report.finish(files.length, bytes, System.nanoTime() - start);
+			return report;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void validateHar(File file, ExecutorService executor, final ValidationReport report) throws IOException {
+		final String path = file.getPath();
+		HarReader reader = HarReader.open(file);
+		try {
+			BatchPipeline<ValidationReport.Partial> pipeline = new BatchPipeline<ValidationReport.Partial>(executor, threads * 2, BatchPipeline.MAX_PENDING_BYTES);
+			long entryOffset = 0;
+			while (true) {
+				final List<JsonNode> batch = new ArrayList<JsonNode>();
+				long start = reader.getPosition();
+				JsonNode entry;
+				while (batch.size() < HAR_BATCH_SIZE && reader.getPosition() - start < BatchPipeline.BATCH_BYTES && (entry = reader.nextEntry()) != null) {
+					batch.add(entry);
+				}
+				if (batch.isEmpty()) {
+					break;
+				}
+
+				final long offset = entryOffset;
+				entryOffset += batch.size();
+				pipeline.submit(new Callable<ValidationReport.Partial>() {
+					@Override
+					public ValidationReport.Partial call() {
+						return validate(batch);
+					}
+				}, reader.getPosition() - start, new BatchPipeline.Merge<ValidationReport.Partial>() {
+					@Override
+					public void merge(ValidationReport.Partial partial) {
+						report.merge(path, offset, partial);
+					}
+				});
+			}
+			pipeline.finish();
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	private ValidationReport.Partial validate(List<JsonNode> batch) {
+		ValidationReport.Partial partial = new ValidationReport.Partial(rules.size());
+		for (int i = 0, size = batch.size(); i < size; i++) {
+			HarEntry entry;
+			try {
+				entry = HarEntry.of(batch.get(i));
+			}
+			catch (IllegalArgumentException ex) {
+				partial.malformed(i + 1, ex.getMessage());
+				continue;
+			}
+			validate(entry, entry.getMethod(), entry.getUrl(), i + 1, partial);
+		}
+		return partial;
+	}
+
+	/**
+	 * Validate a response against all rules.
+	 *
+	 * @param response Response.
+	 * @param method Method of request, used to compute endpoint of violations.
+	 * @param url Url of request, used to compute endpoint of violations.
+	 * @param line Line of response in its part.
+	 * @param partial Results of part.
+	 */
+	void validate(Response response, String method, String url, long line, ValidationReport.Partial partial) {
+		partial.envelope();
+		String endpoint = null;
+		String json = null;
+		try {
+			for (int i = 0, size = rules.size(); i < size; i++) {
+				NamedRule rule = rules.get(i);
+				try {
+					if (rule.json && json == null) {
+						json = response.getBody().asString();
+					}
+					rule.check(response, json);
+				}
+				catch (Throwable t) {
+					if (endpoint == null) {
+						endpoint = TrafficEnvelope.endpoint(method, url);
+					}
+					partial.violation(i, endpoint, line, t instanceof AssertionError ? t.getMessage() : t.toString());
+				}
+			}
+		}
+		finally {
+			response.close();
+		}
+	}
+
+	List<String> ruleNames() {
+		List<String> names = new ArrayList<String>(rules.size());
+		for (NamedRule rule : rules) {
+			names.add(rule.name);
+		}
+		return names;
+	}
+
+	private ValidationReport.Partial validate(Chunk chunk) throws IOException {
+		MappedByteBuffer buffer = chunk.channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.length);
+		ValidationReport.Partial partial = new ValidationReport.Partial(rules.size());
+		byte[] line = new byte[4096];
+		int limit = buffer.limit();
+		int position = 0;
+		long lineNumber = 0;
+		while (position < limit) {
+			int end = position;
+			while (end < limit && buffer.get(end) != '\n') {
+				end++;
+			}
+			int length = end - position;
+			if (length > 0 && buffer.get(end - 1) == '\r') {
+				length--;
+			}
+			lineNumber++;
+
+			if (line.length < length) {
+				line = new byte[Math.max(length, line.length * 2)];
+			}
+			buffer.position(position);
+			buffer.get(line, 0, length);
+			if (!isBlank(line, length)) {
+				validate(line, length, lineNumber, partial);
+			}
+			position = end + 1;
+		}
+		chunk.lines = lineNumber;
+		return partial;
+	}
+
+	private void validate(byte[] line, int length, long lineNumber, ValidationReport.Partial partial) {
+		TrafficEnvelope envelope;
+		try {
+			JsonNode node = MAPPER.readTree(MAPPER.getFactory().createParser(line, 0, length));
+			if (node == null || !node.isObject()) {
+				partial.malformed(lineNumber, "Envelope must be a json object");
+				return;
+			}
+			envelope = TrafficEnvelope.of(node);
+		}
+		catch (IOException ex) {
+			partial.malformed(lineNumber, ex.getMessage());
+			return;
+		}
+		catch (IllegalArgumentException ex) {
+			partial.malformed(lineNumber, ex.getMessage());
+			return;
+		}
+		validate(envelope, envelope.getMethod(), envelope.getUrl(), lineNumber, partial);
+	}
+
+	private void split(File file, FileChannel channel, List<Chunk> chunks) throws IOException {
+		long size = channel.size();
+		ByteBuffer probe = ByteBuffer.allocate(8192);
+		long start = 0;
+		while (start < size) {
+			long end = start + chunkSize >= size ? size : nextLine(channel, start + chunkSize - 1, size, probe);
+			if (end - start > Integer.MAX_VALUE) {
+				throw new IOException(String.format("Line after offset %s of %s is longer than 2GB", start, file));
+			}
+			chunks.add(new Chunk(file, channel, start, (int) (end - start)));
+			start = end;
+		}
+	}
+
+	/**
+	 * Find beginning of line following a position.
+	 *
+	 * @return Position following next new line character, or size of file if there is none.
+	 */
+	private static long nextLine(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+		while (position < size) {
+			probe.clear();
+			int read = channel.read(probe, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (probe.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return size;
+	}
+
+	private static boolean isBlank(byte[] line, int length) {
+		for (int i = 0; i < length; i++) {
+			if (line[i] > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static <T> T get(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Validation has been interrupted");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	static ExecutorService newExecutor(int threads) {
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "traffic-validator-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private void addRule(NamedRule rule) {
+		checkNotDefined("Rule", rule.name, ruleNames());
+		rules.add(rule);
+	}
+
+	/**
+	 * Check that a rule, or a plan, is not already defined.
+	 *
+	 * @param kind Kind of definition, used in error.
+	 * @param name Name of definition.
+	 * @param names Names already defined.
+	 * @throws IllegalArgumentException If name is already defined.
+	 */
+	static void checkNotDefined(String kind, String name, List<String> names) {
+		if (names.contains(name)) {
+			throw new IllegalArgumentException(kind + " " + name + " is already defined");
+		}
+	}
+
+	/**
+	 * Validate NDJSON files from command line, print report and exit with status 0 if all envelopes
+	 * satisfy rules, 1 if some do not, 2 if files cannot be validated.
+	 *
+	 * <pre>
+	 * java org.fest.assertions.traffic.TrafficValidator [--threads N] [--chunk-size BYTES] [--har] [--rules CLASS]... FILE...
+	 * </pre>
+	 *
+	 * Files are read as NDJSON files, or as HAR files with "--har".
+	 *
+	 * Rules are classes implementing {@link Rules}; when none is given, json bodies are checked to be well formed.
+	 *
+	 * @param args Arguments.
+	 */
+	public static void main(String[] args) {
+		System.exit(run(args, System.out, System.err));
+	}
+
+	static int run(String[] args, PrintStream out, PrintStream err) {
+		TrafficValidator validator = new TrafficValidator();
+		List<File> files = new ArrayList<File>();
+		boolean har = false;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				if (arg.equals("--threads")) {
+					validator.threads(Integer.parseInt(value(args, ++i, arg)));
+				}
+				else if (arg.equals("--chunk-size")) {
+					validator.chunkSize(Long.parseLong(value(args, ++i, arg)));
+				}
+				else if (arg.equals("--har")) {
+					har = true;
+				}
+				else if (arg.equals("--rules")) {
+					String name = value(args, ++i, arg);
+					Object rules = Class.forName(name).getConstructor().newInstance();
+					if (!(rules instanceof Rules)) {
+						throw new IllegalArgumentException(name + " does not implement " + Rules.class.getName());
+					}
+					((Rules) rules).register(validator);
+				}
+				else if (arg.startsWith("--")) {
+					throw new IllegalArgumentException("Unknown option " + arg);
+				}
+				else {
+					files.add(new File(arg));
+				}
+			}
+			if (files.isEmpty()) {
+				throw new IllegalArgumentException("No file to validate");
+			}
+		}
+		catch (Exception ex) {
+			err.println(ex.getMessage());
+			err.println("Usage: TrafficValidator [--threads N] [--chunk-size BYTES] [--har] [--rules CLASS]... FILE...");
+			return 2;
+		}
+
+		if (validator.rules.isEmpty()) {
+			validator.wellFormedJson();
+		}
+
+		try {
+			File[] sources = files.toArray(new File[files.size()]);
+			ValidationReport report = har ? validator.validateHar(sources) : validator.validate(sources);
+			report.print(out);
+			return report.isSuccess() ? 0 : 1;
+		}
+		catch (IOException ex) {
+			err.println("Cannot validate files: " + ex);
+			return 2;
+		}
+	}
+
+	/**
+	 * Get value of a command line option.
+	 *
+	 * @param args Arguments.
+	 * @param index Index of value.
+	 * @param option Option, used in error.
+	 * @return Value.
+	 * @throws IllegalArgumentException If value is missing.
+	 */
+	static String value(String[] args, int index, String option) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Missing value of option " + option);
+		}
+		return args[index];
+	}
+
+	private static final class Chunk {
+		private final File file;
+		private final FileChannel channel;
+		private final long start;
+		private final int length;
+
+		/** Number of lines, set once chunk has been validated */
+		private long lines;
+
+		private Chunk(File file, FileChannel channel, long start, int length) {
+			this.file = file;
+			this.channel = channel;
+			this.start = start;
+			this.length = length;
+		}
+	}
+
+	private abstract static class NamedRule {
+		private final String name;
+		private final boolean json;
+
+		NamedRule(String name) {
+			this(name, false);
+		}
+
+		NamedRule(String name, boolean json) {
+			this.name = name;
+			this.json = json;
+		}
+
+		abstract void check(Response response, String json) throws Exception;
+	}
+}
@@ -0,0 +1,333 @@
+package org.fest.assertions.traffic;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link TrafficValidator} run: violations are aggregated per rule and per endpoint.
+ * First violation of each rule (and first malformed envelope) is kept with its location, as "file:line".
+ */
+public class ValidationReport {
+
+	private final Map<String, RuleViolations> rules = new LinkedHashMap<String, RuleViolations>();
+
+	private int sources;
+
+	private long envelopes;
+
+	private long malformed;
+
+	private String firstMalformed;
+
+	private long bytes;
+
+	private long elapsedNanos;
+
+	ValidationReport(List<String> ruleNames) {
+		for (String name : ruleNames) {
+			rules.put(name, new RuleViolations());
+		}
+	}
+
+	/**
+	 * Add results of a part of a source, parts of a source must be added in order.
+	 *
+	 * @param source Name of source.
+	 * @param lineOffset Number of lines of source before this part.
+	 * @param partial Results.
+	 */
+	void merge(String source, long lineOffset, Partial partial) {
+		envelopes += partial.envelopes;
+		malformed += partial.malformed;
+		if (firstMalformed == null && partial.firstMalformed != null) {
+			firstMalformed = location(source, lineOffset + partial.firstMalformedLine) + ": " + partial.firstMalformed;
+		}
+
+		int i = 0;
+		for (RuleViolations violations : rules.values()) {
+			Partial.Tally tally = partial.tallies[i++];
+			if (tally.count == 0) {
+				continue;
+			}
+			violations.count += tally.count;
+			for (Map.Entry<String, long[]> entry : tally.endpoints.entrySet()) {
+				Long count = violations.endpoints.get(entry.getKey());
+				violations.endpoints.put(entry.getKey(), (count == null ? 0 : count) + entry.getValue()[0]);
+			}
+			if (violations.first == null) {
+				violations.first = location(source, lineOffset + tally.firstLine) + ": " + tally.first;
+			}
+		}
+	}
+
+	void finish(int sources, long bytes, long elapsedNanos) {
+		this.sources = sources;
+		this.bytes = bytes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	private static String location(String source, long line) {
+		return source + ":" + line;
+	}
+
+	/**
+	 * Get number of valid envelopes checked against rules.
+	 *
+	 * @return Number of envelopes.
+	 */
+	public long getEnvelopes() {
+		return envelopes;
+	}
+
+	/**
+	 * Get number of lines that are not valid envelopes.
+	 *
+	 * @return Number of malformed envelopes.
+	 */
+	public long getMalformed() {
+		return malformed;
+	}
+
+	/**
+	 * Get location and error of first malformed envelope.
+	 *
+	 * @return Description of first malformed envelope, null if all envelopes are valid.
+	 */
+	public String getFirstMalformed() {
+		return firstMalformed;
+	}
+
+	/**
+	 * Get number of bytes read.
+	 *
+	 * @return Number of bytes.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Get duration of validation.
+	 *
+	 * @param unit Unit of result.
+	 * @return Duration.
+	 */
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get number of envelopes (valid or malformed) validated per second.
+	 *
+	 * @return Throughput.
+	 */
+	public double getEnvelopesPerSecond() {
+		return elapsedNanos == 0 ? 0 : (envelopes + malformed) * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * Get number of megabytes validated per second.
+	 *
+	 * @return Throughput.
+	 */
+	public double getMegabytesPerSecond() {
+		return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos / (1024 * 1024);
+	}
+
+	/**
+	 * Get names of rules, in order of registration.
+	 *
+	 * @return Names of rules.
+	 */
+	public List<String> getRules() {
+		return Collections.unmodifiableList(new ArrayList<String>(rules.keySet()));
+	}
+
+	/**
+	 * Get number of envelopes violating a rule.
+	 *
+	 * @param rule Name of rule.
+	 * @return Number of violations.
+	 */
+	public long getViolations(String rule) {
+		return find(rule).count;
+	}
+
+	/**
+	 * Get number of envelopes of an endpoint violating a rule.
+	 *
+	 * @param rule Name of rule.
+	 * @param endpoint Endpoint, such as "GET /users/{id}".
+	 * @return Number of violations.
+	 */
+	public long getViolations(String rule, String endpoint) {
+		Long count = find(rule).endpoints.get(endpoint);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Get number of violations of a rule, per endpoint.
+	 *
+	 * @param rule Name of rule.
+	 * @return Number of violations, indexed by endpoint, sorted by endpoint.
+	 */
+	public Map<String, Long> getViolationsByEndpoint(String rule) {
+		return Collections.unmodifiableMap(find(rule).endpoints);
+	}
+
+	/**
+	 * Get location and error of first violation of a rule.
+	 *
+	 * @param rule Name of rule.
+	 * @return Description of first violation, null if rule has not been violated.
+	 */
+	public String getFirstViolation(String rule) {
+		return find(rule).first;
+	}
+
+	/**
+	 * Check if all envelopes are valid and satisfy all rules.
+	 *
+	 * @return True if validation succeeded.
+	 */
+	public boolean isSuccess() {
+		if (malformed > 0) {
+			return false;
+		}
+		for (RuleViolations violations : rules.values()) {
+			if (violations.count > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Fail if an envelope is malformed or does not satisfy a rule.
+	 */
+	public void assertSuccess() {
+		if (isSuccess()) {
+			return;
+		}
+
+		StringBuilder msg = new StringBuilder(String.format("Expected all <%s> envelopes to satisfy rules but:", envelopes + malformed));
+		if (malformed > 0) {
+			msg.append(String.format("\n - <%s> envelopes are malformed, first at %s", malformed, firstMalformed));
+		}
+		for (Map.Entry<String, RuleViolations> entry : rules.entrySet()) {
+			RuleViolations violations = entry.getValue();
+			if (violations.count > 0) {
+				msg.append(String.format("\n - <%s> envelopes failed <%s>, first at %s", violations.count, entry.getKey(), violations.first));
+			}
+		}
+		throw new AssertionError(msg.toString());
+	}
+
+	/**
+	 * Print human readable summary: throughput, then violations of each rule per endpoint.
+	 *
+	 * @param out Output.
+	 */
+	public void print(PrintStream out) {
+		out.println(String.format(Locale.US, "Validated %d envelopes (%d malformed) from %d files, %.1f MB in %.2f s: %.0f envelopes/s, %.1f MB/s",
+				envelopes + malformed, malformed, sources, bytes / (1024.0 * 1024.0), elapsedNanos / 1e9,
+				getEnvelopesPerSecond(), getMegabytesPerSecond()));
+		if (firstMalformed != null) {
+			out.println("Malformed, first at " + firstMalformed);
+		}
+		for (Map.Entry<String, RuleViolations> entry : rules.entrySet()) {
+			RuleViolations violations = entry.getValue();
+			out.println(String.format("Rule %s: %d violations", entry.getKey(), violations.count));
+			for (Map.Entry<String, Long> endpoint : violations.endpoints.entrySet()) {
+				out.println(String.format("    %s: %d", endpoint.getKey(), endpoint.getValue()));
+			}
+			if (violations.first != null) {
+				out.println("    first at " + violations.first);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationReport{envelopes=" + envelopes + ", malformed=" + malformed + ", rules=" + rules + "}";
+	}
+
+	private RuleViolations find(String rule) {
+		RuleViolations violations = rules.get(rule);
+		if (violations == null) {
+			throw new IllegalArgumentException("Unknown rule " + rule);
+		}
+		return violations;
+	}
+
+	private static class RuleViolations {
+		private long count;
+		private final Map<String, Long> endpoints = new TreeMap<String, Long>();
+		private String first;
+
+		@Override
+		public String toString() {
+			return String.valueOf(count);
+		}
+	}
+
+	/**
+	 * Results of a part of a source, only used by the thread validating this part.
+	 * Lines are numbered from the beginning of the part, starting at 1.
+	 */
+	static final class Partial {
+		private long envelopes;
+		private long malformed;
+		private long firstMalformedLine;
+		private String firstMalformed;
+		private final Tally[] tallies;
+
+		Partial(int rules) {
+			tallies = new Tally[rules];
+			for (int i = 0; i < rules; i++) {
+				tallies[i] = new Tally();
+			}
+		}
+
+		void envelope() {
+			envelopes++;
+		}
+
+		void malformed(long line, String error) {
+			if (malformed++ == 0) {
+				firstMalformedLine = line;
+				firstMalformed = error;
+			}
+		}
+
+		void violation(int rule, String endpoint, long line, String error) {
+			Tally tally = tallies[rule];
+			if (tally.count++ == 0) {
+				tally.firstLine = line;
+				tally.first = error;
+			}
+			long[] count = tally.endpoints.get(endpoint);
+			if (count == null) {
+				tally.endpoints.put(endpoint, new long[]{1});
+			}
+			else {
+				count[0]++;
+			}
+		}
+
+		private static final class Tally {
+			private long count;
+			private long firstLine;
+			private String first;
+			private final Map<String, long[]> endpoints = new HashMap<String, long[]>();
+		}
+	}
+}
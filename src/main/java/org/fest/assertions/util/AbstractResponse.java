@@ -0,0 +1,210 @@
+package org.fest.assertions.util;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skeleton of {@link Response} implementations.
+ * Content type, headers, cookies and body are read from the underlying response
+ * the first time they are requested, and then kept for subsequent calls.
+ */
+public abstract class AbstractResponse implements Response {
+
+	/** Parsed Content-Type, null until first access */
+	private MediaType mediaType;
+
+	/** Case insensitive index of headers, null until first access */
+	private HttpHeaders headerIndex;
+
+	/** Headers contained in response, null until first access */
+	private Map<String, String> headers;
+
+	/** Cookies stored in response, null until first access */
+	private List<Cookie> cookies;
+
+	/** Cookies indexed by name, null until first access */
+	private CookieTable cookieTable;
+
+	/** Body of response, null until first access */
+	private ResponseBody body;
+
+	/** Bodies larger than this threshold are spilled to disk */
+	private int memoryThreshold = ResponseBody.DEFAULT_MEMORY_THRESHOLD;
+
+	/** Response time, negative if it is not known */
+	private final long responseTimeNanos;
+
+	/** Time to first byte, negative if it is not known */
+	private final long timeToFirstByteNanos;
+
+	protected AbstractResponse() {
+		this(-1);
+	}
+
+	/**
+	 * Create response whose response time has been measured.
+	 *
+	 * @param responseTimeNanos Response time, in nanoseconds.
+	 */
+	protected AbstractResponse(long responseTimeNanos) {
+		this(responseTimeNanos, -1);
+	}
+
+	/**
+	 * Create response whose response time and time to first byte have been measured.
+	 *
+	 * @param responseTimeNanos Response time, in nanoseconds.
+	 * @param timeToFirstByteNanos Time to first byte, in nanoseconds, negative if it is not known.
+	 */
+	protected AbstractResponse(long responseTimeNanos, long timeToFirstByteNanos) {
+		this.responseTimeNanos = responseTimeNanos;
+		this.timeToFirstByteNanos = timeToFirstByteNanos;
+	}
+
+	@Override
+	public long getResponseTime(TimeUnit unit) {
+		return responseTimeNanos < 0 ? -1 : unit.convert(responseTimeNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public long getTimeToFirstByte(TimeUnit unit) {
+		return timeToFirstByteNanos < 0 ? -1 : unit.convert(timeToFirstByteNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public MediaType getMediaType() {
+		if (mediaType == null) {
+			mediaType = MediaType.parse(getContentType());
+		}
+		return mediaType;
+	}
+
+	@Override
+	public Map<String, String> getHeaders() {
+		if (headers == null) {
+			headers = getHeaderIndex().toMap();
+		}
+		return headers;
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return getHeaderIndex().getFirst(name);
+	}
+
+	@Override
+	public List<String> getHeaderValues(String name) {
+		return getHeaderIndex().getAll(name);
+	}
+
+	@Override
+	public List<Cookie> getCookies() {
+		if (cookies == null) {
+			cookies = readCookies();
+		}
+		return cookies;
+	}
+
+	@Override
+	public Cookie getCookie(String cookieName) {
+		return getCookieTable().get(cookieName);
+	}
+
+	@Override
+	public List<Cookie> getCookies(String cookieName) {
+		return getCookieTable().getAll(cookieName);
+	}
+
+	@Override
+	public ResponseBody getBody() {
+		if (body == null) {
+			try {
+				body = readBody(ResponseBody.charsetOf(getMediaType()));
+			}
+			catch (IOException ex) {
+				throw new AssertionError("Cannot read body from response", ex);
+			}
+		}
+		return body;
+	}
+
+	/**
+	 * Keep body in memory whatever its size, instead of spilling large bodies to a temporary file.
+	 * Used for responses wrapped by assertions that are never closed. Must be called before body is read.
+	 *
+	 * @return This response.
+	 */
+	public AbstractResponse keepBodyInMemory() {
+		memoryThreshold = Integer.MAX_VALUE;
+		return this;
+	}
+
+	@Override
+	public void close() {
+		if (body != null) {
+			body.close();
+		}
+	}
+
+	/**
+	 * Get maximum number of bytes of body kept in memory, for implementations reading body from a stream.
+	 *
+	 * @return Memory threshold (see {@link ResponseBody#read(java.io.InputStream, Charset, int)}).
+	 */
+	protected int getMemoryThreshold() {
+		return memoryThreshold;
+	}
+
+	/**
+	 * Get case insensitive index of headers, build it on first access.
+	 *
+	 * @return Header index.
+	 */
+	protected HttpHeaders getHeaderIndex() {
+		if (headerIndex == null) {
+			HttpHeaders index = new HttpHeaders();
+			readHeaders(index);
+			headerIndex = index;
+		}
+		return headerIndex;
+	}
+
+	/**
+	 * Get index of cookies, build it on first access.
+	 *
+	 * @return Cookie table.
+	 */
+	protected CookieTable getCookieTable() {
+		if (cookieTable == null) {
+			cookieTable = CookieTable.of(getCookies());
+		}
+		return cookieTable;
+	}
+
+	/**
+	 * Read all headers of underlying response.
+	 *
+	 * @param headers Index where headers must be added.
+	 */
+	protected abstract void readHeaders(HttpHeaders headers);
+
+	/**
+	 * Read all cookies of underlying response.
+	 *
+	 * @return Cookies of response.
+	 */
+	protected abstract List<Cookie> readCookies();
+
+	/**
+	 * Read body of underlying response.
+	 * This method is called once, so underlying stream can be consumed.
+	 *
+	 * @param charset Charset defined in Content-Type.
+	 * @return Body of response.
+	 * @throws IOException If body cannot be read.
+	 */
+	protected abstract ResponseBody readBody(Charset charset) throws IOException;
+}
@@ -0,0 +1,92 @@
+package org.fest.assertions.util;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flyweight view of a {@link org.apache.http.HttpResponse} object.
+ * Nothing is copied at construction: headers are only converted when they are requested,
+ * cookies are parsed from Set-Cookie headers on first access, and entity is consumed when body is requested.
+ */
+public class ApacheHttpResponse extends AbstractResponse {
+
+	/** Original response */
+	private final org.apache.http.HttpResponse response;
+
+	public ApacheHttpResponse(org.apache.http.HttpResponse response) {
+		this.response = response;
+	}
+
+	/**
+	 * Create view of a response whose response time and time to first byte have been measured.
+	 * With a blocking client, {@code execute} returns once status line and headers are received:
+	 * time elapsed until then is the time to first byte, and time elapsed until entity is consumed is the response time.
+	 *
+	 * @param response Original response.
+	 * @param responseTimeNanos Response time, in nanoseconds.
+	 * @param timeToFirstByteNanos Time to first byte, in nanoseconds.
+	 */
+	public ApacheHttpResponse(org.apache.http.HttpResponse response, long responseTimeNanos, long timeToFirstByteNanos) {
+		super(responseTimeNanos, timeToFirstByteNanos);
+		this.response = response;
+	}
+
+	@Override
+	public int getStatusCode() {
+		return response.getStatusLine().getStatusCode();
+	}
+
+	@Override
+	public String getContentType() {
+		HttpEntity entity = response.getEntity();
+		Header contentType = entity == null ? null : entity.getContentType();
+		if (contentType == null) {
+			contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+		}
+		return contentType == null ? null : contentType.getValue();
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders headers) {
+		for (Header header : response.getAllHeaders()) {
+			headers.add(header.getName(), header.getValue());
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		List<String> headers = getHeaderValues(HttpHeaders.SET_COOKIE);
+		List<Cookie> cookies = new ArrayList<Cookie>(headers.size());
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			Cookie cookie = SetCookieParser.parse(headers.get(i));
+			if (cookie != null) {
+				cookies.add(cookie);
+			}
+		}
+		return cookies;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) throws IOException {
+		HttpEntity entity = response.getEntity();
+		if (entity == null) {
+			return ResponseBody.empty(charset);
+		}
+
+		InputStream in = entity.getContent();
+		try {
+			return ResponseBody.read(in, charset, getMemoryThreshold());
+		}
+		finally {
+			if (in != null) {
+				in.close();
+			}
+		}
+	}
+}
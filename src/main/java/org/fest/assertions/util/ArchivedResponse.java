@@ -0,0 +1,124 @@
+package org.fest.assertions.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Response replayed from a {@link ResponseArchive}.
+ * Only status code, response time and time to first byte are read at construction: content type, headers, cookies and body
+ * are decoded from the mapped archive when they are first requested.
+ */
+final class ArchivedResponse extends AbstractResponse {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/** Mapped segment of archive, only read with absolute methods or through duplicates */
+	private final ByteBuffer segment;
+
+	/** Position of record in segment */
+	private final int position;
+
+	private final int statusCode;
+
+	private String contentType;
+
+	private boolean contentTypeRead;
+
+	ArchivedResponse(ByteBuffer segment, int position) {
+		super(segment.getLong(position + 4), segment.getLong(position + 12));
+		this.segment = segment;
+		this.position = position;
+		this.statusCode = segment.getInt(position);
+	}
+
+	@Override
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	@Override
+	public String getContentType() {
+		if (!contentTypeRead) {
+			contentType = readString(position + ResponseArchive.CONTENT_TYPE_OFFSET);
+			contentTypeRead = true;
+		}
+		return contentType;
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders headers) {
+		int offset = position + segment.getInt(position + ResponseArchive.HEADERS_OFFSET);
+		int count = segment.getInt(offset);
+		offset += 4;
+		for (int i = 0; i < count; i++) {
+			String name = readString(offset);
+			offset += stringLength(offset);
+			String value = readString(offset);
+			offset += stringLength(offset);
+			headers.add(name, value);
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		int offset = position + segment.getInt(position + ResponseArchive.COOKIES_OFFSET);
+		int count = segment.getInt(offset);
+		offset += 4;
+
+		List<Cookie> cookies = new ArrayList<Cookie>(count);
+		for (int i = 0; i < count; i++) {
+			String name = readString(offset);
+			offset += stringLength(offset);
+			String value = readString(offset);
+			offset += stringLength(offset);
+			String domain = readString(offset);
+			offset += stringLength(offset);
+			String path = readString(offset);
+			offset += stringLength(offset);
+			byte expiryKind = segment.get(offset);
+			long expiry = segment.getLong(offset + 1);
+			boolean secure = segment.get(offset + 9) != 0;
+			boolean httpOnly = segment.get(offset + 10) != 0;
+			offset += 11;
+
+			if (expiryKind == ResponseArchive.MAX_AGE) {
+				cookies.add(new Cookie(name, value, domain, path, (int) expiry, secure, httpOnly));
+			}
+			else {
+				cookies.add(new Cookie(name, value, domain, path, expiry < 0 ? null : new Date(expiry), secure, httpOnly));
+			}
+		}
+		return cookies;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) {
+		int offset = position + segment.getInt(position + ResponseArchive.BODY_OFFSET);
+		byte[] body = new byte[segment.getInt(offset)];
+		read(offset + 4, body);
+		return ResponseBody.of(body, charset);
+	}
+
+	private String readString(int offset) {
+		int length = segment.getInt(offset);
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		read(offset + 4, bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private int stringLength(int offset) {
+		return 4 + Math.max(0, segment.getInt(offset));
+	}
+
+	private void read(int offset, byte[] dst) {
+		ByteBuffer view = segment.duplicate();
+		view.position(offset);
+		view.get(dst);
+	}
+}
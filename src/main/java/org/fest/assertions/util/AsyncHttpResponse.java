@@ -0,0 +1,93 @@
+package org.fest.assertions.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flyweight view of a {@link com.ning.http.client.Response} object.
+ * Nothing is copied at construction: headers, cookies and body are only converted
+ * when they are requested.
+ */
+public class AsyncHttpResponse extends AbstractResponse {
+
+	/** Original response */
+	private final com.ning.http.client.Response response;
+
+	public AsyncHttpResponse(com.ning.http.client.Response response) {
+		this.response = response;
+	}
+
+	/**
+	 * Create view of a response whose response time has been measured.
+	 *
+	 * @param response Original response.
+	 * @param responseTimeNanos Response time, in nanoseconds.
+	 */
+	public AsyncHttpResponse(com.ning.http.client.Response response, long responseTimeNanos) {
+		super(responseTimeNanos);
+		this.response = response;
+	}
+
+	/**
+	 * Create view of a response whose response time and time to first byte have been measured.
+	 *
+	 * @param response Original response.
+	 * @param responseTimeNanos Response time, in nanoseconds.
+	 * @param timeToFirstByteNanos Time to first byte, in nanoseconds.
+	 */
+	public AsyncHttpResponse(com.ning.http.client.Response response, long responseTimeNanos, long timeToFirstByteNanos) {
+		super(responseTimeNanos, timeToFirstByteNanos);
+		this.response = response;
+	}
+
+	@Override
+	public int getStatusCode() {
+		return response.getStatusCode();
+	}
+
+	@Override
+	public String getContentType() {
+		return response.getContentType();
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders headers) {
+		for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+			String name = header.getKey();
+			for (String value : header.getValue()) {
+				headers.add(name, value);
+			}
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		List<com.ning.http.client.Cookie> asyncCookies = response.getCookies();
+		List<Cookie> cookies = new ArrayList<Cookie>(asyncCookies.size());
+		for (com.ning.http.client.Cookie cookie : asyncCookies) {
+			cookies.add(new Cookie(cookie));
+		}
+		return cookies;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) throws IOException {
+		if (!response.hasResponseBody()) {
+			return ResponseBody.empty(charset);
+		}
+
+		InputStream in = response.getResponseBodyAsStream();
+		try {
+			return ResponseBody.read(in, charset, getMemoryThreshold());
+		}
+		finally {
+			if (in != null) {
+				in.close();
+			}
+		}
+	}
+}
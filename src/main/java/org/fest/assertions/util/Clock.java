@@ -0,0 +1,48 @@
+package org.fest.assertions.util;
+
+/**
+ * Source of current time.
+ * Cookie expiry is computed with a clock so that tests can simulate
+ * the passing of time instead of waiting for it.
+ */
+public abstract class Clock {
+
+	/** Clock reading system time */
+	private static final Clock SYSTEM = new Clock() {
+		@Override
+		public long currentTimeMillis() {
+			return System.currentTimeMillis();
+		}
+	};
+
+	/**
+	 * Get clock reading system time.
+	 *
+	 * @return System clock.
+	 */
+	public static Clock system() {
+		return SYSTEM;
+	}
+
+	/**
+	 * Get clock always returning the same time.
+	 *
+	 * @param currentTimeMillis Time returned by clock.
+	 * @return Fixed clock.
+	 */
+	public static Clock fixed(final long currentTimeMillis) {
+		return new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return currentTimeMillis;
+			}
+		};
+	}
+
+	/**
+	 * Get current time.
+	 *
+	 * @return Number of milliseconds since epoch.
+	 */
+	public abstract long currentTimeMillis();
+}
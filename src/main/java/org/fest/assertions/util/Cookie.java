@@ -13,6 +13,9 @@ public class Cookie {
 	private boolean secure;
 	private boolean httpOnly;
 
+	/** True if expiry date has been computed from max age */
+	private boolean expiryFromMaxAge;
+
 	private Cookie() {
 	}
 
@@ -37,6 +40,10 @@ public class Cookie {
 	}
 
 	public Cookie(String name, String value, String domain, String path, int maxAge, boolean secure, boolean httpOnly) {
+		this(name, value, domain, path, maxAge, secure, httpOnly, Clock.system());
+	}
+
+	public Cookie(String name, String value, String domain, String path, int maxAge, boolean secure, boolean httpOnly, Clock clock) {
 		this.name = name;
 		this.value = value;
 		this.domain = domain;
@@ -45,12 +52,18 @@ public class Cookie {
 		this.secure = secure;
 		this.httpOnly = httpOnly;
 
+		this.expiryFromMaxAge = maxAge >= 0;
+
 		if (maxAge > 0) {
-			expiryDate = new Date(System.currentTimeMillis() + maxAge * 1000L);
+			expiryDate = new Date(clock.currentTimeMillis() + maxAge * 1000L);
 		}
 	}
 
 	public Cookie(String name, String value, String domain, String path, Date expiryDate, boolean secure, boolean httpOnly) {
+		this(name, value, domain, path, expiryDate, secure, httpOnly, Clock.system());
+	}
+
+	public Cookie(String name, String value, String domain, String path, Date expiryDate, boolean secure, boolean httpOnly, Clock clock) {
 		this.name = name;
 		this.value = value;
 		this.domain = domain;
@@ -59,7 +72,7 @@ public class Cookie {
 		this.secure = secure;
 		this.httpOnly = httpOnly;
 
-		maxAge = expiryDate == null ? - 1 : expiryDate.getTime() - System.currentTimeMillis();
+		maxAge = expiryDate == null ? - 1 : expiryDate.getTime() - clock.currentTimeMillis();
 	}
 
 	public String getName() {
@@ -93,4 +106,29 @@ public class Cookie {
 	public Date getExpiryDate() {
 		return expiryDate == null ? null : new Date(expiryDate.getTime());
 	}
+
+	/**
+	 * Check if cookie is expired at a given time.
+	 * A cookie with a max age equal to zero is always expired, a cookie
+	 * without expiry date (a.k.a session cookie) never expires.
+	 *
+	 * @param currentTimeMillis Current time, in milliseconds since epoch.
+	 * @return True if cookie is expired, false otherwise.
+	 */
+	public boolean isExpired(long currentTimeMillis) {
+		if (expiryFromMaxAge && maxAge == 0) {
+			return true;
+		}
+		return expiryDate != null && expiryDate.getTime() <= currentTimeMillis;
+	}
+
+	/**
+	 * Check if expiry of cookie is defined by a max age (in seconds)
+	 * rather than by an expiry date.
+	 *
+	 * @return True if max age is defined, false otherwise.
+	 */
+	boolean isExpiryFromMaxAge() {
+		return expiryFromMaxAge;
+	}
 }
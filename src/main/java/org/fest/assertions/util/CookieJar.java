@@ -0,0 +1,405 @@
+package org.fest.assertions.util;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cookie store following the storage model of RFC 6265 (section 5.3),
+ * used to check which cookies are sent along a flow of requests.
+ * Cookies are indexed in a trie of domain labels (stored from top level
+ * domain to host name) and, for each domain, by path: selecting cookies
+ * for a request only visits the domain suffixes of the request host and
+ * the path prefixes of the request path.
+ * Expiry is computed with a {@link Clock} so that flows can be replayed
+ * with a simulated time.
+ * Public suffixes are not checked: a cookie may be set for a top level domain.
+ * Methods are thread safe.
+ */
+public class CookieJar {
+
+	/** Order in which cookies are sent: longer paths first, then older cookies first */
+	private static final Comparator<StoredCookie> SEND_ORDER = new Comparator<StoredCookie>() {
+		@Override
+		public int compare(StoredCookie c1, StoredCookie c2) {
+			int length1 = c1.path.length();
+			int length2 = c2.path.length();
+			if (length1 != length2) {
+				return length1 > length2 ? -1 : 1;
+			}
+			return c1.creation < c2.creation ? -1 : (c1.creation == c2.creation ? 0 : 1);
+		}
+	};
+
+	/** Clock used to compute expiry of cookies */
+	private final Clock clock;
+
+	/** Root of domain trie (matches no domain) */
+	private final DomainNode root;
+
+	/** Number of stored cookies */
+	private int size;
+
+	/** Sequence used to order cookies by creation */
+	private long sequence;
+
+	public CookieJar() {
+		this(Clock.system());
+	}
+
+	public CookieJar(Clock clock) {
+		this.clock = clock;
+		this.root = new DomainNode();
+	}
+
+	/**
+	 * Store all cookies of a response.
+	 *
+	 * @param requestUrl Url of request that received the response.
+	 * @param response Response.
+	 * @return {@code this} the cookie jar.
+	 */
+	public CookieJar store(String requestUrl, Response response) {
+		for (Cookie cookie : response.getCookies()) {
+			store(requestUrl, cookie);
+		}
+		return this;
+	}
+
+	/**
+	 * Store a cookie received from a request.
+	 * Cookie is ignored if its domain does not match request host. A cookie
+	 * that is already expired removes the stored cookie with the same name,
+	 * domain and path.
+	 *
+	 * @param requestUrl Url of request that received the cookie.
+	 * @param cookie Cookie.
+	 * @return {@code this} the cookie jar.
+	 */
+	public synchronized CookieJar store(String requestUrl, Cookie cookie) {
+		URI uri = URI.create(requestUrl);
+		String host = host(uri);
+
+		String domain = cookie.getDomain();
+		boolean hostOnly = domain == null || domain.isEmpty();
+		if (hostOnly) {
+			domain = host;
+		}
+		else {
+			domain = domain.startsWith(".") ? domain.substring(1).toLowerCase() : domain.toLowerCase();
+			if (!domainMatch(host, domain)) {
+				return this;
+			}
+		}
+
+		String path = cookie.getPath();
+		if (path == null || !path.startsWith("/")) {
+			path = defaultPath(uri.getRawPath());
+		}
+
+		long now = clock.currentTimeMillis();
+		long expiresAt = expiresAt(cookie, now);
+
+		Map<String, StoredCookie> cookies = node(domain, true).cookies(path, true);
+		StoredCookie previous = cookies.remove(cookie.getName());
+		if (previous != null) {
+			size--;
+		}
+
+		if (expiresAt > now) {
+			// Keep creation time of replaced cookie (RFC 6265, section 5.3, step 11)
+			long creation = previous == null ? sequence++ : previous.creation;
+			cookies.put(cookie.getName(), new StoredCookie(cookie, path, hostOnly, creation, expiresAt));
+			size++;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Get cookies that will be sent with a request.
+	 *
+	 * @param requestUrl Url of request.
+	 * @return Cookies, in the order they would appear in the Cookie header.
+	 */
+	public synchronized List<Cookie> getCookies(String requestUrl) {
+		List<StoredCookie> matches = select(URI.create(requestUrl));
+		List<Cookie> cookies = new ArrayList<Cookie>(matches.size());
+		for (StoredCookie match : matches) {
+			cookies.add(match.cookie);
+		}
+		return cookies;
+	}
+
+	/**
+	 * Get cookie that will be sent with a request.
+	 *
+	 * @param requestUrl Url of request.
+	 * @param name Name of cookie.
+	 * @return Cookie, null if cookie will not be sent.
+	 */
+	public Cookie getCookie(String requestUrl, String name) {
+		for (Cookie cookie : getCookies(requestUrl)) {
+			if (cookie.getName().equals(name)) {
+				return cookie;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get value of Cookie header that will be sent with a request.
+	 *
+	 * @param requestUrl Url of request.
+	 * @return Header value, null if no cookie will be sent.
+	 */
+	public String getCookieHeader(String requestUrl) {
+		List<Cookie> cookies = getCookies(requestUrl);
+		if (cookies.isEmpty()) {
+			return null;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (Cookie cookie : cookies) {
+			if (sb.length() > 0) {
+				sb.append("; ");
+			}
+			sb.append(cookie.getName()).append('=').append(cookie.getValue());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Get number of stored cookies (including expired cookies that have
+	 * not been evicted yet).
+	 *
+	 * @return Number of cookies.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Remove expired cookies.
+	 *
+	 * @return {@code this} the cookie jar.
+	 */
+	public synchronized CookieJar removeExpired() {
+		size -= root.removeExpired(clock.currentTimeMillis());
+		return this;
+	}
+
+	/**
+	 * Remove all cookies.
+	 *
+	 * @return {@code this} the cookie jar.
+	 */
+	public synchronized CookieJar clear() {
+		root.children.clear();
+		root.paths.clear();
+		size = 0;
+		return this;
+	}
+
+	private List<StoredCookie> select(URI uri) {
+		String host = host(uri);
+		String path = uri.getRawPath();
+		if (path == null || path.isEmpty()) {
+			path = "/";
+		}
+		boolean secure = "https".equalsIgnoreCase(uri.getScheme()) || "wss".equalsIgnoreCase(uri.getScheme());
+		long now = clock.currentTimeMillis();
+
+		List<StoredCookie> matches = new ArrayList<StoredCookie>();
+		if (isIpAddress(host)) {
+			DomainNode node = root.children.get(host);
+			if (node != null) {
+				collect(node, true, path, secure, now, matches);
+			}
+		}
+		else {
+			// Visit each domain suffix of host, from top level domain to host
+			DomainNode node = root;
+			int end = host.length();
+			while (node != null && end > 0) {
+				int dot = host.lastIndexOf('.', end - 1);
+				node = node.children.get(host.substring(dot + 1, end));
+				if (node != null) {
+					collect(node, dot < 0, path, secure, now, matches);
+				}
+				end = dot;
+			}
+		}
+
+		Collections.sort(matches, SEND_ORDER);
+		return matches;
+	}
+
+	private void collect(DomainNode node, boolean exactHost, String path, boolean secure, long now, List<StoredCookie> matches) {
+		if (node.paths.isEmpty()) {
+			return;
+		}
+
+		// Visit each path prefix that path-matches request path (RFC 6265, section 5.1.4)
+		int length = path.length();
+		for (int i = 1; i <= length; i++) {
+			if (i == length || path.charAt(i) == '/' || path.charAt(i - 1) == '/') {
+				Map<String, StoredCookie> cookies = node.cookies(path.substring(0, i), false);
+				if (cookies == null) {
+					continue;
+				}
+
+				Iterator<StoredCookie> it = cookies.values().iterator();
+				while (it.hasNext()) {
+					StoredCookie cookie = it.next();
+					if (cookie.expiresAt <= now) {
+						it.remove();
+						size--;
+					}
+					else if ((exactHost || !cookie.hostOnly) && (secure || !cookie.cookie.isSecure())) {
+						matches.add(cookie);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find node of a domain in trie.
+	 *
+	 * @param domain Domain name, in lower case.
+	 * @param create True to create missing nodes.
+	 * @return Node, null if node does not exist and create is false.
+	 */
+	private DomainNode node(String domain, boolean create) {
+		if (isIpAddress(domain)) {
+			return root.child(domain, create);
+		}
+
+		DomainNode node = root;
+		int end = domain.length();
+		while (node != null && end > 0) {
+			int dot = domain.lastIndexOf('.', end - 1);
+			node = node.child(domain.substring(dot + 1, end), create);
+			end = dot;
+		}
+		return node;
+	}
+
+	private static long expiresAt(Cookie cookie, long now) {
+		if (cookie.isExpiryFromMaxAge()) {
+			long maxAge = cookie.getMaxAge();
+			return maxAge == 0 ? Long.MIN_VALUE : now + maxAge * 1000L;
+		}
+		return cookie.getExpiryDate() == null ? Long.MAX_VALUE : cookie.getExpiryDate().getTime();
+	}
+
+	private static String host(URI uri) {
+		String host = uri.getHost();
+		if (host == null) {
+			throw new IllegalArgumentException("Url must be absolute: " + uri);
+		}
+		return host.toLowerCase();
+	}
+
+	/**
+	 * Check if a host domain-matches a domain (RFC 6265, section 5.1.3).
+	 */
+	private static boolean domainMatch(String host, String domain) {
+		if (host.equals(domain)) {
+			return true;
+		}
+		return !isIpAddress(host)
+				&& host.endsWith(domain)
+				&& host.charAt(host.length() - domain.length() - 1) == '.';
+	}
+
+	/**
+	 * Compute default path of a cookie (RFC 6265, section 5.1.4).
+	 */
+	private static String defaultPath(String requestPath) {
+		if (requestPath == null || !requestPath.startsWith("/")) {
+			return "/";
+		}
+		int slash = requestPath.lastIndexOf('/');
+		return slash == 0 ? "/" : requestPath.substring(0, slash);
+	}
+
+	private static boolean isIpAddress(String host) {
+		if (host.indexOf(':') >= 0 || host.startsWith("[")) {
+			return true;
+		}
+		for (int i = 0, length = host.length(); i < length; i++) {
+			char c = host.charAt(i);
+			if (c != '.' && (c < '0' || c > '9')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Node of domain trie: cookies stored for a domain, indexed by path and then by name.
+	 */
+	private static final class DomainNode {
+		private final Map<String, DomainNode> children = new HashMap<String, DomainNode>(4);
+		private final Map<String, Map<String, StoredCookie>> paths = new HashMap<String, Map<String, StoredCookie>>(4);
+
+		private DomainNode child(String label, boolean create) {
+			DomainNode child = children.get(label);
+			if (child == null && create) {
+				child = new DomainNode();
+				children.put(label, child);
+			}
+			return child;
+		}
+
+		private Map<String, StoredCookie> cookies(String path, boolean create) {
+			Map<String, StoredCookie> cookies = paths.get(path);
+			if (cookies == null && create) {
+				cookies = new LinkedHashMap<String, StoredCookie>(4);
+				paths.put(path, cookies);
+			}
+			return cookies;
+		}
+
+		private int removeExpired(long now) {
+			int removed = 0;
+			for (Map<String, StoredCookie> cookies : paths.values()) {
+				Iterator<StoredCookie> it = cookies.values().iterator();
+				while (it.hasNext()) {
+					if (it.next().expiresAt <= now) {
+						it.remove();
+						removed++;
+					}
+				}
+			}
+			for (DomainNode child : children.values()) {
+				removed += child.removeExpired(now);
+			}
+			return removed;
+		}
+	}
+
+	private static final class StoredCookie {
+		private final Cookie cookie;
+		private final String path;
+		private final boolean hostOnly;
+		private final long creation;
+		private final long expiresAt;
+
+		private StoredCookie(Cookie cookie, String path, boolean hostOnly, long creation, long expiresAt) {
+			this.cookie = cookie;
+			this.path = path;
+			this.hostOnly = hostOnly;
+			this.creation = creation;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
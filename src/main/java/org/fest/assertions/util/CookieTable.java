@@ -0,0 +1,187 @@
+package org.fest.assertions.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of cookies by name (case insensitive).
+ * A response may contain several cookies with the same name (for example
+ * with different paths, or a deleted cookie immediately set again): all of
+ * them are kept, in the order they were received, and lookups by name
+ * return the last one since it supersedes previous ones.
+ * This class is not thread safe while cookies are added.
+ */
+public final class CookieTable {
+
+	/** Open addressing table, size is always a power of two */
+	private Entry[] table;
+
+	/** Number of distinct cookie names */
+	private int size;
+
+	/** Cookies in insertion order */
+	private final List<Cookie> cookies;
+
+	public CookieTable() {
+		this(8);
+	}
+
+	/**
+	 * Create an empty table.
+	 *
+	 * @param expectedSize Expected number of cookies.
+	 */
+	public CookieTable(int expectedSize) {
+		int capacity = 4;
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		this.table = new Entry[capacity];
+		this.cookies = new ArrayList<Cookie>(expectedSize);
+	}
+
+	/**
+	 * Create table from a list of cookies.
+	 *
+	 * @param cookies Cookies.
+	 * @return Cookie table.
+	 */
+	public static CookieTable of(List<Cookie> cookies) {
+		CookieTable table = new CookieTable(cookies.size());
+		for (int i = 0, size = cookies.size(); i < size; i++) {
+			table.add(cookies.get(i));
+		}
+		return table;
+	}
+
+	/**
+	 * Add a cookie.
+	 *
+	 * @param cookie Cookie.
+	 * @return {@code this} the cookie table.
+	 */
+	public CookieTable add(Cookie cookie) {
+		String name = cookie.getName();
+		int hash = HttpHeaders.hash(name);
+		Entry entry = find(name, hash);
+		if (entry == null) {
+			if ((size + 1) * 2 > table.length) {
+				resize();
+			}
+			entry = new Entry(name, hash);
+			insert(table, entry);
+			size++;
+		}
+		entry.add(cookie);
+		cookies.add(cookie);
+		return this;
+	}
+
+	/**
+	 * Get cookie by its name.
+	 * If several cookies have the same name, the last one is returned.
+	 *
+	 * @param name Cookie name (case insensitive).
+	 * @return Cookie, null if cookie does not exist.
+	 */
+	public Cookie get(String name) {
+		Entry entry = find(name, HttpHeaders.hash(name));
+		return entry == null ? null : entry.last;
+	}
+
+	/**
+	 * Get all cookies with a given name, in the order they were received.
+	 *
+	 * @param name Cookie name (case insensitive).
+	 * @return Read-only list of cookies, empty if cookie does not exist.
+	 */
+	public List<Cookie> getAll(String name) {
+		Entry entry = find(name, HttpHeaders.hash(name));
+		return entry == null ? Collections.<Cookie>emptyList() : entry.values();
+	}
+
+	/**
+	 * Get all cookies, in the order they were received.
+	 *
+	 * @return Read-only list of cookies.
+	 */
+	public List<Cookie> getCookies() {
+		return Collections.unmodifiableList(cookies);
+	}
+
+	/**
+	 * Get number of cookies.
+	 *
+	 * @return Number of cookies.
+	 */
+	public int size() {
+		return cookies.size();
+	}
+
+	private Entry find(String name, int hash) {
+		int mask = table.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			Entry entry = table[i];
+			if (entry == null) {
+				return null;
+			}
+			if (entry.hash == hash && HttpHeaders.equalsIgnoreCase(entry.name, name)) {
+				return entry;
+			}
+		}
+	}
+
+	private void resize() {
+		Entry[] newTable = new Entry[table.length * 2];
+		for (Entry entry : table) {
+			if (entry != null) {
+				insert(newTable, entry);
+			}
+		}
+		table = newTable;
+	}
+
+	private static void insert(Entry[] table, Entry entry) {
+		int mask = table.length - 1;
+		int i = entry.hash & mask;
+		while (table[i] != null) {
+			i = (i + 1) & mask;
+		}
+		table[i] = entry;
+	}
+
+	private static final class Entry {
+		private final String name;
+		private final int hash;
+		private Cookie last;
+		private List<Cookie> all;
+		private List<Cookie> values;
+
+		private Entry(String name, int hash) {
+			this.name = name;
+			this.hash = hash;
+		}
+
+		private void add(Cookie cookie) {
+			if (last != null) {
+				if (all == null) {
+					all = new ArrayList<Cookie>(2);
+					all.add(last);
+					values = null;
+				}
+				all.add(cookie);
+			}
+			last = cookie;
+		}
+
+		private List<Cookie> values() {
+			if (values == null) {
+				values = all == null ?
+						Collections.singletonList(last) :
+						Collections.unmodifiableList(all);
+			}
+			return values;
+		}
+	}
+}
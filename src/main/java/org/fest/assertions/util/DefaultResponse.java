@@ -0,0 +1,73 @@
+package org.fest.assertions.util;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response built from raw values.
+ * Use it when your http client is not supported out of the box.
+ */
+public class DefaultResponse extends AbstractResponse {
+
+	/** Status code of response */
+	private final int statusCode;
+
+	/** Content Type of response */
+	private final String contentType;
+
+	/** Headers given at construction */
+	private final Map<String, String> headers;
+
+	/** Cookies given at construction */
+	private final List<Cookie> cookies;
+
+	/** Raw body given at construction */
+	private final byte[] body;
+
+	public DefaultResponse(int statusCode, String contentType) {
+		this(statusCode, contentType, null, null);
+	}
+
+	public DefaultResponse(int statusCode, String contentType, Map<String, String> headers, List<Cookie> cookies) {
+		this(statusCode, contentType, headers, cookies, null);
+	}
+
+	public DefaultResponse(int statusCode, String contentType, Map<String, String> headers, List<Cookie> cookies, byte[] body) {
+		this.statusCode = statusCode;
+		this.contentType = contentType;
+		this.headers = headers;
+		this.cookies = cookies;
+		this.body = body;
+	}
+
+	@Override
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType;
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders index) {
+		if (headers != null) {
+			for (Map.Entry<String, String> entries : headers.entrySet()) {
+				index.add(entries.getKey(), entries.getValue());
+			}
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		return cookies == null ? new ArrayList<Cookie>() : cookies;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) {
+		return ResponseBody.of(body, charset);
+	}
+}
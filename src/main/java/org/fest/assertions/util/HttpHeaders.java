@@ -0,0 +1,326 @@
+package org.fest.assertions.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case insensitive index of http headers.
+ * Header names are hashed and compared using ASCII case folding, so lookups
+ * never need to create a lower case copy of the name. Well known header
+ * names are interned on insertion: lookups done with the constants of this
+ * class are resolved with a simple reference comparison.
+ * A header may have several values, they are kept in insertion order.
+ * This class is not thread safe while headers are added.
+ */
+public final class HttpHeaders {
+
+	public static final String ACCEPT = "Accept";
+	public static final String ACCEPT_RANGES = "Accept-Ranges";
+	public static final String AGE = "Age";
+	public static final String ALLOW = "Allow";
+	public static final String CACHE_CONTROL = "Cache-Control";
+	public static final String CONNECTION = "Connection";
+	public static final String CONTENT_DISPOSITION = "Content-Disposition";
+	public static final String CONTENT_ENCODING = "Content-Encoding";
+	public static final String CONTENT_LANGUAGE = "Content-Language";
+	public static final String CONTENT_LENGTH = "Content-Length";
+	public static final String CONTENT_LOCATION = "Content-Location";
+	public static final String CONTENT_RANGE = "Content-Range";
+	public static final String CONTENT_TYPE = "Content-Type";
+	public static final String DATE = "Date";
+	public static final String ETAG = "ETag";
+	public static final String EXPIRES = "Expires";
+	public static final String LAST_MODIFIED = "Last-Modified";
+	public static final String LINK = "Link";
+	public static final String LOCATION = "Location";
+	public static final String PRAGMA = "Pragma";
+	public static final String RETRY_AFTER = "Retry-After";
+	public static final String SERVER = "Server";
+	public static final String SET_COOKIE = "Set-Cookie";
+	public static final String STRICT_TRANSPORT_SECURITY = "Strict-Transport-Security";
+	public static final String TRANSFER_ENCODING = "Transfer-Encoding";
+	public static final String VARY = "Vary";
+	public static final String VIA = "Via";
+	public static final String WWW_AUTHENTICATE = "WWW-Authenticate";
+	public static final String X_CONTENT_TYPE_OPTIONS = "X-Content-Type-Options";
+	public static final String X_FRAME_OPTIONS = "X-Frame-Options";
+	public static final String X_REQUEST_ID = "X-Request-Id";
+
+	/** Well known header names, indexed with the same hash function as headers */
+	private static final String[] KNOWN_NAMES = knownNames(
+			ACCEPT, ACCEPT_RANGES, AGE, ALLOW, CACHE_CONTROL, CONNECTION, CONTENT_DISPOSITION,
+			CONTENT_ENCODING, CONTENT_LANGUAGE, CONTENT_LENGTH, CONTENT_LOCATION, CONTENT_RANGE,
+			CONTENT_TYPE, DATE, ETAG, EXPIRES, LAST_MODIFIED, LINK, LOCATION, PRAGMA, RETRY_AFTER,
+			SERVER, SET_COOKIE, STRICT_TRANSPORT_SECURITY, TRANSFER_ENCODING, VARY, VIA,
+			WWW_AUTHENTICATE, X_CONTENT_TYPE_OPTIONS, X_FRAME_OPTIONS, X_REQUEST_ID
+	);
+
+	/** Default number of slots, enough for usual responses without resizing */
+	private static final int DEFAULT_CAPACITY = 32;
+
+	/** Open addressing table, size is always a power of two */
+	private Entry[] table;
+
+	/** Entries in insertion order */
+	private final List<Entry> entries;
+
+	public HttpHeaders() {
+		this(DEFAULT_CAPACITY / 2);
+	}
+
+	/**
+	 * Create an empty index.
+	 *
+	 * @param expectedSize Expected number of distinct header names.
+	 */
+	public HttpHeaders(int expectedSize) {
+		this.table = new Entry[tableSizeFor(expectedSize)];
+		this.entries = new ArrayList<Entry>(expectedSize);
+	}
+
+	/**
+	 * Add a value to a header.
+	 *
+	 * @param name Name of header.
+	 * @param value Value of header.
+	 * @return {@code this} the header index.
+	 */
+	public HttpHeaders add(String name, String value) {
+		int hash = hash(name);
+		Entry entry = find(table, name, hash);
+		if (entry == null) {
+			if ((entries.size() + 1) * 2 > table.length) {
+				resize();
+			}
+			entry = new Entry(intern(name, hash), hash);
+			insert(table, entry);
+			entries.add(entry);
+		}
+		entry.add(value);
+		return this;
+	}
+
+	/**
+	 * Get first value of a header.
+	 *
+	 * @param name Name of header (case insensitive).
+	 * @return First value, null if header is not defined.
+	 */
+	public String getFirst(String name) {
+		Entry entry = find(table, name, hash(name));
+		return entry == null ? null : entry.first;
+	}
+
+	/**
+	 * Get all values of a header.
+	 *
+	 * @param name Name of header (case insensitive).
+	 * @return Read-only list of values, empty if header is not defined.
+	 */
+	public List<String> getAll(String name) {
+		Entry entry = find(table, name, hash(name));
+		return entry == null ? Collections.<String>emptyList() : entry.values();
+	}
+
+	/**
+	 * Check if a header is defined.
+	 *
+	 * @param name Name of header (case insensitive).
+	 * @return True if header is defined, false otherwise.
+	 */
+	public boolean contains(String name) {
+		return find(table, name, hash(name)) != null;
+	}
+
+	/**
+	 * Get number of distinct header names.
+	 *
+	 * @return Number of headers.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Get names of headers, in insertion order.
+	 * Well known names use their canonical case.
+	 *
+	 * @return Header names.
+	 */
+	public List<String> names() {
+		List<String> names = new ArrayList<String>(entries.size());
+		for (Entry entry : entries) {
+			names.add(entry.name);
+		}
+		return names;
+	}
+
+	/**
+	 * Build map of first value of each header, indexed by lower case names.
+	 *
+	 * @return Map of headers.
+	 */
+	public Map<String, String> toMap() {
+		Map<String, String> map = new HashMap<String, String>(entries.size() * 2);
+		for (Entry entry : entries) {
+			map.put(entry.name.toLowerCase(), entry.first);
+		}
+		return map;
+	}
+
+	private void resize() {
+		Entry[] newTable = new Entry[table.length * 2];
+		for (Entry entry : entries) {
+			insert(newTable, entry);
+		}
+		table = newTable;
+	}
+
+	private static Entry find(Entry[] table, String name, int hash) {
+		int mask = table.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			Entry entry = table[i];
+			if (entry == null) {
+				return null;
+			}
+			if (entry.hash == hash && equalsIgnoreCase(entry.name, name)) {
+				return entry;
+			}
+		}
+	}
+
+	private static void insert(Entry[] table, Entry entry) {
+		int mask = table.length - 1;
+		int i = entry.hash & mask;
+		while (table[i] != null) {
+			i = (i + 1) & mask;
+		}
+		table[i] = entry;
+	}
+
+	/**
+	 * Get canonical instance of a well known header name.
+	 *
+	 * @param name Header name.
+	 * @param hash Hash of header name.
+	 * @return Canonical name, or given name if it is not a well known header.
+	 */
+	private static String intern(String name, int hash) {
+		int mask = KNOWN_NAMES.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			String known = KNOWN_NAMES[i];
+			if (known == null) {
+				return name;
+			}
+			if (equalsIgnoreCase(known, name)) {
+				return known;
+			}
+		}
+	}
+
+	private static String[] knownNames(String... names) {
+		String[] table = new String[tableSizeFor(names.length)];
+		for (String name : names) {
+			int mask = table.length - 1;
+			int i = hash(name) & mask;
+			while (table[i] != null) {
+				i = (i + 1) & mask;
+			}
+			table[i] = name;
+		}
+		return table;
+	}
+
+	/**
+	 * Compute hash of a header name, ignoring case of ASCII letters.
+	 *
+	 * @param name Header name.
+	 * @return Hash value.
+	 */
+	static int hash(String name) {
+		int h = 0;
+		for (int i = 0, length = name.length(); i < length; i++) {
+			h = 31 * h + toLowerCase(name.charAt(i));
+		}
+		// Spread high bits, table sizes are powers of two
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Compare two header names, ignoring case of ASCII letters.
+	 *
+	 * @param name1 First name.
+	 * @param name2 Second name.
+	 * @return True if names are equal, false otherwise.
+	 */
+	static boolean equalsIgnoreCase(String name1, String name2) {
+		if (name1 == name2) {
+			return true;
+		}
+		int length = name1.length();
+		if (length != name2.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c1 = name1.charAt(i);
+			char c2 = name2.charAt(i);
+			if (c1 != c2 && toLowerCase(c1) != toLowerCase(c2)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toLowerCase(char c) {
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		int size = 2;
+		while (size < expectedSize * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+	private static final class Entry {
+		private final String name;
+		private final int hash;
+		private int count;
+		private String first;
+		private List<String> others;
+		private List<String> values;
+
+		private Entry(String name, int hash) {
+			this.name = name;
+			this.hash = hash;
+		}
+
+		private void add(String value) {
+			if (count == 0) {
+				first = value;
+			}
+			else {
+				if (others == null) {
+					others = new ArrayList<String>(2);
+					others.add(first);
+					values = null;
+				}
+				others.add(value);
+			}
+			count++;
+		}
+
+		private List<String> values() {
+			if (values == null) {
+				values = others == null ?
+						Collections.singletonList(first) :
+						Collections.unmodifiableList(others);
+			}
+			return values;
+		}
+	}
+}
@@ -18,6 +18,15 @@ import java.util.Set;
 @SuppressWarnings("unchecked")
 public class JsonComparator {
 
+	/** Mapper is thread safe once configured: it is shared by all comparisons */
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final TypeReference<HashMap<String, Object>> MAP_TYPE = new TypeReference<HashMap<String, Object>>() {
+	};
+
+	private static final TypeReference<ArrayList<Object>> LIST_TYPE = new TypeReference<ArrayList<Object>>() {
+	};
+
 	private JsonComparator() {
 	}
 
@@ -77,6 +86,27 @@ public class JsonComparator {
 		}
 	}
 
+	/**
+	 * Compare two json documents already parsed as maps, lists and scalars (such as documents read with
+	 * {@code ObjectMapper.readValue(json, Object.class)}), so that a document compared many times is parsed once.
+	 * Documents are not modified.
+	 *
+	 * @param json           Json to check.
+	 * @param expected       Expected json, a map or a list.
+	 * @param ignoringFields List of fields to ignore during comparison.
+	 * @return List of errors.
+	 */
+	public static List<String> compareJsonTrees(Object json, Object expected, List<String> ignoringFields) {
+		String typeFound = typeOf(json);
+		String typeExpected = typeOf(expected);
+		if (!typeFound.equals(typeExpected)) {
+			List<String> errors = new ArrayList<String>();
+			errors.add(String.format("Expecting json to be <%s> but was <%s>", typeExpected, typeFound));
+			return errors;
+		}
+		return compareTrees(json, expected, ignoringFields);
+	}
+
 	/**
 	 * Check if a json is a valid representation.
 	 *
@@ -85,7 +115,7 @@ public class JsonComparator {
 	 */
 	public static boolean isValid(String json) {
 		try {
-			new ObjectMapper().readValue(json, Object.class);
+			MAPPER.readValue(json, Object.class);
 			return true;
 		}
 		catch (Throwable ex) {
@@ -125,12 +155,8 @@ public class JsonComparator {
 	 * @throws IOException
 	 */
 	private static List<String> compareJsonMap(String json1, String json2, List<String> ignoringFields) throws IOException {
-		TypeReference<HashMap<String, Object>> typeRef = new TypeReference<HashMap<String, Object>>() {
-		};
-
-		ObjectMapper mapper = new ObjectMapper();
-		HashMap<String, Object> actualJson = mapper.readValue(json1, typeRef);
-		HashMap<String, Object> expectedJson = mapper.readValue(json2, typeRef);
+		HashMap<String, Object> actualJson = MAPPER.readValue(json1, MAP_TYPE);
+		HashMap<String, Object> expectedJson = MAPPER.readValue(json2, MAP_TYPE);
 		return compareMaps(actualJson, expectedJson, ignoringFields);
 	}
 
@@ -144,8 +170,31 @@ public class JsonComparator {
 	 * @throws IOException
 	 */
 	private static List<String> compareJsonArrays(String json1, String json2, List<String> ignoringFields) throws IOException {
-		boolean json1IsArrayOfObjects = isArrayOfObjects(json1);
-		boolean json2IsArrayOfObjects = isArrayOfObjects(json2);
+		ArrayList<Object> actualJson = MAPPER.readValue(json1, LIST_TYPE);
+		ArrayList<Object> expectedJson = MAPPER.readValue(json2, LIST_TYPE);
+		return compareTrees(actualJson, expectedJson, ignoringFields);
+	}
+
+	/**
+	 * Compare two parsed json documents of the same type.
+	 *
+	 * @param json           First json, a map or a list.
+	 * @param expected       Expected json, of the same type.
+	 * @param ignoringFields Fields to ignore during comparison.
+	 * @return List of found errors.
+	 */
+	private static List<String> compareTrees(Object json, Object expected, List<String> ignoringFields) {
+		if (json instanceof Map) {
+			return compareMaps((Map<String, Object>) json, (Map<String, Object>) expected, ignoringFields);
+		}
+		if (!(json instanceof List)) {
+			return compareValue(json, expected, "", "", ignoringFields);
+		}
+
+		List<Object> list1 = (List<Object>) json;
+		List<Object> list2 = (List<Object>) expected;
+		boolean json1IsArrayOfObjects = isArrayOfObjects(list1);
+		boolean json2IsArrayOfObjects = isArrayOfObjects(list2);
 
 		if (json1IsArrayOfObjects != json2IsArrayOfObjects) {
 			String msg = json1IsArrayOfObjects ?
@@ -157,9 +206,7 @@ public class JsonComparator {
 			return errors;
 		}
 
-		return json1IsArrayOfObjects ?
-				compareJsonArraysOfObject(json1, json2, ignoringFields) :
-				compareJsonArraysOfSimpleValues(json1, json2, ignoringFields);
+		return compareCollections(list1, list2, ignoringFields);
 	}
 
 	/**
@@ -168,52 +215,18 @@ public class JsonComparator {
 	 * @param json Json to check.
 	 * @return True if json is an array of objects, false otherwise.
 	 */
-	private static boolean isArrayOfObjects(String json) {
-		for (int i = 1; i < json.length(); i++) {
-			char character = json.charAt(i);
-			if (!Character.isWhitespace(character)) {
-				return character == '{';
-			}
-		}
-		return false;
+	private static boolean isArrayOfObjects(List<Object> json) {
+		return !json.isEmpty() && json.get(0) instanceof Map;
 	}
 
-	/**
-	 * Compare two arrays of simple values (not object, i.e. numbers, strings, boolean).
-	 *
-	 * @param json1          First json.
-	 * @param json2          Second json.
-	 * @param ignoringFields List of fields to ignore during comparison.
-	 * @return List of found errors.
-	 * @throws IOException
-	 */
-	private static List<String> compareJsonArraysOfSimpleValues(String json1, String json2, List<String> ignoringFields) throws IOException {
-		TypeReference<ArrayList<Object>> typeRef = new TypeReference<ArrayList<Object>>() {
-		};
-
-		ObjectMapper mapper = new ObjectMapper();
-		ArrayList<HashMap<String, Object>> actualJson = mapper.readValue(json1, typeRef);
-		ArrayList<HashMap<String, Object>> expectedJson = mapper.readValue(json2, typeRef);
-		return compareCollections(actualJson, expectedJson, ignoringFields);
-	}
-
-	/**
-	 * Compare two arrays of objects.
-	 *
-	 * @param json1          First json.
-	 * @param json2          Second json.
-	 * @param ignoringFields List of fields to ignore during comparison.
-	 * @return List of found errors.
-	 * @throws IOException
-	 */
-	private static List<String> compareJsonArraysOfObject(String json1, String json2, List<String> ignoringFields) throws IOException {
-		TypeReference<ArrayList<HashMap<String, Object>>> typeRef = new TypeReference<ArrayList<HashMap<String, Object>>>() {
-		};
-
-		ObjectMapper mapper = new ObjectMapper();
-		ArrayList<HashMap<String, Object>> actualJson = mapper.readValue(json1, typeRef);
-		ArrayList<HashMap<String, Object>> expectedJson = mapper.readValue(json2, typeRef);
-		return compareCollections(actualJson, expectedJson, ignoringFields);
+	private static String typeOf(Object json) {
+		if (json instanceof Map) {
+			return "Object";
+		}
+		if (json instanceof List) {
+			return "Array";
+		}
+		return json == null ? "null" : json.getClass().getSimpleName();
 	}
 
 	/**
@@ -258,19 +271,15 @@ public class JsonComparator {
 
 			List<String> errs = compareMapEntry(map1, map2, key, currentKey, ignoringFields);
 			errors.addAll(errs);
-
-			if (map2.containsKey(key)) {
-				map2.remove(key);
-			}
 		}
 
-		// Check entries of second map
+		// Check entries of second map that are not in first map (maps are not modified, expected maps may be shared)
 		Set<Map.Entry<String, Object>> entries2 = map2.entrySet();
 		for (Map.Entry<String, Object> entry : entries2) {
 			String key = entry.getKey();
 
 			String fullKey = formatKeyName(currentKey, key);
-			if (match(fullKey, ignoringFields)) {
+			if (map1.containsKey(key) || match(fullKey, ignoringFields)) {
 				continue;
 			}
 
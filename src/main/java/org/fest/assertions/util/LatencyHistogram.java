@@ -0,0 +1,257 @@
+package org.fest.assertions.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies, in nanoseconds, with log-linear buckets (as in HdrHistogram):
+ * values below 128 ns have their own bucket, larger values are grouped in 64 buckets per power of two,
+ * so that a recorded value is known with a relative error below 1/64 (1.6%), from nanoseconds to centuries.
+ * Recording is lock free and does not allocate: it can be done from any number of threads.
+ * Histograms can be merged (for example, one histogram per thread) and saved, to be merged with histograms of other runs.
+ * Percentiles are computed when they are read, and are not atomic snapshots while values are recorded.
+ */
+public final class LatencyHistogram {
+
+	/** Values below this bound have their own bucket */
+	private static final int LINEAR_BITS = 7;
+
+	/** Buckets of a power of two */
+	private static final int SUB_BUCKETS = 1 << (LINEAR_BITS - 1);
+
+	/** Buckets needed to cover all positive long values */
+	private static final int BUCKETS = index(Long.MAX_VALUE) + 1;
+
+	/** Header of saved histograms */
+	private static final int MAGIC = 0x4c484731;
+
+	/** Number of values of each bucket */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong max = new AtomicLong();
+
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+	/**
+	 * Record a latency.
+	 *
+	 * @param duration Latency, negative values are ignored.
+	 * @param unit Unit of latency.
+	 */
+	public void record(long duration, TimeUnit unit) {
+		recordNanos(unit.toNanos(duration));
+	}
+
+	/**
+	 * Record a latency.
+	 *
+	 * @param nanos Latency, in nanoseconds, negative values are ignored.
+	 */
+	public void recordNanos(long nanos) {
+		if (nanos < 0) {
+			return;
+		}
+		// No shared total: concurrent recordings only contend when they fall in the same bucket
+		counts.incrementAndGet(index(nanos));
+		updateMax(nanos);
+		updateMin(nanos);
+	}
+
+	/**
+	 * Add all values of another histogram to this histogram.
+	 *
+	 * @param other Histogram.
+	 */
+	public void add(LatencyHistogram other) {
+		long added = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			long bucket = other.counts.get(i);
+			if (bucket != 0) {
+				counts.addAndGet(i, bucket);
+				added += bucket;
+			}
+		}
+		if (added > 0) {
+			updateMax(other.max.get());
+			updateMin(other.min.get());
+		}
+	}
+
+	/**
+	 * Get number of recorded values.
+	 *
+	 * @return Number of values.
+	 */
+	public long getCount() {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	/**
+	 * Get largest recorded value (exact value, not rounded to its bucket).
+	 *
+	 * @param unit Unit of result.
+	 * @return Largest value, 0 if no value has been recorded.
+	 */
+	public long getMax(TimeUnit unit) {
+		return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get smallest recorded value (exact value, not rounded to its bucket).
+	 *
+	 * @param unit Unit of result.
+	 * @return Smallest value, 0 if no value has been recorded.
+	 */
+	public long getMin(TimeUnit unit) {
+		long nanos = min.get();
+		return nanos == Long.MAX_VALUE ? 0 : unit.convert(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get value at a percentile: at least given percentage of recorded values are less than or equal to result.
+	 * Result is the upper bound of the bucket of the value (never above largest value), so it is never lower than the
+	 * exact percentile.
+	 *
+	 * @param percentile Percentile, between 0 and 100 (such as 99.9).
+	 * @param unit Unit of result.
+	 * @return Value at percentile, 0 if no value has been recorded.
+	 */
+	public long getValueAtPercentile(double percentile, TimeUnit unit) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException(String.format("Percentile must be between 0 and 100 but was %s", percentile));
+		}
+
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return unit.convert(Math.min(highestValue(i), max.get()), TimeUnit.NANOSECONDS);
+			}
+		}
+		return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Save histogram: only non empty buckets are written.
+	 *
+	 * @param output Output.
+	 * @throws IOException If histogram cannot be written.
+	 */
+	public void writeTo(DataOutput output) throws IOException {
+		int buckets = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			if (snapshot[i] != 0) {
+				buckets++;
+			}
+		}
+
+		output.writeInt(MAGIC);
+		output.writeLong(min.get());
+		output.writeLong(max.get());
+		output.writeInt(buckets);
+		for (int i = 0; i < BUCKETS; i++) {
+			if (snapshot[i] != 0) {
+				output.writeShort(i);
+				output.writeLong(snapshot[i]);
+			}
+		}
+	}
+
+	/**
+	 * Read a histogram saved with {@link #writeTo(DataOutput)}.
+	 *
+	 * @param input Input.
+	 * @return Histogram.
+	 * @throws IOException If histogram cannot be read, or is not a saved histogram.
+	 */
+	public static LatencyHistogram readFrom(DataInput input) throws IOException {
+		if (input.readInt() != MAGIC) {
+			throw new IOException("Input is not a saved latency histogram");
+		}
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.min.set(input.readLong());
+		histogram.max.set(input.readLong());
+		int buckets = input.readInt();
+		for (int i = 0; i < buckets; i++) {
+			int index = input.readUnsignedShort();
+			long bucket = input.readLong();
+			if (index >= BUCKETS || bucket < 0) {
+				throw new IOException(String.format("Bucket <%s> of saved latency histogram is not valid", index));
+			}
+			histogram.counts.set(index, bucket);
+		}
+		return histogram;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LatencyHistogram{count=%s, p50=%sus, p99=%sus, max=%sus}", getCount(),
+				getValueAtPercentile(50, TimeUnit.MICROSECONDS), getValueAtPercentile(99, TimeUnit.MICROSECONDS), getMax(TimeUnit.MICROSECONDS));
+	}
+
+	/**
+	 * Get bucket of a value.
+	 *
+	 * @param nanos Positive value.
+	 * @return Index of bucket.
+	 */
+	static int index(long nanos) {
+		if (nanos < (1 << LINEAR_BITS)) {
+			return (int) nanos;
+		}
+		// Value is shifted to keep its LINEAR_BITS - 1 highest bits after its leading one
+		int shift = 63 - Long.numberOfLeadingZeros(nanos) - (LINEAR_BITS - 1);
+		return shift * SUB_BUCKETS + (int) (nanos >>> shift);
+	}
+
+	/**
+	 * Get largest value of a bucket.
+	 *
+	 * @param index Index of bucket.
+	 * @return Largest value.
+	 */
+	static long highestValue(int index) {
+		if (index < (1 << LINEAR_BITS)) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long subBucket = index - shift * SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	private void updateMax(long nanos) {
+		long current = max.get();
+		while (nanos > current && !max.compareAndSet(current, nanos)) {
+			current = max.get();
+		}
+	}
+
+	private void updateMin(long nanos) {
+		long current = min.get();
+		while (nanos < current && !min.compareAndSet(current, nanos)) {
+			current = min.get();
+		}
+	}
+}
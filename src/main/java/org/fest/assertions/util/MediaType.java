@@ -0,0 +1,230 @@
+package org.fest.assertions.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parsed value of a Content-Type header (see RFC 7231, section 3.1.1.1).
+ * Type, subtype and parameter names are case insensitive and are stored in
+ * lower case. Parameter values may be quoted strings.
+ * Instances are immutable.
+ */
+public final class MediaType {
+
+	private static final String CHARSET = "charset";
+
+	/** Type (such as 'application') */
+	private final String type;
+
+	/** Subtype (such as 'json') */
+	private final String subtype;
+
+	/** Type and subtype (such as 'application/json') */
+	private final String mimeType;
+
+	/** Well known mime type, null if mime type is not well known */
+	private final MimeType knownType;
+
+	/** Parameters, indexed by lower case names */
+	private final Map<String, String> parameters;
+
+	private MediaType(String type, String subtype, Map<String, String> parameters) {
+		this.type = type;
+		this.subtype = subtype;
+		this.mimeType = subtype.isEmpty() ? type : type + "/" + subtype;
+		this.knownType = MimeType.of(mimeType);
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Parse value of a Content-Type header.
+	 * Parsing is lenient: malformed parameters are ignored.
+	 *
+	 * @param value Header value.
+	 * @return Media type, null if value is null or blank.
+	 */
+	public static MediaType parse(String value) {
+		if (value == null) {
+			return null;
+		}
+
+		int length = value.length();
+		int start = skipWhitespaces(value, 0, length);
+		if (start == length) {
+			return null;
+		}
+
+		int end = indexOf(value, ';', start, length);
+		int slash = indexOf(value, '/', start, end);
+
+		String type = trim(value, start, slash).toLowerCase();
+		String subtype = slash < end ? trim(value, slash + 1, end).toLowerCase() : "";
+
+		Map<String, String> parameters = Collections.emptyMap();
+		int i = end;
+		while (i < length) {
+			// Skip ';' and leading whitespaces
+			int nameStart = skipWhitespaces(value, i + 1, length);
+			int nameEnd = nameStart;
+			while (nameEnd < length && value.charAt(nameEnd) != '=' && value.charAt(nameEnd) != ';') {
+				nameEnd++;
+			}
+
+			String name = trim(value, nameStart, nameEnd).toLowerCase();
+			if (nameEnd == length || value.charAt(nameEnd) == ';') {
+				// Parameter without value
+				i = nameEnd;
+				continue;
+			}
+
+			int valueStart = skipWhitespaces(value, nameEnd + 1, length);
+			String parameterValue;
+			if (valueStart < length && value.charAt(valueStart) == '"') {
+				StringBuilder sb = new StringBuilder();
+				int j = valueStart + 1;
+				while (j < length && value.charAt(j) != '"') {
+					char c = value.charAt(j);
+					if (c == '\\' && j + 1 < length) {
+						c = value.charAt(++j);
+					}
+					sb.append(c);
+					j++;
+				}
+				parameterValue = sb.toString();
+				i = indexOf(value, ';', j, length);
+			}
+			else {
+				i = indexOf(value, ';', valueStart, length);
+				parameterValue = trim(value, valueStart, i);
+			}
+
+			if (!name.isEmpty()) {
+				if (parameters.isEmpty()) {
+					parameters = new LinkedHashMap<String, String>(4);
+				}
+				if (!parameters.containsKey(name)) {
+					parameters.put(name, parameterValue);
+				}
+			}
+		}
+
+		return new MediaType(type, subtype, parameters.isEmpty() ? parameters : Collections.unmodifiableMap(parameters));
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getSubtype() {
+		return subtype;
+	}
+
+	/**
+	 * Get type and subtype, without parameters (such as 'application/json').
+	 *
+	 * @return Mime type, in lower case.
+	 */
+	public String getMimeType() {
+		return mimeType;
+	}
+
+	/**
+	 * Get well known mime type matching this media type.
+	 *
+	 * @return Mime type, null if mime type is not a well known one.
+	 */
+	public MimeType getKnownType() {
+		return knownType;
+	}
+
+	/**
+	 * Check if media type is one of well known mime types.
+	 *
+	 * @param mimeTypes Well known mime types.
+	 * @return True if media type is one of given mime types, false otherwise.
+	 */
+	public boolean is(MimeType... mimeTypes) {
+		for (MimeType mimeType : mimeTypes) {
+			if (knownType == mimeType) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get value of a parameter.
+	 *
+	 * @param name Parameter name (case insensitive).
+	 * @return Parameter value, null if parameter is not defined.
+	 */
+	public String getParameter(String name) {
+		return parameters.get(name.toLowerCase());
+	}
+
+	public Map<String, String> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Get value of charset parameter.
+	 *
+	 * @return Charset, null if charset is not defined.
+	 */
+	public String getCharset() {
+		return parameters.get(CHARSET);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (o instanceof MediaType) {
+			MediaType mediaType = (MediaType) o;
+			return mimeType.equals(mediaType.mimeType) && parameters.equals(mediaType.parameters);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * mimeType.hashCode() + parameters.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(mimeType);
+		for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+			sb.append("; ").append(parameter.getKey()).append('=').append(parameter.getValue());
+		}
+		return sb.toString();
+	}
+
+	private static int indexOf(String value, char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i) == c) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	private static int skipWhitespaces(String value, int start, int end) {
+		int i = start;
+		while (i < end && Character.isWhitespace(value.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static String trim(String value, int start, int end) {
+		int i = skipWhitespaces(value, start, end);
+		int j = end;
+		while (j > i && Character.isWhitespace(value.charAt(j - 1))) {
+			j--;
+		}
+		return value.substring(i, j);
+	}
+}
@@ -0,0 +1,63 @@
+package org.fest.assertions.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Well known mime types.
+ * Media types are resolved against this table once, when they are parsed,
+ * so that checking a well known type is a simple reference comparison.
+ */
+public enum MimeType {
+
+	OCTET_STREAM("application/octet-stream"),
+	JSON("application/json"),
+	XML("application/xml"),
+	TEXT_XML("text/xml"),
+	CSS("text/css"),
+	JAVASCRIPT("application/javascript"),
+	TEXT_JAVASCRIPT("text/javascript"),
+	TEXT_PLAIN("text/plain"),
+	HTML("text/html"),
+	XHTML("application/xhtml+xml"),
+	PDF("application/pdf"),
+	CSV("text/csv"),
+	ZIP("application/zip"),
+	SHOCKWAVE_FLASH("application/x-shockwave-flash"),
+	FLV("video/x-flv");
+
+	/** Mime types indexed by their value */
+	private static final Map<String, MimeType> VALUES = new HashMap<String, MimeType>();
+
+	static {
+		for (MimeType mimeType : values()) {
+			VALUES.put(mimeType.value, mimeType);
+		}
+	}
+
+	/** Mime type value, in lower case */
+	private final String value;
+
+	private MimeType(String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Find well known mime type.
+	 *
+	 * @param value Mime type value, in lower case (such as 'application/json').
+	 * @return Mime type, null if mime type is not a well known one.
+	 */
+	public static MimeType of(String value) {
+		return VALUES.get(value);
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return value;
+	}
+}
@@ -1,112 +1,119 @@
 package org.fest.assertions.util;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.Closeable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only view of an http response.
+ * Implementations are expected to be lightweight wrappers around
+ * the response object of a given client: headers, cookies and body should
+ * only be read when they are requested.
+ * A response must be closed once it has been checked, so that a body spilled
+ * to disk is released.
+ */
+public interface Response extends Closeable {
 
-public class Response {
-
-	/** Status code of response */
-	private int statusCode;
-
-	/** Content Type of response */
-	private String contentType;
-
-	/** Headers contained in response */
-	private Map<String, String> headers;
-
-	/** Cookies stored in response */
-	private List<Cookie> cookies;
-
-	public Response() {
-		this.headers = new HashMap<String, String>();
-		this.cookies = new ArrayList<Cookie>();
-	}
-
-	public Response(int statusCode, String contentType) {
-		this();
-		this.statusCode = statusCode;
-		this.contentType = contentType;
-	}
-
-	public Response(int statusCode, String contentType, Map<String, String> headers, List<Cookie> cookies) {
-		this.statusCode = statusCode;
-		this.contentType = contentType;
-
-		this.headers = new HashMap<String, String>();
-		if (headers != null) {
-			for (Map.Entry<String, String> entries : headers.entrySet()) {
-				this.headers.put(entries.getKey().toLowerCase(), entries.getValue());
-			}
-		}
-
-		this.cookies = cookies == null ? new ArrayList<Cookie>() : cookies;
-	}
+	/**
+	 * Get status code of response.
+	 *
+	 * @return Status code.
+	 */
+	int getStatusCode();
 
-	public Response(com.ning.http.client.Response response) {
-		this();
-		statusCode = response.getStatusCode();
-		contentType = response.getContentType();
+	/**
+	 * Get raw value of Content-Type header.
+	 *
+	 * @return Content-Type value, null if header is not defined.
+	 */
+	String getContentType();
 
-		for (String name : response.getHeaders().keySet()) {
-			this.headers.put(name.toLowerCase(), response.getHeader(name));
-		}
+	/**
+	 * Get parsed value of Content-Type header.
+	 *
+	 * @return Media type, null if header is not defined.
+	 */
+	MediaType getMediaType();
 
-		for (com.ning.http.client.Cookie cookie : response.getCookies()) {
-			this.cookies.add(new Cookie(cookie));
-		}
-	}
+	/**
+	 * Get all headers of response, indexed by their lower case names.
+	 *
+	 * @return Headers of response.
+	 */
+	Map<String, String> getHeaders();
 
-	public Response(org.apache.http.HttpResponse response) {
-		this();
-		statusCode = response.getStatusLine().getStatusCode();
-		contentType = response.getEntity().getContentType().getValue();
+	/**
+	 * Get header value by its name (case insensitive).
+	 *
+	 * @param name Name of header.
+	 * @return Value of header, null if header does not exist.
+	 */
+	String getHeader(String name);
 
-		// TODO parse headers
-		// TODO parse cookies
-	}
+	/**
+	 * Get all values of a header by its name (case insensitive).
+	 *
+	 * @param name Name of header.
+	 * @return Values of header, empty if header does not exist.
+	 */
+	List<String> getHeaderValues(String name);
 
-	public int getStatusCode() {
-		return statusCode;
-	}
+	/**
+	 * Get all cookies stored in response.
+	 *
+	 * @return Cookies of response.
+	 */
+	List<Cookie> getCookies();
 
-	public String getContentType() {
-		return contentType;
-	}
+	/**
+	 * Find cookie by its name (case insensitive).
+	 * If response contains several cookies with this name, the last one is returned.
+	 *
+	 * @param cookieName Cookie name.
+	 * @return Cookie, null if cookie does not exist.
+	 */
+	Cookie getCookie(String cookieName);
 
-	public Map<String, String> getHeaders() {
-		return headers;
-	}
+	/**
+	 * Find all cookies with a given name (case insensitive).
+	 *
+	 * @param cookieName Cookie name.
+	 * @return Cookies, in the order they were received.
+	 */
+	List<Cookie> getCookies(String cookieName);
 
-	public List<Cookie> getCookies() {
-		return cookies;
-	}
+	/**
+	 * Get body of response, decoded with the charset of Content-Type.
+	 * Body is read from the underlying response on first access only.
+	 *
+	 * @return Body of response, empty if response does not have any body.
+	 */
+	ResponseBody getBody();
 
 	/**
-	 * Get header value by its name.
+	 * Get time elapsed between sending request and receiving complete response.
+	 * It is only known when response was received by this library (for example, with {@code REST.given()}).
 	 *
-	 * @param name Name of header.
-	 * @return Value of header.
+	 * @param unit Unit of result.
+	 * @return Response time, or -1 if it is not known.
 	 */
-	public String getHeader(String name) {
-		return this.headers.get(name.toLowerCase());
-	}
+	long getResponseTime(TimeUnit unit);
 
 	/**
-	 * Find cookie by its name.
+	 * Get time elapsed between sending request and receiving first byte of response (status line).
+	 * It is only known when response was received by this library (for example, with {@code REST.given()}),
+	 * or when it is recorded with response (for example, in HAR files).
 	 *
-	 * @param cookieName Cookie name.
-	 * @return Cookie, null if cookie does not exist.
+	 * @param unit Unit of result.
+	 * @return Time to first byte, or -1 if it is not known.
+	 */
+	long getTimeToFirstByte(TimeUnit unit);
+
+	/**
+	 * Release resources held by response, such as a body spilled to a temporary file.
+	 * Body must not be read once response is closed. Closing a response twice has no effect.
 	 */
-	public Cookie getCookie(String cookieName) {
-		if (cookies != null && !cookies.isEmpty()) {
-			for (Cookie cookie : cookies) {
-				if (cookie.getName().equalsIgnoreCase(cookieName)) {
-					return cookie;
-				}
-			}
-		}
-		return null;
-	}
+	@Override
+	void close();
 }
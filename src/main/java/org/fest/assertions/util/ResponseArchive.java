@@ -0,0 +1,222 @@
+package org.fest.assertions.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only view of responses recorded with a {@link ResponseRecorder}, to replay them without any network I/O.
+ * Archive file is memory mapped and indexed when it is opened: getting a response is a constant time lookup,
+ * and returned responses decode their headers, cookies and body from the mapped file only when they are requested.
+ * Archive can be shared between threads, each thread getting its own responses.
+ *
+ * <pre>
+ * Archive layout (big endian):
+ *   header:  int magic, int version
+ *   records: int length, then record of given length:
+ *            int status, long response time, long time to first byte (nanoseconds, -1 if unknown),
+ *            int headers offset, int cookies offset, int body offset (relative to record),
+ *            string content type,
+ *            int count, (string name, string value) for each header value,
+ *            int count, (string name, string value, string domain, string path,
+ *                        byte expiry kind, long max age or expiry date, boolean secure, boolean http only) for each cookie,
+ *            int length, body bytes
+ *   strings: int length (-1 for null), utf-8 bytes
+ * </pre>
+ */
+public final class ResponseArchive implements Iterable<Response>, Closeable {
+
+	/** "FRA1" */
+	static final int MAGIC = 0x46524131;
+
+	static final int VERSION = 2;
+
+	static final int HEADER_SIZE = 8;
+
+	/** Offsets of section offsets in a record */
+	static final int HEADERS_OFFSET = 20;
+	static final int COOKIES_OFFSET = 24;
+	static final int BODY_OFFSET = 28;
+	static final int CONTENT_TYPE_OFFSET = 32;
+
+	/** Kind of cookie expiry */
+	static final byte MAX_AGE = 0;
+	static final byte EXPIRY_DATE = 1;
+
+	/** Maximum size of a mapped segment, records never overlap two segments */
+	static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+	private final File file;
+
+	private final List<ByteBuffer> segments;
+
+	/** Segment of each record */
+	private final int[] segmentOf;
+
+	/** Position of each record in its segment */
+	private final int[] positionOf;
+
+	private final int size;
+
+	private ResponseArchive(File file, List<ByteBuffer> segments, int[] segmentOf, int[] positionOf, int size) {
+		this.file = file;
+		this.segments = segments;
+		this.segmentOf = segmentOf;
+		this.positionOf = positionOf;
+		this.size = size;
+	}
+
+	/**
+	 * Open archive for replay.
+	 * Incomplete record at the end of file (if recorder was interrupted) is ignored.
+	 *
+	 * @param file Archive file.
+	 * @return Archive.
+	 * @throws IOException If file is not a valid archive or cannot be read.
+	 */
+	public static ResponseArchive open(File file) throws IOException {
+		return open(file, MAX_SEGMENT_SIZE);
+	}
+
+	static ResponseArchive open(File file, int maxSegmentSize) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			long length = channel.size();
+			if (length < HEADER_SIZE) {
+				throw new IOException("File " + file + " is not a response archive");
+			}
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			channel.read(header, 0);
+			checkHeader(header.getInt(0), header.getInt(4));
+
+			List<ByteBuffer> segments = new ArrayList<ByteBuffer>();
+			int[] segmentOf = new int[1024];
+			int[] positionOf = new int[1024];
+			int size = 0;
+
+			MappedByteBuffer segment = null;
+			long segmentStart = 0;
+			long offset = HEADER_SIZE;
+			while (offset + 4 <= length) {
+				if (segment == null || offset + 4 > segmentStart + segment.capacity()) {
+					segmentStart = offset;
+					segment = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(length - offset, maxSegmentSize));
+					segments.add(segment);
+				}
+
+				int position = (int) (offset - segmentStart);
+				int recordLength = segment.getInt(position);
+				if (recordLength < 0 || offset + 4 + recordLength > length) {
+					break;
+				}
+				if (position + 4L + recordLength > segment.capacity()) {
+					if (position == 0) {
+						throw new IOException("Record at offset " + offset + " is larger than " + maxSegmentSize + " bytes");
+					}
+					// Start a new segment with this record
+					segment = null;
+					continue;
+				}
+
+				if (size == segmentOf.length) {
+					segmentOf = Arrays.copyOf(segmentOf, size * 2);
+					positionOf = Arrays.copyOf(positionOf, size * 2);
+				}
+				segmentOf[size] = segments.size() - 1;
+				positionOf[size] = position + 4;
+				size++;
+				offset += 4 + recordLength;
+			}
+
+			return new ResponseArchive(file, segments, segmentOf, positionOf, size);
+		}
+		finally {
+			// Mapped segments remain valid once channel is closed
+			raf.close();
+		}
+	}
+
+	static void checkHeader(int magic, int version) throws IOException {
+		if (magic != MAGIC) {
+			throw new IOException("File is not a response archive");
+		}
+		if (version != VERSION) {
+			throw new IOException("Unsupported response archive version: " + version);
+		}
+	}
+
+	/**
+	 * Get number of recorded responses.
+	 *
+	 * @return Number of responses.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get recorded response.
+	 *
+	 * @param index Index of response, in recording order.
+	 * @return Response.
+	 */
+	public Response get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		if (segments.isEmpty()) {
+			throw new IllegalStateException("Response archive is closed");
+		}
+		return new ArchivedResponse(segments.get(segmentOf[index]), positionOf[index]);
+	}
+
+	@Override
+	public Iterator<Response> iterator() {
+		return new Iterator<Response>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Response next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				return get(next++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Response archive is read-only");
+			}
+		};
+	}
+
+	/**
+	 * Release archive.
+	 * Mapped memory is only released once archive and its responses are garbage collected.
+	 */
+	@Override
+	public void close() {
+		segments.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "ResponseArchive{file=" + file + ", size=" + size + "}";
+	}
+}
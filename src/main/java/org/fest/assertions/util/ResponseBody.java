@@ -0,0 +1,566 @@
+package org.fest.assertions.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Body of an http response.
+ * Content is read once from the client and kept in a heap buffer as long as it is smaller than
+ * a memory threshold. Larger bodies are spilled to a temporary file that is read back through
+ * memory mapped windows, so that streaming operations ({@link #contains(String)},
+ * {@link #mismatch(String)}, {@link #openReader()}) use a fixed amount of heap whatever the size of the body.
+ * Spilled file is deleted when body is closed; files of bodies that are never closed are deleted once their
+ * body has been garbage collected, or at exit.
+ */
+public final class ResponseBody implements Closeable {
+
+	/** Bodies larger than this threshold are spilled to disk */
+	public static final int DEFAULT_MEMORY_THRESHOLD = 64 * 1024;
+
+	/** Charset used when Content-Type does not define a (supported) charset */
+	public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+
+	/** Size of regions of spilled file mapped in memory at once */
+	static final int MAP_WINDOW = 16 * 1024 * 1024;
+
+	/** Size of read buffers */
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	/** Copy buffers, shared by reads done on the same thread */
+	private static final ThreadLocal<byte[]> BYTES = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[BUFFER_SIZE];
+		}
+	};
+
+	private static final ThreadLocal<char[]> CHARS = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[BUFFER_SIZE];
+		}
+	};
+
+	private static final byte[] NO_BYTES = new byte[0];
+
+	/** Prefix of spilled files, created in the default temporary directory */
+	static final String TEMP_FILE_PREFIX = "fest-rest-body";
+
+	/** In memory content, null if body has been spilled to disk */
+	private final byte[] bytes;
+
+	/** Spilled content, null if body is kept in memory */
+	private final File file;
+
+	/** Tracking of spilled file, null if body is kept in memory */
+	private final SpilledFile spilled;
+
+	/** Number of bytes in body */
+	private final long length;
+
+	/** Charset used to decode body */
+	private final Charset charset;
+
+	private ResponseBody(byte[] bytes, File file, long length, Charset charset) {
+		this.bytes = bytes;
+		this.file = file;
+		this.spilled = file == null ? null : new SpilledFile(this, file);
+		this.length = length;
+		this.charset = charset == null ? DEFAULT_CHARSET : charset;
+	}
+
+	/**
+	 * Build empty body.
+	 *
+	 * @param charset Charset of body, null to use default charset.
+	 * @return Empty body.
+	 */
+	public static ResponseBody empty(Charset charset) {
+		return new ResponseBody(NO_BYTES, null, 0, charset);
+	}
+
+	/**
+	 * Build body from in memory content.
+	 * Array is not copied and must not be modified afterwards.
+	 *
+	 * @param bytes Content of body.
+	 * @param charset Charset of body, null to use default charset.
+	 * @return Body.
+	 */
+	public static ResponseBody of(byte[] bytes, Charset charset) {
+		return bytes == null ? empty(charset) : new ResponseBody(bytes, null, bytes.length, charset);
+	}
+
+	/**
+	 * Read body from a stream using default memory threshold.
+	 * Stream is fully consumed but is not closed.
+	 *
+	 * @param in Input stream, may be null for an empty body.
+	 * @param charset Charset of body, null to use default charset.
+	 * @return Body.
+	 * @throws IOException If stream cannot be read or temporary file cannot be written.
+	 */
+	public static ResponseBody read(InputStream in, Charset charset) throws IOException {
+		return read(in, charset, DEFAULT_MEMORY_THRESHOLD);
+	}
+
+	/**
+	 * Read body from a stream.
+	 * Stream is fully consumed but is not closed.
+	 *
+	 * @param in Input stream, may be null for an empty body.
+	 * @param charset Charset of body, null to use default charset.
+	 * @param memoryThreshold Maximum number of bytes kept in memory.
+	 * @return Body.
+	 * @throws IOException If stream cannot be read or temporary file cannot be written.
+	 */
+	public static ResponseBody read(InputStream in, Charset charset, int memoryThreshold) throws IOException {
+		if (memoryThreshold < 0) {
+			throw new IllegalArgumentException("Memory threshold must be positive");
+		}
+		if (in == null) {
+			return empty(charset);
+		}
+
+		byte[] buffer = new byte[Math.min(memoryThreshold, BUFFER_SIZE)];
+		int count = 0;
+		while (true) {
+			if (count == buffer.length) {
+				if (count == memoryThreshold) {
+					return spill(in, buffer, charset);
+				}
+				byte[] copy = new byte[(int) Math.min(memoryThreshold, 2L * buffer.length)];
+				System.arraycopy(buffer, 0, copy, 0, count);
+				buffer = copy;
+			}
+
+			int read = in.read(buffer, count, buffer.length - count);
+			if (read < 0) {
+				return new ResponseBody(buffer, null, count, charset);
+			}
+			count += read;
+		}
+	}
+
+	/**
+	 * Get charset defined in a media type.
+	 *
+	 * @param mediaType Media type, may be null.
+	 * @return Charset of media type, default charset if charset is not defined or not supported.
+	 */
+	public static Charset charsetOf(MediaType mediaType) {
+		String name = mediaType == null ? null : mediaType.getCharset();
+		if (name != null && name.trim().length() > 0) {
+			try {
+				return Charset.forName(name.trim());
+			}
+			catch (IllegalArgumentException ex) {
+				// Illegal or unsupported charset, fallback to default
+			}
+		}
+		return DEFAULT_CHARSET;
+	}
+
+	/**
+	 * Get number of bytes in body.
+	 *
+	 * @return Length of body.
+	 */
+	public long length() {
+		return length;
+	}
+
+	/**
+	 * Check if body is empty.
+	 *
+	 * @return True if body does not contain any byte.
+	 */
+	public boolean isEmpty() {
+		return length == 0;
+	}
+
+	/**
+	 * Check if body is kept in memory.
+	 *
+	 * @return False if body has been spilled to disk.
+	 */
+	public boolean isInMemory() {
+		return file == null;
+	}
+
+	/**
+	 * Get charset used to decode body.
+	 *
+	 * @return Charset.
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	/**
+	 * Open a new stream over raw content of body.
+	 *
+	 * @return Input stream.
+	 * @throws IOException If spilled content cannot be read.
+	 */
+	public InputStream openStream() throws IOException {
+		if (file == null) {
+			return new ByteArrayInputStream(bytes, 0, (int) length);
+		}
+		return new MappedInputStream(file, length);
+	}
+
+	/**
+	 * Open a new reader over content of body, decoded with body charset.
+	 *
+	 * @return Reader.
+	 * @throws IOException If spilled content cannot be read.
+	 */
+	public Reader openReader() throws IOException {
+		return new InputStreamReader(openStream(), charset);
+	}
+
+	/**
+	 * Get raw content of body.
+	 * Whole body is loaded in memory: prefer {@link #openStream()} for large bodies.
+	 *
+	 * @return Content of body.
+	 * @throws IOException If spilled content cannot be read.
+	 */
+	public byte[] getBytes() throws IOException {
+		if (file == null) {
+			return bytes.length == length ? bytes.clone() : copyOf(bytes, (int) length);
+		}
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Body is too large to be loaded in memory: " + length + " bytes");
+		}
+
+		byte[] content = new byte[(int) length];
+		InputStream in = openStream();
+		try {
+			int count = 0;
+			int read;
+			while (count < content.length && (read = in.read(content, count, content.length - count)) >= 0) {
+				count += read;
+			}
+		}
+		finally {
+			in.close();
+		}
+		return content;
+	}
+
+	/**
+	 * Get content of body decoded with body charset.
+	 * Whole body is loaded in memory: prefer {@link #openReader()} for large bodies.
+	 *
+	 * @return Content of body.
+	 * @throws IOException If spilled content cannot be read.
+	 */
+	public String asString() throws IOException {
+		if (file == null) {
+			return new String(bytes, 0, (int) length, charset.name());
+		}
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Body is too large to be loaded in memory: " + length + " bytes");
+		}
+
+		StringBuilder sb = new StringBuilder((int) length);
+		char[] buffer = CHARS.get();
+		Reader reader = openReader();
+		try {
+			int read;
+			while ((read = reader.read(buffer)) >= 0) {
+				sb.append(buffer, 0, read);
+			}
+		}
+		finally {
+			reader.close();
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Check if decoded body contains a string.
+	 * Body is streamed: only a buffer and a table of the size of the searched string are allocated.
+	 *
+	 * @param value Searched string.
+	 * @return True if body contains value.
+	 * @throws IOException If spilled content cannot be read.
+	 */
+	public boolean contains(String value) throws IOException {
+		int size = value.length();
+		if (size == 0) {
+			return true;
+		}
+
+		// Knuth-Morris-Pratt failure table
+		int[] fallback = new int[size];
+		for (int i = 1, k = 0; i < size; i++) {
+			while (k > 0 && value.charAt(i) != value.charAt(k)) {
+				k = fallback[k - 1];
+			}
+			if (value.charAt(i) == value.charAt(k)) {
+				k++;
+			}
+			fallback[i] = k;
+		}
+
+		char[] buffer = CHARS.get();
+		Reader reader = openReader();
+		try {
+			int matched = 0;
+			int read;
+			while ((read = reader.read(buffer)) >= 0) {
+				for (int i = 0; i < read; i++) {
+					char c = buffer[i];
+					while (matched > 0 && c != value.charAt(matched)) {
+						matched = fallback[matched - 1];
+					}
+					if (c == value.charAt(matched) && ++matched == size) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Compare decoded body with a string.
+	 * Body is streamed: only a read buffer is allocated.
+	 *
+	 * @param expected Expected content.
+	 * @return Index of first character that differs, -1 if body is equal to expected content.
+	 * @throws IOException If spilled content cannot be read.
+	 */
+	public long mismatch(String expected) throws IOException {
+		char[] buffer = CHARS.get();
+		Reader reader = openReader();
+		try {
+			int size = expected.length();
+			long index = 0;
+			int read;
+			while ((read = reader.read(buffer)) >= 0) {
+				for (int i = 0; i < read; i++, index++) {
+					if (index >= size || buffer[i] != expected.charAt((int) index)) {
+						return index;
+					}
+				}
+			}
+			return index == size ? -1 : index;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Delete temporary file if body has been spilled to disk.
+	 * Streams opened before are still readable until they are closed.
+	 */
+	@Override
+	public void close() {
+		if (spilled != null) {
+			spilled.delete();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ResponseBody{length=" + length + ", charset=" + charset + ", inMemory=" + isInMemory() + "}";
+	}
+
+	private static ResponseBody spill(InputStream in, byte[] head, Charset charset) throws IOException {
+		byte[] buffer = BYTES.get();
+		int read = in.read(buffer);
+		if (read < 0) {
+			return new ResponseBody(head, null, head.length, charset);
+		}
+
+		SpilledFile.deleteCollected();
+
+		// File is deleted when body is closed or collected
+		File file = File.createTempFile(TEMP_FILE_PREFIX, ".tmp");
+
+		long length = head.length;
+		boolean written = false;
+		try {
+			OutputStream out = new FileOutputStream(file);
+			try {
+				out.write(head);
+				while (read >= 0) {
+					out.write(buffer, 0, read);
+					length += read;
+					read = in.read(buffer);
+				}
+			}
+			finally {
+				out.close();
+			}
+			written = true;
+		}
+		finally {
+			if (!written) {
+				file.delete();
+			}
+		}
+
+		return new ResponseBody(null, file, length, charset);
+	}
+
+	private static byte[] copyOf(byte[] array, int length) {
+		byte[] copy = new byte[length];
+		System.arraycopy(array, 0, copy, 0, length);
+		return copy;
+	}
+
+	/**
+	 * Spilled file tracked until it is deleted.
+	 * Files of bodies that have been garbage collected without being closed are deleted when another body is spilled,
+	 * remaining files are deleted at exit.
+	 */
+	private static final class SpilledFile extends PhantomReference<ResponseBody> {
+
+		private static final ReferenceQueue<ResponseBody> COLLECTED = new ReferenceQueue<ResponseBody>();
+
+		/** Files not deleted yet, also keeps references reachable until they are enqueued */
+		private static final Set<SpilledFile> PENDING = Collections.synchronizedSet(new HashSet<SpilledFile>());
+
+		static {
+			Runtime.getRuntime().addShutdownHook(new Thread("fest-rest-body-cleanup") {
+				@Override
+				public void run() {
+					List<SpilledFile> files;
+					synchronized (PENDING) {
+						files = new ArrayList<SpilledFile>(PENDING);
+					}
+					for (SpilledFile file : files) {
+						file.delete();
+					}
+				}
+			});
+		}
+
+		private final File file;
+
+		SpilledFile(ResponseBody body, File file) {
+			super(body, COLLECTED);
+			this.file = file;
+			PENDING.add(this);
+		}
+
+		static void deleteCollected() {
+			Reference<? extends ResponseBody> collected;
+			while ((collected = COLLECTED.poll()) != null) {
+				((SpilledFile) collected).delete();
+			}
+		}
+
+		void delete() {
+			if (PENDING.remove(this)) {
+				// May fail on platforms that do not delete mapped files: file is then left to the temporary directory
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Stream over a spilled body, mapping the file window by window.
+	 */
+	private static class MappedInputStream extends InputStream {
+
+		private final RandomAccessFile file;
+
+		private final FileChannel channel;
+
+		private final long length;
+
+		/** Position of next window to map */
+		private long position;
+
+		/** Current window, null before first read */
+		private MappedByteBuffer window;
+
+		MappedInputStream(File file, long length) throws IOException {
+			this.file = new RandomAccessFile(file, "r");
+			this.channel = this.file.getChannel();
+			this.length = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return nextWindow() ? window.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!nextWindow()) {
+				return -1;
+			}
+			int count = Math.min(len, window.remaining());
+			window.get(b, off, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = 0;
+			while (skipped < n && nextWindow()) {
+				int count = (int) Math.min(n - skipped, window.remaining());
+				window.position(window.position() + count);
+				skipped += count;
+			}
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return window == null ? 0 : window.remaining();
+		}
+
+		@Override
+		public void close() throws IOException {
+			window = null;
+			file.close();
+		}
+
+		private boolean nextWindow() throws IOException {
+			if (window != null && window.hasRemaining()) {
+				return true;
+			}
+			if (position >= length) {
+				return false;
+			}
+			long size = Math.min(MAP_WINDOW, length - position);
+			window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+			position += size;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,649 @@
+package org.fest.assertions.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks of responses, shared by {@code ResponseAssert} (which throws failures) and {@code ResponseSpec}
+ * (which collects them): static methods check a response against expected values, {@link Check} objects keep them.
+ */
+public final class ResponseChecks {
+
+	/** Content-Type is 'application/octet-stream' */
+	public static final Check OCTET_STREAM = new KnownMimeType(MimeType.OCTET_STREAM);
+
+	/** Content-Type is 'application/json' */
+	public static final Check JSON = new KnownMimeType(MimeType.JSON);
+
+	/** Content-Type is 'application/xml' or 'text/xml' */
+	public static final Check XML = new KnownMimeType(MimeType.XML, MimeType.TEXT_XML);
+
+	/** Content-Type is 'text/css' */
+	public static final Check CSS = new KnownMimeType(MimeType.CSS);
+
+	/** Content-Type is 'application/javascript' or 'text/javascript' */
+	public static final Check JAVASCRIPT = new KnownMimeType(MimeType.JAVASCRIPT, MimeType.TEXT_JAVASCRIPT);
+
+	/** Content-Type is 'text/plain' */
+	public static final Check TEXT_PLAIN = new KnownMimeType(MimeType.TEXT_PLAIN);
+
+	/** Content-Type is 'text/html' */
+	public static final Check HTML = new KnownMimeType(MimeType.HTML);
+
+	/** Content-Type is 'application/xhtml+xml' */
+	public static final Check XHTML = new KnownMimeType(MimeType.XHTML);
+
+	/** Content-Type is 'text/html' or 'application/xhtml+xml' */
+	public static final Check HTML_OR_XHTML = new KnownMimeType(MimeType.HTML, MimeType.XHTML);
+
+	/** Content-Type is 'application/pdf' */
+	public static final Check PDF = new KnownMimeType(MimeType.PDF);
+
+	/** Content-Type is 'text/csv' */
+	public static final Check CSV = new KnownMimeType(MimeType.CSV);
+
+	/** Content-Type is 'application/zip' */
+	public static final Check ZIP = new KnownMimeType(MimeType.ZIP);
+
+	/** Content-Type is 'application/x-shockwave-flash' or 'video/x-flv' */
+	public static final Check FLASH = new KnownMimeType(MimeType.SHOCKWAVE_FLASH, MimeType.FLV);
+
+	/** Content-Type is defined */
+	public static final Check CONTENT_TYPE = new KnownMimeType((MimeType[]) null);
+
+	/** Charset is defined in Content-Type */
+	public static final Check CHARSET = new Charset(null);
+
+	/** Charset defined in Content-Type is 'utf-8' (case insensitive) */
+	public static final Check UTF8 = new Charset("utf-8");
+
+	/** Body is not empty */
+	public static final Check BODY = new BodyCheck(false, null, null);
+
+	/** Body is empty */
+	public static final Check EMPTY_BODY = new BodyCheck(true, null, null);
+
+	private ResponseChecks() {
+	}
+
+	/**
+	 * Check of a response.
+	 */
+	public abstract static class Check {
+
+		Check() {
+		}
+
+		/**
+		 * Check a response.
+		 *
+		 * @param response Response, not null.
+		 * @return Failure, null if response satisfies check.
+		 */
+		public abstract String check(Response response);
+	}
+
+	/**
+	 * Status code is equal to expected value.
+	 *
+	 * @param expected Expected value.
+	 * @return Check.
+	 */
+	public static Check statusEqualTo(int expected) {
+		return new StatusEqualTo(expected, false);
+	}
+
+	/**
+	 * Status code is not equal to a value.
+	 *
+	 * @param expected Unexpected value.
+	 * @return Check.
+	 */
+	public static Check statusNotEqualTo(int expected) {
+		return new StatusEqualTo(expected, true);
+	}
+
+	/**
+	 * Status code is between expected values.
+	 *
+	 * @param start Start value (inclusive).
+	 * @param end End value (inclusive).
+	 * @return Check.
+	 */
+	public static Check statusBetween(int start, int end) {
+		return new StatusBetween(start, end, false);
+	}
+
+	/**
+	 * Status code is not between values.
+	 *
+	 * @param start Start value (inclusive).
+	 * @param end End value (inclusive).
+	 * @return Check.
+	 */
+	public static Check statusNotBetween(int start, int end) {
+		return new StatusBetween(start, end, true);
+	}
+
+	/**
+	 * Mime type is equal to a given value.
+	 *
+	 * @param expected Expected value.
+	 * @return Check.
+	 */
+	public static Check mimeTypeEqualTo(String expected) {
+		return new MimeTypeEqualTo(expected);
+	}
+
+	/**
+	 * Mime type is in a list of expected values.
+	 *
+	 * @param expecteds Expected values.
+	 * @return Check.
+	 */
+	public static Check mimeTypeIn(String... expecteds) {
+		return new MimeTypeIn(expecteds.clone());
+	}
+
+	/**
+	 * Mime type is one of well known mime types.
+	 *
+	 * @param expecteds Expected mime types.
+	 * @return Check.
+	 */
+	public static Check mimeTypeIn(MimeType... expecteds) {
+		return new KnownMimeType(expecteds.clone());
+	}
+
+	/**
+	 * Charset of Content-Type is equal to an expected value (case insensitive).
+	 *
+	 * @param expected Expected value.
+	 * @return Check.
+	 */
+	public static Check charsetEqualTo(String expected) {
+		return new Charset(expected);
+	}
+
+	/**
+	 * Header is defined and not blank.
+	 *
+	 * @param name Name of header.
+	 * @return Check.
+	 */
+	public static Check header(String name) {
+		return new Header(name, false, null);
+	}
+
+	/**
+	 * Header is equal to an expected value.
+	 *
+	 * @param name Name of header.
+	 * @param value Expected value.
+	 * @return Check.
+	 */
+	public static Check headerEqualTo(String name, String value) {
+		return new Header(name, true, value);
+	}
+
+	/**
+	 * Cookie is defined.
+	 *
+	 * @param name Cookie name.
+	 * @return Check.
+	 */
+	public static Check cookie(String name) {
+		return new CookieCheck(name, false, null);
+	}
+
+	/**
+	 * Cookie is defined and its value is equal to an expected value.
+	 *
+	 * @param name Cookie name.
+	 * @param value Expected value.
+	 * @return Check.
+	 */
+	public static Check cookieEqualTo(String name, String value) {
+		return new CookieCheck(name, true, value);
+	}
+
+	/**
+	 * Body contains a value, body is streamed.
+	 *
+	 * @param value Expected value.
+	 * @return Check.
+	 */
+	public static Check bodyContaining(String value) {
+		return new BodyCheck(false, value, null);
+	}
+
+	/**
+	 * Body is equal to an expected value, body is streamed.
+	 *
+	 * @param expected Expected value.
+	 * @return Check.
+	 */
+	public static Check bodyEqualTo(String expected) {
+		return new BodyCheck(false, null, expected);
+	}
+
+	/**
+	 * Response time has been measured and is not above a given duration.
+	 *
+	 * @param duration Maximum response time.
+	 * @param unit Unit of duration.
+	 * @return Check.
+	 */
+	public static Check respondsWithin(long duration, TimeUnit unit) {
+		return new ResponseTime(unit.toNanos(duration), true);
+	}
+
+	/**
+	 * Response time has been measured and is not below a given duration.
+	 *
+	 * @param duration Minimum response time.
+	 * @param unit Unit of duration.
+	 * @return Check.
+	 */
+	public static Check respondsAfter(long duration, TimeUnit unit) {
+		return new ResponseTime(unit.toNanos(duration), false);
+	}
+
+	/**
+	 * Check status code of a response.
+	 *
+	 * @param response Response, not null.
+	 * @param expected Expected value (or unexpected value if negate is true).
+	 * @param negate Check that status code is not equal to value.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkStatus(Response response, int expected, boolean negate) {
+		int statusCode = response.getStatusCode();
+		if (negate && statusCode == expected) {
+			return String.format("Expected status code not to be <%s>", expected);
+		}
+		if (!negate && statusCode != expected) {
+			return String.format("Expected status code to be <%s> but was <%s>", expected, statusCode);
+		}
+		return null;
+	}
+
+	/**
+	 * Check that status code of a response is between two values.
+	 *
+	 * @param response Response, not null.
+	 * @param start Start value (inclusive).
+	 * @param end End value (inclusive).
+	 * @param negate Check that status code is not between values.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkStatusBetween(Response response, int start, int end, boolean negate) {
+		int statusCode = response.getStatusCode();
+		boolean between = statusCode >= start && statusCode <= end;
+		if (between == negate) {
+			String not = negate ? "not " : "";
+			return String.format("Expected status code %sto be between <%s> and <%s> but was <%s>", not, start, end, statusCode);
+		}
+		return null;
+	}
+
+	/**
+	 * Check that mime type of a response is one of well known mime types.
+	 *
+	 * @param response Response, not null.
+	 * @param expecteds Expected mime types, null to only check that Content-Type is defined.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkMimeType(Response response, MimeType[] expecteds) {
+		MediaType mediaType = response.getMediaType();
+		if (mediaType == null) {
+			return "Expect Content-Type to be defined and not empty";
+		}
+		if (expecteds != null && !mediaType.is(expecteds)) {
+			String oneOf = expecteds.length > 1 ? "one of " : "";
+			return String.format("Expect Content-Type to be %s<%s> but was <%s>", oneOf, join(", ", expecteds), mediaType.getMimeType());
+		}
+		return null;
+	}
+
+	/**
+	 * Check that mime type of a response is equal to a given value.
+	 *
+	 * @param response Response, not null.
+	 * @param expected Expected value.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkMimeType(Response response, String expected) {
+		MediaType mediaType = response.getMediaType();
+		if (mediaType == null) {
+			return "Expect Content-Type to be defined and not empty";
+		}
+		String type = mediaType.getMimeType();
+		if (!type.equals(expected)) {
+			return String.format("Expect Content-Type to be <%s> but was <%s>", expected, type);
+		}
+		return null;
+	}
+
+	/**
+	 * Check that mime type of a response is in a list of expected values.
+	 *
+	 * @param response Response, not null.
+	 * @param expecteds Expected values.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkMimeTypeIn(Response response, String[] expecteds) {
+		MediaType mediaType = response.getMediaType();
+		if (mediaType == null) {
+			return "Expect Content-Type to be defined and not empty";
+		}
+		String type = mediaType.getMimeType();
+		for (String expected : expecteds) {
+			if (type.equals(expected)) {
+				return null;
+			}
+		}
+		return String.format("Expect Content-Type to be one of <%s> but was <%s>", join(", ", expecteds), type);
+	}
+
+	/**
+	 * Check charset of Content-Type of a response.
+	 *
+	 * @param response Response, not null.
+	 * @param expected Expected value (case insensitive), null to only check that charset is defined.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkCharset(Response response, String expected) {
+		MediaType mediaType = response.getMediaType();
+		if (mediaType == null) {
+			return "Expect Content-Type to be defined and not empty";
+		}
+		String charset = mediaType.getCharset();
+		if (charset == null) {
+			return "Expect charset to be defined in Content-Type value";
+		}
+		if (isBlank(charset)) {
+			return "Expect charset not to be empty in Content-Type value";
+		}
+		if (expected != null && !charset.equalsIgnoreCase(expected)) {
+			return String.format("Expect charset to be <%s> but was <%s>", expected, charset);
+		}
+		return null;
+	}
+
+	/**
+	 * Check header of a response.
+	 *
+	 * @param response Response, not null.
+	 * @param name Name of header.
+	 * @param checkValue Check value of header, otherwise only check that it is defined and not blank.
+	 * @param value Expected value.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkHeader(Response response, String name, boolean checkValue, String value) {
+		String current = response.getHeader(name);
+		if (isBlank(current)) {
+			return String.format("Expected header <%s> to be defined", name);
+		}
+		if (checkValue && !current.equals(value)) {
+			return String.format("Expected header <%s> to be <%s> but was <%s>", name, value, current);
+		}
+		return null;
+	}
+
+	/**
+	 * Check cookie of a response.
+	 *
+	 * @param response Response, not null.
+	 * @param name Cookie name.
+	 * @param checkValue Check value of cookie, otherwise only check that it is defined.
+	 * @param value Expected value.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkCookie(Response response, String name, boolean checkValue, String value) {
+		Cookie cookie = response.getCookie(name);
+		if (cookie == null) {
+			return String.format("Expected cookie <%s> to be defined", name);
+		}
+		String current = cookie.getValue();
+		if (checkValue && (current == null ? value != null : !current.equals(value))) {
+			return String.format("Expected cookie <%s> to be <%s> but was <%s>", name, value, current);
+		}
+		return null;
+	}
+
+	/**
+	 * Check body of a response, body is streamed.
+	 *
+	 * @param response Response, not null.
+	 * @param empty Check that body is empty.
+	 * @param containing Value that body must contain, null if not checked.
+	 * @param equalTo Expected body, null if not checked.
+	 * @return Failure, null if response satisfies check (body is not empty if no value is checked).
+	 */
+	public static String checkBody(Response response, boolean empty, String containing, String equalTo) {
+		ResponseBody body = response.getBody();
+		if (empty) {
+			return body.isEmpty() ? null : String.format("Expected body to be empty but contains <%s> bytes", body.length());
+		}
+		if (containing == null && equalTo == null) {
+			return body.isEmpty() ? "Expected body not to be empty" : null;
+		}
+
+		try {
+			if (containing != null) {
+				return body.contains(containing) ? null : String.format("Expected body to contain <%s>", containing);
+			}
+			long index = body.mismatch(equalTo);
+			return index < 0 ? null : String.format("Expected body to be <%s> but was different at character <%s>", equalTo, index);
+		}
+		catch (IOException ex) {
+			return String.format("Cannot read body from response: %s", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Check measured response time of a response.
+	 *
+	 * @param response Response, not null.
+	 * @param limitNanos Limit, in nanoseconds.
+	 * @param within Check that response time is not above limit, otherwise that it is not below limit.
+	 * @return Failure, null if response satisfies check.
+	 */
+	public static String checkResponseTime(Response response, long limitNanos, boolean within) {
+		long responseTime = response.getResponseTime(TimeUnit.NANOSECONDS);
+		if (responseTime < 0) {
+			return "Expected response time to be measured";
+		}
+		if (within && responseTime > limitNanos) {
+			return String.format("Expected response to be received within <%s> ms but took <%s> ms", millis(limitNanos), millis(responseTime));
+		}
+		if (!within && responseTime < limitNanos) {
+			return String.format("Expected response to be received after <%s> ms but took <%s> ms", millis(limitNanos), millis(responseTime));
+		}
+		return null;
+	}
+
+	private static String join(String on, Object[] values) {
+		StringBuilder result = new StringBuilder();
+		for (Object value : values) {
+			if (result.length() > 0) {
+				result.append(on);
+			}
+			result.append(value);
+		}
+		return result.toString();
+	}
+
+	private static boolean isBlank(String val) {
+		if (val != null) {
+			for (int i = 0, length = val.length(); i < length; i++) {
+				if (val.charAt(i) > ' ') {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Format duration in milliseconds, with up to three decimals.
+	 */
+	private static String millis(long nanos) {
+		BigDecimal value = BigDecimal.valueOf(nanos, 6).setScale(3, RoundingMode.HALF_UP);
+		return value.signum() == 0 ? "0" : value.stripTrailingZeros().toPlainString();
+	}
+
+	private static final class StatusEqualTo extends Check {
+		private final int expected;
+		private final boolean negate;
+
+		StatusEqualTo(int expected, boolean negate) {
+			this.expected = expected;
+			this.negate = negate;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkStatus(response, expected, negate);
+		}
+	}
+
+	private static final class StatusBetween extends Check {
+		private final int start;
+		private final int end;
+		private final boolean negate;
+
+		StatusBetween(int start, int end, boolean negate) {
+			this.start = start;
+			this.end = end;
+			this.negate = negate;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkStatusBetween(response, start, end, negate);
+		}
+	}
+
+	private static final class KnownMimeType extends Check {
+		private final MimeType[] expecteds;
+
+		KnownMimeType(MimeType... expecteds) {
+			this.expecteds = expecteds;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkMimeType(response, expecteds);
+		}
+	}
+
+	private static final class MimeTypeEqualTo extends Check {
+		private final String expected;
+
+		MimeTypeEqualTo(String expected) {
+			this.expected = expected;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkMimeType(response, expected);
+		}
+	}
+
+	private static final class MimeTypeIn extends Check {
+		private final String[] expecteds;
+
+		MimeTypeIn(String[] expecteds) {
+			this.expecteds = expecteds;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkMimeTypeIn(response, expecteds);
+		}
+	}
+
+	private static final class Charset extends Check {
+		private final String expected;
+
+		Charset(String expected) {
+			this.expected = expected;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkCharset(response, expected);
+		}
+	}
+
+	private static final class Header extends Check {
+		private final String name;
+		private final boolean checkValue;
+		private final String value;
+
+		Header(String name, boolean checkValue, String value) {
+			this.name = name;
+			this.checkValue = checkValue;
+			this.value = value;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkHeader(response, name, checkValue, value);
+		}
+	}
+
+	private static final class CookieCheck extends Check {
+		private final String name;
+		private final boolean checkValue;
+		private final String value;
+
+		CookieCheck(String name, boolean checkValue, String value) {
+			this.name = name;
+			this.checkValue = checkValue;
+			this.value = value;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkCookie(response, name, checkValue, value);
+		}
+	}
+
+	private static final class BodyCheck extends Check {
+		private final boolean empty;
+		private final String containing;
+		private final String equalTo;
+
+		BodyCheck(boolean empty, String containing, String equalTo) {
+			this.empty = empty;
+			this.containing = containing;
+			this.equalTo = equalTo;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkBody(response, empty, containing, equalTo);
+		}
+	}
+
+	private static final class ResponseTime extends Check {
+		/** Limit, in nanoseconds */
+		private final long limit;
+		private final boolean within;
+
+		ResponseTime(long limit, boolean within) {
+			this.limit = limit;
+			this.within = within;
+		}
+
+		@Override
+		public String check(Response response) {
+			return checkResponseTime(response, limit, within);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package org.fest.assertions.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies of responses: time to first byte and complete response time, each recorded in a {@link LatencyHistogram}.
+ * Latencies are recorded from responses whose timing has been measured (such as responses received with
+ * {@code REST.given()}), or directly when they are measured by the caller.
+ * Requests that fail or time out are counted, and their elapsed time is recorded as response time, so that
+ * percentiles are not computed from successful responses only.
+ * Recording is lock free and does not allocate: it can be done from any number of threads.
+ */
+public final class ResponseLatencies {
+
+	private final LatencyHistogram responseTime;
+
+	private final LatencyHistogram timeToFirstByte;
+
+	/** Number of requests that failed or timed out */
+	private final AtomicLong failures;
+
+	public ResponseLatencies() {
+		this(new LatencyHistogram(), new LatencyHistogram(), 0);
+	}
+
+	private ResponseLatencies(LatencyHistogram responseTime, LatencyHistogram timeToFirstByte, long failures) {
+		this.responseTime = responseTime;
+		this.timeToFirstByte = timeToFirstByte;
+		this.failures = new AtomicLong(failures);
+	}
+
+	/**
+	 * Record timing of a response.
+	 * Times that have not been measured are ignored.
+	 *
+	 * @param response Response.
+	 */
+	public void record(Response response) {
+		recordNanos(response.getTimeToFirstByte(TimeUnit.NANOSECONDS), response.getResponseTime(TimeUnit.NANOSECONDS));
+	}
+
+	/**
+	 * Record timing of a response.
+	 *
+	 * @param timeToFirstByteNanos Time elapsed between sending request and receiving first byte of response, in nanoseconds, negative if it is not known.
+	 * @param responseTimeNanos Time elapsed between sending request and receiving complete response, in nanoseconds, negative if it is not known.
+	 */
+	public void recordNanos(long timeToFirstByteNanos, long responseTimeNanos) {
+		timeToFirstByte.recordNanos(timeToFirstByteNanos);
+		responseTime.recordNanos(responseTimeNanos);
+	}
+
+	/**
+	 * Record a request that failed or timed out: it is counted as a failure, and the time elapsed until failure
+	 * (at least timeout for requests that timed out) is recorded as its response time.
+	 *
+	 * @param timeToFirstByteNanos Time elapsed between sending request and receiving first byte of response, in nanoseconds, negative if no byte was received.
+	 * @param elapsedNanos Time elapsed between sending request and failure, in nanoseconds.
+	 */
+	public void recordFailureNanos(long timeToFirstByteNanos, long elapsedNanos) {
+		failures.incrementAndGet();
+		recordNanos(timeToFirstByteNanos, elapsedNanos);
+	}
+
+	/**
+	 * Get number of requests that failed or timed out.
+	 *
+	 * @return Number of failures.
+	 */
+	public long getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * Add all latencies recorded by another object (for example, latencies of another run).
+	 *
+	 * @param other Latencies.
+	 */
+	public void add(ResponseLatencies other) {
+		responseTime.add(other.responseTime);
+		timeToFirstByte.add(other.timeToFirstByte);
+		failures.addAndGet(other.failures.get());
+	}
+
+	/**
+	 * Get histogram of complete response times.
+	 *
+	 * @return Histogram.
+	 */
+	public LatencyHistogram getResponseTime() {
+		return responseTime;
+	}
+
+	/**
+	 * Get histogram of times to first byte.
+	 *
+	 * @return Histogram.
+	 */
+	public LatencyHistogram getTimeToFirstByte() {
+		return timeToFirstByte;
+	}
+
+	/**
+	 * Save latencies.
+	 *
+	 * @param output Output.
+	 * @throws IOException If latencies cannot be written.
+	 */
+	public void writeTo(DataOutput output) throws IOException {
+		responseTime.writeTo(output);
+		timeToFirstByte.writeTo(output);
+		output.writeLong(failures.get());
+	}
+
+	/**
+	 * Read latencies saved with {@link #writeTo(DataOutput)}.
+	 *
+	 * @param input Input.
+	 * @return Latencies.
+	 * @throws IOException If latencies cannot be read.
+	 */
+	public static ResponseLatencies readFrom(DataInput input) throws IOException {
+		LatencyHistogram responseTime = LatencyHistogram.readFrom(input);
+		LatencyHistogram timeToFirstByte = LatencyHistogram.readFrom(input);
+		long failures = input.readLong();
+		return new ResponseLatencies(responseTime, timeToFirstByte, failures);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ResponseLatencies{responseTime=%s, timeToFirstByte=%s, failures=%s}", responseTime, timeToFirstByte, failures.get());
+	}
+}
@@ -0,0 +1,290 @@
+package org.fest.assertions.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts of a population of responses, recorded from many threads without storing responses:
+ * status classes, mime types, presence of tracked headers and tracked conditions.
+ *
+ * <pre>
+ * ResponsePopulation population = new ResponsePopulation()
+ *     .trackHeader("ETag")
+ *     .track("json", ResponseSpec.response().isJson(), ResponseSpec.response().isOk());
+ *
+ * population.record(response);  // From any thread
+ * </pre>
+ *
+ * Headers and conditions are tracked before first response is recorded.
+ * Counters are striped (see {@link StripedCounters}), so recording scales with the number of threads.
+ */
+public final class ResponsePopulation {
+
+	/** Counter of all responses */
+	private static final int TOTAL = 0;
+
+	/** First counter of status classes: 1xx to 5xx, then other status codes */
+	private static final int STATUS_CLASSES = 1;
+
+	/** First counter of well known mime types, by ordinal, then other mime types, then missing Content-Type */
+	private static final int MIME_TYPES = STATUS_CLASSES + 6;
+
+	private static final MimeType[] KNOWN_TYPES = MimeType.values();
+
+	private static final int OTHER_MIME_TYPE = MIME_TYPES + KNOWN_TYPES.length;
+
+	private static final int MISSING_CONTENT_TYPE = OTHER_MIME_TYPE + 1;
+
+	/** First counter of tracked headers */
+	private static final int HEADERS = MISSING_CONTENT_TYPE + 1;
+
+	/** Names of tracked headers, in tracking order */
+	private final List<String> headers = new ArrayList<String>();
+
+	/** Tracked conditions, indexed by name */
+	private final Map<String, Condition> conditions = new LinkedHashMap<String, Condition>();
+
+	/** Counters, with tracked headers and conditions, created when first response is recorded */
+	private volatile Recording recording;
+
+	/**
+	 * Count responses with a header.
+	 *
+	 * @param name Header name (case insensitive).
+	 * @return {@code this} the population.
+	 * @throws IllegalStateException If a response has already been recorded.
+	 */
+	public synchronized ResponsePopulation trackHeader(String name) {
+		checkNotRecording();
+		if (!headers.contains(name.toLowerCase())) {
+			headers.add(name.toLowerCase());
+		}
+		return this;
+	}
+
+	/**
+	 * Count responses satisfying a condition.
+	 *
+	 * @param name Name of condition.
+	 * @param condition Condition.
+	 * @return {@code this} the population.
+	 * @throws IllegalStateException If a response has already been recorded.
+	 */
+	public ResponsePopulation track(String name, ResponsePredicate condition) {
+		return track(name, condition, null);
+	}
+
+	/**
+	 * Count responses satisfying a condition among responses satisfying another one
+	 * (such as json responses among responses with a 200 status code).
+	 *
+	 * @param name Name of condition.
+	 * @param condition Condition.
+	 * @param among Condition selecting counted responses, null to count all responses.
+	 * @return {@code this} the population.
+	 * @throws IllegalStateException If a response has already been recorded.
+	 */
+	public synchronized ResponsePopulation track(String name, ResponsePredicate condition, ResponsePredicate among) {
+		checkNotRecording();
+		if (conditions.containsKey(name)) {
+			throw new IllegalArgumentException(String.format("Condition %s is already tracked", name));
+		}
+		conditions.put(name, new Condition(condition, among));
+		return this;
+	}
+
+	/**
+	 * Record a response.
+	 * This method is thread safe.
+	 *
+	 * @param response Response.
+	 */
+	public void record(Response response) {
+		Recording r = recording();
+		StripedCounters c = r.counters;
+		c.increment(TOTAL);
+
+		int statusClass = response.getStatusCode() / 100;
+		c.increment(STATUS_CLASSES + (statusClass >= 1 && statusClass <= 5 ? statusClass - 1 : 5));
+
+		MediaType mediaType = response.getMediaType();
+		if (mediaType == null) {
+			c.increment(MISSING_CONTENT_TYPE);
+		}
+		else {
+			MimeType knownType = mediaType.getKnownType();
+			c.increment(knownType == null ? OTHER_MIME_TYPE : MIME_TYPES + knownType.ordinal());
+		}
+
+		int counter = HEADERS;
+		for (String header : r.headers) {
+			String value = response.getHeader(header);
+			if (value != null && value.trim().length() > 0) {
+				c.increment(counter);
+			}
+			counter++;
+		}
+		for (Condition condition : r.conditions) {
+			if (condition.among == null || condition.among.matches(response)) {
+				c.increment(counter);
+				if (condition.condition.matches(response)) {
+					c.increment(counter + 1);
+				}
+			}
+			counter += 2;
+		}
+	}
+
+	/**
+	 * Get number of recorded responses.
+	 *
+	 * @return Number of responses.
+	 */
+	public long getCount() {
+		return sum(TOTAL);
+	}
+
+	/**
+	 * Get number of recorded responses with a status code in a class (such as 2 for 2xx).
+	 *
+	 * @param statusClass Status class, between 1 and 5.
+	 * @return Number of responses.
+	 */
+	public long getStatusClassCount(int statusClass) {
+		if (statusClass < 1 || statusClass > 5) {
+			throw new IllegalArgumentException(String.format("Status class must be between <1> and <5> but was <%s>", statusClass));
+		}
+		return sum(STATUS_CLASSES + statusClass - 1);
+	}
+
+	/**
+	 * Get number of recorded responses with a well known mime type.
+	 *
+	 * @param mimeType Mime type.
+	 * @return Number of responses.
+	 */
+	public long getMimeTypeCount(MimeType mimeType) {
+		return sum(MIME_TYPES + mimeType.ordinal());
+	}
+
+	/**
+	 * Get number of recorded responses without Content-Type header.
+	 *
+	 * @return Number of responses.
+	 */
+	public long getMissingContentTypeCount() {
+		return sum(MISSING_CONTENT_TYPE);
+	}
+
+	/**
+	 * Get number of recorded responses with a tracked header.
+	 *
+	 * @param name Header name (case insensitive).
+	 * @return Number of responses.
+	 * @throws IllegalArgumentException If header is not tracked.
+	 */
+	public synchronized long getHeaderCount(String name) {
+		int index = headers.indexOf(name.toLowerCase());
+		if (index < 0) {
+			throw new IllegalArgumentException(String.format("Header %s is not tracked", name));
+		}
+		return sum(HEADERS + index);
+	}
+
+	/**
+	 * Get number of recorded responses counted by a tracked condition: all responses, or responses
+	 * satisfying its {@code among} condition.
+	 *
+	 * @param name Name of condition.
+	 * @return Number of responses.
+	 * @throws IllegalArgumentException If condition is not tracked.
+	 */
+	public long getConditionPopulation(String name) {
+		return sum(conditionCounter(name));
+	}
+
+	/**
+	 * Get number of recorded responses satisfying a tracked condition.
+	 *
+	 * @param name Name of condition.
+	 * @return Number of responses.
+	 * @throws IllegalArgumentException If condition is not tracked.
+	 */
+	public long getConditionCount(String name) {
+		return sum(conditionCounter(name) + 1);
+	}
+
+	/**
+	 * Get names of tracked conditions.
+	 *
+	 * @return Names, in tracking order.
+	 */
+	public synchronized List<String> getConditions() {
+		return Collections.unmodifiableList(new ArrayList<String>(conditions.keySet()));
+	}
+
+	private synchronized int conditionCounter(String name) {
+		int counter = HEADERS + headers.size();
+		for (String condition : conditions.keySet()) {
+			if (condition.equals(name)) {
+				return counter;
+			}
+			counter += 2;
+		}
+		throw new IllegalArgumentException(String.format("Condition %s is not tracked", name));
+	}
+
+	private long sum(int counter) {
+		Recording r = recording;
+		return r == null ? 0 : r.counters.sum(counter);
+	}
+
+	private Recording recording() {
+		Recording r = recording;
+		if (r == null) {
+			synchronized (this) {
+				r = recording;
+				if (r == null) {
+					r = new Recording(headers, conditions.values());
+					recording = r;
+				}
+			}
+		}
+		return r;
+	}
+
+	private void checkNotRecording() {
+		if (recording != null) {
+			throw new IllegalStateException("Headers and conditions must be tracked before responses are recorded");
+		}
+	}
+
+	/**
+	 * Frozen tracking: arrays are iterated without allocation when responses are recorded.
+	 */
+	private static final class Recording {
+		private final String[] headers;
+		private final Condition[] conditions;
+		private final StripedCounters counters;
+
+		private Recording(List<String> headers, Collection<Condition> conditions) {
+			this.headers = headers.toArray(new String[headers.size()]);
+			this.conditions = conditions.toArray(new Condition[conditions.size()]);
+			this.counters = new StripedCounters(HEADERS + this.headers.length + this.conditions.length * 2);
+		}
+	}
+
+	private static final class Condition {
+		private final ResponsePredicate condition;
+		private final ResponsePredicate among;
+
+		private Condition(ResponsePredicate condition, ResponsePredicate among) {
+			this.condition = condition;
+			this.among = among;
+		}
+	}
+}
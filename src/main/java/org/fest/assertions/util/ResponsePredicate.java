@@ -0,0 +1,16 @@
+package org.fest.assertions.util;
+
+/**
+ * Condition evaluated against responses, without throwing.
+ * Implementations are expected to be immutable.
+ */
+public interface ResponsePredicate {
+
+	/**
+	 * Check if a response satisfies this condition.
+	 *
+	 * @param response Response.
+	 * @return True if response satisfies condition.
+	 */
+	boolean matches(Response response);
+}
@@ -0,0 +1,248 @@
+package org.fest.assertions.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append responses (status, headers, cookies, body and response time) to a {@link ResponseArchive} file.
+ * Each record is written in one call, with its length first: if the JVM dies while writing, the incomplete
+ * record is ignored by readers and removed when the archive is opened again for recording.
+ * This class is not thread safe.
+ */
+public final class ResponseRecorder implements Closeable {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final DataOutputStream out;
+
+	/** Record being encoded, reused between records */
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream(4096);
+
+	private final DataOutputStream recordOut = new DataOutputStream(record);
+
+	private int size;
+
+	private ResponseRecorder(DataOutputStream out, int size) {
+		this.out = out;
+		this.size = size;
+	}
+
+	/**
+	 * Open archive for recording: archive is created if it does not exist, new records are appended otherwise.
+	 *
+	 * @param file Archive file.
+	 * @return Recorder.
+	 * @throws IOException If file is not a valid archive or cannot be opened.
+	 */
+	public static ResponseRecorder open(File file) throws IOException {
+		int size = 0;
+		if (file.length() == 0) {
+			DataOutputStream header = new DataOutputStream(new FileOutputStream(file));
+			try {
+				header.writeInt(ResponseArchive.MAGIC);
+				header.writeInt(ResponseArchive.VERSION);
+			}
+			finally {
+				header.close();
+			}
+		}
+		else {
+			Scan scan = scan(file);
+			size = scan.count;
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				// Drop incomplete record
+				raf.setLength(scan.end);
+			}
+			finally {
+				raf.close();
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024));
+		return new ResponseRecorder(out, size);
+	}
+
+	/**
+	 * Append response to archive.
+	 *
+	 * @param response Response.
+	 * @return Same response, so that it can be checked after being recorded.
+	 * @throws IOException If response cannot be read or written.
+	 */
+	public Response record(Response response) throws IOException {
+		record.reset();
+		DataOutputStream data = recordOut;
+
+		// Placeholders of section offsets are written once sections are known
+		data.writeInt(response.getStatusCode());
+		data.writeLong(response.getResponseTime(TimeUnit.NANOSECONDS));
+		data.writeLong(response.getTimeToFirstByte(TimeUnit.NANOSECONDS));
+		data.writeInt(0);
+		data.writeInt(0);
+		data.writeInt(0);
+		writeString(data, response.getContentType());
+
+		int headersOffset = record.size();
+		Map<String, String> headers = response.getHeaders();
+		int count = 0;
+		for (String name : headers.keySet()) {
+			count += response.getHeaderValues(name).size();
+		}
+		data.writeInt(count);
+		for (String name : headers.keySet()) {
+			List<String> values = response.getHeaderValues(name);
+			for (int i = 0, length = values.size(); i < length; i++) {
+				writeString(data, name);
+				writeString(data, values.get(i));
+			}
+		}
+
+		int cookiesOffset = record.size();
+		List<Cookie> cookies = response.getCookies();
+		data.writeInt(cookies.size());
+		for (Cookie cookie : cookies) {
+			writeString(data, cookie.getName());
+			writeString(data, cookie.getValue());
+			writeString(data, cookie.getDomain());
+			writeString(data, cookie.getPath());
+			if (cookie.isExpiryFromMaxAge()) {
+				data.writeByte(ResponseArchive.MAX_AGE);
+				data.writeLong(cookie.getMaxAge());
+			}
+			else {
+				Date expiryDate = cookie.getExpiryDate();
+				data.writeByte(ResponseArchive.EXPIRY_DATE);
+				data.writeLong(expiryDate == null ? -1 : expiryDate.getTime());
+			}
+			data.writeBoolean(cookie.isSecure());
+			data.writeBoolean(cookie.isHttpOnly());
+		}
+
+		int bodyOffset = record.size();
+		byte[] body = response.getBody().getBytes();
+		data.writeInt(body.length);
+		data.write(body);
+		data.flush();
+
+		byte[] bytes = record.toByteArray();
+		writeInt(bytes, ResponseArchive.HEADERS_OFFSET, headersOffset);
+		writeInt(bytes, ResponseArchive.COOKIES_OFFSET, cookiesOffset);
+		writeInt(bytes, ResponseArchive.BODY_OFFSET, bodyOffset);
+
+		out.writeInt(bytes.length);
+		out.write(bytes);
+		size++;
+		return response;
+	}
+
+	/**
+	 * Get number of records of archive, including records written before archive was opened.
+	 *
+	 * @return Number of records.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Write buffered records to file.
+	 *
+	 * @throws IOException If records cannot be written.
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	private static void writeString(DataOutputStream data, String value) throws IOException {
+		if (value == null) {
+			data.writeInt(-1);
+		}
+		else {
+			byte[] bytes = value.getBytes(UTF_8);
+			data.writeInt(bytes.length);
+			data.write(bytes);
+		}
+	}
+
+	private static void writeInt(byte[] bytes, int index, int value) {
+		bytes[index] = (byte) (value >>> 24);
+		bytes[index + 1] = (byte) (value >>> 16);
+		bytes[index + 2] = (byte) (value >>> 8);
+		bytes[index + 3] = (byte) value;
+	}
+
+	/**
+	 * Count complete records of an archive.
+	 *
+	 * @param file Archive file.
+	 * @return Number of complete records, and end of last one.
+	 * @throws IOException If file is not a valid archive.
+	 */
+	private static Scan scan(File file) throws IOException {
+		long length = file.length();
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+		try {
+			ResponseArchive.checkHeader(in.readInt(), in.readInt());
+			long offset = ResponseArchive.HEADER_SIZE;
+			int count = 0;
+			while (offset + 4 <= length) {
+				int recordLength = in.readInt();
+				if (recordLength < 0 || offset + 4 + recordLength > length) {
+					break;
+				}
+				skipFully(in, recordLength);
+				offset += 4 + recordLength;
+				count++;
+			}
+			return new Scan(count, offset);
+		}
+		catch (EOFException ex) {
+			throw new IOException("File " + file + " is not a response archive");
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static void skipFully(DataInputStream in, int length) throws IOException {
+		int skipped = 0;
+		while (skipped < length) {
+			int n = in.skipBytes(length - skipped);
+			if (n <= 0) {
+				throw new EOFException();
+			}
+			skipped += n;
+		}
+	}
+
+	private static class Scan {
+		private final int count;
+		private final long end;
+
+		Scan(int count, long end) {
+			this.count = count;
+			this.end = end;
+		}
+	}
+}
@@ -0,0 +1,349 @@
+package org.fest.assertions.util;
+
+import java.util.Date;
+
+/**
+ * Parser of Set-Cookie header values, following the user agent algorithm
+ * of RFC 6265 (section 5.2).
+ * Header values are read in place: the only objects created are the
+ * strings of the resulting cookie.
+ */
+public class SetCookieParser {
+
+	private static final String[] MONTHS = {
+			"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+	};
+
+	private SetCookieParser() {
+	}
+
+	/**
+	 * Parse value of a Set-Cookie header.
+	 *
+	 * @param header Header value.
+	 * @return Cookie, null if header does not define a valid cookie.
+	 */
+	public static Cookie parse(CharSequence header) {
+		return parse(header, 0, header.length());
+	}
+
+	/**
+	 * Parse value of a Set-Cookie header stored in a slice of a larger sequence.
+	 * Domain and path are null when they are not defined by header: they
+	 * depend on the request that received the cookie.
+	 *
+	 * @param header Sequence containing header value.
+	 * @param start Index of first character of header value (inclusive).
+	 * @param end Index of last character of header value (exclusive).
+	 * @return Cookie, null if header does not define a valid cookie.
+	 */
+	public static Cookie parse(CharSequence header, int start, int end) {
+		int pairEnd = indexOf(header, ';', start, end);
+		int eq = indexOf(header, '=', start, pairEnd);
+		if (eq == pairEnd) {
+			return null;
+		}
+
+		int nameStart = trimStart(header, start, eq);
+		int nameEnd = trimEnd(header, nameStart, eq);
+		if (nameStart == nameEnd) {
+			return null;
+		}
+
+		int valueStart = trimStart(header, eq + 1, pairEnd);
+		int valueEnd = trimEnd(header, valueStart, pairEnd);
+
+		String domain = null;
+		String path = null;
+		boolean secure = false;
+		boolean httpOnly = false;
+		boolean hasMaxAge = false;
+		long maxAge = -1;
+		long expires = Long.MIN_VALUE;
+
+		int i = pairEnd;
+		while (i < end) {
+			int avStart = i + 1;
+			int avEnd = indexOf(header, ';', avStart, end);
+			i = avEnd;
+
+			int avEq = indexOf(header, '=', avStart, avEnd);
+			int attrStart = trimStart(header, avStart, avEq);
+			int attrEnd = trimEnd(header, attrStart, avEq);
+			int attrValueStart = avEq == avEnd ? avEnd : trimStart(header, avEq + 1, avEnd);
+			int attrValueEnd = trimEnd(header, attrValueStart, avEnd);
+
+			if (regionMatches(header, attrStart, attrEnd, "expires")) {
+				long time = parseDate(header, attrValueStart, attrValueEnd);
+				if (time != Long.MIN_VALUE) {
+					expires = time;
+				}
+			}
+			else if (regionMatches(header, attrStart, attrEnd, "max-age")) {
+				long delta = parseMaxAge(header, attrValueStart, attrValueEnd);
+				if (delta != Long.MIN_VALUE) {
+					hasMaxAge = true;
+					maxAge = delta <= 0 ? 0 : delta;
+				}
+			}
+			else if (regionMatches(header, attrStart, attrEnd, "domain")) {
+				if (attrValueStart < attrValueEnd) {
+					int domainStart = header.charAt(attrValueStart) == '.' ? attrValueStart + 1 : attrValueStart;
+					domain = header.subSequence(domainStart, attrValueEnd).toString().toLowerCase();
+				}
+			}
+			else if (regionMatches(header, attrStart, attrEnd, "path")) {
+				if (attrValueStart < attrValueEnd && header.charAt(attrValueStart) == '/') {
+					path = header.subSequence(attrValueStart, attrValueEnd).toString();
+				}
+			}
+			else if (regionMatches(header, attrStart, attrEnd, "secure")) {
+				secure = true;
+			}
+			else if (regionMatches(header, attrStart, attrEnd, "httponly")) {
+				httpOnly = true;
+			}
+		}
+
+		String name = header.subSequence(nameStart, nameEnd).toString();
+		String value = header.subSequence(valueStart, valueEnd).toString();
+
+		// Max-Age attribute has precedence over Expires attribute
+		if (hasMaxAge) {
+			int seconds = maxAge > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) maxAge;
+			return new Cookie(name, value, domain, path, seconds, secure, httpOnly);
+		}
+		if (expires != Long.MIN_VALUE) {
+			return new Cookie(name, value, domain, path, new Date(expires), secure, httpOnly);
+		}
+		return new Cookie(name, value, domain, path, -1, secure, httpOnly);
+	}
+
+	/**
+	 * Parse value of Max-Age attribute.
+	 *
+	 * @return Number of seconds, {@link Long#MIN_VALUE} if value is not valid.
+	 */
+	private static long parseMaxAge(CharSequence s, int start, int end) {
+		if (start == end) {
+			return Long.MIN_VALUE;
+		}
+
+		boolean negative = s.charAt(start) == '-';
+		int i = negative ? start + 1 : start;
+		if (i == end) {
+			return Long.MIN_VALUE;
+		}
+
+		long delta = 0;
+		for (; i < end; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				return Long.MIN_VALUE;
+			}
+			if (delta < Integer.MAX_VALUE) {
+				delta = delta * 10 + (c - '0');
+			}
+		}
+		return negative ? -delta : delta;
+	}
+
+	/**
+	 * Parse a cookie date (RFC 6265, section 5.1.1).
+	 *
+	 * @param s Sequence containing date.
+	 * @param start Index of first character (inclusive).
+	 * @param end Index of last character (exclusive).
+	 * @return Number of milliseconds since epoch, {@link Long#MIN_VALUE} if date is not valid.
+	 */
+	static long parseDate(CharSequence s, int start, int end) {
+		int hour = -1;
+		int minute = -1;
+		int second = -1;
+		int day = -1;
+		int month = -1;
+		int year = -1;
+
+		int i = start;
+		while (i < end) {
+			// Skip delimiters
+			while (i < end && isDelimiter(s.charAt(i))) {
+				i++;
+			}
+			int tokenStart = i;
+			while (i < end && !isDelimiter(s.charAt(i))) {
+				i++;
+			}
+			int tokenEnd = i;
+			if (tokenStart == tokenEnd) {
+				break;
+			}
+
+			if (hour < 0 && parseTime(s, tokenStart, tokenEnd)) {
+				int h = tokenStart;
+				int hEnd = digitsEnd(s, h, tokenEnd);
+				int m = hEnd + 1;
+				int mEnd = digitsEnd(s, m, tokenEnd);
+				int sec = mEnd + 1;
+				hour = parseInt(s, h, hEnd);
+				minute = parseInt(s, m, mEnd);
+				second = parseInt(s, sec, digitsEnd(s, sec, tokenEnd));
+				continue;
+			}
+
+			int digits = digitsEnd(s, tokenStart, tokenEnd) - tokenStart;
+			if (day < 0 && digits >= 1 && digits <= 2) {
+				day = parseInt(s, tokenStart, tokenStart + digits);
+				continue;
+			}
+
+			if (month < 0 && tokenEnd - tokenStart >= 3) {
+				int found = parseMonth(s, tokenStart);
+				if (found >= 0) {
+					month = found;
+					continue;
+				}
+			}
+
+			if (year < 0 && digits >= 2 && digits <= 4) {
+				year = parseInt(s, tokenStart, tokenStart + digits);
+			}
+		}
+
+		if (year >= 70 && year <= 99) {
+			year += 1900;
+		}
+		else if (year >= 0 && year <= 69) {
+			year += 2000;
+		}
+
+		if (hour < 0 || day < 0 || month < 0 || year < 0) {
+			return Long.MIN_VALUE;
+		}
+		if (day < 1 || day > 31 || year < 1601 || hour > 23 || minute > 59 || second > 59) {
+			return Long.MIN_VALUE;
+		}
+
+		long days = daysFromCivil(year, month + 1, day);
+		return ((days * 24 + hour) * 60 + minute) * 60000L + second * 1000L;
+	}
+
+	/**
+	 * Check if token is a time: 1*2DIGIT ":" 1*2DIGIT ":" 1*2DIGIT ( non-digit *OCTET ).
+	 */
+	private static boolean parseTime(CharSequence s, int start, int end) {
+		int i = start;
+		for (int part = 0; part < 3; part++) {
+			int digitsEnd = digitsEnd(s, i, end);
+			int digits = digitsEnd - i;
+			if (digits < 1 || digits > 2) {
+				return false;
+			}
+			i = digitsEnd;
+			if (part < 2) {
+				if (i >= end || s.charAt(i) != ':') {
+					return false;
+				}
+				i++;
+			}
+		}
+		return true;
+	}
+
+	private static int parseMonth(CharSequence s, int start) {
+		for (int m = 0; m < MONTHS.length; m++) {
+			String month = MONTHS[m];
+			if (toLowerCase(s.charAt(start)) == month.charAt(0)
+					&& toLowerCase(s.charAt(start + 1)) == month.charAt(1)
+					&& toLowerCase(s.charAt(start + 2)) == month.charAt(2)) {
+				return m;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Number of days since 1970-01-01 of a date of the proleptic gregorian calendar.
+	 */
+	private static long daysFromCivil(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = (y >= 0 ? y : y - 399) / 400;
+		int yoe = y - era * 400;
+		int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097L + doe - 719468L;
+	}
+
+	private static boolean isDelimiter(char c) {
+		return c == 0x09
+				|| (c >= 0x20 && c <= 0x2F)
+				|| (c >= 0x3B && c <= 0x40)
+				|| (c >= 0x5B && c <= 0x60)
+				|| (c >= 0x7B && c <= 0x7E);
+	}
+
+	private static int digitsEnd(CharSequence s, int start, int end) {
+		int i = start;
+		while (i < end && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+			i++;
+		}
+		return i;
+	}
+
+	private static int parseInt(CharSequence s, int start, int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			value = value * 10 + (s.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	private static int indexOf(CharSequence s, char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (s.charAt(i) == c) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	private static int trimStart(CharSequence s, int start, int end) {
+		int i = start;
+		while (i < end && isWhitespace(s.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int trimEnd(CharSequence s, int start, int end) {
+		int i = end;
+		while (i > start && isWhitespace(s.charAt(i - 1))) {
+			i--;
+		}
+		return i;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t';
+	}
+
+	/**
+	 * Compare a slice of a sequence to a lower case attribute name, ignoring case.
+	 */
+	private static boolean regionMatches(CharSequence s, int start, int end, String lowerCaseName) {
+		int length = lowerCaseName.length();
+		if (end - start != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (toLowerCase(s.charAt(start + i)) != lowerCaseName.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toLowerCase(char c) {
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+}
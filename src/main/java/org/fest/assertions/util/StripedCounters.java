@@ -0,0 +1,150 @@
+package org.fest.assertions.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed set of counters updated by many threads, in the manner of {@code LongAdder} (which is not available in Java 6).
+ * Counters are striped: each thread adds to the cells of its stripe, and moves to another stripe when an update
+ * is contended. Cells of a stripe are contiguous, so a thread updating several counters touches the same cache lines,
+ * and stripes are padded so that they never share a cache line.
+ * Updates are lock free and do not allocate; sums are computed when they are read, and are not atomic snapshots
+ * while counters are updated.
+ */
+public final class StripedCounters {
+
+	/** Longs added after cells of a stripe: 16 longs (128 bytes) cover adjacent cache line prefetch */
+	private static final int PADDING = 16;
+
+	/** Maximum number of stripes */
+	private static final int MAX_STRIPES = 64;
+
+	/** Number of stripes: power of two, at least twice the number of processors */
+	private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+	/** Stripe of each thread, changed when an update is contended */
+	private static final ThreadLocal<int[]> PROBE = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[]{mix(Thread.currentThread().getId())};
+		}
+	};
+
+	/** Number of counters */
+	private final int size;
+
+	/** Number of longs of a stripe */
+	private final int stride;
+
+	/** Cells, stripe after stripe */
+	private final AtomicLongArray cells;
+
+	/**
+	 * Create counters, all equal to zero.
+	 *
+	 * @param size Number of counters.
+	 */
+	public StripedCounters(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Number of counters must be positive");
+		}
+		this.size = size;
+		this.stride = size + PADDING;
+		this.cells = new AtomicLongArray(STRIPES * stride + PADDING);
+	}
+
+	/**
+	 * Get number of counters.
+	 *
+	 * @return Number of counters.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Add one to a counter.
+	 *
+	 * @param counter Index of counter.
+	 */
+	public void increment(int counter) {
+		add(counter, 1);
+	}
+
+	/**
+	 * Add a value to a counter.
+	 *
+	 * @param counter Index of counter.
+	 * @param value Value to add.
+	 */
+	public void add(int counter, long value) {
+		if (counter < 0 || counter >= size) {
+			throw new IndexOutOfBoundsException(String.format("Counter <%s> is not between <0> and <%s>", counter, size - 1));
+		}
+
+		int[] probe = PROBE.get();
+		int index = offset(probe[0]) + counter;
+		long current = cells.get(index);
+		if (!cells.compareAndSet(index, current, current + value)) {
+			// Another thread updates this stripe: move to another one for next updates
+			int h = probe[0];
+			h ^= h << 13;
+			h ^= h >>> 17;
+			h ^= h << 5;
+			probe[0] = h;
+			cells.getAndAdd(offset(h) + counter, value);
+		}
+	}
+
+	/**
+	 * Get value of a counter.
+	 *
+	 * @param counter Index of counter.
+	 * @return Sum of counter cells.
+	 */
+	public long sum(int counter) {
+		if (counter < 0 || counter >= size) {
+			throw new IndexOutOfBoundsException(String.format("Counter <%s> is not between <0> and <%s>", counter, size - 1));
+		}
+
+		long sum = 0;
+		for (int i = PADDING + counter, length = cells.length(); i < length; i += stride) {
+			sum += cells.get(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Get values of all counters.
+	 *
+	 * @return Sums of counter cells, indexed by counter.
+	 */
+	public long[] sums() {
+		long[] sums = new long[size];
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			int offset = PADDING + stripe * stride;
+			for (int counter = 0; counter < size; counter++) {
+				sums[counter] += cells.get(offset + counter);
+			}
+		}
+		return sums;
+	}
+
+	private int offset(int probe) {
+		// Leading padding separates first stripe from objects allocated before the array
+		return PADDING + (probe & (STRIPES - 1)) * stride;
+	}
+
+	private static int stripes(int processors) {
+		int stripes = 1;
+		while (stripes < processors * 2 && stripes < MAX_STRIPES) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+	private static int mix(long id) {
+		int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		h ^= h >>> 16;
+		return h == 0 ? 1 : h;
+	}
+}
@@ -0,0 +1,328 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.util.MediaType;
+import org.fest.assertions.util.ResponseBody;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Body handler of {@link java.net.http.HttpClient} running json assertions while body is received.
+ * Body is split into elements (lines of a NDJSON stream, or items of a top level json array) and
+ * each element is checked as soon as it is complete: only the current element is kept in memory.
+ *
+ * Body of response is the number of checked elements. If a check fails, remaining body is
+ * discarded and the {@link AssertionError} is thrown by {@code HttpClient#send}.
+ * Body must be encoded with a charset compatible with ascii, such as utf-8 (required by RFC 8259):
+ * other charsets (such as utf-16) are rejected.
+ *
+ * This class requires Java 11 and is shipped as a multi-release entry of the jar.
+ */
+public final class JsonStreamBodyHandler implements HttpResponse.BodyHandler<Long> {
+
+	/**
+	 * Check of a json element.
+	 */
+	public interface ElementCheck {
+
+		/**
+		 * Check json element.
+		 *
+		 * @param index Index of element in stream, starting at zero.
+		 * @param element Assertion object of element.
+		 */
+		void check(long index, JsonAssert element);
+	}
+
+	private final boolean ndjson;
+
+	private final ElementCheck check;
+
+	private JsonStreamBodyHandler(boolean ndjson, ElementCheck check) {
+		this.ndjson = ndjson;
+		this.check = check;
+	}
+
+	/**
+	 * Build handler checking each line of a NDJSON body (blank lines are ignored).
+	 *
+	 * @param check Check applied to each line.
+	 * @return Body handler.
+	 */
+	public static JsonStreamBodyHandler ndjson(ElementCheck check) {
+		return new JsonStreamBodyHandler(true, check);
+	}
+
+	/**
+	 * Build handler checking each item of a top level json array.
+	 * If body is not a json array, whole document is buffered and checked as a single element.
+	 *
+	 * @param check Check applied to each item.
+	 * @return Body handler.
+	 */
+	public static JsonStreamBodyHandler jsonArray(ElementCheck check) {
+		return new JsonStreamBodyHandler(false, check);
+	}
+
+	@Override
+	public HttpResponse.BodySubscriber<Long> apply(HttpResponse.ResponseInfo responseInfo) {
+		String contentType = responseInfo.headers().firstValue("Content-Type").orElse(null);
+		return subscriber(ResponseBody.charsetOf(MediaType.parse(contentType)));
+	}
+
+	/**
+	 * Build subscriber splitting body decoded with a given charset.
+	 *
+	 * @param charset Charset of body.
+	 * @return Body subscriber.
+	 */
+	HttpResponse.BodySubscriber<Long> subscriber(Charset charset) {
+		return new ElementSubscriber(ndjson, check, charset);
+	}
+
+	/**
+	 * Subscriber splitting received bytes into json elements.
+	 * Structural characters of json are ascii, so elements are split on raw bytes and only decoded once complete.
+	 */
+	static final class ElementSubscriber implements HttpResponse.BodySubscriber<Long> {
+
+		/** Characters used to split elements */
+		private static final String STRUCTURAL = "[]{},\"\\ \t\r\n";
+
+		/** Split state of json arrays */
+		private static final int BEFORE = 0;
+		private static final int ARRAY = 1;
+		private static final int DOCUMENT = 2;
+		private static final int AFTER = 3;
+
+		private final boolean ndjson;
+
+		private final ElementCheck check;
+
+		private final Charset charset;
+
+		private final CompletableFuture<Long> result = new CompletableFuture<Long>();
+
+		private Flow.Subscription subscription;
+
+		/** Bytes of current element */
+		private byte[] element = new byte[256];
+
+		private int length;
+
+		/** Number of checked elements */
+		private long count;
+
+		private int state = BEFORE;
+
+		/** Nesting level inside top level array */
+		private int depth;
+
+		private boolean inString;
+
+		private boolean escaped;
+
+		ElementSubscriber(boolean ndjson, ElementCheck check, Charset charset) {
+			this.ndjson = ndjson;
+			this.check = check;
+			this.charset = charset;
+		}
+
+		@Override
+		public CompletionStage<Long> getBody() {
+			return result;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			if (!isAsciiCompatible(charset)) {
+				subscription.cancel();
+				result.completeExceptionally(new AssertionError(String.format("Expecting json stream to be encoded with an ascii compatible charset but was <%s>", charset.name())));
+				return;
+			}
+			subscription.request(1);
+		}
+
+		@Override
+		public void onNext(List<ByteBuffer> buffers) {
+			if (result.isDone()) {
+				return;
+			}
+			try {
+				for (ByteBuffer buffer : buffers) {
+					while (buffer.hasRemaining()) {
+						if (ndjson) {
+							nextLineByte(buffer.get());
+						}
+						else {
+							nextArrayByte(buffer.get());
+						}
+					}
+				}
+			}
+			catch (Throwable t) {
+				subscription.cancel();
+				result.completeExceptionally(t);
+				return;
+			}
+			subscription.request(1);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			result.completeExceptionally(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			if (result.isDone()) {
+				return;
+			}
+			try {
+				if (ndjson || state == DOCUMENT) {
+					emit();
+				}
+				else if (state == ARRAY) {
+					throw new AssertionError("Expecting json array to be complete");
+				}
+				result.complete(count);
+			}
+			catch (Throwable t) {
+				result.completeExceptionally(t);
+			}
+		}
+
+		private void nextLineByte(byte b) {
+			if (b == '\n') {
+				emit();
+			}
+			else {
+				append(b);
+			}
+		}
+
+		private void nextArrayByte(byte b) {
+			switch (state) {
+				case BEFORE:
+					if (b == '[') {
+						state = ARRAY;
+					}
+					else if (!isWhitespace(b)) {
+						state = DOCUMENT;
+						append(b);
+					}
+					break;
+
+				case DOCUMENT:
+					append(b);
+					break;
+
+				case AFTER:
+					if (!isWhitespace(b)) {
+						throw new AssertionError("Expecting json array not to be followed by other content");
+					}
+					break;
+
+				default:
+					nextItemByte(b);
+			}
+		}
+
+		private void nextItemByte(byte b) {
+			if (inString) {
+				if (escaped) {
+					escaped = false;
+				}
+				else if (b == '\\') {
+					escaped = true;
+				}
+				else if (b == '"') {
+					inString = false;
+				}
+				append(b);
+			}
+			else if (depth == 0 && b == ',') {
+				if (!emit()) {
+					throw new AssertionError("Expecting json array item before ','");
+				}
+			}
+			else if (depth == 0 && b == ']') {
+				// Only an empty array may end without item
+				if (!emit() && count > 0) {
+					throw new AssertionError("Expecting json array item after ','");
+				}
+				state = AFTER;
+			}
+			else {
+				if (b == '"') {
+					inString = true;
+				}
+				else if (b == '{' || b == '[') {
+					depth++;
+				}
+				else if (b == '}' || b == ']') {
+					depth--;
+				}
+				append(b);
+			}
+		}
+
+		private void append(byte b) {
+			if (length == element.length) {
+				byte[] copy = new byte[length * 2];
+				System.arraycopy(element, 0, copy, 0, length);
+				element = copy;
+			}
+			element[length++] = b;
+		}
+
+		/**
+		 * Check current element, if it is not blank.
+		 *
+		 * @return False if element is blank.
+		 */
+		private boolean emit() {
+			int start = 0;
+			int end = length;
+			while (start < end && isWhitespace(element[start])) {
+				start++;
+			}
+			while (end > start && isWhitespace(element[end - 1])) {
+				end--;
+			}
+			length = 0;
+			if (start == end) {
+				return false;
+			}
+			String json = new String(element, start, end - start, charset);
+			check.check(count++, new JsonAssert(json));
+			return true;
+		}
+
+		/**
+		 * Check if a charset encodes structural characters of json as ascii bytes, and never uses these
+		 * bytes in the encoding of other characters: this is true for utf-8 and for single byte charsets
+		 * extending ascii.
+		 */
+		static boolean isAsciiCompatible(Charset charset) {
+			if (charset.equals(StandardCharsets.UTF_8)) {
+				return true;
+			}
+			return charset.canEncode() &&
+					charset.newEncoder().maxBytesPerChar() == 1 &&
+					Arrays.equals(STRUCTURAL.getBytes(charset), STRUCTURAL.getBytes(StandardCharsets.US_ASCII));
+		}
+
+		private static boolean isWhitespace(byte b) {
+			return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package org.fest.assertions.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flyweight view of a {@link java.net.http.HttpResponse} object.
+ * Nothing is copied at construction: headers are only converted when they are requested,
+ * and cookies are parsed from Set-Cookie headers on first access.
+ *
+ * Body is read from the value produced by the body handler of the request: {@code byte[]},
+ * {@code String}, {@code InputStream} and {@code Path} bodies are supported, other bodies
+ * (discarded, or consumed by a streaming handler) are seen as empty.
+ *
+ * This class requires Java 11 and is shipped as a multi-release entry of the jar.
+ */
+public class JdkHttpResponse extends AbstractResponse {
+
+	/** Original response */
+	private final java.net.http.HttpResponse<?> response;
+
+	public JdkHttpResponse(java.net.http.HttpResponse<?> response) {
+		this.response = response;
+	}
+
+	/**
+	 * Create view of a response whose response time and time to first byte have been measured.
+	 * With {@code BodyHandlers.ofInputStream()}, {@code send} returns once status line and headers are received:
+	 * time elapsed until then is the time to first byte, and time elapsed until body is read is the response time.
+	 *
+	 * @param response Original response.
+	 * @param responseTimeNanos Response time, in nanoseconds.
+	 * @param timeToFirstByteNanos Time to first byte, in nanoseconds.
+	 */
+	public JdkHttpResponse(java.net.http.HttpResponse<?> response, long responseTimeNanos, long timeToFirstByteNanos) {
+		super(responseTimeNanos, timeToFirstByteNanos);
+		this.response = response;
+	}
+
+	@Override
+	public int getStatusCode() {
+		return response.statusCode();
+	}
+
+	@Override
+	public String getContentType() {
+		return response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null);
+	}
+
+	@Override
+	protected void readHeaders(HttpHeaders headers) {
+		for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+			String name = header.getKey();
+			for (String value : header.getValue()) {
+				headers.add(name, value);
+			}
+		}
+	}
+
+	@Override
+	protected List<Cookie> readCookies() {
+		List<String> headers = getHeaderValues(HttpHeaders.SET_COOKIE);
+		List<Cookie> cookies = new ArrayList<Cookie>(headers.size());
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			Cookie cookie = SetCookieParser.parse(headers.get(i));
+			if (cookie != null) {
+				cookies.add(cookie);
+			}
+		}
+		return cookies;
+	}
+
+	@Override
+	protected ResponseBody readBody(Charset charset) throws IOException {
+		Object body = response.body();
+		if (body instanceof byte[]) {
+			return ResponseBody.of((byte[]) body, charset);
+		}
+		if (body instanceof String) {
+			return ResponseBody.of(((String) body).getBytes(charset), charset);
+		}
+		if (body instanceof InputStream) {
+			return read((InputStream) body, charset);
+		}
+		if (body instanceof Path) {
+			return read(Files.newInputStream((Path) body), charset);
+		}
+		return ResponseBody.empty(charset);
+	}
+
+	private ResponseBody read(InputStream in, Charset charset) throws IOException {
+		try {
+			return ResponseBody.read(in, charset, getMemoryThreshold());
+		}
+		finally {
+			in.close();
+		}
+	}
+}
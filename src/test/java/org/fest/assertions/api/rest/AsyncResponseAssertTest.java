@@ -0,0 +1,181 @@
+package org.fest.assertions.api.rest;
+
+import com.ning.http.client.FluentCaseInsensitiveStringsMap;
+import org.fest.assertions.utils.SettableListenableFuture;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AsyncResponseAssertTest {
+
+	private SettableListenableFuture<com.ning.http.client.Response> future;
+
+	@Before
+	public void setUp() {
+		future = new SettableListenableFuture<com.ning.http.client.Response>();
+	}
+
+	@Test
+	public void test_checksShouldRunOnCompletion() throws Exception {
+		final AtomicInteger runs = new AtomicInteger();
+		AsyncResponseAssert assertion = REST.assertThatAsync(future)
+				.satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						runs.incrementAndGet();
+						response.isOk().isJson();
+					}
+				})
+				.satisfiesJson(new JsonCheck() {
+					@Override
+					public void check(JsonAssert json) {
+						runs.incrementAndGet();
+						json.isObject().isNumber("id");
+					}
+				});
+
+		assertThat(runs.get()).isEqualTo(0);
+		assertThat(assertion.isDone()).isFalse();
+
+		future.set(response(200, "{\"id\": 1}"));
+
+		assertThat(runs.get()).isEqualTo(2);
+		assertThat(assertion.isDone()).isTrue();
+		assertThat(assertion.getFailures()).isEmpty();
+		assertion.await(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void test_checksRegisteredAfterCompletionShouldRunImmediately() throws Exception {
+		future.set(response(200, "{\"id\": 1}"));
+
+		AsyncResponseAssert assertion = REST.assertThatAsync(future).satisfies(new ResponseCheck() {
+			@Override
+			public void check(ResponseAssert response) {
+				response.isCreated();
+			}
+		});
+
+		assertThat(assertion.getFailures()).hasSize(1);
+		assertThat(assertion.getFailures().get(0).getMessage()).isEqualTo("Expected status code to be <201> but was <200>");
+	}
+
+	@Test
+	public void test_awaitShouldReportAllFailures() throws Exception {
+		AsyncResponseAssert assertion = REST.assertThatAsync(future)
+				.satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isCreated();
+					}
+				})
+				.satisfiesJson(new JsonCheck() {
+					@Override
+					public void check(JsonAssert json) {
+						json.isArray();
+					}
+				});
+
+		future.set(response(200, "{\"id\": 1}"));
+
+		try {
+			assertion.await(1, TimeUnit.SECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected all checks to pass but <2> failed:" +
+					"\n - Expected status code to be <201> but was <200>" +
+					"\n - Expecting json to be an array");
+		}
+	}
+
+	@Test
+	public void test_failedRequestShouldSkipChecks() {
+		final AtomicInteger runs = new AtomicInteger();
+		AsyncResponseAssert assertion = REST.assertThatAsync(future).satisfies(new ResponseCheck() {
+			@Override
+			public void check(ResponseAssert response) {
+				runs.incrementAndGet();
+			}
+		});
+
+		IOException cause = new IOException("Connection refused");
+		future.abort(cause);
+
+		assertThat(runs.get()).isEqualTo(0);
+		List<AssertionError> failures = assertion.getFailures();
+		assertThat(failures).hasSize(1);
+		assertThat(failures.get(0).getMessage()).isEqualTo("Expected request to succeed but failed with: java.io.IOException: Connection refused");
+		assertThat(failures.get(0).getCause()).isSameAs(cause);
+	}
+
+	@Test
+	public void test_awaitShouldFailOnTimeout() {
+		AsyncResponseAssert assertion = REST.assertThatAsync(future);
+		try {
+			assertion.await(10, TimeUnit.MILLISECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected <1> responses to be received before timeout");
+		}
+	}
+
+	@Test
+	public void test_awaitAllShouldCheckManyResponsesOnFewThreads() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<SettableListenableFuture<com.ning.http.client.Response>> futures = new ArrayList<SettableListenableFuture<com.ning.http.client.Response>>();
+			List<AsyncResponseAssert> assertions = new ArrayList<AsyncResponseAssert>();
+			for (int i = 0; i < 1000; i++) {
+				SettableListenableFuture<com.ning.http.client.Response> f = new SettableListenableFuture<com.ning.http.client.Response>();
+				futures.add(f);
+				assertions.add(REST.assertThatAsync(f, executor).satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isSuccess();
+					}
+				}));
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+				futures.get(i).set(response(i == 500 ? 503 : 200, "{}"));
+			}
+
+			try {
+				AsyncResponseAssert.awaitAll(5, TimeUnit.SECONDS, assertions);
+				fail("Expected AssertionError to be thrown");
+			}
+			catch (AssertionError error) {
+				assertThat(error.getMessage()).isEqualTo("Expected all checks to pass but <1> failed:" +
+						"\n - Expected status code to be between <200> and <299> but was <503>");
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static com.ning.http.client.Response response(int status, String body) throws IOException {
+		com.ning.http.client.Response response = mock(com.ning.http.client.Response.class);
+		when(response.getStatusCode()).thenReturn(status);
+		when(response.getContentType()).thenReturn("application/json");
+		when(response.getHeaders()).thenReturn(new FluentCaseInsensitiveStringsMap());
+		when(response.hasResponseBody()).thenReturn(true);
+		when(response.getResponseBodyAsStream()).thenReturn(new ByteArrayInputStream(body.getBytes("UTF-8")));
+		return response;
+	}
+}
@@ -0,0 +1,216 @@
+package org.fest.assertions.api.rest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ConcurrentContractRunnerTest {
+
+	private HttpServer server;
+	private final AtomicInteger hits = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/items/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				hits.incrementAndGet();
+				String id = exchange.getRequestURI().getPath().substring("/items/".length());
+				boolean error = id.equals("7") || id.equals("42");
+				byte[] body = (error ? "oops" : "{\"id\": " + id + "}").getBytes("UTF-8");
+				exchange.getResponseHeaders().add("Content-Type", error ? "text/plain" : "application/json");
+				exchange.sendResponseHeaders(error ? 503 : 200, body.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(body);
+				out.close();
+			}
+		});
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void test_shouldCheckAllResponses() {
+		ContractReport report = REST.concurrently(get())
+				.requests(100)
+				.maxInFlight(8)
+				.satisfies("is success", new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk().isJson();
+					}
+				})
+				.run();
+
+		assertThat(hits.get()).isEqualTo(100);
+		assertThat(report.getRequests()).isEqualTo(100);
+		assertThat(report.getCompleted()).isEqualTo(100);
+		assertThat(report.getMaxInFlight()).isLessThanOrEqualTo(8);
+		assertThat(report.getFailures()).hasSize(1);
+		assertThat(report.isSuccess()).isFalse();
+
+		ContractReport.Failures failures = report.getFailures().get(0);
+		assertThat(failures.getName()).isEqualTo("is success");
+		assertThat(failures.getCount()).isEqualTo(2);
+		assertThat(failures.getFirstRequest()).isEqualTo(7);
+
+		try {
+			report.assertSuccess();
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected all <100> requests to satisfy contract but:" +
+					"\n - <2> requests failed <is success>, first on request <7>: Expected status code to be <200> but was <503>");
+		}
+	}
+
+	@Test
+	public void test_shouldAggregateFailuresPerCheck() {
+		ContractReport report = REST.concurrently(get())
+				.requests(50)
+				.satisfies("no server error", new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isStatusBetween(200, 499);
+					}
+				})
+				.satisfiesJson("has id", new JsonCheck() {
+					@Override
+					public void check(JsonAssert json) {
+						json.isNumber("id");
+					}
+				})
+				.run();
+
+		assertThat(report.getFailures()).hasSize(2);
+		assertThat(report.getFailures().get(0).getName()).isEqualTo("no server error");
+		assertThat(report.getFailures().get(0).getCount()).isEqualTo(2);
+		assertThat(report.getFailures().get(1).getName()).isEqualTo("has id");
+		assertThat(report.getFailures().get(1).getCount()).isEqualTo(2);
+		assertThat(report.getFailures().get(1).getFirstError().getMessage()).isEqualTo("Expecting json to be valid");
+	}
+
+	@Test
+	public void test_shouldReportRequestFailures() {
+		ContractReport report = REST.concurrently(new ConcurrentContractRunner.Call() {
+			@Override
+			public Response execute(int index) throws Exception {
+				if (index % 10 == 3) {
+					throw new IOException("Connection reset");
+				}
+				return new DefaultResponse(200, "application/json");
+			}
+		}).requests(20).run();
+
+		assertThat(report.getFailures()).hasSize(1);
+		assertThat(report.getFailures().get(0).getName()).isEqualTo("request");
+		assertThat(report.getFailures().get(0).getCount()).isEqualTo(2);
+		assertThat(report.getFailures().get(0).getFirstRequest()).isEqualTo(3);
+	}
+
+	@Test
+	public void test_shouldLimitRequestsInFlight() {
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger max = new AtomicInteger();
+		ContractReport report = REST.concurrently(new ConcurrentContractRunner.Call() {
+			@Override
+			public Response execute(int index) throws Exception {
+				int current = inFlight.incrementAndGet();
+				synchronized (max) {
+					max.set(Math.max(max.get(), current));
+				}
+				Thread.sleep(5);
+				inFlight.decrementAndGet();
+				return new DefaultResponse(200, "application/json");
+			}
+		}).requests(60).maxInFlight(4).run();
+
+		report.assertSuccess();
+		assertThat(max.get()).isLessThanOrEqualTo(4);
+		assertThat(report.getMaxInFlight()).isLessThanOrEqualTo(4);
+	}
+
+	@Test
+	public void test_shouldStopAtTimeout() {
+		ContractReport report = REST.concurrently(new ConcurrentContractRunner.Call() {
+			@Override
+			public Response execute(int index) throws Exception {
+				Thread.sleep(index == 0 ? 10 : 10000);
+				return new DefaultResponse(200, "application/json");
+			}
+		}).requests(3).maxInFlight(1).timeout(200, TimeUnit.MILLISECONDS).run();
+
+		assertThat(report.getCompleted()).isEqualTo(1);
+		assertThat(report.isSuccess()).isFalse();
+		try {
+			report.assertSuccess();
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected all <3> requests to satisfy contract but:" +
+					"\n - <2> requests did not complete before timeout");
+		}
+	}
+
+	@Test
+	public void test_executorShouldRunTasks() throws Exception {
+		final AtomicInteger runs = new AtomicInteger();
+		java.util.concurrent.ExecutorService executor = ConcurrentContractRunner.newExecutor(2);
+		for (int i = 0; i < 10; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					runs.incrementAndGet();
+				}
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(runs.get()).isEqualTo(10);
+	}
+
+	private ConcurrentContractRunner.Call get() {
+		return new ConcurrentContractRunner.Call() {
+			@Override
+			public Response execute(int index) throws Exception {
+				URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/items/" + index);
+				HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+				int status = connection.getResponseCode();
+				InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+				ByteArrayOutputStream body = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					body.write(buffer, 0, read);
+				}
+				in.close();
+				return new DefaultResponse(status, connection.getContentType(), null, null, body.toByteArray());
+			}
+		};
+	}
+}
@@ -0,0 +1,74 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.util.CookieJar;
+import org.fest.assertions.util.SetCookieParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class CookieJarAssertTest {
+
+	private CookieJar jar;
+	private CookieJarAssert assertion;
+
+	@Before
+	public void setUp() {
+		jar = new CookieJar();
+		jar.store("https://shop.example.com/login", SetCookieParser.parse("session=1234; Path=/api; Secure"));
+		assertion = new CookieJarAssert(jar);
+	}
+
+	@Test
+	public void test_willSendCookie() {
+		assertion.willSendCookie("session", "https://shop.example.com/api/cart");
+
+		try {
+			assertion.willSendCookie("session", "http://shop.example.com/api/cart");
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected cookie <session> to be sent to <http://shop.example.com/api/cart>");
+		}
+	}
+
+	@Test
+	public void test_willSendCookieEqualTo() {
+		assertion.willSendCookieEqualTo("session", "1234", "https://shop.example.com/api/cart");
+
+		try {
+			assertion.willSendCookieEqualTo("session", "foo", "https://shop.example.com/api/cart");
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected cookie <session> sent to <https://shop.example.com/api/cart> to be <foo> but was <1234>");
+		}
+	}
+
+	@Test
+	public void test_willNotSendCookie() {
+		assertion.willNotSendCookie("session", "https://shop.example.com/checkout");
+
+		try {
+			assertion.willNotSendCookie("session", "https://shop.example.com/api");
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected cookie <session> not to be sent to <https://shop.example.com/api>");
+		}
+	}
+
+	@Test
+	public void test_willNotSendCookies() {
+		assertion.willNotSendCookies("https://www.example.com/api");
+
+		try {
+			assertion.willNotSendCookies("https://shop.example.com/api");
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected no cookie to be sent to <https://shop.example.com/api> but was <session=1234>");
+		}
+	}
+}
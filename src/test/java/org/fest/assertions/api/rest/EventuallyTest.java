@@ -0,0 +1,331 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.Response;
+import org.fest.assertions.utils.SettableListenableFuture;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.fest.assertions.data.JsonEntry.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EventuallyTest {
+
+	@Test
+	public void test_shouldPollUntilChecksPass() {
+		AtomicInteger count = new AtomicInteger();
+
+		Response response = REST.eventually(5, TimeUnit.SECONDS)
+				.backoff(1, 10, TimeUnit.MILLISECONDS)
+				.satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk();
+					}
+				})
+				.satisfiesJson(new JsonCheck() {
+					@Override
+					public void check(JsonAssert json) {
+						json.containEntry(entry("status", "done"));
+					}
+				})
+				.until(job(count, 3));
+
+		assertThat(response.getStatusCode()).isEqualTo(200);
+		assertThat(count.get()).isEqualTo(4);
+	}
+
+	@Test
+	public void test_shouldFailWithLastFailureAfterTimeout() {
+		AtomicInteger count = new AtomicInteger();
+
+		try {
+			REST.eventually(100, TimeUnit.MILLISECONDS)
+					.backoff(5, 20, TimeUnit.MILLISECONDS)
+					.satisfies(new ResponseCheck() {
+						@Override
+						public void check(ResponseAssert response) {
+							response.isOk();
+						}
+					})
+					.until(job(count, Integer.MAX_VALUE));
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected checks to pass within <100> ms but still failing after <");
+			assertThat(error.getMessage()).contains("last failure: Expected status code to be <200> but was <202>");
+			assertThat(error.getCause()).isInstanceOf(AssertionError.class);
+			assertThat(count.get()).isGreaterThan(1);
+		}
+	}
+
+	@Test
+	public void test_shouldRetryWhenFetchFails() {
+		final AtomicInteger count = new AtomicInteger();
+
+		Response response = REST.eventually(5, TimeUnit.SECONDS)
+				.backoff(1, 10, TimeUnit.MILLISECONDS)
+				.until(new Eventually.Poll() {
+					@Override
+					public Response fetch() throws Exception {
+						if (count.incrementAndGet() < 3) {
+							throw new IOException("Connection refused");
+						}
+						return new DefaultResponse(200, "application/json");
+					}
+				});
+
+		assertThat(response.getStatusCode()).isEqualTo(200);
+		assertThat(count.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void test_shouldShareSchedulerThreads() {
+		final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+		List<Polling> pollings = new ArrayList<Polling>();
+		for (int i = 0; i < 300; i++) {
+			final AtomicInteger count = new AtomicInteger();
+			pollings.add(REST.eventually(10, TimeUnit.SECONDS)
+					.backoff(5, 50, TimeUnit.MILLISECONDS)
+					.satisfies(new ResponseCheck() {
+						@Override
+						public void check(ResponseAssert response) {
+							threads.add(Thread.currentThread().getName());
+							response.isOk();
+						}
+					})
+					.start(job(count, 2)));
+		}
+
+		Polling.awaitAll(pollings);
+
+		for (Polling polling : pollings) {
+			assertThat(polling.isDone()).isTrue();
+			assertThat(polling.getAttempts()).isEqualTo(3);
+		}
+		assertThat(threads.size()).isLessThanOrEqualTo(4);
+	}
+
+	@Test
+	public void test_shouldPollAsynchronously() throws Exception {
+		final List<SettableListenableFuture<com.ning.http.client.Response>> futures = Collections.synchronizedList(new ArrayList<SettableListenableFuture<com.ning.http.client.Response>>());
+
+		Polling polling = REST.eventually(5, TimeUnit.SECONDS)
+				.backoff(1, 10, TimeUnit.MILLISECONDS)
+				.satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk();
+					}
+				})
+				.start(new Eventually.AsyncPoll() {
+					@Override
+					public com.ning.http.client.ListenableFuture<com.ning.http.client.Response> fetch() {
+						SettableListenableFuture<com.ning.http.client.Response> future = new SettableListenableFuture<com.ning.http.client.Response>();
+						futures.add(future);
+						return future;
+					}
+				});
+
+		waitForAttempts(futures, 1);
+		futures.get(0).set(ningResponse(202));
+		waitForAttempts(futures, 2);
+		assertThat(polling.isDone()).isFalse();
+
+		futures.get(1).set(ningResponse(200));
+		assertThat(polling.await().getStatusCode()).isEqualTo(200);
+		assertThat(polling.getAttempts()).isEqualTo(2);
+	}
+
+	@Test
+	public void test_shouldStopPollingWhenCancelled() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		Polling polling = REST.eventually(10, TimeUnit.SECONDS)
+				.backoff(1, 5, TimeUnit.MILLISECONDS)
+				.satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk();
+					}
+				})
+				.start(job(count, Integer.MAX_VALUE));
+
+		polling.cancel();
+		assertThat(polling.isDone()).isTrue();
+		int attempts = count.get();
+		Thread.sleep(50);
+		assertThat(count.get()).isLessThanOrEqualTo(attempts + 1);
+
+		try {
+			polling.await();
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected checks to pass but polling was cancelled after <");
+		}
+	}
+
+	@Test
+	public void test_shouldCancelBlockingFetchAtTimeout() throws Exception {
+		final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+		final CountDownLatch interrupted = new CountDownLatch(1);
+
+		long start = System.nanoTime();
+		try {
+			REST.eventually(100, TimeUnit.MILLISECONDS).until(new Eventually.Poll() {
+				@Override
+				public Response fetch() throws Exception {
+					threads.add(Thread.currentThread().getName());
+					try {
+						Thread.sleep(10000);
+					}
+					catch (InterruptedException ex) {
+						interrupted.countDown();
+						throw ex;
+					}
+					return new DefaultResponse(200, "application/json");
+				}
+			});
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected checks to pass within <100> ms but still failing after <1> attempts");
+		}
+
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(threads).hasSize(1);
+		assertThat(threads.get(0)).startsWith("eventually-fetch-");
+	}
+
+	@Test
+	public void test_shouldBoundThreadsOfBlockingFetches() throws Exception {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		Eventually.Poll poll = new Eventually.Poll() {
+			@Override
+			public Response fetch() throws Exception {
+				int count = running.incrementAndGet();
+				while (true) {
+					int max = maxRunning.get();
+					if (count <= max || maxRunning.compareAndSet(max, count)) {
+						break;
+					}
+				}
+				try {
+					release.await();
+				}
+				finally {
+					running.decrementAndGet();
+				}
+				return new DefaultResponse(200, "application/json");
+			}
+		};
+
+		List<Polling> pollings = new ArrayList<Polling>();
+		for (int i = 0; i < 3 * Eventually.Fetcher.THREADS; i++) {
+			pollings.add(REST.eventually(10, TimeUnit.SECONDS).start(poll));
+		}
+		long deadline = System.currentTimeMillis() + 5000;
+		while (running.get() < Eventually.Fetcher.THREADS && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		Thread.sleep(50);
+		assertThat(maxRunning.get()).isEqualTo(Eventually.Fetcher.THREADS);
+
+		release.countDown();
+		for (Polling polling : pollings) {
+			polling.await();
+		}
+		assertThat(maxRunning.get()).isEqualTo(Eventually.Fetcher.THREADS);
+	}
+
+	@Test
+	public void test_shouldCancelPendingResponseAtTimeout() throws Exception {
+		final List<SettableListenableFuture<com.ning.http.client.Response>> futures = Collections.synchronizedList(new ArrayList<SettableListenableFuture<com.ning.http.client.Response>>());
+
+		Polling polling = REST.eventually(100, TimeUnit.MILLISECONDS)
+				.start(new Eventually.AsyncPoll() {
+					@Override
+					public com.ning.http.client.ListenableFuture<com.ning.http.client.Response> fetch() {
+						SettableListenableFuture<com.ning.http.client.Response> future = new SettableListenableFuture<com.ning.http.client.Response>();
+						futures.add(future);
+						return future;
+					}
+				});
+
+		waitForAttempts(futures, 1);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!polling.isDone() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+
+		assertThat(polling.isDone()).isTrue();
+		assertThat(futures.get(0).isCancelled()).isTrue();
+		try {
+			polling.await();
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected checks to pass within <100> ms but still failing after <1> attempts");
+		}
+	}
+
+	@Test
+	public void test_delayShouldGrowExponentiallyWithJitter() {
+		Eventually eventually = new Eventually(1, TimeUnit.SECONDS).backoff(10, 100, TimeUnit.MILLISECONDS);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(eventually.delay(1)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5)).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+			assertThat(eventually.delay(3)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20)).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(40));
+			assertThat(eventually.delay(20)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50)).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_shouldRejectInvalidBackoff() {
+		new Eventually(1, TimeUnit.SECONDS).backoff(100, 10, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Job resource: accepted until given number of polls, then done.
+	 */
+	private static Eventually.Poll job(final AtomicInteger count, final int pending) {
+		return new Eventually.Poll() {
+			@Override
+			public Response fetch() throws Exception {
+				if (count.incrementAndGet() <= pending) {
+					return new DefaultResponse(202, "application/json", null, null, "{\"status\": \"pending\"}".getBytes("UTF-8"));
+				}
+				return new DefaultResponse(200, "application/json", null, null, "{\"status\": \"done\"}".getBytes("UTF-8"));
+			}
+		};
+	}
+
+	private static com.ning.http.client.Response ningResponse(int status) {
+		com.ning.http.client.Response response = mock(com.ning.http.client.Response.class);
+		when(response.getStatusCode()).thenReturn(status);
+		return response;
+	}
+
+	private static void waitForAttempts(List<?> futures, int attempts) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (futures.size() < attempts && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertThat(futures.size()).isEqualTo(attempts);
+	}
+}
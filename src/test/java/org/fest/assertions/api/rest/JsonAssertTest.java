@@ -1,6 +1,7 @@
 package org.fest.assertions.api.rest;
 
 import org.fest.assertions.data.JsonEntry;
+import org.fest.assertions.spec.JsonTemplate;
 import org.fest.assertions.utils.FooBar;
 import org.junit.Before;
 import org.junit.Test;
@@ -1065,4 +1066,38 @@ public class JsonAssertTest {
 			assertThat(error.getMessage()).isEqualTo("Expecting <foo[0].id> to be <1> but was <2>");
 		}
 	}
+
+	@Test
+	public void test_matchesTemplate() {
+		String json = "";
+		json += "{";
+		json += "  \"id\": \"550e8400-e29b-41d4-a716-446655440000\",";
+		json += "  \"count\": 3";
+		json += "}";
+
+		JsonTemplate template = JsonTemplate.compile("{\"id\": \"${any-uuid}\", \"count\": \"${number > 0}\"}");
+
+		JsonAssert assertion = new JsonAssert(json);
+		assertion.matchesTemplate(template);
+	}
+
+	@Test
+	public void test_matchesTemplate_expectMismatches() {
+		String json = "";
+		json += "{";
+		json += "  \"id\": \"42\",";
+		json += "  \"count\": 0";
+		json += "}";
+
+		JsonTemplate template = JsonTemplate.compile("{\"id\": \"${any-uuid}\", \"count\": \"${number > 0}\"}");
+
+		try {
+			JsonAssert assertion = new JsonAssert(json);
+			assertion.matchesTemplate(template);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected json <$.id> to be a uuid but was <\"42\">,\nExpected json <$.count> to be a number > 0 but was <0>");
+		}
+	}
 }
@@ -0,0 +1,111 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.util.ResponseLatencies;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class LatencyAssertTest {
+
+	private ResponseLatencies latencies;
+	private LatencyAssert assertion;
+
+	@Before
+	public void setUp() {
+		latencies = new ResponseLatencies();
+		for (int i = 1; i <= 1000; i++) {
+			// Responses take 1 to 100 ms, except 5 slow responses
+			long responseTime = i <= 995 ? TimeUnit.MILLISECONDS.toNanos(1 + i % 100) : TimeUnit.MILLISECONDS.toNanos(2000);
+			latencies.recordNanos(responseTime / 2, responseTime);
+		}
+		assertion = new LatencyAssert(latencies);
+	}
+
+	@Test
+	public void test_hasP99Below() {
+		assertion.hasP99Below(102, TimeUnit.MILLISECONDS).hasPercentileBelow(50, 52, TimeUnit.MILLISECONDS);
+
+		try {
+			assertion.hasP99Below(100, TimeUnit.MILLISECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected p99 response time to be below <100> ms but was <100.663> ms");
+		}
+
+		try {
+			assertion.hasPercentileBelow(99.9, 1, TimeUnit.SECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected p99.9 response time to be below <1> s but was <2> s");
+		}
+	}
+
+	@Test
+	public void test_hasMaxBelow() {
+		assertion.hasMaxBelow(2001, TimeUnit.MILLISECONDS);
+
+		try {
+			assertion.hasMaxBelow(2, TimeUnit.SECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected max response time to be below <2> s but was <2> s");
+		}
+	}
+
+	@Test
+	public void test_hasTtfbBelow() {
+		assertion.hasTtfbBelow(51, TimeUnit.MILLISECONDS).hasTtfbPercentileBelow(100, 1001, TimeUnit.MILLISECONDS);
+
+		try {
+			assertion.hasTtfbPercentileBelow(99.9, 500, TimeUnit.MILLISECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected p99.9 time to first byte to be below <500> ms but was <1000> ms");
+		}
+	}
+
+	@Test
+	public void test_hasNoFailures() {
+		assertion.hasNoFailures().hasFailureRateBelow(0.1);
+
+		for (int i = 0; i < 3; i++) {
+			latencies.recordFailureNanos(-1, TimeUnit.SECONDS.toNanos(5));
+		}
+		assertion.hasFailureRateBelow(0.5).hasMaxBelow(6, TimeUnit.SECONDS);
+
+		try {
+			assertion.hasNoFailures();
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected no request to fail but <3> of <1003> failed or timed out");
+		}
+
+		try {
+			assertion.hasFailureRateBelow(0.1);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected failure rate to be below <0.1>% but was <0.299>% (<3> of <1003> requests)");
+		}
+	}
+
+	@Test
+	public void test_shouldFailWithoutLatencies() {
+		try {
+			new LatencyAssert(new ResponseLatencies()).hasMaxBelow(1, TimeUnit.SECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected latencies to be recorded");
+		}
+	}
+}
@@ -5,10 +5,16 @@ import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilenameFilter;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.CookieJar;
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.Response;
 import org.junit.Test;
 
 public class RESTTest {
@@ -27,6 +33,14 @@ public class RESTTest {
 		assertThat(assertion).isNotNull();
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_assertThatAsync() {
+		com.ning.http.client.ListenableFuture<com.ning.http.client.Response> future = mock(com.ning.http.client.ListenableFuture.class);
+		AsyncResponseAssert assertion = REST.assertThatAsync(future);
+		assertThat(assertion).isNotNull();
+	}
+
 	@Test
 	public void test_assertThatAsyncCookie() {
 		Cookie cookie = mock(Cookie.class);
@@ -34,6 +48,12 @@ public class RESTTest {
 		assertThat(assertion).isNotNull();
 	}
 
+	@Test
+	public void test_assertThatCookieJar() {
+		CookieJarAssert assertion = REST.assertThat(new CookieJar());
+		assertThat(assertion).isNotNull();
+	}
+
 	@Test
 	public void test_assertCookieThat() {
 		com.ning.http.client.Cookie cookie1 = mock(com.ning.http.client.Cookie.class);
@@ -83,4 +103,57 @@ public class RESTTest {
 		cookie = REST.extractCookie("cookie3", response);
 		assertThat(cookie).isNull();
 	}
+
+	@Test
+	public void test_extractCookieShouldReturnLastCookieWithSameName() {
+		com.ning.http.client.Cookie cookie1 = mock(com.ning.http.client.Cookie.class);
+		com.ning.http.client.Cookie cookie2 = mock(com.ning.http.client.Cookie.class);
+
+		when(cookie1.getName()).thenReturn("session");
+		when(cookie1.getValue()).thenReturn("first");
+		when(cookie2.getName()).thenReturn("session");
+		when(cookie2.getValue()).thenReturn("second");
+
+		List<com.ning.http.client.Cookie> cookies = new ArrayList<com.ning.http.client.Cookie>();
+		cookies.add(cookie1);
+		cookies.add(cookie2);
+
+		com.ning.http.client.Response response = mock(com.ning.http.client.Response.class);
+		when(response.getCookies()).thenReturn(cookies);
+
+		assertThat(REST.extractCookie("session", response).getValue()).isEqualTo("second");
+		assertThat(REST.extractCookie("SESSION", response).getValue()).isEqualTo("second");
+		REST.assertThat(response).hasCookieEqualTo("SESSION", "second");
+	}
+
+	@Test
+	public void test_extractJsonFromResponseBody() throws Exception {
+		Response response = new DefaultResponse(200, "application/json", null, null, "{\"id\": 1}".getBytes("UTF-8"));
+		assertThat(REST.extractJson(response)).isEqualTo("{\"id\": 1}");
+		REST.assertJsonThat(response).isObject().isNumber("id");
+	}
+
+	@Test
+	public void test_assertThatShouldNotLeaveTemporaryFiles() throws Exception {
+		byte[] content = new byte[268 * 1024];
+		int files = countTemporaryFiles();
+		for (int i = 0; i < 5; i++) {
+			com.ning.http.client.Response response = mock(com.ning.http.client.Response.class);
+			when(response.getStatusCode()).thenReturn(200);
+			when(response.hasResponseBody()).thenReturn(true);
+			when(response.getResponseBodyAsStream()).thenReturn(new ByteArrayInputStream(content));
+			REST.assertThat(response).isOk().hasBody();
+		}
+		assertThat(countTemporaryFiles()).isEqualTo(files);
+	}
+
+	private static int countTemporaryFiles() {
+		String[] names = new File(System.getProperty("java.io.tmpdir")).list(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith("fest-rest-body");
+			}
+		});
+		return names == null ? 0 : names.length;
+	}
 }
@@ -2,14 +2,19 @@ package org.fest.assertions.api.rest;
 
 import com.google.common.base.Joiner;
 import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.MediaType;
 import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponseBody;
 import org.fest.assertions.utils.OneParameterClojure;
 import org.fest.assertions.utils.VoidClojure;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.fest.assertions.api.Assertions.fail;
@@ -24,6 +29,12 @@ public class ResponseAssertTest {
 	@Before
 	public void setUp() {
 		response = mock(Response.class);
+		when(response.getMediaType()).thenAnswer(new Answer<MediaType>() {
+			@Override
+			public MediaType answer(InvocationOnMock invocation) throws Throwable {
+				return MediaType.parse(response.getContentType());
+			}
+		});
 		assertion = new ResponseAssert(response);
 	}
 
@@ -462,11 +473,31 @@ public class ResponseAssertTest {
 			assertion.hasCharset();
 			fail("Expected AssertionError to be thrown");
 		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expect charset to be defined in Content-Type value");
+		}
+
+		try {
+			when(response.getContentType()).thenReturn("application/json; charset=");
+			assertion.hasCharset();
+			fail("Expected AssertionError to be thrown");
+		}
 		catch (AssertionError error) {
 			assertThat(error.getMessage()).isEqualTo("Expect charset not to be empty in Content-Type value");
 		}
 	}
 
+	@Test
+	public void test_isCharsetEqualToWithOtherParameters() {
+		when(response.getContentType()).thenReturn("multipart/form-data; boundary=\"a;b\"; charset=\"UTF-8\"");
+		assertion.hasCharset();
+		assertion.isCharsetEqualTo("utf-8");
+		assertion.isMimeTypeTypeEqualTo("multipart/form-data");
+
+		when(response.getContentType()).thenReturn("Application/JSON ; boundary=foo ; charset=utf-8");
+		assertion.isJsonUtf8();
+	}
+
 	@Test
 	public void test_isCharsetEqualTo() {
 		when(response.getContentType()).thenReturn("application/json; charset=utf-8");
@@ -572,7 +603,9 @@ public class ResponseAssertTest {
 
 	@Test
 	public void test_hasHeader() {
+		// Case insensitivity is handled by response implementation
 		when(response.getHeader("foo")).thenReturn("bar");
+		when(response.getHeader("FOO")).thenReturn("bar");
 		assertion.hasHeader("foo");
 		assertion.hasHeader("FOO");
 
@@ -677,12 +710,12 @@ public class ResponseAssertTest {
 	}
 
 	private void checkHeader(String name, String expected, VoidClojure hasCheck, OneParameterClojure<String> fn) {
-		when(response.getHeader(name.toLowerCase())).thenReturn(expected);
+		when(response.getHeader(name)).thenReturn(expected);
 		hasCheck.apply();
 		fn.apply(expected);
 
 		try {
-			when(response.getHeader(name.toLowerCase())).thenReturn(null);
+			when(response.getHeader(name)).thenReturn(null);
 			hasCheck.apply();
 			fail("Expected AssertionError to be thrown");
 		}
@@ -691,7 +724,7 @@ public class ResponseAssertTest {
 		}
 
 		try {
-			when(response.getHeader(name.toLowerCase())).thenReturn("  ");
+			when(response.getHeader(name)).thenReturn("  ");
 			hasCheck.apply();
 			fail("Expected AssertionError to be thrown");
 		}
@@ -700,7 +733,7 @@ public class ResponseAssertTest {
 		}
 
 		try {
-			when(response.getHeader(name.toLowerCase())).thenReturn(expected + "foo");
+			when(response.getHeader(name)).thenReturn(expected + "foo");
 			fn.apply(expected);
 			fail("Expected AssertionError to be thrown");
 		}
@@ -761,4 +794,134 @@ public class ResponseAssertTest {
 			assertThat(error.getMessage()).isEqualTo("Expected status code to be <" + status + "> but was <" + errorStatus + ">");
 		}
 	}
+
+	@Test
+	public void test_hasBody() throws Exception {
+		when(response.getBody()).thenReturn(ResponseBody.of("foo".getBytes("UTF-8"), null));
+		assertion.hasBody();
+
+		try {
+			when(response.getBody()).thenReturn(ResponseBody.empty(null));
+			assertion.hasBody();
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected body not to be empty");
+		}
+	}
+
+	@Test
+	public void test_hasEmptyBody() throws Exception {
+		when(response.getBody()).thenReturn(ResponseBody.empty(null));
+		assertion.hasEmptyBody();
+
+		try {
+			when(response.getBody()).thenReturn(ResponseBody.of("foo".getBytes("UTF-8"), null));
+			assertion.hasEmptyBody();
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected body to be empty but contains <3> bytes");
+		}
+	}
+
+	@Test
+	public void test_hasBodyContaining() throws Exception {
+		when(response.getBody()).thenReturn(ResponseBody.of("{\"id\": 1}".getBytes("UTF-8"), null));
+		assertion.hasBodyContaining("\"id\"");
+
+		try {
+			assertion.hasBodyContaining("name");
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected body to contain <name>");
+		}
+	}
+
+	@Test
+	public void test_hasBodyEqualTo() throws Exception {
+		when(response.getBody()).thenReturn(ResponseBody.of("foobar".getBytes("UTF-8"), null));
+		assertion.hasBodyEqualTo("foobar");
+
+		try {
+			assertion.hasBodyEqualTo("foobaz");
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected body to be <foobaz> but was different at character <5>");
+		}
+	}
+
+	@Test
+	public void test_respondsWithin() {
+		when(response.getResponseTime(TimeUnit.NANOSECONDS)).thenReturn(TimeUnit.MILLISECONDS.toNanos(150));
+		assertion.respondsWithin(200, TimeUnit.MILLISECONDS);
+		assertion.respondsWithin(150, TimeUnit.MILLISECONDS);
+
+		try {
+			assertion.respondsWithin(100, TimeUnit.MILLISECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected response to be received within <100> ms but took <150> ms");
+		}
+	}
+
+	@Test
+	public void test_respondsWithinShouldNotTruncateResponseTime() {
+		when(response.getResponseTime(TimeUnit.NANOSECONDS)).thenReturn(1900000L);
+		assertion.respondsWithin(2, TimeUnit.MILLISECONDS).respondsAfter(1900, TimeUnit.MICROSECONDS);
+
+		try {
+			assertion.respondsWithin(1, TimeUnit.MILLISECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected response to be received within <1> ms but took <1.9> ms");
+		}
+
+		try {
+			assertion.respondsAfter(1900001, TimeUnit.NANOSECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected response to be received after <1.9> ms but took <1.9> ms");
+		}
+
+		try {
+			assertion.respondsWithin(500, TimeUnit.MICROSECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected response to be received within <0.5> ms but took <1.9> ms");
+		}
+	}
+
+	@Test
+	public void test_respondsAfter() {
+		when(response.getResponseTime(TimeUnit.NANOSECONDS)).thenReturn(TimeUnit.MILLISECONDS.toNanos(150));
+		assertion.respondsAfter(100, TimeUnit.MILLISECONDS);
+
+		try {
+			assertion.respondsAfter(1, TimeUnit.SECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected response to be received after <1000> ms but took <150> ms");
+		}
+	}
+
+	@Test
+	public void test_respondsWithinFailsIfResponseTimeIsUnknown() {
+		when(response.getResponseTime(TimeUnit.NANOSECONDS)).thenReturn(-1L);
+
+		try {
+			assertion.respondsWithin(100, TimeUnit.MILLISECONDS);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected response time to be measured");
+		}
+	}
 }
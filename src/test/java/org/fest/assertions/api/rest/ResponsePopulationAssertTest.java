@@ -0,0 +1,132 @@
+package org.fest.assertions.api.rest;
+
+import org.fest.assertions.spec.ResponseSpec;
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.MimeType;
+import org.fest.assertions.util.ResponsePopulation;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ResponsePopulationAssertTest {
+
+	private ResponsePopulation population;
+	private ResponsePopulationAssert assertion;
+
+	@Before
+	public void setUp() {
+		population = new ResponsePopulation()
+				.trackHeader("ETag")
+				.track("json", ResponseSpec.response().isJson(), ResponseSpec.response().isOk())
+				.track("slow", ResponseSpec.response().isStatusEqualTo(504));
+
+		for (int i = 0; i < 1000; i++) {
+			int status = i < 997 ? 200 : 503;
+			String contentType = i == 998 ? "text/html" : "application/json";
+			String etag = i == 0 ? null : "\"" + i + "\"";
+			population.record(new DefaultResponse(status, contentType, etag == null ? null : Collections.singletonMap("ETag", etag), null));
+		}
+		assertion = new ResponsePopulationAssert(population);
+	}
+
+	@Test
+	public void test_hasCount() {
+		assertion.hasCount(1000).hasCountAtLeast(500);
+
+		try {
+			assertion.hasCountAtLeast(1001);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected at least <1001> responses to be recorded but was <1000>");
+		}
+	}
+
+	@Test
+	public void test_hasSuccessProportionAtLeast() {
+		assertion.hasSuccessProportionAtLeast(0.997).hasServerErrorProportionAtMost(0.003);
+
+		try {
+			assertion.hasSuccessProportionAtLeast(0.999);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected proportion of 2xx responses to be at least <99.9%> but was <99.7%> (<997> of <1000>)");
+		}
+
+		try {
+			assertion.hasServerErrorProportionAtMost(0.001);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected proportion of 5xx responses to be at most <0.1%> but was <0.3%> (<3> of <1000>)");
+		}
+	}
+
+	@Test
+	public void test_hasMimeTypeProportionAtLeast() {
+		assertion.hasMimeTypeProportionAtLeast(MimeType.JSON, 0.999);
+
+		try {
+			assertion.hasMimeTypeProportionAtLeast(MimeType.JSON, 1);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected proportion of application/json responses to be at least <100%> but was <99.9%> (<999> of <1000>)");
+		}
+	}
+
+	@Test
+	public void test_hasMissingHeaderProportionAtMost() {
+		assertion.hasMissingHeaderProportionAtMost("ETag", 0.001).hasHeaderProportionAtLeast("ETag", 0.999);
+
+		try {
+			assertion.hasMissingHeaderProportionAtMost("ETag", 0.0005);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected proportion of responses without header ETag to be at most <0.05%> but was <0.1%> (<1> of <1000>)");
+		}
+	}
+
+	@Test
+	public void test_allSatisfy() {
+		assertion.allSatisfy("json").hasConditionProportionAtLeast("json", 1).hasConditionCountAtMost("slow", 0);
+
+		population = new ResponsePopulation().track("json", ResponseSpec.response().isJson(), ResponseSpec.response().isOk());
+		population.record(new DefaultResponse(200, "text/html"));
+		population.record(new DefaultResponse(200, "application/json"));
+		population.record(new DefaultResponse(404, "text/html"));
+
+		try {
+			new ResponsePopulationAssert(population).allSatisfy("json");
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected all responses to satisfy <json> but <1> of <2> did not");
+		}
+	}
+
+	@Test
+	public void test_shouldFailWithEmptyPopulation() {
+		try {
+			new ResponsePopulationAssert(new ResponsePopulation()).hasSuccessProportionAtLeast(0.99);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected proportion of 2xx responses to be computed but no response was recorded");
+		}
+
+		try {
+			assertion.hasConditionProportionAtMost("slow", 1.5);
+			fail("Expected IllegalArgumentException to be thrown");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Proportion must be between 0 and 1 but was 1.5");
+		}
+	}
+}
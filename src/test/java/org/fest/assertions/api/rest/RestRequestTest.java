@@ -0,0 +1,210 @@
+package org.fest.assertions.api.rest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.fest.assertions.util.Response;
+import org.fest.assertions.util.ResponseLatencies;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.fest.assertions.data.JsonEntry.entry;
+
+public class RestRequestTest {
+
+	private HttpServer server;
+	private String url;
+	private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				clientPorts.add(exchange.getRemoteAddress().getPort());
+
+				ByteArrayOutputStream request = new ByteArrayOutputStream();
+				InputStream in = exchange.getRequestBody();
+				int read;
+				while ((read = in.read()) >= 0) {
+					request.write(read);
+				}
+
+				String json = "{\"method\": \"" + exchange.getRequestMethod() + "\"" +
+						", \"query\": \"" + exchange.getRequestURI().getRawQuery() + "\"" +
+						", \"header\": \"" + exchange.getRequestHeaders().getFirst("X-Test") + "\"" +
+						", \"cookie\": \"" + exchange.getRequestHeaders().getFirst("Cookie") + "\"" +
+						", \"body\": \"" + request.toString("UTF-8") + "\"}";
+				byte[] body = json.getBytes("UTF-8");
+
+				exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+				exchange.sendResponseHeaders(exchange.getRequestMethod().equals("POST") ? 201 : 200, body.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(body);
+				out.close();
+			}
+		});
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/items";
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		SharedHttpClient.close();
+	}
+
+	@Test
+	public void test_shouldSendRequestAndCheckResponse() {
+		REST.given().get(url).isOk().isJsonUtf8();
+		REST.given().body("hello").contentType("text/plain").post(url).isCreated();
+
+		Response response = REST.given()
+				.header("X-Test", "foo")
+				.cookie("session", "1234")
+				.queryParam("page", "2")
+				.body("bar")
+				.send("PUT", url);
+
+		REST.assertJsonThat(response)
+				.containEntry(entry("method", "PUT"))
+				.containEntry(entry("query", "page=2"))
+				.containEntry(entry("header", "foo"))
+				.containEntry(entry("cookie", "session=1234"))
+				.containEntry(entry("body", "bar"));
+	}
+
+	@Test
+	public void test_shouldReuseConnections() {
+		for (int i = 0; i < 50; i++) {
+			REST.given().get(url).isOk();
+		}
+		assertThat(clientPorts.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void test_shouldSendAsyncRequest() {
+		REST.given().sendAsync("DELETE", url)
+				.satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk();
+					}
+				})
+				.await(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void test_shouldRecordLatencies() {
+		ResponseLatencies latencies = new ResponseLatencies();
+
+		Response response = REST.given().recordLatencies(latencies).send("GET", url);
+		REST.given().recordLatencies(latencies).sendAsync("GET", url)
+				.satisfies(new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk();
+					}
+				})
+				.await(5, TimeUnit.SECONDS);
+
+		long timeToFirstByte = response.getTimeToFirstByte(TimeUnit.NANOSECONDS);
+		assertThat(timeToFirstByte).isGreaterThan(0);
+		assertThat(response.getResponseTime(TimeUnit.NANOSECONDS)).isGreaterThanOrEqualTo(timeToFirstByte);
+		assertThat(latencies.getResponseTime().getCount()).isEqualTo(2);
+		assertThat(latencies.getTimeToFirstByte().getCount()).isEqualTo(2);
+		REST.assertThat(latencies).hasP99Below(5, TimeUnit.SECONDS).hasTtfbBelow(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void test_shouldRecordFailuresInLatencies() {
+		server.createContext("/slow", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					Thread.sleep(2000);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				exchange.sendResponseHeaders(200, -1);
+				exchange.close();
+			}
+		});
+		String slowUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+		ResponseLatencies latencies = new ResponseLatencies();
+
+		REST.given().recordLatencies(latencies).get(url);
+		try {
+			REST.given().recordLatencies(latencies).timeout(200, TimeUnit.MILLISECONDS).get(slowUrl);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected request <GET " + slowUrl + "> to succeed but failed with: ");
+		}
+
+		assertThat(latencies.getFailures()).isEqualTo(1);
+		assertThat(latencies.getResponseTime().getCount()).isEqualTo(2);
+		assertThat(latencies.getResponseTime().getMax(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(200);
+		REST.assertThat(latencies).hasFailureRateBelow(51);
+		try {
+			REST.assertThat(latencies).hasNoFailures();
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected no request to fail but <1> of <2> failed or timed out");
+		}
+	}
+
+	@Test
+	public void test_shouldRecordRequestToServerDownAsFailure() {
+		server.stop(0);
+		ResponseLatencies latencies = new ResponseLatencies();
+		try {
+			REST.given().recordLatencies(latencies).get(url);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(latencies.getFailures()).isEqualTo(1);
+			assertThat(latencies.getResponseTime().getCount()).isEqualTo(1);
+			assertThat(latencies.getTimeToFirstByte().getCount()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	public void test_shouldFailIfServerIsDown() {
+		server.stop(0);
+		try {
+			REST.given().get(url);
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected request <GET " + url + "> to succeed but failed with: ");
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_shouldNotConfigureCreatedClient() {
+		SharedHttpClient.get();
+		SharedHttpClient.configure(10, 10, 1000);
+	}
+}
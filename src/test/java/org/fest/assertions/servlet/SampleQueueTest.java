@@ -0,0 +1,83 @@
+package org.fest.assertions.servlet;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class SampleQueueTest {
+
+	@Test
+	public void test_shouldRoundCapacityAndRejectWhenFull() {
+		SampleQueue<Integer> queue = new SampleQueue<Integer>(3);
+		assertThat(queue.capacity()).isEqualTo(4);
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(queue.offer(i)).isTrue();
+		}
+		assertThat(queue.offer(4)).isFalse();
+		assertThat(queue.size()).isEqualTo(4);
+
+		assertThat(queue.poll()).isEqualTo(0);
+		assertThat(queue.offer(4)).isTrue();
+		for (int i = 1; i <= 4; i++) {
+			assertThat(queue.poll()).isEqualTo(i);
+		}
+		assertThat(queue.poll()).isNull();
+		assertThat(queue.size()).isZero();
+	}
+
+	@Test
+	public void test_shouldNotLoseElementsWithConcurrentProducersAndConsumers() throws Exception {
+		final SampleQueue<Integer> queue = new SampleQueue<Integer>(64);
+		final int producers = 4;
+		final int perProducer = 20000;
+		final AtomicInteger consumed = new AtomicInteger();
+		final AtomicLong sum = new AtomicLong();
+		final CountDownLatch done = new CountDownLatch(producers);
+
+		Thread[] threads = new Thread[producers + 2];
+		for (int p = 0; p < producers; p++) {
+			threads[p] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 1; i <= perProducer; i++) {
+						while (!queue.offer(i)) {
+							Thread.yield();
+						}
+					}
+					done.countDown();
+				}
+			});
+		}
+		for (int c = producers; c < threads.length; c++) {
+			threads[c] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (done.getCount() > 0 || queue.size() > 0) {
+						Integer value = queue.poll();
+						if (value == null) {
+							Thread.yield();
+							continue;
+						}
+						sum.addAndGet(value);
+						consumed.incrementAndGet();
+					}
+				}
+			});
+		}
+
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(consumed.get()).isEqualTo(producers * perProducer);
+		assertThat(sum.get()).isEqualTo((long) producers * perProducer * (perProducer + 1) / 2);
+	}
+}
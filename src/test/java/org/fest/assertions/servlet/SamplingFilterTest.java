@@ -0,0 +1,184 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.api.rest.JsonAssert;
+import org.fest.assertions.api.rest.JsonCheck;
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.api.rest.ResponseCheck;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class SamplingFilterTest {
+
+	private ServletHarness harness;
+
+	@After
+	public void tearDown() {
+		if (harness != null) {
+			harness.destroy();
+		}
+	}
+
+	@Test
+	public void test_shouldCountViolationsPerRule() throws Exception {
+		SamplingFilter filter = new SamplingFilter(Sampler.rate(1))
+				.rule("status", new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk().isJson();
+					}
+				})
+				.jsonRule("id", new JsonCheck() {
+					@Override
+					public void check(JsonAssert json) {
+						json.isObject().isNumber("id");
+					}
+				});
+		harness = new ServletHarness(new JsonServlet()).filter(filter);
+
+		harness.given().get("/users/1").isOk().hasBodyEqualTo("{\"id\": 1}");
+		harness.given().get("/users/abc").isOk().hasBodyEqualTo("{\"id\": \"abc\"}");
+		harness.given().get("/missing").isNotFound();
+
+		assertThat(filter.awaitChecked(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(filter.getRequests()).isEqualTo(3);
+		assertThat(filter.getSampled()).isEqualTo(3);
+		assertThat(filter.getChecked()).isEqualTo(3);
+		assertThat(filter.getDropped()).isZero();
+		assertThat(filter.getViolations("status")).isEqualTo(1);
+		assertThat(filter.getViolations("id")).isEqualTo(2);
+		assertThat(filter.getLastViolation("status")).isNotNull();
+		assertThat(filter.getMeanOverhead(TimeUnit.NANOSECONDS)).isGreaterThan(0);
+	}
+
+	@Test
+	public void test_shouldNotSampleWithLowRate() throws Exception {
+		SamplingFilter filter = new SamplingFilter(Sampler.rate(0.000001)).rule("never", new ResponseCheck() {
+			@Override
+			public void check(ResponseAssert response) {
+				response.isNotFound();
+			}
+		});
+		harness = new ServletHarness(new JsonServlet()).filter(filter);
+
+		for (int i = 0; i < 100; i++) {
+			harness.given().get("/users/" + i).isOk();
+		}
+
+		assertThat(filter.awaitChecked(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(filter.getRequests()).isEqualTo(100);
+		assertThat(filter.getSampled()).isLessThan(3);
+	}
+
+	@Test
+	public void test_shouldDropResponsesWhenQueueIsFull() throws Exception {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		SamplingFilter filter = new SamplingFilter(Sampler.rate(1))
+				.queueCapacity(2)
+				.rule("slow", new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						blocked.countDown();
+						try {
+							release.await();
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+		harness = new ServletHarness(new JsonServlet()).filter(filter);
+
+		harness.given().get("/users/0").isOk();
+		assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 1; i <= 5; i++) {
+			harness.given().get("/users/" + i).isOk();
+		}
+
+		assertThat(filter.getSampled()).isEqualTo(3);
+		assertThat(filter.getDropped()).isEqualTo(3);
+
+		release.countDown();
+		assertThat(filter.awaitChecked(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(filter.getChecked()).isEqualTo(3);
+	}
+
+	@Test
+	public void test_shouldDropTooLargeBodies() throws Exception {
+		SamplingFilter filter = new SamplingFilter(Sampler.rate(1)).maxBodySize(5);
+		harness = new ServletHarness(new JsonServlet()).filter(filter);
+
+		harness.given().get("/users/1").isOk().hasBodyEqualTo("{\"id\": 1}");
+
+		assertThat(filter.getDropped()).isEqualTo(1);
+		assertThat(filter.getSampled()).isZero();
+	}
+
+	@Test
+	public void test_shouldReleaseReservoirAtEndOfWindow() throws Exception {
+		SamplingFilter filter = new SamplingFilter(Sampler.reservoir(2, 50, TimeUnit.MILLISECONDS)).rule("ok", new ResponseCheck() {
+			@Override
+			public void check(ResponseAssert response) {
+				response.isOk();
+			}
+		});
+		harness = new ServletHarness(new JsonServlet()).filter(filter);
+
+		for (int i = 0; i < 20; i++) {
+			harness.given().get("/users/" + i).isOk();
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (filter.getChecked() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(filter.getChecked()).isGreaterThanOrEqualTo(2);
+		assertThat(filter.getViolations("ok")).isZero();
+	}
+
+	@Test
+	public void test_shouldRejectUnknownRuleAndInvalidSampler() {
+		try {
+			new SamplingFilter(Sampler.rate(1)).getViolations("foo");
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Unknown rule foo");
+		}
+
+		try {
+			Sampler.rate(0);
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Probability must be greater than 0 and less than or equal to 1");
+		}
+	}
+
+	private static class JsonServlet extends HttpServlet {
+
+		@Override
+		protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			String path = req.getPathInfo();
+			if (!path.startsWith("/users/")) {
+				resp.sendError(404);
+				return;
+			}
+
+			String id = path.substring("/users/".length());
+			resp.setContentType("application/json");
+			resp.setCharacterEncoding("UTF-8");
+			resp.getWriter().print(id.matches("\\d+") ? "{\"id\": " + id + "}" : "{\"id\": \"" + id + "\"}");
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package org.fest.assertions.servlet;
+
+import org.fest.assertions.api.rest.REST;
+import org.fest.assertions.util.Response;
+import org.junit.Test;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ServletHarnessTest {
+
+	@Test
+	public void test_shouldDispatchToServlet() {
+		ServletHarness harness = new ServletHarness(new UserServlet()).contextPath("/app");
+
+		harness.given()
+				.accept("application/json")
+				.get("/users/1")
+				.isOk()
+				.isJson()
+				.isCharsetEqualTo("UTF-8")
+				.hasHeaderEqualTo("X-Request-Uri", "/app/users/1")
+				.hasBodyContaining("\"name\": \"été\"");
+
+		Response response = harness.given().send("GET", "/users/1");
+		REST.assertJsonThat(response).isObject().isNumber("id").isString("name");
+		assertThat(response.getResponseTime(TimeUnit.NANOSECONDS)).isGreaterThanOrEqualTo(0);
+	}
+
+	@Test
+	public void test_shouldReadParametersAndBody() {
+		ServletHarness harness = new ServletHarness(new UserServlet());
+
+		harness.given()
+				.contentType("application/x-www-form-urlencoded")
+				.queryParam("source", "a b")
+				.body("name=John+Doe&tag=1&tag=2")
+				.post("/users?dry=true")
+				.isCreated()
+				.hasLocationEqualTo("/users/2")
+				.hasBodyEqualTo("source=a b, dry=true, name=John Doe, tags=2");
+
+		harness.given()
+				.param("name", "Jane")
+				.post("/users")
+				.isCreated()
+				.hasBodyEqualTo("source=null, dry=null, name=Jane, tags=0");
+
+		harness.given()
+				.contentType("application/json; charset=utf-8")
+				.body("{\"name\": \"été\"}")
+				.put("/users/1")
+				.isOk()
+				.hasBodyEqualTo("{\"name\": \"été\"}");
+	}
+
+	@Test
+	public void test_shouldCaptureHeadersAndCookies() {
+		Response response = new ServletHarness(new UserServlet()).given()
+				.cookie("session", "1234")
+				.send("GET", "/users/me");
+
+		REST.assertThat(response)
+				.isOk()
+				.hasCookieEqualTo("session", "1234")
+				.hasCookieEqualTo("lang", "fr");
+		assertThat(response.getHeaderValues("Vary")).containsExactly("Accept", "Cookie");
+		assertThat(response.getCookie("lang").getMaxAge()).isEqualTo(3600);
+	}
+
+	@Test
+	public void test_shouldRunFiltersInOrder() {
+		List<String> events = new ArrayList<String>();
+		ServletHarness harness = new ServletHarness(new UserServlet())
+				.initParameter("realm", "test")
+				.filter(new RecordingFilter("first", events))
+				.filter(new RecordingFilter("second", events));
+
+		harness.given().get("/users/1").isOk().hasHeaderEqualTo("X-Filtered-By", "first");
+		assertThat(events).containsExactly("init first test", "init second test", "before first", "before second", "after second", "after first");
+
+		harness.destroy();
+		assertThat(events).endsWith("destroy second", "destroy first");
+	}
+
+	@Test
+	public void test_shouldLetFilterShortCircuitServlet() {
+		ServletHarness harness = new ServletHarness(new UserServlet()).filter(new AuthFilter());
+
+		harness.given().get("/users/1").isUnauthorized().hasBodyEqualTo("Missing token");
+		harness.given().header("Authorization", "Bearer token").get("/users/1").isOk();
+	}
+
+	@Test
+	public void test_shouldCaptureErrorsAndRedirects() {
+		ServletHarness harness = new ServletHarness(new UserServlet());
+
+		harness.given().get("/users/404").isNotFound().isTextPlain().hasBodyEqualTo("No user 404");
+		harness.given().get("/old").isMovedTemporarily().hasLocationEqualTo("/users");
+		harness.given().delete("/users/1").isMethodNotAllowed();
+		harness.given().head("/users/1").isOk().hasEmptyBody();
+	}
+
+	@Test
+	public void test_shouldFailWhenServletThrows() {
+		try {
+			new ServletHarness(new UserServlet()).given().get("/boom");
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected request <GET /boom> to succeed but failed with: javax.servlet.ServletException: boom");
+			assertThat(error.getCause()).isInstanceOf(ServletException.class);
+		}
+	}
+
+	@Test
+	public void test_shouldNotAcceptFiltersAfterInitialization() {
+		ServletHarness harness = new ServletHarness(new UserServlet()).init();
+		try {
+			harness.filter(new AuthFilter());
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Servlet harness has already been initialized");
+		}
+	}
+
+	private static class UserServlet extends HttpServlet {
+
+		@Override
+		protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+			String path = req.getPathInfo();
+			if (path.equals("/boom")) {
+				throw new ServletException("boom");
+			}
+			if (path.equals("/old")) {
+				resp.sendRedirect("/users");
+				return;
+			}
+			if (path.equals("/users/404")) {
+				resp.sendError(404, "No user 404");
+				return;
+			}
+			if (path.equals("/users/me")) {
+				Cookie lang = new Cookie("lang", "fr");
+				lang.setMaxAge(3600);
+				resp.addCookie(lang);
+				resp.addCookie(req.getCookies()[0]);
+				resp.addHeader("Vary", "Accept");
+				resp.addHeader("Vary", "Cookie");
+				return;
+			}
+
+			resp.setContentType("application/json;charset=UTF-8");
+			resp.setHeader("X-Request-Uri", req.getRequestURI());
+			resp.getWriter().print("{\"id\": 1, \"name\": \"été\"}");
+		}
+
+		@Override
+		protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			String[] tags = req.getParameterValues("tag");
+			resp.setStatus(201);
+			resp.setHeader("Location", "/users/2");
+			resp.setContentType("text/plain");
+			resp.getWriter().print("source=" + req.getParameter("source") + ", dry=" + req.getParameter("dry") +
+					", name=" + req.getParameter("name") + ", tags=" + (tags == null ? 0 : tags.length));
+		}
+
+		@Override
+		protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			BufferedReader reader = req.getReader();
+			resp.setContentType("application/json");
+			resp.setCharacterEncoding("UTF-8");
+			resp.getWriter().print(reader.readLine());
+		}
+	}
+
+	private static class RecordingFilter implements Filter {
+
+		private final String name;
+
+		private final List<String> events;
+
+		private RecordingFilter(String name, List<String> events) {
+			this.name = name;
+			this.events = events;
+		}
+
+		@Override
+		public void init(FilterConfig filterConfig) {
+			events.add("init " + name + " " + filterConfig.getInitParameter("realm"));
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+			events.add("before " + name);
+			HttpServletResponse httpResponse = (HttpServletResponse) response;
+			if (!httpResponse.containsHeader("X-Filtered-By")) {
+				httpResponse.setHeader("X-Filtered-By", name);
+			}
+			chain.doFilter(request, response);
+			events.add("after " + name);
+		}
+
+		@Override
+		public void destroy() {
+			events.add("destroy " + name);
+		}
+	}
+
+	private static class AuthFilter implements Filter {
+
+		@Override
+		public void init(FilterConfig filterConfig) {
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+			if (((HttpServletRequest) request).getHeader("authorization") == null) {
+				((HttpServletResponse) response).sendError(401, "Missing token");
+				return;
+			}
+			chain.doFilter(request, response);
+		}
+
+		@Override
+		public void destroy() {
+		}
+	}
+}
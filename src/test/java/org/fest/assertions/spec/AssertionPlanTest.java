@@ -0,0 +1,184 @@
+package org.fest.assertions.spec;
+
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.Response;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Collections.singletonList;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class AssertionPlanTest {
+
+	private static final String SPEC = "{" +
+			"\"name\": \"get-user\"," +
+			"\"status\": [\"2xx\", 304]," +
+			"\"mediaType\": \"application/json\"," +
+			"\"charset\": \"utf-8\"," +
+			"\"headers\": {\"ETag\": {\"present\": true, \"matches\": \"^\\\"[a-z0-9]+\\\"$\"}, \"X-Debug\": {\"present\": false}}," +
+			"\"cookies\": {\"session\": {\"matches\": \"^[0-9a-f]{8}$\"}}," +
+			"\"json\": {" +
+			"  \"$.id\": {\"type\": \"number\", \"greaterThan\": 0}," +
+			"  \"$.name\": \"John\"," +
+			"  \"$.admin\": false," +
+			"  \"$.roles\": {\"size\": 2}," +
+			"  \"$.deletedAt\": {\"present\": false}" +
+			"}," +
+			"\"body\": {\"id\": 0, \"name\": \"John\", \"admin\": false, \"roles\": [\"a\", \"b\"], \"createdAt\": null}," +
+			"\"ignore\": [\"id\", \"createdAt\"]" +
+			"}";
+
+	private static final String USER = "{\"id\": 42, \"name\": \"John\", \"admin\": false, \"roles\": [\"a\", \"b\"], \"createdAt\": \"2014-01-01\"}";
+
+	@Test
+	public void test_shouldSatisfyPlan() {
+		AssertionPlan plan = AssertionPlan.compile(SPEC);
+
+		assertThat(plan.getName()).isEqualTo("get-user");
+		assertThat(plan.evaluate(user(200, USER, "\"abc1\""))).isEmpty();
+		assertThat(plan.matches(user(304, USER, "\"abc1\""))).isTrue();
+		plan.check(user(201, USER, "\"abc1\""));
+	}
+
+	@Test
+	public void test_shouldReportAllFailures() {
+		AssertionPlan plan = AssertionPlan.compile(SPEC);
+		String body = "{\"id\": -1, \"name\": \"Jane\", \"admin\": false, \"roles\": [\"a\"], \"deletedAt\": null, \"createdAt\": 1}";
+
+		List<String> failures = plan.evaluate(user(404, body, null));
+
+		assertThat(failures).contains(
+				"Expected status code to be <2xx or 304> but was <404>",
+				"Expected header <ETag> to be present",
+				"Expected json path <$.id> to be greater than <0> but was <-1>",
+				"Expected json path <$.name> to be equal to <John> but was <Jane>",
+				"Expected json path <$.roles> to have size <2> but had size <1>",
+				"Expected json path <$.deletedAt> not to be present but was <null>");
+		assertThat(failures).doesNotContain("Expected json path <$.admin> to be equal to <false> but was <false>");
+
+		try {
+			plan.check(user(404, body, null));
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected response to satisfy plan <get-user> but:\n - Expected status code to be <2xx or 304> but was <404>\n - ");
+		}
+	}
+
+	@Test
+	public void test_shouldReportInvalidJsonOnce() {
+		AssertionPlan plan = AssertionPlan.compile("{\"json\": {\"$.id\": 1, \"$.name\": \"John\"}}");
+
+		List<String> failures = plan.evaluate(new DefaultResponse(200, "application/json", new HashMap<String, String>(), new ArrayList<Cookie>(), "{broken".getBytes()));
+
+		assertThat(failures).hasSize(1);
+		assertThat(failures.get(0)).startsWith("Expected body to be json but was not");
+	}
+
+	@Test
+	public void test_shouldLoadFixturesFromSpecDirectory() throws Exception {
+		File dir = File.createTempFile("spec", "");
+		dir.delete();
+		dir.mkdir();
+		File spec = new File(dir, "spec.json");
+		File fixture = new File(dir, "user.json");
+		try {
+			write(fixture, "{\"id\": 1, \"name\": \"John\", \"admin\": false, \"roles\": [\"a\", \"b\"], \"createdAt\": null}");
+			write(spec, "{\"status\": 200, \"bodyFile\": \"user.json\", \"ignore\": [\"id\", \"createdAt\"]}");
+
+			AssertionPlan plan = AssertionPlan.compile(spec);
+
+			assertThat(plan.getName()).isEqualTo("response");
+			assertThat(plan.matches(user(200, USER, "\"a\""))).isTrue();
+			assertThat(plan.evaluate(user(200, USER.replace("John", "Jane"), "\"a\""))).hasSize(1);
+		}
+		finally {
+			fixture.delete();
+			spec.delete();
+			dir.delete();
+		}
+	}
+
+	@Test
+	public void test_shouldRejectInvalidSpecs() {
+		for (String spec : Arrays.asList(
+				"[]",
+				"{\"unknown\": 1}",
+				"{\"status\": \"6xx\"}",
+				"{\"headers\": {\"ETag\": {\"matches\": \"[\"}}}",
+				"{\"headers\": {\"ETag\": {\"longerThan\": 2}}}",
+				"{\"json\": {\"$.id\": {\"type\": \"integer\"}}}",
+				"{\"json\": {\"$.roles\": [\"a\"]}}",
+				"{\"ignore\": [\"id\"]}",
+				"{not json")) {
+			try {
+				AssertionPlan.compile(spec);
+				fail("IllegalArgumentException expected for " + spec);
+			}
+			catch (IllegalArgumentException ex) {
+				assertThat(ex.getMessage()).isNotEmpty();
+			}
+		}
+	}
+
+	@Test
+	public void test_shouldBeSharedBetweenThreads() throws Exception {
+		final AssertionPlan plan = AssertionPlan.compile(SPEC);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						int failures = 0;
+						for (int i = 0; i < 500; i++) {
+							Response response = i % 2 == 0 ? user(200, USER, "\"a\"") : user(500, USER, "\"a\"");
+							failures += plan.evaluate(response).size();
+						}
+						return failures;
+					}
+				}));
+			}
+			for (Future<Integer> result : results) {
+				assertThat(result.get()).isEqualTo(250);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Response user(int status, String body, String etag) {
+		Map<String, String> headers = new HashMap<String, String>();
+		if (etag != null) {
+			headers.put("ETag", etag);
+		}
+		return new DefaultResponse(status, "application/json; charset=UTF-8", headers, singletonList(new Cookie("session", "0123abcd")), body.getBytes());
+	}
+
+	private static void write(File file, String content) throws Exception {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package org.fest.assertions.spec;
+
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.DefaultResponse;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class JsonTemplateTest {
+
+	private static final String TEMPLATE = "{" +
+			"\"id\": \"${any-uuid}\"," +
+			"\"name\": \"John\"," +
+			"\"age\": \"${number >= 18}\"," +
+			"\"score\": \"${any-number}\"," +
+			"\"createdAt\": \"${any-iso-date}\"," +
+			"\"email\": \"${regex:[a-z]+@example\\\\.com}\"," +
+			"\"admin\": false," +
+			"\"manager\": null," +
+			"\"tags\": [\"${any-string}\", \"api\"]," +
+			"\"address\": {\"city\": \"Paris\", \"zip\": \"${regex:\\\\d{5}}\"}," +
+			"\"metadata\": \"${any}\"," +
+			"\"price\": \"$${literal}\"" +
+			"}";
+
+	@Test
+	public void test_shouldMatchGeneratedValues() {
+		JsonTemplate template = JsonTemplate.compile(TEMPLATE);
+
+		String json = "{\"name\": \"John\", \"id\": \"550e8400-e29b-41d4-a716-446655440000\", \"age\": 18, \"score\": 1.5e2, " +
+				"\"createdAt\": \"2014-01-01T10:00:00.000+01:00\", \"email\": \"john@example.com\", \"admin\": false, \"manager\": null, " +
+				"\"tags\": [\"users\", \"api\"], \"address\": {\"zip\": \"75001\", \"city\": \"Paris\"}, \"metadata\": {\"a\": [1, {}]}, \"price\": \"${literal}\"}";
+
+		assertThat(template.evaluate(json)).isEmpty();
+		assertThat(template.matches(json.replace("2014-01-01T10:00:00.000+01:00", "2014-01-01"))).isTrue();
+		template.check(json);
+	}
+
+	@Test
+	public void test_shouldReportMismatchesWithPaths() {
+		JsonTemplate template = JsonTemplate.compile(TEMPLATE);
+
+		String json = "{\"id\": \"550e8400-e29b-41d4-a716\", \"name\": \"Jane\", \"age\": 17, \"score\": \"1\", \"createdAt\": \"01/01/2014\", " +
+				"\"email\": \"john@example.org\", \"admin\": 0, \"manager\": {}, \"tags\": [1, \"api\", \"extra\"], " +
+				"\"address\": {\"city\": \"Paris\"}, \"price\": \"$${literal}\", \"unexpected\": [1, 2]}";
+
+		List<String> errors = template.evaluate(json);
+
+		assertThat(errors).containsExactly(
+				"Expected json <$.id> to be a uuid but was <\"550e8400-e29b-41d4-a716\">",
+				"Expected json <$.name> to be equal to <\"John\"> but was <\"Jane\">",
+				"Expected json <$.age> to be a number >= 18 but was <17>",
+				"Expected json <$.score> to be a number but was <\"1\">",
+				"Expected json <$.createdAt> to be an ISO 8601 date but was <\"01/01/2014\">",
+				"Expected json <$.email> to match <[a-z]+@example\\.com> but was <\"john@example.org\">",
+				"Expected json <$.admin> to be equal to <false> but was <0>",
+				"Expected json <$.manager> to be equal to <null> but was <object>",
+				"Expected json <$.tags[0]> to be a string but was <1>",
+				"Expected json <$.tags> to have size <2> but had size <3>",
+				"Expected json <$.address.zip> to be present",
+				"Expected json <$.price> to be equal to <\"${literal}\"> but was <\"$${literal}\">",
+				"Expected json <$.unexpected> not to be present",
+				"Expected json <$.metadata> to be present");
+
+		try {
+			template.check("[]");
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected json to match template but:\n - Expected json <$> to be an object but was <array>");
+		}
+	}
+
+	@Test
+	public void test_shouldReportInvalidDocuments() {
+		JsonTemplate template = JsonTemplate.compile("[\"${any-integer}\", 1.0]");
+
+		assertThat(template.evaluate("[1, 1]")).isEmpty();
+		assertThat(template.evaluate("[1.5, 1]")).containsExactly("Expected json <$[0]> to be an integer but was <1.5>");
+		assertThat(template.evaluate("")).containsExactly("Expected json to match template but was empty");
+		assertThat(template.evaluate("[1, 1] []")).containsExactly("Expected json to match template but document has trailing content");
+		assertThat(template.evaluate("[1, ").get(0)).startsWith("Expected json to be valid but was not");
+	}
+
+	@Test
+	public void test_shouldRejectInvalidTemplates() {
+		for (String template : Arrays.asList("{\"id\": \"${any-thing}\"}", "{\"id\": \"${regex:[}\"}", "{\"id\": \"${number > x}\"}", "{broken")) {
+			try {
+				JsonTemplate.compile(template);
+				fail("IllegalArgumentException expected for " + template);
+			}
+			catch (IllegalArgumentException ex) {
+				assertThat(ex.getMessage()).isNotEmpty();
+			}
+		}
+	}
+
+	@Test
+	public void test_shouldBeUsedByAssertionPlans() {
+		AssertionPlan plan = AssertionPlan.compile("{\"status\": 201, \"template\": {\"id\": \"${any-uuid}\", \"name\": \"John\"}}");
+
+		assertThat(plan.evaluate(response(201, "{\"id\": \"550e8400-e29b-41d4-a716-446655440000\", \"name\": \"John\"}"))).isEmpty();
+		assertThat(plan.evaluate(response(201, "{\"id\": 1, \"name\": \"John\"}"))).containsExactly("Expected json <$.id> to be a uuid but was <1>");
+	}
+
+	private static DefaultResponse response(int status, String body) {
+		return new DefaultResponse(status, "application/json", new HashMap<String, String>(), new ArrayList<Cookie>(), body.getBytes());
+	}
+}
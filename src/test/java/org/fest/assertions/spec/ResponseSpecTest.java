@@ -0,0 +1,201 @@
+package org.fest.assertions.spec;
+
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.ResponsePredicate;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ResponseSpecTest {
+
+	private static final ResponseSpec SPEC = ResponseSpec.response()
+			.isSuccess()
+			.isJsonUtf8()
+			.hasETagHeader()
+			.hasCookie("session")
+			.hasBodyContaining("\"id\"");
+
+	@Test
+	public void test_shouldPassWithoutFailures() {
+		ResponseSpec.Result result = SPEC.evaluate(response(200, "application/json; charset=UTF-8", "\"abc\"", "session", "{\"id\": 1}"));
+
+		assertThat(result.isPassed()).isTrue();
+		assertThat(result.getFailures()).isEmpty();
+		assertThat(SPEC.matches(response(200, "application/json; charset=UTF-8", "\"abc\"", "session", "{\"id\": 1}"))).isTrue();
+		assertThat(SPEC.evaluate(response(204, "application/json; charset=utf-8", "1", "session", "{\"id\": 1}"))).isSameAs(result);
+	}
+
+	@Test
+	public void test_shouldListAllFailures() {
+		ResponseSpec.Result result = SPEC.evaluate(response(404, "text/html", null, "other", "{}"));
+
+		assertThat(result.isPassed()).isFalse();
+		assertThat(result.getFailures()).containsExactly(
+				"Expected status code to be between <200> and <299> but was <404>",
+				"Expect Content-Type to be <application/json> but was <text/html>",
+				"Expect charset to be defined in Content-Type value",
+				"Expected header <ETag> to be defined",
+				"Expected cookie <session> to be defined",
+				"Expected body to contain <\"id\">");
+		assertThat(SPEC.matches(response(404, "text/html", null, "other", "{}"))).isFalse();
+	}
+
+	@Test
+	public void test_shouldReportMissingContentTypeOnce() {
+		ResponseSpec spec = ResponseSpec.response().isJsonUtf8().isStatusNotBetween(500, 599).isStatusNotEqualTo(201);
+
+		assertThat(spec.evaluate(response(201, null, "1", "session", "")).getFailures()).containsExactly(
+				"Expect Content-Type to be defined and not empty",
+				"Expected status code not to be <201>");
+		assertThat(spec.evaluate(null).getFailures()).containsExactly("Expecting actual not to be null");
+		assertThat(spec.matches(null)).isFalse();
+	}
+
+	@Test
+	public void test_shouldBeImmutable() {
+		ResponseSpec success = ResponseSpec.response().isSuccess();
+		ResponseSpec created = success.isCreated();
+		DefaultResponse ok = response(200, "application/json", null, null, "");
+
+		assertThat(success.matches(ok)).isTrue();
+		assertThat(created.matches(ok)).isFalse();
+		assertThat(ResponseSpec.response().matches(ok)).isTrue();
+	}
+
+	@Test
+	public void test_shouldCheckResponse() {
+		ResponseSpec spec = ResponseSpec.response().isOk().hasHeaderEqualTo("ETag", "\"abc\"").hasCookieEqualTo("session", "42").hasEmptyBody();
+
+		spec.check(response(200, "text/plain", "\"abc\"", "session", ""));
+
+		try {
+			spec.check(response(200, "text/plain", "\"def\"", "session", "body"));
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).isEqualTo("Expected response to satisfy spec but:\n" +
+					" - Expected header <ETag> to be <\"abc\"> but was <\"def\">\n" +
+					" - Expected body to be empty but contains <4> bytes");
+		}
+	}
+
+	@Test
+	public void test_shouldDescribeFailuresAsResponseAssert() {
+		DefaultResponse response = response(404, "text/html; charset=iso-8859-1", "\"def\"", "session", "body");
+		ResponseSpec spec = ResponseSpec.response()
+				.isOk()
+				.isMimeTypeIn("application/json")
+				.isUtf8()
+				.hasETagEqualTo("\"abc\"")
+				.hasCookieEqualTo("session", "0")
+				.hasBodyEqualTo("other");
+
+		List<String> failures = spec.evaluate(response).getFailures();
+		final ResponseAssert assertion = new ResponseAssert(response);
+		List<String> messages = new ArrayList<String>();
+		for (Runnable check : Arrays.<Runnable>asList(
+				new Runnable() {
+					@Override
+					public void run() {
+						assertion.isOk();
+					}
+				},
+				new Runnable() {
+					@Override
+					public void run() {
+						assertion.isMimeTypeIn("application/json");
+					}
+				},
+				new Runnable() {
+					@Override
+					public void run() {
+						assertion.isUtf8();
+					}
+				},
+				new Runnable() {
+					@Override
+					public void run() {
+						assertion.hasETagEqualTo("\"abc\"");
+					}
+				},
+				new Runnable() {
+					@Override
+					public void run() {
+						assertion.hasCookieEqualTo("session", "0");
+					}
+				},
+				new Runnable() {
+					@Override
+					public void run() {
+						assertion.hasBodyEqualTo("other");
+					}
+				})) {
+			try {
+				check.run();
+				fail("AssertionError expected");
+			}
+			catch (AssertionError error) {
+				messages.add(error.getMessage());
+			}
+		}
+
+		assertThat(failures).hasSize(6).isEqualTo(messages);
+	}
+
+	@Test
+	public void test_shouldBeSharedBetweenThreads() throws Exception {
+		final ResponsePredicate predicate = SPEC;
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						DefaultResponse valid = response(200, "application/json; charset=utf-8", "1", "session", "{\"id\": 1}");
+						DefaultResponse invalid = response(500, "application/json; charset=utf-8", "1", "session", "{\"id\": 1}");
+						int matches = 0;
+						for (int j = 0; j < 10000; j++) {
+							if (predicate.matches(j % 10 == 0 ? invalid : valid)) {
+								matches++;
+							}
+						}
+						return matches;
+					}
+				}));
+			}
+			for (Future<Integer> future : futures) {
+				assertThat(future.get()).isEqualTo(9000);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private static DefaultResponse response(int status, String contentType, String etag, String cookie, String body) {
+		Map<String, String> headers = new HashMap<String, String>();
+		if (etag != null) {
+			headers.put("ETag", etag);
+		}
+		List<Cookie> cookies = new ArrayList<Cookie>();
+		if (cookie != null) {
+			cookies.add(new Cookie(cookie, "42"));
+		}
+		return new DefaultResponse(status, contentType, headers, cookies, body.getBytes());
+	}
+}
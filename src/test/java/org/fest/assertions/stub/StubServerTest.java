@@ -0,0 +1,308 @@
+package org.fest.assertions.stub;
+
+import org.fest.assertions.api.rest.AsyncResponseAssert;
+import org.fest.assertions.api.rest.REST;
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.api.rest.ResponseCheck;
+import org.fest.assertions.util.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class StubServerTest {
+
+	private StubServer server;
+
+	@Before
+	public void setUp() {
+		server = StubServer.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void test_shouldServeCannedResponse() {
+		server.on("GET", "/users/1")
+				.respond(StubResponse.ok().contentType("application/json").header("ETag", "\"v1\"").body("{\"id\": 1}"));
+
+		REST.given().get(server.url("/users/1"))
+				.isOk()
+				.isJson()
+				.hasETagEqualTo("\"v1\"")
+				.hasBodyEqualTo("{\"id\": 1}");
+	}
+
+	@Test
+	public void test_shouldServeFixtureFile() throws Exception {
+		byte[] content = new byte[3 * 1024 * 1024 + 17];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) ('a' + i % 26);
+		}
+		File fixture = File.createTempFile("fixture", ".txt");
+		fixture.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(fixture);
+		out.write(content);
+		out.close();
+
+		server.on("GET", "/fixture").respond(StubResponse.ok().contentType("text/plain").file(fixture));
+
+		Response response = REST.given().send("GET", server.url("/fixture"));
+		assertThat(response.getStatusCode()).isEqualTo(200);
+		assertThat(response.getBody().getBytes()).isEqualTo(content);
+	}
+
+	@Test
+	public void test_shouldMatchRequestsOnMethodPathAndHeaders() {
+		server
+				.on("GET", "/items").withHeader("Accept", "application/json")
+				.respond(StubResponse.ok().contentType("application/json").body("[]"))
+				.on("GET", "/items")
+				.respond(StubResponse.ok().contentType("text/csv").body("id"))
+				.on("POST", "/items")
+				.respond(StubResponse.status(201))
+				.on("DELETE", "/items/*")
+				.respond(StubResponse.status(204));
+
+		REST.given().accept("application/json").get(server.url("/items")).isOk().isJson();
+		REST.given().accept("text/csv").get(server.url("/items?page=2")).isOk().isCsv();
+		REST.given().body("{\"id\": 1}").post(server.url("/items")).isCreated();
+		REST.given().delete(server.url("/items/1")).isNoContent();
+		REST.given().put(server.url("/items/1")).isNotFound().hasBodyEqualTo("No stub matching <PUT /items/1>");
+
+		List<StubRequest> requests = server.getRequests();
+		assertThat(requests).hasSize(5);
+		assertThat(requests.get(1).getPath()).isEqualTo("/items");
+		assertThat(requests.get(1).getQuery()).isEqualTo("page=2");
+		assertThat(requests.get(2).getMethod()).isEqualTo("POST");
+		assertThat(new String(requests.get(2).getBody())).isEqualTo("{\"id\": 1}");
+		assertThat(requests.get(3).getHeader("host")).isEqualTo("127.0.0.1:" + server.getPort());
+	}
+
+	@Test
+	public void test_shouldKeepServingWhenRuleFails() {
+		server
+				.on("GET", "/broken").withHeader(null, "value")
+				.respond(StubResponse.ok())
+				.on("GET", "/ping")
+				.respond(StubResponse.ok().body("pong"));
+
+		REST.given().get(server.url("/broken"))
+				.isInternalServerError()
+				.hasBodyContaining("Stub server failed to handle request: java.lang.NullPointerException");
+		REST.given().get(server.url("/ping")).isOk().hasBodyEqualTo("pong");
+	}
+
+	@Test
+	public void test_shouldCountHitsPerRule() {
+		StubRule rule = server.on("GET", "/ping");
+		rule.respond(StubResponse.ok());
+
+		REST.given().get(server.url("/ping")).isOk().hasEmptyBody();
+		REST.given().get(server.url("/ping")).isOk();
+		REST.given().get(server.url("/pong")).isNotFound();
+
+		assertThat(rule.getHits()).isEqualTo(2);
+		assertThat(server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void test_shouldAnswerPipelinedRequestsOnSameConnection() throws Exception {
+		server.on("GET", "/a").respond(StubResponse.ok().body("A"))
+				.on("HEAD", "/b").respond(StubResponse.ok().body("BB"));
+
+		String responses = exchange(
+				"GET /a HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+				"HEAD /b HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+				"GET /a HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+		assertThat(responses).isEqualTo(
+				"HTTP/1.1 200 OK\r\nContent-Length: 1\r\n\r\nA" +
+				"HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\n" +
+				"HTTP/1.1 200 OK\r\nContent-Length: 1\r\nConnection: close\r\n\r\nA");
+	}
+
+	@Test
+	public void test_shouldRejectMalformedRequest() throws Exception {
+		String response = exchange("NOT AN HTTP REQUEST\r\n\r\n");
+		assertThat(response).startsWith("HTTP/1.1 400 Bad Request\r\n");
+		assertThat(response).contains("Connection: close");
+		assertThat(server.getRequestCount()).isZero();
+	}
+
+	@Test
+	public void test_shouldStartManyServers() {
+		List<StubServer> servers = new ArrayList<StubServer>();
+		Set<Integer> ports = new HashSet<Integer>();
+		long start = System.nanoTime();
+		for (int i = 0; i < 50; i++) {
+			StubServer other = StubServer.start();
+			servers.add(other);
+			ports.add(other.getPort());
+		}
+		long elapsed = System.nanoTime() - start;
+		for (StubServer other : servers) {
+			other.close();
+		}
+
+		assertThat(ports).hasSize(50);
+		assertThat(elapsed / 50).isLessThan(100000000L);
+	}
+
+	@Test
+	public void test_shouldRejectMissingFixture() {
+		try {
+			StubResponse.ok().file(new File("does-not-exist.json"));
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Fixture file does-not-exist.json does not exist");
+		}
+	}
+
+	@Test
+	public void test_shouldDelayFirstByte() {
+		server.on("GET", "/slow").respond(StubResponse.ok().body("done").delay(300, TimeUnit.MILLISECONDS));
+
+		REST.given().get(server.url("/slow"))
+				.isOk()
+				.respondsAfter(300, TimeUnit.MILLISECONDS)
+				.respondsWithin(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void test_shouldThrottleBody() throws Exception {
+		byte[] body = new byte[2000];
+		Arrays.fill(body, (byte) 'x');
+		server.on("GET", "/trickle").respond(StubResponse.ok().body(body).throttle(10000));
+
+		Response response = REST.given().send("GET", server.url("/trickle"));
+		assertThat(response.getBody().getBytes()).isEqualTo(body);
+
+		// 200 bytes every 20 ms
+		REST.assertThat(response).respondsAfter(150, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void test_shouldStallAfterBytes() {
+		server.on("GET", "/stall").respond(StubResponse.ok().body("0123456789abcdef").stallAfter(10));
+
+		long start = System.nanoTime();
+		try {
+			REST.given().timeout(300, TimeUnit.MILLISECONDS).get(server.url("/stall"));
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected request <GET " + server.url("/stall") + "> to succeed but failed with:");
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(300);
+		}
+	}
+
+	@Test
+	public void test_shouldStallThenSendPartialBody() throws Exception {
+		server.on("GET", "/stall").respond(StubResponse.ok().body("0123456789abcdef").stallAfter(10));
+
+		Socket socket = new Socket("127.0.0.1", server.getPort());
+		try {
+			socket.setSoTimeout(300);
+			socket.getOutputStream().write("GET /stall HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes("US-ASCII"));
+
+			ByteArrayOutputStream received = new ByteArrayOutputStream();
+			InputStream in = socket.getInputStream();
+			byte[] buffer = new byte[1024];
+			try {
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					received.write(buffer, 0, read);
+				}
+				fail("SocketTimeoutException expected");
+			}
+			catch (SocketTimeoutException ex) {
+				assertThat(received.toString("US-ASCII")).isEqualTo("HTTP/1.1 200 OK\r\nContent-Length: 16\r\n\r\n0123456789");
+			}
+		}
+		finally {
+			socket.close();
+		}
+	}
+
+	@Test
+	public void test_shouldResetAfterBytes() {
+		server.on("GET", "/reset").respond(StubResponse.ok().body("0123456789abcdef").resetAfter(10));
+
+		try {
+			REST.given().get(server.url("/reset"));
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected request <GET " + server.url("/reset") + "> to succeed but failed with:");
+		}
+	}
+
+	@Test
+	public void test_shouldDelayManyConnectionsWithoutThreads() {
+		server.on("GET", "/slow").respond(StubResponse.ok().body("done").delay(500, TimeUnit.MILLISECONDS));
+
+		List<AsyncResponseAssert> assertions = new ArrayList<AsyncResponseAssert>();
+		long start = System.nanoTime();
+		for (int i = 0; i < 40; i++) {
+			assertions.add(REST.given().sendAsync("GET", server.url("/slow")).satisfies(new ResponseCheck() {
+				@Override
+				public void check(ResponseAssert response) {
+					response.isOk().hasBodyEqualTo("done");
+				}
+			}));
+		}
+		AsyncResponseAssert.awaitAll(10, TimeUnit.SECONDS, assertions);
+
+		// Delays run concurrently on the selector thread
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+		assertThat(server.getRequestCount()).isEqualTo(40);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_shouldRejectInvalidThrottle() {
+		StubResponse.ok().throttle(0);
+	}
+
+	private String exchange(String requests) throws Exception {
+		Socket socket = new Socket("127.0.0.1", server.getPort());
+		try {
+			socket.setSoTimeout(5000);
+			OutputStream out = socket.getOutputStream();
+			out.write(requests.getBytes("US-ASCII"));
+			out.flush();
+
+			ByteArrayOutputStream received = new ByteArrayOutputStream();
+			InputStream in = socket.getInputStream();
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				received.write(buffer, 0, read);
+			}
+			return received.toString("US-ASCII");
+		}
+		finally {
+			socket.close();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package org.fest.assertions.stub;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class TimerWheelTest {
+
+	private final List<String> runs = new ArrayList<String>();
+
+	@Test
+	public void test_shouldRunTasksWhenDeadlineIsReached() {
+		TimerWheel wheel = new TimerWheel(10, 8, 0);
+		wheel.schedule(0, 25, task("a"));
+		wheel.schedule(0, 5, task("b"));
+		wheel.schedule(0, 10, task("c"));
+		assertThat(wheel.size()).isEqualTo(3);
+
+		assertThat(wheel.advance(9)).isZero();
+		assertThat(wheel.advance(10)).isEqualTo(2);
+		assertThat(runs).isEqualTo(asList("b", "c"));
+
+		assertThat(wheel.advance(29)).isZero();
+		assertThat(wheel.advance(30)).isEqualTo(1);
+		assertThat(runs).isEqualTo(asList("b", "c", "a"));
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	public void test_shouldKeepTasksBeyondOneTurnOfWheel() {
+		TimerWheel wheel = new TimerWheel(10, 8, 0);
+		wheel.schedule(0, 100, task("far"));
+		wheel.schedule(0, 20, task("near"));
+
+		assertThat(wheel.advance(50)).isEqualTo(1);
+		assertThat(wheel.advance(90)).isZero();
+		assertThat(wheel.advance(100)).isEqualTo(1);
+		assertThat(runs).isEqualTo(asList("near", "far"));
+	}
+
+	@Test
+	public void test_shouldRunAllExpiredTasksAfterLongPause() {
+		TimerWheel wheel = new TimerWheel(10, 8, 0);
+		for (int i = 1; i <= 20; i++) {
+			wheel.schedule(0, i * 10, task(String.valueOf(i)));
+		}
+
+		assertThat(wheel.advance(100000)).isEqualTo(20);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	public void test_tasksCanScheduleTasks() {
+		final TimerWheel wheel = new TimerWheel(10, 8, 0);
+		wheel.schedule(0, 10, new Runnable() {
+			@Override
+			public void run() {
+				runs.add("first");
+				wheel.schedule(10, 0, task("immediate"));
+				wheel.schedule(10, 80, task("later"));
+			}
+		});
+
+		assertThat(wheel.advance(10)).isEqualTo(1);
+		assertThat(wheel.advance(20)).isEqualTo(1);
+		assertThat(wheel.advance(85)).isZero();
+		assertThat(wheel.advance(90)).isEqualTo(1);
+		assertThat(runs).isEqualTo(asList("first", "immediate", "later"));
+	}
+
+	@Test
+	public void test_millisToNextTick() {
+		TimerWheel wheel = new TimerWheel(2000000, 8, 0);
+		assertThat(wheel.millisToNextTick(0)).isZero();
+
+		wheel.schedule(0, 10000000, task("a"));
+		assertThat(wheel.millisToNextTick(0)).isEqualTo(1);
+		wheel.advance(2000000);
+		assertThat(wheel.millisToNextTick(2000000)).isEqualTo(2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_shouldRejectSlotsNotPowerOfTwo() {
+		new TimerWheel(10, 12, 0);
+	}
+
+	private Runnable task(final String name) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				runs.add(name);
+			}
+		};
+	}
+}
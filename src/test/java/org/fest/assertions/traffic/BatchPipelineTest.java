@@ -0,0 +1,124 @@
+package org.fest.assertions.traffic;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class BatchPipelineTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void test_shouldMergeResultsInSubmissionOrder() throws Exception {
+		BatchPipeline<Integer> pipeline = new BatchPipeline<Integer>(executor, 3, Long.MAX_VALUE);
+		List<Integer> merged = new ArrayList<Integer>();
+		for (int i = 0; i < 20; i++) {
+			pipeline.submit(batch(i, (20 - i) % 4), 1, collect(merged));
+			assertThat(pipeline.size()).isLessThanOrEqualTo(3);
+		}
+		pipeline.finish();
+
+		assertThat(pipeline.size()).isZero();
+		assertThat(merged).hasSize(20);
+		for (int i = 0; i < 20; i++) {
+			assertThat(merged.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	public void test_shouldBoundPendingBytes() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		BatchPipeline<Integer> pipeline = new BatchPipeline<Integer>(executor, 100, 10);
+		List<Integer> merged = new ArrayList<Integer>();
+
+		pipeline.submit(blocked(1, release), 4, collect(merged));
+		pipeline.submit(blocked(2, release), 4, collect(merged));
+		assertThat(pipeline.size()).isEqualTo(2);
+		release.countDown();
+
+		// 4 + 4 + 4 is above bound: first batch is merged before third is submitted
+		pipeline.submit(batch(3, 0), 4, collect(merged));
+		assertThat(merged).containsExactly(1);
+		assertThat(pipeline.size()).isEqualTo(2);
+
+		// Larger batches are submitted alone
+		pipeline.submit(batch(4, 0), 20, collect(merged));
+		assertThat(merged).containsExactly(1, 2, 3);
+		assertThat(pipeline.size()).isEqualTo(1);
+
+		pipeline.finish();
+		assertThat(merged).containsExactly(1, 2, 3, 4);
+	}
+
+	@Test
+	public void test_shouldRethrowIOException() throws Exception {
+		BatchPipeline<Integer> pipeline = new BatchPipeline<Integer>(executor, 1, Long.MAX_VALUE);
+		List<Integer> merged = new ArrayList<Integer>();
+		pipeline.submit(new Callable<Integer>() {
+			@Override
+			public Integer call() throws IOException {
+				throw new IOException("Disk failure");
+			}
+		}, 1, collect(merged));
+
+		try {
+			pipeline.finish();
+			fail("IOException expected");
+		}
+		catch (IOException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Disk failure");
+		}
+		assertThat(merged).isEmpty();
+	}
+
+	private static Callable<Integer> batch(final int value, final long sleep) {
+		return new Callable<Integer>() {
+			@Override
+			public Integer call() throws Exception {
+				TimeUnit.MILLISECONDS.sleep(sleep);
+				return value;
+			}
+		};
+	}
+
+	private static Callable<Integer> blocked(final int value, final CountDownLatch release) {
+		return new Callable<Integer>() {
+			@Override
+			public Integer call() throws Exception {
+				release.await();
+				return value;
+			}
+		};
+	}
+
+	private static BatchPipeline.Merge<Integer> collect(final List<Integer> merged) {
+		return new BatchPipeline.Merge<Integer>() {
+			@Override
+			public void merge(Integer result) {
+				merged.add(result);
+			}
+		};
+	}
+}
@@ -0,0 +1,194 @@
+package org.fest.assertions.traffic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fest.assertions.util.DefaultResponse;
+import org.fest.assertions.util.ResponseRecorder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class ContractRunnerTest {
+
+	private File dir;
+
+	private File spec;
+
+	@Before
+	public void setUp() throws Exception {
+		dir = File.createTempFile("contracts", "");
+		dir.delete();
+		dir.mkdir();
+		spec = new File(dir, "spec.json");
+		write(spec, "{\"name\": \"user\", \"status\": \"2xx\", \"mediaType\": \"application/json\", \"json\": {\"$.id\": {\"type\": \"number\"}}}");
+	}
+
+	@After
+	public void tearDown() {
+		delete(dir);
+	}
+
+	@Test
+	public void test_shouldValidateInputsOfDirectories() throws Exception {
+		File traffic = new File(dir, "traffic");
+		traffic.mkdir();
+		String[] lines = new String[ContractRunner.BATCH_SIZE * 3 + 1];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = envelope("/users/" + i, i == 700 ? 500 : 200, i == 10 ? "{\"id\": \"10\"}" : "{\"id\": " + i + "}");
+		}
+		write(new File(traffic, "a.ndjson"), lines);
+		write(new File(traffic, "b.envelopes.json"), "[" + envelope("/users/1", 200, "{\"id\": 1}") + ", {\"request\": {}}]");
+		write(new File(traffic, "c.har"), "{\"log\": {\"entries\": [{\"request\": {\"method\": \"GET\", \"url\": \"/users/1\"}, \"response\": {\"status\": 200, " +
+				"\"content\": {\"mimeType\": \"application/json\", \"text\": \"{\\\"id\\\": 1}\"}}}]}}");
+		write(new File(traffic, "ignored.txt"), "not recorded traffic");
+		write(new File(traffic, "fixture.json"), "{\"id\": 1}");
+
+		ResponseRecorder recorder = ResponseRecorder.open(new File(traffic, "d.archive"));
+		try {
+			recorder.record(new DefaultResponse(200, "text/html"));
+		}
+		finally {
+			recorder.close();
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		int status = ContractRunner.run(new String[]{"--spec", spec.getPath(), "--threads", "2", "--json", "-", traffic.getPath()}, new PrintStream(out, true), new PrintStream(err, true));
+
+		assertThat(status).isEqualTo(1);
+		JsonNode report = new ObjectMapper().readTree(out.toString("UTF-8"));
+		assertThat(report.get("responses").asInt()).isEqualTo(lines.length + 3);
+		assertThat(report.get("failed").asInt()).isEqualTo(3);
+		assertThat(report.get("malformed").asInt()).isEqualTo(1);
+		assertThat(report.get("success").asBoolean()).isFalse();
+		assertThat(report.get("timing").has("validationMs")).isTrue();
+		assertThat(report.get("inputs").size()).isEqualTo(4);
+
+		JsonNode ndjson = report.get("inputs").get(0);
+		assertThat(ndjson.get("input").asText()).endsWith("a.ndjson");
+		assertThat(ndjson.get("failed").asInt()).isEqualTo(2);
+		assertThat(ndjson.get("failures").get(0).get("location").asText()).endsWith("a.ndjson:11");
+		assertThat(ndjson.get("failures").get(0).get("request").asText()).isEqualTo("GET /users/10");
+		assertThat(ndjson.get("failures").get(0).get("messages").get(0).asText()).isEqualTo("Expected json path <$.id> to be of type <number> but was <string>");
+		assertThat(ndjson.get("failures").get(1).get("location").asText()).endsWith("a.ndjson:701");
+
+		assertThat(report.get("inputs").get(1).get("input").asText()).endsWith("b.envelopes.json");
+		assertThat(report.get("inputs").get(1).get("malformed").asInt()).isEqualTo(1);
+		assertThat(report.get("inputs").get(2).get("failed").asInt()).isZero();
+		assertThat(report.get("inputs").get(3).get("failures").get(0).get("messages").get(0).asText()).isEqualTo("Expected media type to be <application/json> but was <text/html>");
+	}
+
+	@Test
+	public void test_shouldWriteJunitReport() throws Exception {
+		File traffic = new File(dir, "traffic.ndjson");
+		write(traffic, envelope("/users/1", 200, "{\"id\": 1}"), envelope("/users/2", 404, "{\"id\": 2}"));
+		File other = new File(dir, "other.json");
+		write(other, "{\"name\": \"json\", \"mediaType\": \"application/json\"}");
+		File junit = new File(dir, "TEST-contracts.xml");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		int status = ContractRunner.run(new String[]{"--spec", spec.getPath(), "--spec", other.getPath(), "--junit", junit.getPath(), traffic.getPath()},
+				new PrintStream(out, true), new PrintStream(err, true));
+
+		assertThat(status).isEqualTo(1);
+		assertThat(out.toString()).contains("Validated 2 responses (1 failed, 0 malformed) from 1 inputs");
+		assertThat(out.toString()).contains("GET /users/2 [user]");
+
+		Document xml = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(junit);
+		Element suites = xml.getDocumentElement();
+		assertThat(suites.getAttribute("tests")).isEqualTo("2");
+		assertThat(suites.getAttribute("failures")).isEqualTo("1");
+		NodeList cases = suites.getElementsByTagName("testcase");
+		assertThat(cases.getLength()).isEqualTo(2);
+		Element user = (Element) cases.item(0);
+		assertThat(user.getAttribute("name")).isEqualTo("user");
+		Element failure = (Element) user.getElementsByTagName("failure").item(0);
+		assertThat(failure.getAttribute("message")).isEqualTo("<1> of <2> responses do not satisfy plan <user>");
+		assertThat(failure.getTextContent()).contains("traffic.ndjson:2 GET /users/2").contains("Expected status code to be <2xx> but was <404>");
+		assertThat(((Element) cases.item(1)).getElementsByTagName("failure").getLength()).isZero();
+	}
+
+	@Test
+	public void test_shouldStreamJsonFilesOfEnvelopes() throws Exception {
+		String[] envelopes = new String[ContractRunner.BATCH_SIZE * 2 + 1];
+		for (int i = 0; i < envelopes.length; i++) {
+			envelopes[i] = (i == 0 ? "[" : ",") + envelope("/users/" + i, i == 300 ? 500 : 200, "{\"id\": " + i + "}");
+		}
+		envelopes[envelopes.length - 1] += "]";
+		File array = new File(dir, "array.json");
+		write(array, envelopes);
+		File single = new File(dir, "single.json");
+		write(single, envelope("/users/1", 200, "{\"id\": 1}"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		int status = ContractRunner.run(new String[]{"--spec", spec.getPath(), "--json", "-", array.getPath(), single.getPath()}, new PrintStream(out, true), new PrintStream(err, true));
+
+		assertThat(status).isEqualTo(1);
+		JsonNode report = new ObjectMapper().readTree(out.toString("UTF-8"));
+		assertThat(report.get("responses").asInt()).isEqualTo(envelopes.length + 1);
+		assertThat(report.get("failed").asInt()).isEqualTo(1);
+		assertThat(report.get("inputs").get(0).get("failures").get(0).get("location").asText()).endsWith("array.json:301");
+		assertThat(report.get("inputs").get(1).get("failed").asInt()).isZero();
+	}
+
+	@Test
+	public void test_shouldFailWithUsage() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+		assertThat(ContractRunner.run(new String[]{dir.getPath()}, new PrintStream(out, true), new PrintStream(err, true))).isEqualTo(2);
+		assertThat(err.toString()).contains("No spec to validate against").contains("Usage: ContractRunner");
+
+		File unknown = new File(dir, "traffic.txt");
+		write(unknown, "");
+		assertThat(ContractRunner.run(new String[]{"--spec", spec.getPath(), unknown.getPath()}, new PrintStream(out, true), new PrintStream(err, true))).isEqualTo(2);
+		assertThat(err.toString()).contains("Unsupported input");
+
+		assertThat(ContractRunner.run(new String[]{"--spec", spec.getPath(), "--spec", spec.getPath(), dir.getPath()}, new PrintStream(out, true), new PrintStream(err, true))).isEqualTo(2);
+		assertThat(err.toString()).contains("Plan user is already defined");
+	}
+
+	private static String envelope(String url, int status, String body) {
+		return "{\"request\": {\"method\": \"GET\", \"url\": \"" + url + "\"}, \"response\": {\"status\": " + status + ", " +
+				"\"headers\": {\"Content-Type\": \"application/json\"}, \"body\": " + body + "}}";
+	}
+
+	private static void write(File file, String... lines) throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			for (String line : lines) {
+				writer.write(line);
+				writer.write('\n');
+			}
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,139 @@
+package org.fest.assertions.traffic;
+
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.api.rest.ResponseCheck;
+import org.fest.assertions.util.Cookie;
+import org.fest.assertions.util.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class HarReaderTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("session", ".har");
+		file.deleteOnExit();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void test_shouldStreamEntries() throws Exception {
+		String har = "{\"log\": {\"version\": \"1.2\", \"creator\": {\"name\": \"proxy\", \"nested\": [1, {\"a\": []}]}, \"pages\": [], \"entries\": [" +
+				"{\"time\": 12.5, \"timings\": {\"blocked\": -1, \"dns\": -1, \"connect\": 2, \"ssl\": 1, \"send\": 0.5, \"wait\": 8, \"receive\": 2}, \"request\": {\"method\": \"GET\", \"url\": \"http://localhost/users/1\"}, \"response\": {\"status\": 200, " +
+				"\"headers\": [{\"name\": \"Content-Type\", \"value\": \"application/json\"}, {\"name\": \"Set-Cookie\", \"value\": \"session=abc; Path=/\"}], " +
+				"\"content\": {\"size\": 9, \"mimeType\": \"application/json\", \"text\": \"{\\\"id\\\": 1}\"}}}," +
+				"{\"request\": {\"method\": \"GET\", \"url\": \"http://localhost/logo\"}, \"response\": {\"status\": 200, \"headers\": [], " +
+				"\"cookies\": [{\"name\": \"theme\", \"value\": \"dark\", \"path\": \"/\", \"expires\": \"2100-01-01T00:00:00.000Z\", \"httpOnly\": true}], " +
+				"\"content\": {\"mimeType\": \"text/plain\", \"text\": \"aGVsbG8=\", \"encoding\": \"base64\"}}}" +
+				"]}}";
+
+		HarReader reader = new HarReader(new ByteArrayInputStream(har.getBytes("UTF-8")));
+		try {
+			Response first = reader.next();
+			new ResponseAssert(first)
+					.isOk()
+					.isJson()
+					.hasCookieEqualTo("session", "abc")
+					.hasBodyEqualTo("{\"id\": 1}")
+					.respondsWithin(13, TimeUnit.MILLISECONDS);
+
+			assertThat(first.getTimeToFirstByte(TimeUnit.MICROSECONDS)).isEqualTo(10500);
+
+			Response second = reader.next();
+			new ResponseAssert(second)
+					.isOk()
+					.isTextPlain()
+					.hasBodyEqualTo("hello");
+			Cookie cookie = second.getCookie("theme");
+			assertThat(cookie.getValue()).isEqualTo("dark");
+			assertThat(cookie.isHttpOnly()).isTrue();
+			assertThat(cookie.getExpiryDate()).isNotNull();
+			assertThat(second.getResponseTime(TimeUnit.NANOSECONDS)).isEqualTo(-1);
+			assertThat(second.getTimeToFirstByte(TimeUnit.NANOSECONDS)).isEqualTo(-1);
+
+			assertThat(reader.next()).isNull();
+			assertThat(reader.next()).isNull();
+			assertThat(reader.getEntries()).isEqualTo(2);
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void test_shouldFailIfEntriesAreMissing() throws Exception {
+		HarReader reader = new HarReader(new ByteArrayInputStream("{\"log\": {\"pages\": []}}".getBytes("UTF-8")));
+		try {
+			reader.next();
+			fail("IOException expected");
+		}
+		catch (IOException ex) {
+			assertThat(ex.getMessage()).startsWith("Expected HAR to contain log.entries array");
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void test_shouldValidateEntriesInParallel() throws Exception {
+		int count = TrafficValidator.HAR_BATCH_SIZE * 5 + 3;
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			writer.write("{\"log\": {\"entries\": [");
+			for (int i = 0; i < count; i++) {
+				if (i > 0) {
+					writer.write(",\n");
+				}
+				if (i == 300) {
+					writer.write("{\"request\": {\"method\": \"GET\"}, \"response\": {\"status\": 200}}");
+				}
+				else {
+					writer.write(String.format("{\"request\": {\"method\": \"GET\", \"url\": \"/items/%d\"}, \"response\": {\"status\": %d, " +
+							"\"content\": {\"mimeType\": \"application/json\", \"text\": \"{}\"}}}", i, i % 10 == 9 ? 500 : 200));
+				}
+			}
+			writer.write("], \"comment\": \"end\"}}");
+		}
+		finally {
+			writer.close();
+		}
+
+		ValidationReport report = new TrafficValidator()
+				.threads(2)
+				.rule("success", new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isSuccess();
+					}
+				})
+				.validateHar(file);
+
+		assertThat(report.getEnvelopes()).isEqualTo(count - 1);
+		assertThat(report.getMalformed()).isEqualTo(1);
+		assertThat(report.getFirstMalformed()).isEqualTo(file.getPath() + ":301: Request must contain method and url");
+		assertThat(report.getViolations("success")).isEqualTo(count / 10);
+		assertThat(report.getViolationsByEndpoint("success")).hasSize(1).contains(entry("GET /items/{id}", (long) count / 10));
+		assertThat(report.getFirstViolation("success")).startsWith(file.getPath() + ":10: ");
+		assertThat(report.getBytes()).isEqualTo(file.length());
+	}
+}
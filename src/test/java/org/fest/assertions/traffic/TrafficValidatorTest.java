@@ -0,0 +1,200 @@
+package org.fest.assertions.traffic;
+
+import org.fest.assertions.api.rest.JsonAssert;
+import org.fest.assertions.api.rest.JsonCheck;
+import org.fest.assertions.api.rest.ResponseAssert;
+import org.fest.assertions.api.rest.ResponseCheck;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class TrafficValidatorTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("traffic", ".ndjson");
+		file.deleteOnExit();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void test_shouldAggregateViolationsPerRuleAndEndpoint() throws Exception {
+		write(file,
+				envelope("GET", "/users/1", 200, "{\"id\": 1}"),
+				envelope("GET", "http://api.example.com/users/2?fields=id", 500, "{\"error\": \"boom\"}"),
+				"",
+				envelope("GET", "/users/3", 200, "{\"id\": \"3\"}"),
+				"{not json",
+				envelope("DELETE", "/users/550e8400-e29b-41d4-a716-446655440000", 500, "null"),
+				"{\"request\": {\"method\": \"GET\"}}");
+
+		ValidationReport report = validator().chunkSize(64).threads(3).validate(file);
+
+		assertThat(report.getEnvelopes()).isEqualTo(4);
+		assertThat(report.getMalformed()).isEqualTo(2);
+		assertThat(report.getFirstMalformed()).startsWith(file.getPath() + ":5: ");
+		assertThat(report.getBytes()).isEqualTo(file.length());
+		assertThat(report.getElapsed(TimeUnit.NANOSECONDS)).isGreaterThan(0);
+		assertThat(report.getRules()).containsExactly("success", "id");
+
+		assertThat(report.getViolations("success")).isEqualTo(2);
+		assertThat(report.getViolationsByEndpoint("success")).hasSize(2).contains(entry("GET /users/{id}", 1L), entry("DELETE /users/{id}", 1L));
+		assertThat(report.getFirstViolation("success")).startsWith(file.getPath() + ":2: ");
+
+		assertThat(report.getViolations("id")).isEqualTo(3);
+		assertThat(report.getViolations("id", "GET /users/{id}")).isEqualTo(2);
+		assertThat(report.getFirstViolation("id")).startsWith(file.getPath() + ":2: ");
+
+		assertThat(report.isSuccess()).isFalse();
+		try {
+			report.assertSuccess();
+			fail("AssertionError expected");
+		}
+		catch (AssertionError error) {
+			assertThat(error.getMessage()).startsWith("Expected all <6> envelopes to satisfy rules but:\n - <2> envelopes are malformed");
+		}
+	}
+
+	@Test
+	public void test_shouldNotDependOnChunkSize() throws Exception {
+		String[] lines = new String[500];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = envelope("GET", "/items/" + i, i % 7 == 0 ? 404 : 200, "{\"id\": " + i + "}");
+		}
+		write(file, lines);
+
+		ValidationReport single = validator().threads(1).validate(file);
+		ValidationReport chunked = validator().chunkSize(100).threads(4).validate(file);
+
+		assertThat(single.getEnvelopes()).isEqualTo(500);
+		assertThat(chunked.getEnvelopes()).isEqualTo(500);
+		assertThat(chunked.getViolations("success")).isEqualTo(single.getViolations("success")).isEqualTo(72);
+		assertThat(chunked.getFirstViolation("success")).isEqualTo(single.getFirstViolation("success"));
+		assertThat(chunked.getFirstViolation("success")).startsWith(file.getPath() + ":1: ");
+		assertThat(chunked.getViolations("id")).isZero();
+		assertThat(chunked.getEnvelopesPerSecond()).isGreaterThan(0);
+	}
+
+	@Test
+	public void test_shouldReadHeadersCookiesAndResponseTime() throws Exception {
+		write(file, "{\"request\": {\"method\": \"GET\", \"url\": \"/\"}, \"response\": {\"status\": 200, \"timeMs\": 12, " +
+				"\"headers\": {\"Content-Type\": \"text/plain\", \"Set-Cookie\": [\"a=1\", \"b=2; Max-Age=60\"]}, \"body\": \"hello\"}}");
+
+		ValidationReport report = new TrafficValidator()
+				.rule("text", new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isOk()
+								.isTextPlain()
+								.hasCookieEqualTo("a", "1")
+								.hasCookieEqualTo("b", "2")
+								.hasBodyEqualTo("hello")
+								.respondsWithin(20, TimeUnit.MILLISECONDS);
+					}
+				})
+				.validate(file);
+
+		report.assertSuccess();
+		assertThat(report.getEnvelopes()).isEqualTo(1);
+	}
+
+	@Test
+	public void test_shouldNormalizeEndpoints() {
+		assertThat(TrafficEnvelope.endpoint("GET", "/")).isEqualTo("GET /");
+		assertThat(TrafficEnvelope.endpoint("GET", "http://host")).isEqualTo("GET /");
+		assertThat(TrafficEnvelope.endpoint("GET", "/users/42/orders/0123456789abcdef?x=1")).isEqualTo("GET /users/{id}/orders/{id}");
+		assertThat(TrafficEnvelope.endpoint("PUT", "/users/me/")).isEqualTo("PUT /users/me/");
+		assertThat(TrafficEnvelope.endpoint("GET", "/files/cafe")).isEqualTo("GET /files/cafe");
+	}
+
+	@Test
+	public void test_shouldRunFromCommandLine() throws Exception {
+		write(file,
+				envelope("GET", "/users/1", 200, "{\"id\": 1}"),
+				"{\"request\": {\"method\": \"GET\", \"url\": \"/users/2\"}, \"response\": {\"status\": 200, " +
+						"\"headers\": {\"Content-Type\": \"application/json\"}, \"body\": \"{broken\"}}");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		int status = TrafficValidator.run(new String[]{"--threads", "2", file.getPath()}, new PrintStream(out, true), new PrintStream(err, true));
+
+		assertThat(status).isEqualTo(1);
+		String output = out.toString();
+		assertThat(output).contains("Validated 2 envelopes (0 malformed) from 1 files");
+		assertThat(output).contains("Rule json-body: 1 violations");
+		assertThat(output).contains("GET /users/{id}: 1");
+
+		status = TrafficValidator.run(new String[]{"--rules", SuccessRules.class.getName(), file.getPath()}, new PrintStream(out, true), new PrintStream(err, true));
+		assertThat(status).isEqualTo(0);
+
+		status = TrafficValidator.run(new String[]{"--unknown"}, new PrintStream(out, true), new PrintStream(err, true));
+		assertThat(status).isEqualTo(2);
+		assertThat(err.toString()).contains("Unknown option --unknown");
+	}
+
+	private static TrafficValidator validator() {
+		return new TrafficValidator()
+				.rule("success", new ResponseCheck() {
+					@Override
+					public void check(ResponseAssert response) {
+						response.isSuccess();
+					}
+				})
+				.jsonRule("id", new JsonCheck() {
+					@Override
+					public void check(JsonAssert json) {
+						json.isObject().isNumber("id");
+					}
+				});
+	}
+
+	private static String envelope(String method, String url, int status, String body) {
+		return "{\"request\": {\"method\": \"" + method + "\", \"url\": \"" + url + "\"}, \"response\": {\"status\": " + status + ", " +
+				"\"headers\": {\"Content-Type\": \"application/json\"}, \"body\": " + body + "}}";
+	}
+
+	private static void write(File file, String... lines) throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			for (String line : lines) {
+				writer.write(line);
+				writer.write('\n');
+			}
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	public static class SuccessRules implements TrafficValidator.Rules {
+
+		@Override
+		public void register(TrafficValidator validator) {
+			validator.rule("success", new ResponseCheck() {
+				@Override
+				public void check(ResponseAssert response) {
+					response.isSuccess();
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package org.fest.assertions.util;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHeader;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ApacheHttpResponseTest {
+
+	@Test
+	public void test_constructFromApacheHttpResponse() {
+		org.apache.http.HttpResponse apacheResponse = mock(org.apache.http.HttpResponse.class, RETURNS_DEEP_STUBS);
+		when(apacheResponse.getStatusLine().getStatusCode()).thenReturn(201);
+		when(apacheResponse.getEntity().getContentType()).thenReturn(new BasicHeader("Content-Type", "application/json"));
+		when(apacheResponse.getAllHeaders()).thenReturn(new Header[]{
+				new BasicHeader("Content-Length", "200"),
+				new BasicHeader("ETag", "foo")
+		});
+
+		Response rsp = new ApacheHttpResponse(apacheResponse);
+		assertThat(rsp.getStatusCode()).isEqualTo(201);
+		assertThat(rsp.getContentType()).isEqualTo("application/json");
+		assertThat(rsp.getHeaders()).isNotNull().hasSize(2)
+				.contains(entry("content-length", "200"))
+				.contains(entry("etag", "foo"));
+		assertThat(rsp.getCookies()).isNotNull().isEmpty();
+	}
+
+	@Test
+	public void test_shouldReadContentTypeFromHeadersWithoutEntity() {
+		org.apache.http.HttpResponse apacheResponse = mock(org.apache.http.HttpResponse.class);
+		when(apacheResponse.getEntity()).thenReturn((HttpEntity) null);
+		when(apacheResponse.getFirstHeader("Content-Type")).thenReturn(new BasicHeader("Content-Type", "text/plain"));
+
+		Response rsp = new ApacheHttpResponse(apacheResponse);
+		assertThat(rsp.getContentType()).isEqualTo("text/plain");
+	}
+
+	@Test
+	public void test_shouldReadAllHeadersOnce() {
+		org.apache.http.HttpResponse apacheResponse = mock(org.apache.http.HttpResponse.class);
+		when(apacheResponse.getAllHeaders()).thenReturn(new Header[]{
+				new BasicHeader("ETag", "foo"),
+				new BasicHeader("Set-Cookie", "a=1"),
+				new BasicHeader("set-cookie", "b=2")
+		});
+
+		Response rsp = new ApacheHttpResponse(apacheResponse);
+		verify(apacheResponse, never()).getAllHeaders();
+
+		assertThat(rsp.getHeader("ETag")).isEqualTo("foo");
+		assertThat(rsp.getHeader("Location")).isNull();
+		assertThat(rsp.getHeaderValues("Set-Cookie")).containsExactly("a=1", "b=2");
+		verify(apacheResponse, times(1)).getAllHeaders();
+	}
+
+	@Test
+	public void test_shouldParseCookiesFromSetCookieHeaders() {
+		org.apache.http.HttpResponse apacheResponse = mock(org.apache.http.HttpResponse.class);
+		when(apacheResponse.getAllHeaders()).thenReturn(new Header[]{
+				new BasicHeader("Set-Cookie", "session=; Max-Age=0"),
+				new BasicHeader("Set-Cookie", "session=1234; Path=/; Secure; HttpOnly"),
+				new BasicHeader("Set-Cookie", "invalid"),
+				new BasicHeader("Set-Cookie", "lang=fr")
+		});
+
+		Response rsp = new ApacheHttpResponse(apacheResponse);
+		assertThat(rsp.getCookies()).hasSize(3);
+		assertThat(rsp.getCookie("session").getValue()).isEqualTo("1234");
+		assertThat(rsp.getCookie("session").isSecure()).isTrue();
+		assertThat(rsp.getCookies("session")).hasSize(2);
+		assertThat(rsp.getCookie("LANG").getValue()).isEqualTo("fr");
+		assertThat(rsp.getCookie("invalid")).isNull();
+	}
+
+	@Test
+	public void test_shouldReadBodyOnce() throws Exception {
+		org.apache.http.HttpResponse apacheResponse = mock(org.apache.http.HttpResponse.class);
+		when(apacheResponse.getEntity()).thenReturn(new StringEntity("{\"id\": 1}", "application/json", "UTF-8"));
+
+		Response rsp = new ApacheHttpResponse(apacheResponse);
+		assertThat(rsp.getBody().asString()).isEqualTo("{\"id\": 1}");
+		assertThat(rsp.getBody().getCharset().name()).isEqualTo("UTF-8");
+		assertThat(rsp.getBody().contains("\"id\"")).isTrue();
+	}
+
+	@Test
+	public void test_bodyShouldBeEmptyWithoutEntity() {
+		org.apache.http.HttpResponse apacheResponse = mock(org.apache.http.HttpResponse.class);
+		when(apacheResponse.getEntity()).thenReturn((HttpEntity) null);
+
+		Response rsp = new ApacheHttpResponse(apacheResponse);
+		assertThat(rsp.getBody().isEmpty()).isTrue();
+	}
+
+	@Test
+	public void test_shouldKeepMeasuredTimes() {
+		org.apache.http.HttpResponse apacheResponse = mock(org.apache.http.HttpResponse.class);
+
+		Response rsp = new ApacheHttpResponse(apacheResponse, TimeUnit.MILLISECONDS.toNanos(30), TimeUnit.MILLISECONDS.toNanos(10));
+		assertThat(rsp.getResponseTime(TimeUnit.MILLISECONDS)).isEqualTo(30);
+		assertThat(rsp.getTimeToFirstByte(TimeUnit.MILLISECONDS)).isEqualTo(10);
+		assertThat(new ApacheHttpResponse(apacheResponse).getTimeToFirstByte(TimeUnit.MILLISECONDS)).isEqualTo(-1);
+	}
+}
@@ -0,0 +1,161 @@
+package org.fest.assertions.util;
+
+import com.ning.http.client.Cookie;
+import com.ning.http.client.FluentCaseInsensitiveStringsMap;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncHttpResponseTest {
+
+	@Test
+	public void test_constructFromAsyncHttpResponseWithoutHeadersAndCookies() throws Exception {
+		com.ning.http.client.Response asyncResponse = mock(com.ning.http.client.Response.class);
+
+		int statusCode = 200;
+		when(asyncResponse.getStatusCode()).thenReturn(statusCode);
+
+		String contentType = "application/json";
+		when(asyncResponse.getContentType()).thenReturn(contentType);
+
+		FluentCaseInsensitiveStringsMap headers = new FluentCaseInsensitiveStringsMap();
+		when(asyncResponse.getHeaders()).thenReturn(headers);
+
+		Response rsp = new AsyncHttpResponse(asyncResponse);
+		assertThat(rsp.getStatusCode()).isEqualTo(statusCode);
+		assertThat(rsp.getContentType()).isEqualTo(contentType);
+		assertThat(rsp.getHeaders()).isNotNull().isEmpty();
+		assertThat(rsp.getCookies()).isNotNull().isEmpty();
+	}
+
+	@Test
+	public void test_constructFromAsyncHttpResponse() throws Exception {
+		com.ning.http.client.Response asyncResponse = mock(com.ning.http.client.Response.class);
+
+		int statusCode = 200;
+		when(asyncResponse.getStatusCode()).thenReturn(statusCode);
+
+		String contentType = "application/json";
+		when(asyncResponse.getContentType()).thenReturn(contentType);
+
+		// Set some headers
+		FluentCaseInsensitiveStringsMap headers = new FluentCaseInsensitiveStringsMap();
+
+		String headerContentLength = "Content-Length";
+		String valueContentLength = "200";
+		headers.add(headerContentLength, valueContentLength);
+
+		String headerFakeHeader = "Fake-Header";
+		String valueFakeHeader = "fake";
+		headers.add(headerFakeHeader, valueFakeHeader);
+
+		when(asyncResponse.getHeaders()).thenReturn(headers);
+		when(asyncResponse.getHeader(headerContentLength)).thenReturn(valueContentLength);
+		when(asyncResponse.getHeader(headerFakeHeader)).thenReturn(valueFakeHeader);
+
+		// Set some cookies
+		List<Cookie> cookies = Arrays.asList(
+				new Cookie("domain1", "name1", "value1", "path1", 0, true),
+				new Cookie("domain2", "name2", "value2", "path2", -1, false)
+		);
+		when(asyncResponse.getCookies()).thenReturn(cookies);
+
+		Response rsp = new AsyncHttpResponse(asyncResponse);
+		assertThat(rsp.getStatusCode()).isEqualTo(statusCode);
+		assertThat(rsp.getContentType()).isEqualTo(contentType);
+		assertThat(rsp.getHeaders()).isNotNull().isNotEmpty().hasSize(2)
+				.contains(entry(headerContentLength.toLowerCase(), valueContentLength))
+				.contains(entry(headerFakeHeader.toLowerCase(), valueFakeHeader));
+		assertThat(rsp.getCookies()).isNotNull().hasSize(2);
+	}
+
+	@Test
+	public void test_shouldNotReadHeadersAndCookiesUntilRequested() {
+		com.ning.http.client.Response asyncResponse = mock(com.ning.http.client.Response.class);
+		when(asyncResponse.getStatusCode()).thenReturn(200);
+
+		FluentCaseInsensitiveStringsMap headers = new FluentCaseInsensitiveStringsMap();
+		headers.add("ETag", "foo");
+		headers.add("Vary", "Accept", "Accept-Encoding");
+		when(asyncResponse.getHeaders()).thenReturn(headers);
+
+		when(asyncResponse.getCookies()).thenReturn(Arrays.asList(
+				new Cookie("domain", "name", "value", "path", -1, false)
+		));
+
+		Response rsp = new AsyncHttpResponse(asyncResponse);
+		assertThat(rsp.getStatusCode()).isEqualTo(200);
+		verify(asyncResponse, never()).getHeaders();
+		verify(asyncResponse, never()).getCookies();
+
+		assertThat(rsp.getHeader("ETag")).isEqualTo("foo");
+		assertThat(rsp.getHeader("etag")).isEqualTo("foo");
+		assertThat(rsp.getHeaderValues("VARY")).containsExactly("Accept", "Accept-Encoding");
+		verify(asyncResponse, times(1)).getHeaders();
+		verify(asyncResponse, never()).getCookies();
+
+		assertThat(rsp.getCookie("NAME")).isNotNull();
+		assertThat(rsp.getCookie("name")).isNotNull();
+		verify(asyncResponse, times(1)).getCookies();
+	}
+
+	@Test
+	public void test_shouldReadBodyOnce() throws Exception {
+		com.ning.http.client.Response asyncResponse = mock(com.ning.http.client.Response.class);
+		when(asyncResponse.getContentType()).thenReturn("application/json; charset=utf-8");
+		when(asyncResponse.hasResponseBody()).thenReturn(true);
+		when(asyncResponse.getResponseBodyAsStream()).thenReturn(new ByteArrayInputStream("[1, 2]".getBytes("UTF-8")));
+
+		Response rsp = new AsyncHttpResponse(asyncResponse);
+		assertThat(rsp.getBody().asString()).isEqualTo("[1, 2]");
+		assertThat(rsp.getBody().asString()).isEqualTo("[1, 2]");
+		verify(asyncResponse, times(1)).getResponseBodyAsStream();
+	}
+
+	@Test
+	public void test_bodyShouldBeEmptyWithoutResponseBody() throws Exception {
+		com.ning.http.client.Response asyncResponse = mock(com.ning.http.client.Response.class);
+		when(asyncResponse.hasResponseBody()).thenReturn(false);
+
+		Response rsp = new AsyncHttpResponse(asyncResponse);
+		assertThat(rsp.getBody().isEmpty()).isTrue();
+		verify(asyncResponse, never()).getResponseBodyAsStream();
+	}
+
+	@Test
+	public void test_closeShouldReleaseSpilledBody() throws Exception {
+		byte[] content = new byte[ResponseBody.DEFAULT_MEMORY_THRESHOLD + 1];
+		com.ning.http.client.Response asyncResponse = mock(com.ning.http.client.Response.class);
+		when(asyncResponse.hasResponseBody()).thenReturn(true);
+		when(asyncResponse.getResponseBodyAsStream()).thenReturn(new ByteArrayInputStream(content));
+
+		Response rsp = new AsyncHttpResponse(asyncResponse);
+		rsp.close();
+		verify(asyncResponse, never()).getResponseBodyAsStream();
+
+		ResponseBody body = rsp.getBody();
+		assertThat(body.isInMemory()).isFalse();
+		rsp.close();
+		rsp.close();
+
+		try {
+			body.openStream();
+			fail("Expected IOException to be thrown");
+		}
+		catch (IOException ex) {
+			// Temporary file has been deleted
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package org.fest.assertions.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class CookieJarTest {
+
+	private long now;
+	private CookieJar jar;
+
+	@Before
+	public void setUp() {
+		now = 1000000L;
+		jar = new CookieJar(new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return now;
+			}
+		});
+	}
+
+	@Test
+	public void test_hostOnlyCookieShouldOnlyBeSentToSameHost() {
+		jar.store("https://shop.example.com/login", SetCookieParser.parse("session=1234"));
+
+		assertThat(names(jar.getCookies("https://shop.example.com/"))).containsExactly("session");
+		assertThat(jar.getCookies("https://www.shop.example.com/")).isEmpty();
+		assertThat(jar.getCookies("https://example.com/")).isEmpty();
+		assertThat(jar.getCookies("https://other.com/")).isEmpty();
+	}
+
+	@Test
+	public void test_domainCookieShouldBeSentToSubDomains() {
+		jar.store("https://shop.example.com/login", SetCookieParser.parse("session=1234; Domain=.example.com"));
+
+		assertThat(names(jar.getCookies("https://shop.example.com/"))).containsExactly("session");
+		assertThat(names(jar.getCookies("https://EXAMPLE.com/"))).containsExactly("session");
+		assertThat(names(jar.getCookies("https://a.b.example.com/"))).containsExactly("session");
+		assertThat(jar.getCookies("https://badexample.com/")).isEmpty();
+		assertThat(jar.getCookies("https://example.org/")).isEmpty();
+	}
+
+	@Test
+	public void test_shouldRejectCookieForForeignDomain() {
+		jar.store("https://shop.example.com/", SetCookieParser.parse("session=1234; Domain=other.com"));
+		jar.store("https://example.com/", SetCookieParser.parse("session=1234; Domain=shop.example.com"));
+		assertThat(jar.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void test_shouldMatchPath() {
+		jar.store("https://example.com/", SetCookieParser.parse("root=1; Path=/"));
+		jar.store("https://example.com/", SetCookieParser.parse("api=1; Path=/api"));
+		jar.store("https://example.com/", SetCookieParser.parse("cart=1; Path=/api/cart/"));
+
+		assertThat(names(jar.getCookies("https://example.com/"))).containsExactly("root");
+		assertThat(names(jar.getCookies("https://example.com/apidoc"))).containsExactly("root");
+		assertThat(names(jar.getCookies("https://example.com/api"))).containsExactly("api", "root");
+		assertThat(names(jar.getCookies("https://example.com/api/cart"))).containsExactly("api", "root");
+		assertThat(names(jar.getCookies("https://example.com/api/cart/1?id=2"))).containsExactly("cart", "api", "root");
+	}
+
+	@Test
+	public void test_shouldUseDefaultPathOfRequest() {
+		jar.store("https://example.com/api/login", SetCookieParser.parse("session=1234"));
+
+		assertThat(jar.getCookie("https://example.com/api/cart", "session")).isNotNull();
+		assertThat(jar.getCookie("https://example.com/api", "session")).isNotNull();
+		assertThat(jar.getCookie("https://example.com/", "session")).isNull();
+	}
+
+	@Test
+	public void test_secureCookieShouldOnlyBeSentOverHttps() {
+		jar.store("https://example.com/", SetCookieParser.parse("session=1234; Secure"));
+
+		assertThat(jar.getCookie("https://example.com/", "session")).isNotNull();
+		assertThat(jar.getCookie("http://example.com/", "session")).isNull();
+	}
+
+	@Test
+	public void test_shouldReplaceCookieWithSameNameDomainAndPath() {
+		jar.store("https://example.com/", SetCookieParser.parse("first=1"));
+		jar.store("https://example.com/", SetCookieParser.parse("session=1"));
+		jar.store("https://example.com/", SetCookieParser.parse("session=2"));
+
+		assertThat(jar.size()).isEqualTo(2);
+		assertThat(jar.getCookieHeader("https://example.com/")).isEqualTo("first=1; session=2");
+	}
+
+	@Test
+	public void test_shouldExpireCookiesWithClock() {
+		jar.store("https://example.com/", SetCookieParser.parse("short=1; Max-Age=60"));
+		jar.store("https://example.com/", new Cookie("dated", "1", null, "/", new Date(now + 120000), false, false));
+		jar.store("https://example.com/", SetCookieParser.parse("session=1"));
+		assertThat(names(jar.getCookies("https://example.com/"))).containsExactly("short", "dated", "session");
+
+		now += 60000;
+		assertThat(names(jar.getCookies("https://example.com/"))).containsExactly("dated", "session");
+		assertThat(jar.size()).isEqualTo(2);
+
+		now += 60000;
+		jar.removeExpired();
+		assertThat(jar.size()).isEqualTo(1);
+		assertThat(names(jar.getCookies("https://example.com/"))).containsExactly("session");
+	}
+
+	@Test
+	public void test_expiredCookieShouldDeleteStoredCookie() {
+		jar.store("https://example.com/", SetCookieParser.parse("session=1"));
+		jar.store("https://example.com/", SetCookieParser.parse("session=; Max-Age=0"));
+
+		assertThat(jar.size()).isEqualTo(0);
+		assertThat(jar.getCookieHeader("https://example.com/")).isNull();
+	}
+
+	@Test
+	public void test_shouldStoreCookiesOfResponse() {
+		Response response = new DefaultResponse(200, "text/html", null, Arrays.asList(
+				SetCookieParser.parse("session=1; Path=/"),
+				SetCookieParser.parse("lang=fr; Path=/")
+		));
+
+		jar.store("http://127.0.0.1:8080/login", response);
+		assertThat(jar.getCookieHeader("http://127.0.0.1:8080/cart")).isEqualTo("session=1; lang=fr");
+		assertThat(jar.getCookies("http://127.0.0.2:8080/cart")).isEmpty();
+
+		jar.clear();
+		assertThat(jar.size()).isEqualTo(0);
+		assertThat(jar.getCookies("http://127.0.0.1:8080/cart")).isEmpty();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_shouldRejectRelativeUrl() {
+		jar.getCookies("/api/cart");
+	}
+
+	private static String[] names(List<Cookie> cookies) {
+		String[] names = new String[cookies.size()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = cookies.get(i).getName();
+		}
+		return names;
+	}
+}
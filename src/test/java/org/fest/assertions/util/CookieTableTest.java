@@ -0,0 +1,55 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class CookieTableTest {
+
+	@Test
+	public void test_shouldFindCookieByNameCaseInsensitive() {
+		Cookie cookie1 = new Cookie("cookie1", "value1");
+		Cookie cookie2 = new Cookie("cookie2", "value2");
+		CookieTable table = CookieTable.of(Arrays.asList(cookie1, cookie2));
+
+		assertThat(table.size()).isEqualTo(2);
+		assertThat(table.get("cookie1")).isSameAs(cookie1);
+		assertThat(table.get("COOKIE1")).isSameAs(cookie1);
+		assertThat(table.get("Cookie2")).isSameAs(cookie2);
+		assertThat(table.get("foo")).isNull();
+		assertThat(table.getAll("foo")).isEmpty();
+		assertThat(table.getCookies()).containsExactly(cookie1, cookie2);
+	}
+
+	@Test
+	public void test_lastCookieShouldWinWithDuplicateNames() {
+		Cookie deleted = new Cookie("session", "", "localhost", "/", 0, false, false);
+		Cookie other = new Cookie("other", "value");
+		Cookie session = new Cookie("session", "1234");
+
+		CookieTable table = new CookieTable()
+				.add(deleted)
+				.add(other)
+				.add(session);
+
+		assertThat(table.size()).isEqualTo(3);
+		assertThat(table.get("session")).isSameAs(session);
+		assertThat(table.getAll("SESSION")).containsExactly(deleted, session);
+		assertThat(table.getAll("other")).containsExactly(other);
+		assertThat(table.getCookies()).containsExactly(deleted, other, session);
+	}
+
+	@Test
+	public void test_shouldGrowWithManyCookies() {
+		CookieTable table = new CookieTable(1);
+		for (int i = 0; i < 100; i++) {
+			table.add(new Cookie("cookie" + i, String.valueOf(i)));
+		}
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(table.get("COOKIE" + i).getValue()).isEqualTo(String.valueOf(i));
+		}
+	}
+}
@@ -136,4 +136,24 @@ public class CookieTest {
 		cookie = new Cookie(asyncCookie);
 		assertThat(cookie.getExpiryDate()).isNull();
 	}
+
+	@Test
+	public void test_expiryShouldBeComputedWithClock() {
+		Clock clock = Clock.fixed(1000000L);
+
+		Cookie cookie = new Cookie("name", "value", "domain", "/", 60, false, false, clock);
+		assertThat(cookie.getExpiryDate()).isEqualTo(new Date(1060000L));
+		assertThat(cookie.isExpired(1059999L)).isFalse();
+		assertThat(cookie.isExpired(1060000L)).isTrue();
+
+		cookie = new Cookie("name", "value", "domain", "/", new Date(1060000L), false, false, clock);
+		assertThat(cookie.getMaxAge()).isEqualTo(60000L);
+		assertThat(cookie.isExpired(1000000L)).isFalse();
+
+		cookie = new Cookie("name", "value", "domain", "/", 0, false, false, clock);
+		assertThat(cookie.isExpired(0L)).isTrue();
+
+		cookie = new Cookie("name", "value", "domain", "/", -1, false, false, clock);
+		assertThat(cookie.isExpired(Long.MAX_VALUE)).isFalse();
+	}
 }
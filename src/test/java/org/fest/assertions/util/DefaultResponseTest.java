@@ -0,0 +1,92 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class DefaultResponseTest {
+
+	@Test
+	public void test_constructShouldInitializeStatusCodeAndContentType() {
+		int statusCode = 200;
+		String contentType = "application/json";
+		Response rsp = new DefaultResponse(statusCode, contentType);
+		assertThat(rsp.getStatusCode()).isEqualTo(statusCode);
+		assertThat(rsp.getContentType()).isEqualTo(contentType);
+		assertThat(rsp.getCookies()).isNotNull().isEmpty();
+		assertThat(rsp.getHeaders()).isNotNull().isEmpty();
+	}
+
+	@Test
+	public void test_constructShouldInitializeStatusCodeAndContentTypeWithHeadersAndCookies() {
+		List<Cookie> cookies = Arrays.asList(
+				new Cookie("cookie1", "value1"),
+				new Cookie("cookie2", "value2")
+		);
+
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("header", "name");
+
+		int statusCode = 200;
+		String contentType = "application/json";
+		Response rsp = new DefaultResponse(statusCode, contentType, headers, cookies);
+		assertThat(rsp.getStatusCode()).isEqualTo(statusCode);
+		assertThat(rsp.getContentType()).isEqualTo(contentType);
+		assertThat(rsp.getCookies()).isNotNull().hasSize(2);
+		assertThat(rsp.getHeaders()).isNotNull().hasSize(1);
+	}
+
+	@Test
+	public void test_shouldFindHeaderCaseInsensitive() {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Header", "name");
+
+		Response rsp = new DefaultResponse(200, "application/json", headers, null);
+		assertThat(rsp.getHeader("Header")).isNotNull().isEqualTo("name");
+		assertThat(rsp.getHeader("header")).isNotNull().isEqualTo("name");
+		assertThat(rsp.getHeader("HEADER")).isNotNull().isEqualTo("name");
+		assertThat(rsp.getHeader("FOO")).isNull();
+	}
+
+	@Test
+	public void test_shouldFindCookieByNameCaseInsensitive() {
+		List<Cookie> cookies = Arrays.asList(
+				new Cookie("cookie1", "value1"),
+				new Cookie("cookie2", "value2")
+		);
+
+		Response rsp = new DefaultResponse(200, "application/json", null, cookies);
+		assertThat(rsp.getCookie("cookie1")).isNotNull();
+		assertThat(rsp.getCookie("cookie2")).isNotNull();
+		assertThat(rsp.getCookie("COOKIE1")).isNotNull();
+		assertThat(rsp.getCookie("Cookie1")).isNotNull();
+		assertThat(rsp.getCookie("foo")).isNull();
+	}
+
+	@Test
+	public void test_shouldParseContentTypeOnce() {
+		Response rsp = new DefaultResponse(200, "application/json; charset=utf-8");
+		MediaType mediaType = rsp.getMediaType();
+		assertThat(mediaType.getKnownType()).isSameAs(MimeType.JSON);
+		assertThat(mediaType.getCharset()).isEqualTo("utf-8");
+		assertThat(rsp.getMediaType()).isSameAs(mediaType);
+
+		assertThat(new DefaultResponse(200, null).getMediaType()).isNull();
+	}
+
+	@Test
+	public void test_shouldReadBodyWithCharsetOfContentType() throws Exception {
+		byte[] content = "caf\u00e9".getBytes("ISO-8859-1");
+		Response rsp = new DefaultResponse(200, "text/plain; charset=ISO-8859-1", null, null, content);
+		assertThat(rsp.getBody().asString()).isEqualTo("caf\u00e9");
+		assertThat(rsp.getBody()).isSameAs(rsp.getBody());
+
+		rsp = new DefaultResponse(204, null);
+		assertThat(rsp.getBody().isEmpty()).isTrue();
+	}
+}
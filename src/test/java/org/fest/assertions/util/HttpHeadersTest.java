@@ -0,0 +1,98 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+
+public class HttpHeadersTest {
+
+	@Test
+	public void test_shouldFindHeaderCaseInsensitive() {
+		HttpHeaders headers = new HttpHeaders()
+				.add("Content-Type", "application/json")
+				.add("x-custom-header", "foo");
+
+		assertThat(headers.getFirst("Content-Type")).isEqualTo("application/json");
+		assertThat(headers.getFirst("content-type")).isEqualTo("application/json");
+		assertThat(headers.getFirst("CONTENT-TYPE")).isEqualTo("application/json");
+		assertThat(headers.getFirst("X-Custom-Header")).isEqualTo("foo");
+		assertThat(headers.getFirst("X-Custom-Header2")).isNull();
+		assertThat(headers.contains("x-CUSTOM-header")).isTrue();
+		assertThat(headers.contains("foo")).isFalse();
+		assertThat(headers.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void test_shouldKeepAllValuesOfHeader() {
+		HttpHeaders headers = new HttpHeaders()
+				.add("Set-Cookie", "a=1")
+				.add("SET-COOKIE", "b=2")
+				.add("set-cookie", "c=3");
+
+		assertThat(headers.size()).isEqualTo(1);
+		assertThat(headers.getFirst("set-cookie")).isEqualTo("a=1");
+		assertThat(headers.getAll("Set-Cookie")).containsExactly("a=1", "b=2", "c=3");
+		assertThat(headers.getAll("Location")).isEmpty();
+	}
+
+	@Test
+	public void test_shouldNotAllocateValuesOnEachLookup() {
+		HttpHeaders headers = new HttpHeaders().add("Vary", "Accept");
+
+		List<String> values = headers.getAll("vary");
+		assertThat(values).containsExactly("Accept");
+		assertThat(headers.getAll("VARY")).isSameAs(values);
+
+		headers.add("vary", "Accept-Encoding");
+		assertThat(headers.getAll("Vary")).containsExactly("Accept", "Accept-Encoding");
+	}
+
+	@Test
+	public void test_shouldInternWellKnownNames() {
+		HttpHeaders headers = new HttpHeaders()
+				.add("etag", "foo")
+				.add("CONTENT-LENGTH", "12")
+				.add("X-Foo", "bar");
+
+		List<String> names = headers.names();
+		assertThat(names).containsExactly(HttpHeaders.ETAG, HttpHeaders.CONTENT_LENGTH, "X-Foo");
+		assertThat(names.get(0)).isSameAs(HttpHeaders.ETAG);
+		assertThat(names.get(1)).isSameAs(HttpHeaders.CONTENT_LENGTH);
+	}
+
+	@Test
+	public void test_shouldGrowWithManyHeaders() {
+		HttpHeaders headers = new HttpHeaders(1);
+		for (int i = 0; i < 150; i++) {
+			headers.add("X-Header-" + i, String.valueOf(i));
+		}
+
+		assertThat(headers.size()).isEqualTo(150);
+		for (int i = 0; i < 150; i++) {
+			assertThat(headers.getFirst("x-header-" + i)).isEqualTo(String.valueOf(i));
+		}
+	}
+
+	@Test
+	public void test_toMapShouldUseLowerCaseNames() {
+		HttpHeaders headers = new HttpHeaders()
+				.add("ETag", "foo")
+				.add("Vary", "Accept")
+				.add("Vary", "Accept-Encoding");
+
+		assertThat(headers.toMap()).hasSize(2)
+				.contains(entry("etag", "foo"))
+				.contains(entry("vary", "Accept"));
+	}
+
+	@Test
+	public void test_hashAndEqualsShouldIgnoreAsciiCase() {
+		assertThat(HttpHeaders.hash("Content-Type")).isEqualTo(HttpHeaders.hash("cOnTeNt-TyPe"));
+		assertThat(HttpHeaders.equalsIgnoreCase("Content-Type", "CONTENT-TYPE")).isTrue();
+		assertThat(HttpHeaders.equalsIgnoreCase("Content-Type", "Content-Typ")).isFalse();
+		assertThat(HttpHeaders.equalsIgnoreCase("Content-Type", "Content_Type")).isFalse();
+	}
+}
@@ -1,5 +1,6 @@
 package org.fest.assertions.util;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -639,4 +640,29 @@ public class JsonComparatorTest {
 		List<String> errors = JsonComparator.compareJson(json1, json2, Arrays.asList("foo[1].bar1"));
 		assertThat(errors).isNotNull().isEmpty();
 	}
+
+	@Test
+	public void test_compareJsonTreesShouldNotModifyExpectedDocument() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		Object expected = mapper.readValue("{\"foo\": 1, \"bar\": {\"bar1\": 2}, \"baz\": [{\"id\": 1}]}", Object.class);
+		String before = mapper.writeValueAsString(expected);
+
+		List<String> errors = JsonComparator.compareJsonTrees(mapper.readValue("{\"foo\": 1, \"bar\": {\"bar1\": 3}}", Object.class), expected, Arrays.<String>asList());
+		assertThat(errors).containsOnly("Expecting <bar.bar1> to be <3> but was <2>", "Expecting json to contain <baz>");
+		assertThat(mapper.writeValueAsString(expected)).isEqualTo(before);
+
+		errors = JsonComparator.compareJsonTrees(mapper.readValue("{\"foo\": 1, \"bar\": {\"bar1\": 2}, \"baz\": [{\"id\": 1}]}", Object.class), expected, Arrays.<String>asList());
+		assertThat(errors).isEmpty();
+	}
+
+	@Test
+	public void test_compareJsonTreesShouldFailWithDifferentTypes() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		Object expected = mapper.readValue("{\"foo\": 1}", Object.class);
+
+		assertThat(JsonComparator.compareJsonTrees(mapper.readValue("[1]", Object.class), expected, Arrays.<String>asList()))
+				.containsOnly("Expecting json to be <Object> but was <Array>");
+		assertThat(JsonComparator.compareJsonTrees(mapper.readValue("1", Object.class), expected, Arrays.<String>asList()))
+				.containsOnly("Expecting json to be <Object> but was <Integer>");
+	}
 }
@@ -0,0 +1,124 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void test_bucketsShouldCoverAllValues() {
+		long previous = -1;
+		for (int index = 0; index <= LatencyHistogram.index(Long.MAX_VALUE); index++) {
+			long highest = LatencyHistogram.highestValue(index);
+			assertThat(highest).isGreaterThan(previous);
+			assertThat(LatencyHistogram.index(previous + 1)).isEqualTo(index);
+			assertThat(LatencyHistogram.index(highest)).isEqualTo(index);
+			// Relative error of a bucket is below 1/64
+			assertThat((highest - previous - 1) * 64).isLessThanOrEqualTo(Math.max(previous + 1, 64));
+			previous = highest;
+		}
+		assertThat(previous).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void test_shouldComputePercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThat(histogram.getValueAtPercentile(99, TimeUnit.MILLISECONDS)).isZero();
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i, TimeUnit.MILLISECONDS);
+		}
+		histogram.recordNanos(-1);
+
+		assertThat(histogram.getCount()).isEqualTo(1000);
+		assertThat(histogram.getMin(TimeUnit.MILLISECONDS)).isEqualTo(1);
+		assertThat(histogram.getMax(TimeUnit.MILLISECONDS)).isEqualTo(1000);
+		assertThat(histogram.getValueAtPercentile(100, TimeUnit.MILLISECONDS)).isEqualTo(1000);
+		assertThat(histogram.getValueAtPercentile(0, TimeUnit.MILLISECONDS)).isEqualTo(1);
+
+		long p50 = histogram.getValueAtPercentile(50, TimeUnit.MICROSECONDS);
+		long p99 = histogram.getValueAtPercentile(99, TimeUnit.MICROSECONDS);
+		assertThat(p50).isGreaterThanOrEqualTo(500000).isLessThanOrEqualTo(500000 + 500000 / 64);
+		assertThat(p99).isGreaterThanOrEqualTo(990000).isLessThanOrEqualTo(990000 + 990000 / 64);
+
+		try {
+			histogram.getValueAtPercentile(101, TimeUnit.MILLISECONDS);
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Percentile must be between 0 and 100 but was 101.0");
+		}
+	}
+
+	@Test
+	public void test_shouldMergeHistogramsOfThreads() throws Exception {
+		final LatencyHistogram[] histograms = new LatencyHistogram[4];
+		final LatencyHistogram shared = new LatencyHistogram();
+
+		ExecutorService executor = Executors.newFixedThreadPool(histograms.length);
+		for (int i = 0; i < histograms.length; i++) {
+			final LatencyHistogram histogram = histograms[i] = new LatencyHistogram();
+			final int thread = i;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						long nanos = TimeUnit.MICROSECONDS.toNanos(100 + j % 100 + thread * 1000);
+						histogram.recordNanos(nanos);
+						shared.recordNanos(nanos);
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		LatencyHistogram merged = new LatencyHistogram();
+		for (LatencyHistogram histogram : histograms) {
+			merged.add(histogram);
+		}
+
+		assertThat(merged.getCount()).isEqualTo(40000).isEqualTo(shared.getCount());
+		assertThat(merged.getMin(TimeUnit.MICROSECONDS)).isEqualTo(100);
+		assertThat(merged.getMax(TimeUnit.MICROSECONDS)).isEqualTo(3199);
+		for (double percentile : new double[]{50, 90, 99, 99.9}) {
+			assertThat(merged.getValueAtPercentile(percentile, TimeUnit.NANOSECONDS)).isEqualTo(shared.getValueAtPercentile(percentile, TimeUnit.NANOSECONDS));
+		}
+	}
+
+	@Test
+	public void test_shouldSaveHistogram() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(3, TimeUnit.MILLISECONDS);
+		histogram.record(7, TimeUnit.SECONDS);
+		histogram.recordNanos(42);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		histogram.writeTo(new DataOutputStream(out));
+		LatencyHistogram read = LatencyHistogram.readFrom(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+		assertThat(read.getCount()).isEqualTo(3);
+		assertThat(read.getMin(TimeUnit.NANOSECONDS)).isEqualTo(42);
+		assertThat(read.getMax(TimeUnit.SECONDS)).isEqualTo(7);
+		assertThat(read.getValueAtPercentile(50, TimeUnit.NANOSECONDS)).isEqualTo(histogram.getValueAtPercentile(50, TimeUnit.NANOSECONDS));
+
+		try {
+			LatencyHistogram.readFrom(new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 4})));
+			fail("IOException expected");
+		}
+		catch (IOException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Input is not a saved latency histogram");
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+
+public class MediaTypeTest {
+
+	@Test
+	public void test_parseShouldReturnNullWithBlankValue() {
+		assertThat(MediaType.parse(null)).isNull();
+		assertThat(MediaType.parse("")).isNull();
+		assertThat(MediaType.parse("   ")).isNull();
+	}
+
+	@Test
+	public void test_parseWithoutParameters() {
+		MediaType mediaType = MediaType.parse("Application/JSON");
+		assertThat(mediaType.getType()).isEqualTo("application");
+		assertThat(mediaType.getSubtype()).isEqualTo("json");
+		assertThat(mediaType.getMimeType()).isEqualTo("application/json");
+		assertThat(mediaType.getKnownType()).isSameAs(MimeType.JSON);
+		assertThat(mediaType.getCharset()).isNull();
+		assertThat(mediaType.getParameters()).isEmpty();
+	}
+
+	@Test
+	public void test_parseWithParameters() {
+		MediaType mediaType = MediaType.parse(" text/html ; Charset=UTF-8;level=1 ");
+		assertThat(mediaType.getMimeType()).isEqualTo("text/html");
+		assertThat(mediaType.getKnownType()).isSameAs(MimeType.HTML);
+		assertThat(mediaType.getCharset()).isEqualTo("UTF-8");
+		assertThat(mediaType.getParameter("LEVEL")).isEqualTo("1");
+		assertThat(mediaType.getParameters()).hasSize(2)
+				.contains(entry("charset", "UTF-8"))
+				.contains(entry("level", "1"));
+	}
+
+	@Test
+	public void test_parseQuotedParameters() {
+		MediaType mediaType = MediaType.parse("multipart/form-data; boundary=\"a; b=\\\"c\\\"\"; charset=\"utf-8\"");
+		assertThat(mediaType.getMimeType()).isEqualTo("multipart/form-data");
+		assertThat(mediaType.getKnownType()).isNull();
+		assertThat(mediaType.getParameter("boundary")).isEqualTo("a; b=\"c\"");
+		assertThat(mediaType.getCharset()).isEqualTo("utf-8");
+	}
+
+	@Test
+	public void test_parseShouldIgnoreMalformedParameters() {
+		MediaType mediaType = MediaType.parse("application/json;foo;;charset=utf-8;=bar");
+		assertThat(mediaType.getMimeType()).isEqualTo("application/json");
+		assertThat(mediaType.getParameters()).hasSize(1).contains(entry("charset", "utf-8"));
+	}
+
+	@Test
+	public void test_parseWithoutSubtype() {
+		MediaType mediaType = MediaType.parse("foo; charset=utf-8");
+		assertThat(mediaType.getType()).isEqualTo("foo");
+		assertThat(mediaType.getSubtype()).isEmpty();
+		assertThat(mediaType.getMimeType()).isEqualTo("foo");
+		assertThat(mediaType.getKnownType()).isNull();
+	}
+
+	@Test
+	public void test_isShouldMatchWellKnownTypes() {
+		MediaType mediaType = MediaType.parse("text/xml; charset=utf-8");
+		assertThat(mediaType.is(MimeType.XML, MimeType.TEXT_XML)).isTrue();
+		assertThat(mediaType.is(MimeType.JSON)).isFalse();
+	}
+
+	@Test
+	public void test_equalsAndToString() {
+		MediaType mediaType = MediaType.parse("application/json;charset=utf-8");
+		assertThat(mediaType).isEqualTo(MediaType.parse("APPLICATION/json ; charset=utf-8"));
+		assertThat(mediaType.hashCode()).isEqualTo(MediaType.parse("APPLICATION/json ; charset=utf-8").hashCode());
+		assertThat(mediaType).isNotEqualTo(MediaType.parse("application/json"));
+		assertThat(mediaType.toString()).isEqualTo("application/json; charset=utf-8");
+	}
+}
@@ -0,0 +1,231 @@
+package org.fest.assertions.util;
+
+import org.fest.assertions.api.rest.REST;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResponseArchiveTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("responses", ".archive");
+		file.deleteOnExit();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void test_shouldReplayRecordedResponses() throws Exception {
+		Map<String, String> headers = new LinkedHashMap<String, String>();
+		headers.put("ETag", "\"v1\"");
+		headers.put("Location", "/users/1");
+		List<Cookie> cookies = Arrays.asList(
+				new Cookie("session", "1234", "example.com", "/", -1, true, true),
+				new Cookie("lang", "fr", null, null, 3600, false, false),
+				new Cookie("tracking", "abcd", "example.com", "/app", new Date(4102444800000L), false, false));
+
+		ResponseRecorder recorder = ResponseRecorder.open(file);
+		recorder.record(new DefaultResponse(201, "application/json; charset=utf-8", headers, cookies, "{\"id\": 1, \"name\": \"été\"}".getBytes("UTF-8")));
+		recorder.record(new DefaultResponse(204, null));
+		assertThat(recorder.size()).isEqualTo(2);
+		recorder.close();
+
+		ResponseArchive archive = ResponseArchive.open(file);
+		assertThat(archive.size()).isEqualTo(2);
+
+		Response response = archive.get(0);
+		assertThat(response.getStatusCode()).isEqualTo(201);
+		assertThat(response.getContentType()).isEqualTo("application/json; charset=utf-8");
+		assertThat(response.getHeader("etag")).isEqualTo("\"v1\"");
+		assertThat(response.getHeader("Location")).isEqualTo("/users/1");
+		assertThat(response.getResponseTime(TimeUnit.MILLISECONDS)).isEqualTo(-1);
+		assertThat(response.getTimeToFirstByte(TimeUnit.MILLISECONDS)).isEqualTo(-1);
+		assertThat(response.getCookies()).hasSize(3);
+
+		Cookie session = response.getCookie("session");
+		assertThat(session.getValue()).isEqualTo("1234");
+		assertThat(session.getDomain()).isEqualTo("example.com");
+		assertThat(session.isSecure()).isTrue();
+		assertThat(session.isHttpOnly()).isTrue();
+		assertThat(session.getExpiryDate()).isNull();
+
+		Cookie lang = response.getCookie("lang");
+		assertThat(lang.getDomain()).isNull();
+		assertThat(lang.getMaxAge()).isEqualTo(3600);
+		assertThat(lang.isExpiryFromMaxAge()).isTrue();
+
+		assertThat(response.getCookie("tracking").getExpiryDate()).isEqualTo(new Date(4102444800000L));
+
+		REST.assertThat(response)
+				.isCreated()
+				.isJsonUtf8()
+				.hasETagEqualTo("\"v1\"")
+				.hasCookieEqualTo("session", "1234")
+				.hasBodyEqualTo("{\"id\": 1, \"name\": \"été\"}");
+		REST.assertJsonThat(response).isObject().isNumber("id");
+
+		REST.assertThat(archive.get(1)).isNoContent().hasEmptyBody();
+		assertThat(archive.get(1).getContentType()).isNull();
+		assertThat(archive.get(1).getHeaders()).isEmpty();
+		archive.close();
+	}
+
+	@Test
+	public void test_shouldKeepHeaderValuesAndLatencies() throws Exception {
+		com.ning.http.client.Response ning = mock(com.ning.http.client.Response.class);
+		com.ning.http.client.FluentCaseInsensitiveStringsMap headers = new com.ning.http.client.FluentCaseInsensitiveStringsMap();
+		headers.add("Vary", "Accept", "Accept-Encoding");
+		when(ning.getStatusCode()).thenReturn(200);
+		when(ning.getHeaders()).thenReturn(headers);
+		when(ning.getCookies()).thenReturn(new ArrayList<com.ning.http.client.Cookie>());
+		when(ning.getResponseBodyAsStream()).thenReturn(new java.io.ByteArrayInputStream(new byte[0]));
+
+		ResponseRecorder recorder = ResponseRecorder.open(file);
+		recorder.record(new AsyncHttpResponse(ning, TimeUnit.MILLISECONDS.toNanos(42), TimeUnit.MILLISECONDS.toNanos(12)));
+		recorder.close();
+
+		ResponseArchive archive = ResponseArchive.open(file);
+		Response response = archive.get(0);
+		assertThat(response.getHeaderValues("vary")).containsExactly("Accept", "Accept-Encoding");
+		assertThat(response.getResponseTime(TimeUnit.MILLISECONDS)).isEqualTo(42);
+		assertThat(response.getTimeToFirstByte(TimeUnit.MILLISECONDS)).isEqualTo(12);
+		REST.assertThat(response).respondsWithin(50, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void test_shouldAppendToExistingArchive() throws Exception {
+		record(file, 0, 3);
+		record(file, 3, 2);
+
+		ResponseArchive archive = ResponseArchive.open(file);
+		assertThat(archive.size()).isEqualTo(5);
+		int i = 0;
+		for (Response response : archive) {
+			assertThat(response.getBody().asString()).isEqualTo("{\"id\": " + i + "}");
+			i++;
+		}
+		assertThat(i).isEqualTo(5);
+	}
+
+	@Test
+	public void test_shouldIgnoreAndDropIncompleteRecord() throws Exception {
+		record(file, 0, 2);
+		long complete = file.length();
+
+		// Interrupted write
+		FileOutputStream out = new FileOutputStream(file, true);
+		out.write(new byte[]{0, 0, 1, 0, 42, 42});
+		out.close();
+
+		assertThat(ResponseArchive.open(file).size()).isEqualTo(2);
+
+		ResponseRecorder recorder = ResponseRecorder.open(file);
+		assertThat(recorder.size()).isEqualTo(2);
+		assertThat(file.length()).isEqualTo(complete);
+		recorder.record(new DefaultResponse(200, "application/json", null, null, "{\"id\": 2}".getBytes("UTF-8")));
+		recorder.close();
+
+		ResponseArchive archive = ResponseArchive.open(file);
+		assertThat(archive.size()).isEqualTo(3);
+		assertThat(archive.get(2).getBody().asString()).isEqualTo("{\"id\": 2}");
+	}
+
+	@Test
+	public void test_shouldSplitLargeArchiveInSegments() throws Exception {
+		record(file, 0, 100);
+
+		ResponseArchive archive = ResponseArchive.open(file, 256);
+		assertThat(archive.size()).isEqualTo(100);
+		for (int i = 0; i < 100; i++) {
+			assertThat(archive.get(i).getBody().asString()).isEqualTo("{\"id\": " + i + "}");
+		}
+	}
+
+	@Test
+	public void test_shouldRejectRecordLargerThanSegment() throws Exception {
+		ResponseRecorder recorder = ResponseRecorder.open(file);
+		recorder.record(new DefaultResponse(200, "text/plain", null, null, new byte[1000]));
+		recorder.close();
+
+		try {
+			ResponseArchive.open(file, 256);
+			fail("IOException expected");
+		}
+		catch (IOException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Record at offset 8 is larger than 256 bytes");
+		}
+	}
+
+	@Test
+	public void test_shouldRejectFileWhichIsNotAnArchive() throws Exception {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.writeBytes("{\"not\": \"an archive\"}");
+		raf.close();
+
+		try {
+			ResponseArchive.open(file);
+			fail("IOException expected");
+		}
+		catch (IOException ex) {
+			assertThat(ex.getMessage()).isEqualTo("File is not a response archive");
+		}
+
+		try {
+			ResponseRecorder.open(file);
+			fail("IOException expected");
+		}
+		catch (IOException ex) {
+			assertThat(ex.getMessage()).isEqualTo("File is not a response archive");
+		}
+	}
+
+	@Test
+	public void test_shouldFailOnClosedArchive() throws Exception {
+		record(file, 0, 1);
+		ResponseArchive archive = ResponseArchive.open(file);
+		archive.close();
+
+		try {
+			archive.get(0);
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Response archive is closed");
+		}
+	}
+
+	private static void record(File file, int first, int count) throws Exception {
+		ResponseRecorder recorder = ResponseRecorder.open(file);
+		try {
+			for (int i = first; i < first + count; i++) {
+				recorder.record(new DefaultResponse(200, "application/json", null, null, ("{\"id\": " + i + "}").getBytes("UTF-8")));
+			}
+		}
+		finally {
+			recorder.close();
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ResponseBodyTest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	@Test
+	public void test_emptyBody() throws Exception {
+		ResponseBody body = ResponseBody.read(null, null);
+		assertThat(body.isEmpty()).isTrue();
+		assertThat(body.length()).isEqualTo(0);
+		assertThat(body.getCharset()).isEqualTo(UTF_8);
+		assertThat(body.asString()).isEmpty();
+		assertThat(body.mismatch("")).isEqualTo(-1);
+		assertThat(body.mismatch("a")).isEqualTo(0);
+	}
+
+	@Test
+	public void test_smallBodyShouldStayInMemory() throws Exception {
+		ResponseBody body = ResponseBody.read(stream("{\"id\": 1}", UTF_8), UTF_8);
+		assertThat(body.isInMemory()).isTrue();
+		assertThat(body.length()).isEqualTo(9);
+		assertThat(body.asString()).isEqualTo("{\"id\": 1}");
+		assertThat(body.getBytes()).isEqualTo("{\"id\": 1}".getBytes("UTF-8"));
+	}
+
+	@Test
+	public void test_bodyOfThresholdSizeShouldStayInMemory() throws Exception {
+		ResponseBody body = ResponseBody.read(stream("0123456789", UTF_8), UTF_8, 10);
+		assertThat(body.isInMemory()).isTrue();
+		assertThat(body.asString()).isEqualTo("0123456789");
+	}
+
+	@Test
+	public void test_largeBodyShouldBeSpilledToDisk() throws Exception {
+		String content = repeat("0123456789", 10000) + "end";
+		ResponseBody body = ResponseBody.read(stream(content, UTF_8), UTF_8, 1024);
+		try {
+			assertThat(body.isInMemory()).isFalse();
+			assertThat(body.length()).isEqualTo(content.length());
+			assertThat(body.asString()).isEqualTo(content);
+			assertThat(body.getBytes()).isEqualTo(content.getBytes("UTF-8"));
+			assertThat(body.contains("89end")).isTrue();
+			assertThat(body.contains("90end")).isFalse();
+			assertThat(body.mismatch(content)).isEqualTo(-1);
+			assertThat(body.mismatch(content + "!")).isEqualTo(content.length());
+			assertThat(body.mismatch(content.substring(0, 2000) + "x")).isEqualTo(2000);
+
+			InputStream in = body.openStream();
+			assertThat(in.skip(content.length() - 3)).isEqualTo(content.length() - 3);
+			assertThat(in.read()).isEqualTo('e');
+			in.close();
+		}
+		finally {
+			body.close();
+		}
+
+		try {
+			body.openStream();
+			fail("Expected IOException to be thrown");
+		}
+		catch (IOException ex) {
+			// Temporary file has been deleted
+		}
+	}
+
+	@Test
+	public void test_shouldDeleteSpilledFileOfCollectedBody() throws Exception {
+		int files = countTemporaryFiles();
+		ResponseBody body = ResponseBody.read(stream("0123456789", UTF_8), UTF_8, 0);
+		assertThat(countTemporaryFiles()).isEqualTo(files + 1);
+
+		body = null;
+		long deadline = System.currentTimeMillis() + 10000;
+		while (countTemporaryFiles() > files && System.currentTimeMillis() < deadline) {
+			System.gc();
+			Thread.sleep(10);
+			// Files of collected bodies are deleted when another body is spilled
+			ResponseBody.read(stream("0123456789", UTF_8), UTF_8, 0).close();
+		}
+		assertThat(countTemporaryFiles()).isEqualTo(files);
+	}
+
+	@Test
+	public void test_shouldDecodeWithCharset() throws Exception {
+		ResponseBody body = ResponseBody.read(stream("café", ISO_8859_1), ISO_8859_1);
+		assertThat(body.length()).isEqualTo(4);
+		assertThat(body.asString()).isEqualTo("café");
+		assertThat(body.contains("fé")).isTrue();
+
+		body = ResponseBody.read(stream("café", UTF_8), UTF_8, 0);
+		assertThat(body.isInMemory()).isFalse();
+		assertThat(body.length()).isEqualTo(5);
+		assertThat(body.asString()).isEqualTo("café");
+		body.close();
+	}
+
+	@Test
+	public void test_containsShouldFindOverlappingPrefixes() throws Exception {
+		ResponseBody body = ResponseBody.of("aabaabaaab".getBytes("UTF-8"), UTF_8);
+		assertThat(body.contains("")).isTrue();
+		assertThat(body.contains("aaab")).isTrue();
+		assertThat(body.contains("abaaa")).isTrue();
+		assertThat(body.contains("aaaa")).isFalse();
+	}
+
+	@Test
+	public void test_charsetOf() {
+		assertThat(ResponseBody.charsetOf(null)).isEqualTo(UTF_8);
+		assertThat(ResponseBody.charsetOf(MediaType.parse("text/plain"))).isEqualTo(UTF_8);
+		assertThat(ResponseBody.charsetOf(MediaType.parse("text/plain; charset=\"iso-8859-1\""))).isEqualTo(ISO_8859_1);
+		assertThat(ResponseBody.charsetOf(MediaType.parse("text/plain; charset=unknown"))).isEqualTo(UTF_8);
+		assertThat(ResponseBody.charsetOf(MediaType.parse("text/plain; charset=%%"))).isEqualTo(UTF_8);
+	}
+
+	private static int countTemporaryFiles() {
+		String[] names = new File(System.getProperty("java.io.tmpdir")).list(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith(ResponseBody.TEMP_FILE_PREFIX);
+			}
+		});
+		return names == null ? 0 : names.length;
+	}
+
+	private static InputStream stream(String content, Charset charset) throws Exception {
+		return new ByteArrayInputStream(content.getBytes(charset.name()));
+	}
+
+	private static String repeat(String value, int times) {
+		StringBuilder sb = new StringBuilder(value.length() * times);
+		for (int i = 0; i < times; i++) {
+			sb.append(value);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,87 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class ResponseLatenciesTest {
+
+	@Test
+	public void test_shouldRecordMeasuredTimes() {
+		ResponseLatencies latencies = new ResponseLatencies();
+
+		latencies.record(new TimedResponse(TimeUnit.MILLISECONDS.toNanos(30), TimeUnit.MILLISECONDS.toNanos(10)));
+		latencies.record(new TimedResponse(TimeUnit.MILLISECONDS.toNanos(50), -1));
+		latencies.record(new DefaultResponse(200, "application/json"));
+
+		assertThat(latencies.getResponseTime().getCount()).isEqualTo(2);
+		assertThat(latencies.getResponseTime().getMax(TimeUnit.MILLISECONDS)).isEqualTo(50);
+		assertThat(latencies.getTimeToFirstByte().getCount()).isEqualTo(1);
+		assertThat(latencies.getTimeToFirstByte().getMax(TimeUnit.MILLISECONDS)).isEqualTo(10);
+	}
+
+	@Test
+	public void test_shouldMergeSavedRuns() throws Exception {
+		ResponseLatencies run = new ResponseLatencies();
+		run.recordNanos(TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(20));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		run.writeTo(new DataOutputStream(out));
+
+		ResponseLatencies latencies = new ResponseLatencies();
+		latencies.recordNanos(TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(2));
+		latencies.add(ResponseLatencies.readFrom(new DataInputStream(new ByteArrayInputStream(out.toByteArray()))));
+
+		assertThat(latencies.getResponseTime().getCount()).isEqualTo(2);
+		assertThat(latencies.getResponseTime().getMax(TimeUnit.MILLISECONDS)).isEqualTo(20);
+		assertThat(latencies.getTimeToFirstByte().getMin(TimeUnit.MILLISECONDS)).isEqualTo(1);
+		assertThat(latencies.getTimeToFirstByte().getMax(TimeUnit.MILLISECONDS)).isEqualTo(5);
+	}
+
+	@Test
+	public void test_shouldCountFailures() throws Exception {
+		ResponseLatencies run = new ResponseLatencies();
+		run.recordNanos(TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(20));
+		run.recordFailureNanos(-1, TimeUnit.MILLISECONDS.toNanos(200));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		run.writeTo(new DataOutputStream(out));
+
+		ResponseLatencies latencies = new ResponseLatencies();
+		latencies.recordFailureNanos(TimeUnit.MILLISECONDS.toNanos(3), TimeUnit.MILLISECONDS.toNanos(100));
+		latencies.add(ResponseLatencies.readFrom(new DataInputStream(new ByteArrayInputStream(out.toByteArray()))));
+
+		assertThat(run.getFailures()).isEqualTo(1);
+		assertThat(latencies.getFailures()).isEqualTo(2);
+		assertThat(latencies.getResponseTime().getCount()).isEqualTo(3);
+		assertThat(latencies.getResponseTime().getMax(TimeUnit.MILLISECONDS)).isEqualTo(200);
+		assertThat(latencies.getTimeToFirstByte().getCount()).isEqualTo(2);
+	}
+
+	private static final class TimedResponse extends DefaultResponse {
+		private final long responseTimeNanos;
+		private final long timeToFirstByteNanos;
+
+		private TimedResponse(long responseTimeNanos, long timeToFirstByteNanos) {
+			super(200, "application/json");
+			this.responseTimeNanos = responseTimeNanos;
+			this.timeToFirstByteNanos = timeToFirstByteNanos;
+		}
+
+		@Override
+		public long getResponseTime(TimeUnit unit) {
+			return unit.convert(responseTimeNanos, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public long getTimeToFirstByte(TimeUnit unit) {
+			return timeToFirstByteNanos < 0 ? -1 : unit.convert(timeToFirstByteNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ResponsePopulationTest {
+
+	private static final ResponsePredicate OK = new ResponsePredicate() {
+		@Override
+		public boolean matches(Response response) {
+			return response.getStatusCode() == 200;
+		}
+	};
+
+	private static final ResponsePredicate JSON = new ResponsePredicate() {
+		@Override
+		public boolean matches(Response response) {
+			MediaType mediaType = response.getMediaType();
+			return mediaType != null && mediaType.is(MimeType.JSON);
+		}
+	};
+
+	@Test
+	public void test_shouldCountResponses() {
+		ResponsePopulation population = new ResponsePopulation()
+				.trackHeader("ETag")
+				.track("json", JSON, OK)
+				.track("ok", OK);
+
+		population.record(response(200, "application/json", "\"1\""));
+		population.record(response(200, "text/html", null));
+		population.record(response(201, "application/json", "\"2\""));
+		population.record(response(503, null, null));
+		population.record(response(99, "application/vnd.custom+json", " "));
+
+		assertThat(population.getCount()).isEqualTo(5);
+		assertThat(population.getStatusClassCount(2)).isEqualTo(3);
+		assertThat(population.getStatusClassCount(5)).isEqualTo(1);
+		assertThat(population.getStatusClassCount(4)).isZero();
+		assertThat(population.getMimeTypeCount(MimeType.JSON)).isEqualTo(2);
+		assertThat(population.getMimeTypeCount(MimeType.HTML)).isEqualTo(1);
+		assertThat(population.getMissingContentTypeCount()).isEqualTo(1);
+		assertThat(population.getHeaderCount("etag")).isEqualTo(2);
+		assertThat(population.getConditionPopulation("json")).isEqualTo(2);
+		assertThat(population.getConditionCount("json")).isEqualTo(1);
+		assertThat(population.getConditionPopulation("ok")).isEqualTo(5);
+		assertThat(population.getConditionCount("ok")).isEqualTo(2);
+		assertThat(population.getConditions()).containsExactly("json", "ok");
+	}
+
+	@Test
+	public void test_shouldRejectTrackingOnceRecording() {
+		ResponsePopulation population = new ResponsePopulation().track("ok", OK);
+
+		try {
+			population.track("ok", JSON);
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Condition ok is already tracked");
+		}
+
+		assertThat(population.getConditionCount("ok")).isZero();
+		population.record(response(200, "application/json", null));
+
+		try {
+			population.trackHeader("ETag");
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Headers and conditions must be tracked before responses are recorded");
+		}
+
+		try {
+			population.getHeaderCount("ETag");
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Header ETag is not tracked");
+		}
+	}
+
+	@Test
+	public void test_shouldRecordFromManyThreads() throws Exception {
+		final ResponsePopulation population = new ResponsePopulation().trackHeader("ETag").track("json", JSON, OK);
+		int threads = 4;
+		final int responses = 10000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					Response ok = response(200, "application/json", "\"1\"");
+					Response error = response(500, "text/plain", null);
+					for (int j = 0; j < responses; j++) {
+						population.record(j % 100 == 0 ? error : ok);
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(population.getCount()).isEqualTo(threads * responses);
+		assertThat(population.getStatusClassCount(5)).isEqualTo(threads * responses / 100);
+		assertThat(population.getHeaderCount("ETag")).isEqualTo(threads * responses * 99 / 100);
+		assertThat(population.getConditionCount("json")).isEqualTo(population.getConditionPopulation("json"));
+	}
+
+	private static Response response(int status, String contentType, String etag) {
+		return new DefaultResponse(status, contentType, etag == null ? null : Collections.singletonMap("ETag", etag), null);
+	}
+}
@@ -0,0 +1,136 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class SetCookieParserTest {
+
+	@Test
+	public void test_parseNameAndValue() {
+		Cookie cookie = SetCookieParser.parse("  sessionId = 38afes7a8 ");
+		assertThat(cookie.getName()).isEqualTo("sessionId");
+		assertThat(cookie.getValue()).isEqualTo("38afes7a8");
+		assertThat(cookie.getDomain()).isNull();
+		assertThat(cookie.getPath()).isNull();
+		assertThat(cookie.getMaxAge()).isEqualTo(-1);
+		assertThat(cookie.getExpiryDate()).isNull();
+		assertThat(cookie.isSecure()).isFalse();
+		assertThat(cookie.isHttpOnly()).isFalse();
+	}
+
+	@Test
+	public void test_parseValueContainingEqualSign() {
+		Cookie cookie = SetCookieParser.parse("token=a=b==");
+		assertThat(cookie.getName()).isEqualTo("token");
+		assertThat(cookie.getValue()).isEqualTo("a=b==");
+
+		cookie = SetCookieParser.parse("empty=");
+		assertThat(cookie.getName()).isEqualTo("empty");
+		assertThat(cookie.getValue()).isEmpty();
+	}
+
+	@Test
+	public void test_parseShouldRejectInvalidCookies() {
+		assertThat(SetCookieParser.parse("")).isNull();
+		assertThat(SetCookieParser.parse("foo")).isNull();
+		assertThat(SetCookieParser.parse("=bar")).isNull();
+		assertThat(SetCookieParser.parse("foo; bar=baz")).isNull();
+	}
+
+	@Test
+	public void test_parseAttributes() {
+		Cookie cookie = SetCookieParser.parse("id=a3fWa; Domain=.Example.COM; Path=/docs; Secure; HttpOnly; SameSite=Lax");
+		assertThat(cookie.getName()).isEqualTo("id");
+		assertThat(cookie.getValue()).isEqualTo("a3fWa");
+		assertThat(cookie.getDomain()).isEqualTo("example.com");
+		assertThat(cookie.getPath()).isEqualTo("/docs");
+		assertThat(cookie.isSecure()).isTrue();
+		assertThat(cookie.isHttpOnly()).isTrue();
+	}
+
+	@Test
+	public void test_parseAttributesCaseInsensitive() {
+		Cookie cookie = SetCookieParser.parse("id=1;SECURE;httponly;PATH=/api;max-AGE=60");
+		assertThat(cookie.isSecure()).isTrue();
+		assertThat(cookie.isHttpOnly()).isTrue();
+		assertThat(cookie.getPath()).isEqualTo("/api");
+		assertThat(cookie.getMaxAge()).isEqualTo(60);
+	}
+
+	@Test
+	public void test_parseShouldIgnoreInvalidPath() {
+		assertThat(SetCookieParser.parse("id=1; Path=docs").getPath()).isNull();
+		assertThat(SetCookieParser.parse("id=1; Path=").getPath()).isNull();
+	}
+
+	@Test
+	public void test_parseMaxAge() {
+		assertThat(SetCookieParser.parse("id=1; Max-Age=3600").getMaxAge()).isEqualTo(3600);
+		assertThat(SetCookieParser.parse("id=1; Max-Age=0").getMaxAge()).isEqualTo(0);
+		assertThat(SetCookieParser.parse("id=1; Max-Age=-10").getMaxAge()).isEqualTo(0);
+		assertThat(SetCookieParser.parse("id=1; Max-Age=1a").getMaxAge()).isEqualTo(-1);
+		assertThat(SetCookieParser.parse("id=1; Max-Age=").getMaxAge()).isEqualTo(-1);
+		assertThat(SetCookieParser.parse("id=1; Max-Age=99999999999999").getMaxAge()).isEqualTo(Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void test_maxAgeShouldHavePrecedenceOverExpires() {
+		Cookie cookie = SetCookieParser.parse("id=1; Expires=Wed, 21 Oct 2015 07:28:00 GMT; Max-Age=0");
+		assertThat(cookie.getMaxAge()).isEqualTo(0);
+	}
+
+	@Test
+	public void test_parseExpires() {
+		Cookie cookie = SetCookieParser.parse("id=1; Expires=Wed, 21 Oct 2099 07:28:00 GMT");
+		assertThat(cookie.getExpiryDate()).isEqualTo(utc(2099, Calendar.OCTOBER, 21, 7, 28, 0));
+	}
+
+	@Test
+	public void test_parseSlice() {
+		String line = "Set-Cookie: id=1; Path=/\r\n";
+		Cookie cookie = SetCookieParser.parse(line, 12, line.length() - 2);
+		assertThat(cookie.getName()).isEqualTo("id");
+		assertThat(cookie.getValue()).isEqualTo("1");
+		assertThat(cookie.getPath()).isEqualTo("/");
+	}
+
+	@Test
+	public void test_parseDate() {
+		long expected = utc(2015, Calendar.OCTOBER, 21, 7, 28, 0).getTime();
+		assertThat(parseDate("Wed, 21 Oct 2015 07:28:00 GMT")).isEqualTo(expected);
+		assertThat(parseDate("Wednesday, 21-Oct-15 07:28:00 GMT")).isEqualTo(expected);
+		assertThat(parseDate("Wed Oct 21 07:28:00 2015")).isEqualTo(expected);
+		assertThat(parseDate("21 october 2015 7:28:0")).isEqualTo(expected);
+
+		assertThat(parseDate("Thu, 01 Jan 1970 00:00:00 GMT")).isEqualTo(0L);
+		assertThat(parseDate("Tue, 29 Feb 2000 23:59:59 GMT")).isEqualTo(utc(2000, Calendar.FEBRUARY, 29, 23, 59, 59).getTime());
+		assertThat(parseDate("Sat, 01 Jan 69 00:00:00 GMT")).isEqualTo(utc(2069, Calendar.JANUARY, 1, 0, 0, 0).getTime());
+	}
+
+	@Test
+	public void test_parseDateShouldRejectInvalidDates() {
+		assertThat(parseDate("")).isEqualTo(Long.MIN_VALUE);
+		assertThat(parseDate("foo")).isEqualTo(Long.MIN_VALUE);
+		assertThat(parseDate("Wed, 21 Oct 2015 GMT")).isEqualTo(Long.MIN_VALUE);
+		assertThat(parseDate("Wed, 32 Oct 2015 07:28:00 GMT")).isEqualTo(Long.MIN_VALUE);
+		assertThat(parseDate("Wed, 21 Oct 2015 25:28:00 GMT")).isEqualTo(Long.MIN_VALUE);
+		assertThat(parseDate("Wed, 21 Foo 2015 07:28:00 GMT")).isEqualTo(Long.MIN_VALUE);
+		assertThat(parseDate("Wed, 21 Oct 1600 07:28:00 GMT")).isEqualTo(Long.MIN_VALUE);
+	}
+
+	private static long parseDate(String date) {
+		return SetCookieParser.parseDate(date, 0, date.length());
+	}
+
+	private static java.util.Date utc(int year, int month, int day, int hour, int minute, int second) {
+		GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		calendar.clear();
+		calendar.set(year, month, day, hour, minute, second);
+		return calendar.getTime();
+	}
+}
@@ -0,0 +1,77 @@
+package org.fest.assertions.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class StripedCountersTest {
+
+	@Test
+	public void test_shouldAddToCounters() {
+		StripedCounters counters = new StripedCounters(3);
+
+		counters.increment(0);
+		counters.increment(0);
+		counters.add(2, 40);
+		counters.add(2, 2);
+
+		assertThat(counters.size()).isEqualTo(3);
+		assertThat(counters.sum(0)).isEqualTo(2);
+		assertThat(counters.sum(1)).isZero();
+		assertThat(counters.sum(2)).isEqualTo(42);
+		assertThat(counters.sums()).isEqualTo(new long[]{2, 0, 42});
+	}
+
+	@Test
+	public void test_shouldRejectUnknownCounter() {
+		StripedCounters counters = new StripedCounters(2);
+
+		try {
+			counters.increment(2);
+			fail("IndexOutOfBoundsException expected");
+		}
+		catch (IndexOutOfBoundsException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Counter <2> is not between <0> and <1>");
+		}
+	}
+
+	@Test
+	public void test_shouldNotLoseConcurrentUpdates() throws Exception {
+		final StripedCounters counters = new StripedCounters(2);
+		final CountDownLatch start = new CountDownLatch(1);
+		int threads = 8;
+		final int updates = 100000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					for (int j = 0; j < updates; j++) {
+						counters.increment(0);
+						counters.add(1, 2);
+					}
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(counters.sum(0)).isEqualTo(threads * updates);
+		assertThat(counters.sum(1)).isEqualTo(threads * updates * 2L);
+	}
+}
@@ -0,0 +1,131 @@
+package org.fest.assertions.utils;
+
+import com.ning.http.client.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Listenable future completed by tests.
+ */
+public class SettableListenableFuture<V> implements ListenableFuture<V> {
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+	private final List<Runnable> listeners = new ArrayList<Runnable>();
+
+	private V value;
+	private Throwable failure;
+	private boolean cancelled;
+
+	public void set(V value) {
+		this.value = value;
+		complete();
+	}
+
+	@Override
+	public void abort(Throwable t) {
+		this.failure = t;
+		complete();
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		cancelled = true;
+		complete();
+		return true;
+	}
+
+	@Override
+	public ListenableFuture<V> addListener(final Runnable listener, final Executor exec) {
+		Runnable runnable = new Runnable() {
+			@Override
+			public void run() {
+				exec.execute(listener);
+			}
+		};
+		synchronized (listeners) {
+			if (latch.getCount() > 0) {
+				listeners.add(runnable);
+				return this;
+			}
+		}
+		runnable.run();
+		return this;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public boolean isDone() {
+		return latch.getCount() == 0;
+	}
+
+	@Override
+	public V get() throws InterruptedException, ExecutionException {
+		latch.await();
+		return result();
+	}
+
+	@Override
+	public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!latch.await(timeout, unit)) {
+			throw new TimeoutException();
+		}
+		return result();
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public void done(Callable callable) {
+	}
+
+	@Override
+	public void content(V v) {
+	}
+
+	@Override
+	public void touch() {
+	}
+
+	@Override
+	public boolean getAndSetWriteHeaders(boolean writeHeader) {
+		return false;
+	}
+
+	@Override
+	public boolean getAndSetWriteBody(boolean writeBody) {
+		return false;
+	}
+
+	private V result() throws ExecutionException {
+		if (cancelled) {
+			throw new CancellationException();
+		}
+		if (failure != null) {
+			throw new ExecutionException(failure);
+		}
+		return value;
+	}
+
+	private void complete() {
+		List<Runnable> toRun;
+		synchronized (listeners) {
+			latch.countDown();
+			toRun = new ArrayList<Runnable>(listeners);
+			listeners.clear();
+		}
+		for (Runnable listener : toRun) {
+			listener.run();
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package org.fest.assertions.api.rest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class JsonStreamBodyHandlerTest {
+
+	@Test
+	public void test_shouldCheckEachLineOfNdjson() throws Exception {
+		List<Long> checked = new ArrayList<Long>();
+		JsonStreamBodyHandler handler = JsonStreamBodyHandler.ndjson(expect(checked, "{\"id\": 1}", "{\"id\": 2}", "[3]"));
+		HttpResponse.BodySubscriber<Long> subscriber = handler.subscriber(StandardCharsets.UTF_8);
+
+		FakeSubscription subscription = publish(subscriber, "{\"id\": 1}\n{\"id\"", ": 2}\r\n\n[3]");
+
+		assertThat(subscription.cancelled).isFalse();
+		assertThat(subscriber.getBody().toCompletableFuture().get()).isEqualTo(3L);
+		assertThat(checked).containsExactly(0L, 1L, 2L);
+	}
+
+	@Test
+	public void test_shouldCheckEachItemOfJsonArray() throws Exception {
+		List<Long> checked = new ArrayList<Long>();
+		JsonStreamBodyHandler handler = JsonStreamBodyHandler.jsonArray(expect(checked, "{\"name\": \"a,]\\\"}\"}", "[1, [2]]", "{\"b\": {\"c\": []}}"));
+		HttpResponse.BodySubscriber<Long> subscriber = handler.subscriber(StandardCharsets.UTF_8);
+
+		publish(subscriber, " [{\"name\": \"a,]\\\"}\"}, ", "[1, [2]], {\"b\": {\"c\": []}}] ");
+
+		assertThat(subscriber.getBody().toCompletableFuture().get()).isEqualTo(3L);
+		assertThat(checked).containsExactly(0L, 1L, 2L);
+	}
+
+	@Test
+	public void test_shouldCheckDocumentThatIsNotAnArray() throws Exception {
+		List<Long> checked = new ArrayList<Long>();
+		JsonStreamBodyHandler handler = JsonStreamBodyHandler.jsonArray(expect(checked, "{\"id\": 1}"));
+		HttpResponse.BodySubscriber<Long> subscriber = handler.subscriber(StandardCharsets.UTF_8);
+
+		publish(subscriber, "{\"id\":", " 1}");
+
+		assertThat(subscriber.getBody().toCompletableFuture().get()).isEqualTo(1L);
+		assertThat(checked).containsExactly(0L);
+	}
+
+	@Test
+	public void test_shouldFailOnIncompleteArray() throws Exception {
+		HttpResponse.BodySubscriber<Long> subscriber = JsonStreamBodyHandler.jsonArray(expect(new ArrayList<Long>(), "[1]", "[2]")).subscriber(StandardCharsets.UTF_8);
+		publish(subscriber, "[[1], [2]");
+		assertFailure(subscriber, "Expecting json array to be complete");
+	}
+
+	@Test
+	public void test_shouldFailOnMissingArrayItem() throws Exception {
+		HttpResponse.BodySubscriber<Long> subscriber = JsonStreamBodyHandler.jsonArray(expect(new ArrayList<Long>(), "[1]")).subscriber(StandardCharsets.UTF_8);
+		publish(subscriber, "[[1], ]");
+		assertFailure(subscriber, "Expecting json array item after ','");
+
+		subscriber = JsonStreamBodyHandler.jsonArray(expect(new ArrayList<Long>(), "[1]", "[2]")).subscriber(StandardCharsets.UTF_8);
+		publish(subscriber, "[[1],,[2]]");
+		assertFailure(subscriber, "Expecting json array item before ','");
+
+		subscriber = JsonStreamBodyHandler.jsonArray(expect(new ArrayList<Long>())).subscriber(StandardCharsets.UTF_8);
+		publish(subscriber, "[ ]");
+		assertThat(subscriber.getBody().toCompletableFuture().get()).isEqualTo(0L);
+	}
+
+	@Test
+	public void test_shouldRejectCharsetsThatAreNotAsciiCompatible() throws Exception {
+		HttpResponse.BodySubscriber<Long> subscriber = JsonStreamBodyHandler.ndjson(expect(new ArrayList<Long>())).subscriber(StandardCharsets.UTF_16);
+		FakeSubscription subscription = publish(subscriber, "{}\n");
+
+		assertThat(subscription.cancelled).isTrue();
+		assertThat(subscription.requested).isEqualTo(0);
+		assertFailure(subscriber, "Expecting json stream to be encoded with an ascii compatible charset but was <UTF-16>");
+
+		assertThat(JsonStreamBodyHandler.ElementSubscriber.isAsciiCompatible(StandardCharsets.ISO_8859_1)).isTrue();
+		assertThat(JsonStreamBodyHandler.ElementSubscriber.isAsciiCompatible(Charset.forName("windows-1252"))).isTrue();
+		assertThat(JsonStreamBodyHandler.ElementSubscriber.isAsciiCompatible(Charset.forName("Shift_JIS"))).isFalse();
+		assertThat(JsonStreamBodyHandler.ElementSubscriber.isAsciiCompatible(Charset.forName("UTF-32"))).isFalse();
+	}
+
+	@Test
+	public void test_shouldStopOnFirstFailure() throws Exception {
+		HttpResponse.BodySubscriber<Long> subscriber = JsonStreamBodyHandler.ndjson(new JsonStreamBodyHandler.ElementCheck() {
+			@Override
+			public void check(long index, JsonAssert element) {
+				element.isObject();
+			}
+		}).subscriber(StandardCharsets.UTF_8);
+
+		FakeSubscription subscription = publish(subscriber, "{}\n[]\n", "{}\n");
+
+		assertThat(subscription.cancelled).isTrue();
+		assertThat(subscription.requested).isEqualTo(1);
+		assertFailure(subscriber, "Expecting json to be an object");
+	}
+
+	@Test
+	public void test_shouldCheckStreamedResponse() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+				exchange.sendResponseHeaders(200, 0);
+				OutputStream out = exchange.getResponseBody();
+				for (int i = 0; i < 1000; i++) {
+					out.write(("{\"id\": " + i + "}\n").getBytes(StandardCharsets.UTF_8));
+					out.flush();
+				}
+				out.close();
+			}
+		});
+		server.start();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/")).build();
+			HttpResponse<Long> response = HttpClient.newHttpClient().send(request, JsonStreamBodyHandler.ndjson(new JsonStreamBodyHandler.ElementCheck() {
+				@Override
+				public void check(long index, JsonAssert element) {
+					element.isObject().isNumber("id").isGreaterThanOrEqualTo("id", 0);
+				}
+			}));
+			assertThat(response.body()).isEqualTo(1000L);
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	private static JsonStreamBodyHandler.ElementCheck expect(final List<Long> checked, final String... expected) {
+		return new JsonStreamBodyHandler.ElementCheck() {
+			@Override
+			public void check(long index, JsonAssert element) {
+				element.isStrictlyEqualsTo(expected[(int) index]);
+				checked.add(index);
+			}
+		};
+	}
+
+	private static FakeSubscription publish(HttpResponse.BodySubscriber<Long> subscriber, String... chunks) {
+		FakeSubscription subscription = new FakeSubscription();
+		subscriber.onSubscribe(subscription);
+		for (String chunk : chunks) {
+			if (subscription.cancelled) {
+				return subscription;
+			}
+			subscriber.onNext(Collections.singletonList(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+		}
+		subscriber.onComplete();
+		return subscription;
+	}
+
+	private static void assertFailure(HttpResponse.BodySubscriber<Long> subscriber, String message) throws Exception {
+		CompletableFuture<Long> body = subscriber.getBody().toCompletableFuture();
+		try {
+			body.get();
+			fail("Expected AssertionError to be thrown");
+		}
+		catch (ExecutionException ex) {
+			assertThat(ex.getCause()).isInstanceOf(AssertionError.class);
+			assertThat(ex.getCause().getMessage()).isEqualTo(message);
+		}
+	}
+
+	private static class FakeSubscription implements Flow.Subscription {
+
+		private long requested;
+
+		private boolean cancelled;
+
+		@Override
+		public void request(long n) {
+			requested += n;
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package org.fest.assertions.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class JdkHttpResponseTest {
+
+	private HttpServer server;
+	private HttpClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				byte[] body = "café".getBytes("ISO-8859-1");
+				exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=ISO-8859-1");
+				exchange.getResponseHeaders().add("ETag", "foo");
+				exchange.getResponseHeaders().add("Set-Cookie", "session=1234; Path=/; HttpOnly");
+				exchange.getResponseHeaders().add("Set-Cookie", "lang=fr");
+				exchange.sendResponseHeaders(201, body.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(body);
+				out.close();
+			}
+		});
+		server.start();
+		client = HttpClient.newHttpClient();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void test_constructFromJdkHttpResponse() throws Exception {
+		HttpResponse<byte[]> jdkResponse = client.send(request(), HttpResponse.BodyHandlers.ofByteArray());
+
+		Response rsp = new JdkHttpResponse(jdkResponse);
+		assertThat(rsp.getStatusCode()).isEqualTo(201);
+		assertThat(rsp.getContentType()).isEqualTo("text/plain; charset=ISO-8859-1");
+		assertThat(rsp.getHeader("etag")).isEqualTo("foo");
+		assertThat(rsp.getHeaderValues("Set-Cookie")).hasSize(2);
+		assertThat(rsp.getCookies()).hasSize(2);
+		assertThat(rsp.getCookie("session").getValue()).isEqualTo("1234");
+		assertThat(rsp.getCookie("session").isHttpOnly()).isTrue();
+		assertThat(rsp.getBody().asString()).isEqualTo("café");
+	}
+
+	@Test
+	public void test_shouldReadStringAndStreamBodies() throws Exception {
+		Response rsp = new JdkHttpResponse(client.send(request(), HttpResponse.BodyHandlers.ofString()));
+		assertThat(rsp.getBody().asString()).isEqualTo("café");
+
+		rsp = new JdkHttpResponse(client.send(request(), HttpResponse.BodyHandlers.ofInputStream()));
+		assertThat(rsp.getBody().asString()).isEqualTo("café");
+
+		rsp = new JdkHttpResponse(client.send(request(), HttpResponse.BodyHandlers.discarding()));
+		assertThat(rsp.getBody().isEmpty()).isTrue();
+	}
+
+	private HttpRequest request() {
+		return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/")).build();
+	}
+}